@@ -0,0 +1,22 @@
+package com.vitor.demo.cache;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Listagens de catálogo com resposta em cache (ver CatalogResponseCache).
+ */
+public enum Catalog {
+    DISCIPLINA,
+    PROFESSOR,
+    TURMA;
+
+    // Catálogos cuja resposta muda junto com este: a turma embute disciplina e professor
+    Set<Catalog> affected() {
+        return switch (this) {
+            case DISCIPLINA -> EnumSet.of(DISCIPLINA, TURMA);
+            case PROFESSOR -> EnumSet.of(PROFESSOR, TURMA);
+            case TURMA -> EnumSet.of(TURMA);
+        };
+    }
+}
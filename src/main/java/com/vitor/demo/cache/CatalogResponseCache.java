@@ -0,0 +1,187 @@
+package com.vitor.demo.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vitor.demo.datasource.ReadWriteRoutingDataSource;
+import com.vitor.demo.handlers.AuthorizationException;
+import com.vitor.demo.pagination.CursorRequest;
+import com.vitor.demo.security.CallerContextAccessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache das respostas das listagens de catálogo (GET /disciplina, /professor e /turma), que são
+ * as mesmas para todos os usuários. Guarda os bytes finais do JSON e a variante gzip, de modo que
+ * um acerto não consulta o banco nem passa pelo Jackson. Cada escrita no service correspondente
+ * incrementa a versão do catálogo após o commit; as entradas da versão anterior deixam de ser
+ * encontradas e são descartadas pelo limite de memória. O TTL conta da escrita, não do último acesso:
+ * mudanças que não passam por este nó (outra instância, SQL direto) aparecem no máximo após o TTL,
+ * mesmo numa listagem acessada o tempo todo.
+ */
+@Component
+public class CatalogResponseCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "catalogResponses";
+
+    // Abaixo disso o gzip não compensa o cabeçalho e o custo de descompressão
+    private static final int MIN_GZIP_BYTES = 512;
+
+    private final Cache<Key, Body> cache;
+    private final Map<Catalog, AtomicLong> versions = new EnumMap<>(Catalog.class);
+    private final ObjectMapper objectMapper;
+    private final CallerContextAccessor callerContext;
+
+    public CatalogResponseCache(ObjectMapper objectMapper, CallerContextAccessor callerContext,
+                                @Value("${catalog.response-cache.max-bytes:67108864}") long maxBytes,
+                                @Value("${catalog.response-cache.ttl:30m}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.callerContext = callerContext;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Body body) -> body.size())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        for (Catalog catalog : Catalog.values()) {
+            versions.put(catalog, new AtomicLong());
+        }
+    }
+
+    /**
+     * Resposta da página pedida, carregada por {@code loader} apenas em um miss.
+     */
+    public ResponseEntity<byte[]> respond(Catalog catalog, CursorRequest page, HttpServletRequest request,
+                                          Supplier<?> loader) {
+        // Mesma regra dos services: qualquer usuário autenticado pode listar
+        if (callerContext.current() == null) {
+            throw new AuthorizationException("Acesso negado: usuário não autenticado");
+        }
+
+        // Versão lida antes da consulta: uma escrita concorrente deixa esta entrada obsoleta em vez de mascará-la
+        Key key = new Key(catalog, versions.get(catalog).get(), page.getAfter(), page.effectiveLimit(), page.direction());
+        // Entrada compartilhada por todos os usuários: carregada do primário, nunca de uma réplica atrasada
+        Body body = cache.get(key, k -> render(ReadWriteRoutingDataSource.onPrimary(loader)));
+
+        boolean gzip = body.gzip() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        byte[] bytes = gzip ? body.gzip() : body.json();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(bytes.length)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(bytes);
+    }
+
+    /**
+     * Invalida as respostas do catálogo (e das listagens que o embutem) quando a transação atual fizer commit.
+     */
+    public void invalidate(Catalog catalog) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(catalog);
+                }
+            });
+        } else {
+            bump(catalog);
+        }
+    }
+
+    // Escritas que não passam pelos services (ex.: carga direta pelos repositórios)
+    public void invalidateAll() {
+        versions.values().forEach(AtomicLong::incrementAndGet);
+    }
+
+    private void bump(Catalog catalog) {
+        catalog.affected().forEach(affected -> versions.get(affected).incrementAndGet());
+    }
+
+    private Body render(Object value) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            return new Body(json, json.length >= MIN_GZIP_BYTES ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar a listagem", e);
+        }
+    }
+
+    // Comprimido uma vez por entrada, então vale o nível máximo
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] compressed = out.toByteArray();
+        return compressed.length < json.length ? compressed : null;
+    }
+
+    // Accept-Encoding: "gzip", "gzip;q=0.8", "*"; q=0 recusa explicitamente
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.trim().split(";");
+            String coding = parts[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().replace(" ", "");
+                if (param.matches("[qQ]=0(\\.0*)?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    private record Key(Catalog catalog, long version, String after, int limit, Sort.Direction direction) {
+    }
+
+    private record Body(byte[] json, byte[] gzip) {
+
+        int size() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+}
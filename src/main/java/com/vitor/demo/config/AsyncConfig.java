@@ -0,0 +1,22 @@
+package com.vitor.demo.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    /**
+     * Copia o SecurityContext (e com ele o CallerContext) para as tarefas @Async.
+     * O Spring Boot aplica este decorator ao executor padrão, seja o pool de threads
+     * ou o de virtual threads (spring.threads.virtual.enabled=true).
+     */
+    @Bean
+    public TaskDecorator securityContextTaskDecorator() {
+        return DelegatingSecurityContextRunnable::new;
+    }
+}
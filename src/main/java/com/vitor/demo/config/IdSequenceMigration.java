@@ -0,0 +1,83 @@
+package com.vitor.demo.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.TableStructure;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Migração das chaves IDENTITY para sequences em blocos: antes de qualquer INSERT, leva cada sequence
+ * para depois do maior id já existente na tabela. Bancos criados com AUTO_INCREMENT passam a usar
+ * a sequence sem colisão; em bancos novos ou já ajustados não altera nada.
+ */
+@Component
+public class IdSequenceMigration implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceMigration.class);
+
+    // Coluna da tabela que emula a sequence quando o banco não tem sequences (padrão do Hibernate)
+    private static final String TABLE_VALUE_COLUMN = "next_val";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public IdSequenceMigration(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate,
+                               @Value("${app.id.sync-sequences:true}") boolean enabled) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+            if (persister.getGenerator() instanceof SequenceStyleGenerator generator
+                    && persister instanceof AbstractEntityPersister entityPersister) {
+                sync(generator.getDatabaseStructure(), entityPersister.getTableName(),
+                        entityPersister.getIdentifierColumnNames()[0], sessionFactory);
+            }
+        });
+    }
+
+    private void sync(DatabaseStructure structure, String table, String idColumn, SessionFactoryImplementor sessionFactory) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(" + idColumn + ") FROM " + table, Long.class);
+        if (maxId == null) {
+            return;
+        }
+
+        String sequence = structure.getPhysicalName().render();
+        long next = maxId + 1;
+
+        if (structure instanceof TableStructure) {
+            int updated = jdbcTemplate.update(
+                    "UPDATE " + sequence + " SET " + TABLE_VALUE_COLUMN + " = ? WHERE " + TABLE_VALUE_COLUMN + " < ?",
+                    next, next);
+            if (updated > 0) {
+                log.info("Sequence {} ajustada para {} (maior id em {}: {})", sequence, next, table, maxId);
+            }
+            return;
+        }
+
+        // Sequence nativa: consumir um valor é inofensivo e dispensa SQL específico para ler o valor atual
+        String nextValSql = sessionFactory.getJdbcServices().getDialect().getSequenceSupport().getSequenceNextValString(sequence);
+        Long current = jdbcTemplate.queryForObject(nextValSql, Long.class);
+        if (current != null && current <= maxId) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + next);
+            log.info("Sequence {} ajustada para {} (maior id em {}: {})", sequence, next, table, maxId);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.vitor.demo.config;
+
+import com.vitor.demo.models.CacheRegions;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Expõe hits, misses e puts de cada região do cache de segundo nível (ver CacheRegions).
+ * Os contadores vêm das estatísticas do Hibernate (hibernate.generate_statistics) e ficam em zero sem elas.
+ */
+@Component
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : CacheRegions.ALL) {
+            counter(registry, "hibernate.cache.region.requests", region, "hit", CacheRegionStatistics::getHitCount);
+            counter(registry, "hibernate.cache.region.requests", region, "miss", CacheRegionStatistics::getMissCount);
+            FunctionCounter.builder("hibernate.cache.region.puts", statistics, s -> count(s, region, CacheRegionStatistics::getPutCount))
+                    .description("Entradas gravadas na região do cache de segundo nível")
+                    .tag("region", region)
+                    .register(registry);
+        }
+    }
+
+    private void counter(MeterRegistry registry, String name, String region, String result,
+                         ToLongFunction<CacheRegionStatistics> value) {
+        FunctionCounter.builder(name, statistics, s -> count(s, region, value))
+                .description("Leituras na região do cache de segundo nível")
+                .tag("region", region)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    // Regiões de consulta só existem depois do primeiro uso
+    private static double count(Statistics statistics, String region, ToLongFunction<CacheRegionStatistics> value) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        return regionStatistics != null ? value.applyAsLong(regionStatistics) : 0;
+    }
+}
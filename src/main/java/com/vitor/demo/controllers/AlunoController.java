@@ -4,8 +4,15 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.http.ResponseEntity;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.vitor.demo.export.ExportFormat;
+import com.vitor.demo.services.ExportService;
+import com.vitor.demo.pagination.CursorPage;
+import com.vitor.demo.pagination.CursorRequest;
 import com.vitor.demo.services.AlunoService;
 import com.vitor.demo.models.Aluno;
+import com.vitor.demo.projections.AlunoProjection;
+import com.vitor.demo.versioning.ResourceVersion;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import java.net.URI;
 import java.util.List;
@@ -20,17 +27,36 @@ public class AlunoController {
     @Autowired
     private AlunoService alunoService;
 
+    @Autowired
+    private ExportService exportService;
+
     @GetMapping
-    public ResponseEntity<List<Aluno>> findAll() {
-        List<Aluno> alunos = alunoService.findAll();
+    public ResponseEntity<CursorPage<Aluno>> findAll(CursorRequest page) {
+        CursorPage<Aluno> alunos = alunoService.findAll(page);
+        return ResponseEntity.ok(alunos);
+    }
+
+    // Autocompletar: ?q=joao (sem acentos, início de palavra ou aproximado) ou ?q=123.456 (início do CPF)
+    @GetMapping(value = "/search")
+    public ResponseEntity<List<AlunoProjection>> search(@RequestParam(required = false) String q,
+                                                        @RequestParam(required = false) Integer limit) {
+        List<AlunoProjection> alunos = alunoService.search(q, limit);
         return ResponseEntity.ok(alunos);
     }
 
+    // Exportação completa em streaming: ?format=ndjson (padrão), json ou csv
+    @GetMapping(value = "/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        StreamingResponseBody body = exportService.exportAlunos(exportFormat);
+        return exportFormat.toResponse("alunos", body);
+    }
 
     @GetMapping(value = "/{id}")
     public ResponseEntity<Aluno> findById(@PathVariable Long id) {
         Aluno obj = alunoService.findById(id);
-        return ResponseEntity.ok(obj);
+        // Uma linha só: o ETag sai da própria entidade e o Spring responde 304 sem serializar
+        return ResourceVersion.of(obj).ok(obj);
     }
 
     @PostMapping
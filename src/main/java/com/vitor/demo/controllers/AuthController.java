@@ -0,0 +1,31 @@
+package com.vitor.demo.controllers;
+
+import org.springframework.web.bind.annotation.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import com.vitor.demo.services.AuthService;
+import java.util.Map;
+
+// O login (/auth/login) é tratado pelo JWTAuthenticationFilter
+@RestController
+@RequestMapping(value = "/auth")
+public class AuthController {
+    
+    @Autowired
+    private AuthService authService;
+
+    @PostMapping(value = "/refresh")
+    public ResponseEntity<Map<String, Object>> refresh(@RequestBody Map<String, String> body) {
+        Map<String, Object> tokens = authService.refresh(body.get("refreshToken"));
+        return ResponseEntity.ok(tokens);
+    }
+
+    @PostMapping(value = "/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = "Authorization", required = false) String authorization,
+                                       @RequestBody(required = false) Map<String, String> body) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        String refreshToken = body != null ? body.get("refreshToken") : null;
+        authService.logout(accessToken, refreshToken);
+        return ResponseEntity.noContent().build();
+    }
+}
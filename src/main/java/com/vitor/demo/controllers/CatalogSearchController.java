@@ -0,0 +1,25 @@
+package com.vitor.demo.controllers;
+
+import org.springframework.web.bind.annotation.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import com.vitor.demo.dto.CatalogSearchResultDTO;
+import com.vitor.demo.services.CatalogSearchService;
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "/catalogo")
+public class CatalogSearchController {
+
+    @Autowired
+    private CatalogSearchService catalogSearchService;
+
+    // Busca textual: ?q=calculo diferencial, opcionalmente &tipo=disciplina|professor|turma, do mais relevante ao menos
+    @GetMapping(value = "/search")
+    public ResponseEntity<List<CatalogSearchResultDTO>> search(@RequestParam(required = false) String q,
+                                                               @RequestParam(required = false) String tipo,
+                                                               @RequestParam(required = false) Integer limit) {
+        List<CatalogSearchResultDTO> resultados = catalogSearchService.search(q, tipo, limit);
+        return ResponseEntity.ok(resultados);
+    }
+}
@@ -4,14 +4,19 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.http.ResponseEntity;
 import org.springframework.beans.factory.annotation.Autowired;
+import com.vitor.demo.cache.Catalog;
+import com.vitor.demo.cache.CatalogResponseCache;
+import com.vitor.demo.pagination.CursorPage;
+import com.vitor.demo.pagination.CursorRequest;
 import com.vitor.demo.services.DisciplinaService;
 import com.vitor.demo.services.TurmaService;
 import com.vitor.demo.models.Disciplina;
 import com.vitor.demo.models.Turma;
+import com.vitor.demo.versioning.ResourceVersion;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import java.net.URI;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import java.util.List;
 
 @RestController
 @RequestMapping(value = "/disciplina")
@@ -21,25 +26,28 @@ public class DisciplinaController {
     @Autowired
     private DisciplinaService disciplinaService;
 
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+
     @Autowired
     private TurmaService turmaService;
 
+    // Mesma resposta para todos os usuários: servida do cache de JSON/gzip até a próxima escrita
     @GetMapping
-    public ResponseEntity<List<Disciplina>> findAll() {
-        List<Disciplina> discplinas = disciplinaService.findAll();
-        return ResponseEntity.ok(discplinas);
+    public ResponseEntity<byte[]> findAll(CursorRequest page, HttpServletRequest request) {
+        return catalogResponseCache.respond(Catalog.DISCIPLINA, page, request, () -> disciplinaService.findAll(page));
     }
 
     @GetMapping(value = "/{id}")
     public ResponseEntity<Disciplina> findById(@PathVariable Long id) {
         Disciplina obj = disciplinaService.findById(id);
-        return ResponseEntity.ok(obj);
+        return ResourceVersion.of(obj).ok(obj);
     }
 
     // NOVO ENDPOINT: Listar turmas de uma disciplina
     @GetMapping(value = "/{id}/turmas")
-    public ResponseEntity<List<Turma>> findTurmasByDisciplinaId(@PathVariable Long id) {
-        List<Turma> turmas = turmaService.findByDisciplinaId(id);
+    public ResponseEntity<CursorPage<Turma>> findTurmasByDisciplinaId(@PathVariable Long id, CursorRequest page) {
+        CursorPage<Turma> turmas = turmaService.findByDisciplinaId(id, page);
         return ResponseEntity.ok(turmas);
     }
 
@@ -0,0 +1,48 @@
+package com.vitor.demo.controllers;
+
+import org.springframework.web.bind.annotation.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.vitor.demo.dto.ImportProgressDTO;
+import com.vitor.demo.export.ExportFormat;
+import com.vitor.demo.imports.ImportJob;
+import com.vitor.demo.imports.ImportType;
+import com.vitor.demo.services.ImportService;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@RestController
+@RequestMapping(value = "/import")
+public class ImportController {
+
+    @Autowired
+    private ImportService importService;
+
+    // Importação em segundo plano: tipo aluno, professor, disciplina ou matricula; acompanhar por GET /import/{id}
+    @PostMapping(value = "/{tipo}", consumes = "multipart/form-data")
+    public ResponseEntity<ImportProgressDTO> start(@PathVariable String tipo,
+                                                   @RequestParam("file") MultipartFile file,
+                                                   @RequestParam(defaultValue = "false") boolean dryRun) {
+        ImportJob job = importService.start(ImportType.fromParameter(tipo), file, dryRun);
+        URI uri = ServletUriComponentsBuilder.fromCurrentContextPath().path("/import/{id}").buildAndExpand(job.getId()).toUri();
+        return ResponseEntity.accepted().location(uri).body(ImportProgressDTO.of(job));
+    }
+
+    @GetMapping(value = "/{id}")
+    public ResponseEntity<ImportProgressDTO> findById(@PathVariable String id) {
+        ImportJob job = importService.findById(id);
+        return ResponseEntity.ok(ImportProgressDTO.of(job));
+    }
+
+    // Relatório CSV das linhas rejeitadas (linha, erro, registro)
+    @GetMapping(value = "/{id}/erros")
+    public ResponseEntity<StreamingResponseBody> errorReport(@PathVariable String id) {
+        Path relatorio = importService.findErrorReport(id);
+        StreamingResponseBody body = out -> Files.copy(relatorio, out);
+        return ExportFormat.CSV.toResponse("importacao-" + id + "-erros", body);
+    }
+}
@@ -1,15 +1,24 @@
 package com.vitor.demo.controllers;
 
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.vitor.demo.export.ExportFormat;
+import com.vitor.demo.services.ExportService;
+import com.vitor.demo.pagination.CursorPage;
+import com.vitor.demo.pagination.CursorRequest;
 import com.vitor.demo.services.NotaService;
 import com.vitor.demo.models.Nota;
+import com.vitor.demo.projections.NotaProjection;
+import com.vitor.demo.versioning.ConditionalGet;
+import com.vitor.demo.versioning.ResourceVersion;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import java.net.URI;
 import jakarta.validation.Valid;
-import java.util.List;
 
 @RestController
 @RequestMapping(value = "/nota")
@@ -18,29 +27,45 @@ public class NotaController {
     
     @Autowired
     private NotaService notaService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ConditionalGet conditionalGet;
     
     @GetMapping
-    public ResponseEntity<List<Nota>> findAll() {
-        List<Nota> notas = notaService.findAll();
-        return ResponseEntity.ok(notas);
+    public ResponseEntity<CursorPage<Nota>> findAll(CursorRequest page, WebRequest request) {
+        // ETag calculado só das versões: 304 sem carregar nem serializar o corpo
+        return conditionalGet.respond(request, () -> notaService.versionOfAll(page), () -> notaService.findAll(page));
+    }
+
+    // Exportação completa em streaming: ?format=ndjson (padrão), json ou csv
+    @GetMapping(value = "/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        StreamingResponseBody body = exportService.exportNotas(exportFormat);
+        return exportFormat.toResponse("notas", body);
     }
 
     @GetMapping(value = "/{id}")
-    public ResponseEntity<Nota> findById(@PathVariable Long id) {
-        Nota obj = notaService.findById(id);
-        return ResponseEntity.ok(obj);
+    public ResponseEntity<Nota> findById(@PathVariable Long id, WebRequest request) {
+        return conditionalGet.respond(request, () -> notaService.versionById(id), () -> notaService.findById(id));
     }
 
     @GetMapping(value = "/aluno/{alunoId}")
-    public ResponseEntity<List<Nota>> findByAlunoId(@PathVariable Long alunoId) {
-        List<Nota> notas = notaService.findByAlunoId(alunoId);
-        return ResponseEntity.ok(notas);
+    public ResponseEntity<CursorPage<NotaProjection>> findByAlunoId(@PathVariable Long alunoId, CursorRequest page, WebRequest request) {
+        // Boletim do aluno: linhas planas (NotaProjection) em vez do grafo Nota → Turma → Disciplina/Professor
+        return conditionalGet.respond(request,
+                () -> notaService.resumoVersionByAlunoId(alunoId, page),
+                () -> notaService.findResumoByAlunoId(alunoId, page));
     }
 
     @GetMapping(value = "/turma/{turmaId}")
-    public ResponseEntity<List<Nota>> findByTurmaId(@PathVariable Long turmaId) {
-        List<Nota> notas = notaService.findByTurmaId(turmaId);
-        return ResponseEntity.ok(notas);
+    public ResponseEntity<CursorPage<Nota>> findByTurmaId(@PathVariable Long turmaId, CursorRequest page, WebRequest request) {
+        return conditionalGet.respond(request,
+                () -> notaService.versionByTurmaId(turmaId, page),
+                () -> notaService.findByTurmaId(turmaId, page));
     }
 
     @PostMapping
@@ -51,10 +76,11 @@ public class NotaController {
     }
 
     @PutMapping(value = "/{id}")
-    public ResponseEntity<Void> update(@Valid @RequestBody Nota obj, @PathVariable Long id) {
+    public ResponseEntity<Void> update(@Valid @RequestBody Nota obj, @PathVariable Long id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         obj.setId(id);
-        notaService.update(obj);
-        return ResponseEntity.noContent().build();
+        ResourceVersion version = notaService.update(obj, ifMatch);
+        return ResponseEntity.noContent().eTag(version.getEtag()).build();
     }
     
     @DeleteMapping(value = "/{id}")
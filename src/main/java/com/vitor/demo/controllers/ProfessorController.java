@@ -4,14 +4,19 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.http.ResponseEntity;
 import org.springframework.beans.factory.annotation.Autowired;
+import com.vitor.demo.cache.Catalog;
+import com.vitor.demo.cache.CatalogResponseCache;
+import com.vitor.demo.pagination.CursorPage;
+import com.vitor.demo.pagination.CursorRequest;
 import com.vitor.demo.services.ProfessorService;
 import com.vitor.demo.services.TurmaService;
 import com.vitor.demo.models.Professor;
 import com.vitor.demo.models.Turma;
+import com.vitor.demo.versioning.ResourceVersion;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import java.net.URI;
-import java.util.List;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -22,25 +27,28 @@ public class ProfessorController {
     @Autowired
     private ProfessorService professorService;
 
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+
     @Autowired
     private TurmaService turmaService;
 
+    // Mesma resposta para todos os usuários: servida do cache de JSON/gzip até a próxima escrita
     @GetMapping
-    public ResponseEntity<List<Professor>> findAll() {
-        List<Professor> professors = professorService.findAll();
-        return ResponseEntity.ok(professors);
+    public ResponseEntity<byte[]> findAll(CursorRequest page, HttpServletRequest request) {
+        return catalogResponseCache.respond(Catalog.PROFESSOR, page, request, () -> professorService.findAll(page));
     }
 
     @GetMapping(value = "/{id}")
     public ResponseEntity<Professor> findById(@PathVariable Long id) {
         Professor obj = professorService.findById(id);
-        return ResponseEntity.ok(obj);
+        return ResourceVersion.of(obj).ok(obj);
     }
 
     // NOVO ENDPOINT: Listar turmas de um professor
     @GetMapping(value = "/{id}/turmas")
-    public ResponseEntity<List<Turma>> findTurmasByProfessorId(@PathVariable Long id) {
-        List<Turma> turmas = turmaService.findByProfessorId(id);
+    public ResponseEntity<CursorPage<Turma>> findTurmasByProfessorId(@PathVariable Long id, CursorRequest page) {
+        CursorPage<Turma> turmas = turmaService.findByProfessorId(id, page);
         return ResponseEntity.ok(turmas);
     }
 
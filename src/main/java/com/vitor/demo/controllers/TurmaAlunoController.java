@@ -1,15 +1,23 @@
 package com.vitor.demo.controllers;
 
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.vitor.demo.export.ExportFormat;
+import com.vitor.demo.services.ExportService;
+import com.vitor.demo.pagination.CursorPage;
+import com.vitor.demo.pagination.CursorRequest;
 import com.vitor.demo.services.TurmaAlunoService;
 import com.vitor.demo.models.TurmaAluno;
+import com.vitor.demo.versioning.ConditionalGet;
+import com.vitor.demo.versioning.ResourceVersion;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import java.net.URI;
 import jakarta.validation.Valid;
-import java.util.List;
 
 @RestController
 @RequestMapping(value = "/turmaaluno")
@@ -18,29 +26,48 @@ public class TurmaAlunoController {
     
     @Autowired
     private TurmaAlunoService turmaAlunoService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ConditionalGet conditionalGet;
     
     @GetMapping
-    public ResponseEntity<List<TurmaAluno>> findAll() {
-        List<TurmaAluno> matriculas = turmaAlunoService.findAll();
-        return ResponseEntity.ok(matriculas);
+    public ResponseEntity<CursorPage<TurmaAluno>> findAll(CursorRequest page, WebRequest request) {
+        // ETag calculado só das versões: 304 sem carregar nem serializar o corpo
+        return conditionalGet.respond(request,
+                () -> turmaAlunoService.versionOfAll(page),
+                () -> turmaAlunoService.findAll(page));
+    }
+
+    // Exportação completa em streaming: ?format=ndjson (padrão), json ou csv
+    @GetMapping(value = "/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        StreamingResponseBody body = exportService.exportMatriculas(exportFormat);
+        return exportFormat.toResponse("matriculas", body);
     }
 
     @GetMapping(value = "/{id}")
-    public ResponseEntity<TurmaAluno> findById(@PathVariable Long id) {
-        TurmaAluno obj = turmaAlunoService.findById(id);
-        return ResponseEntity.ok(obj);
+    public ResponseEntity<TurmaAluno> findById(@PathVariable Long id, WebRequest request) {
+        return conditionalGet.respond(request,
+                () -> turmaAlunoService.versionById(id),
+                () -> turmaAlunoService.findById(id));
     }
 
     @GetMapping(value = "/aluno/{alunoId}")
-    public ResponseEntity<List<TurmaAluno>> findByAlunoId(@PathVariable Long alunoId) {
-        List<TurmaAluno> matriculas = turmaAlunoService.findByAlunoId(alunoId);
-        return ResponseEntity.ok(matriculas);
+    public ResponseEntity<CursorPage<TurmaAluno>> findByAlunoId(@PathVariable Long alunoId, CursorRequest page, WebRequest request) {
+        return conditionalGet.respond(request,
+                () -> turmaAlunoService.versionByAlunoId(alunoId, page),
+                () -> turmaAlunoService.findByAlunoId(alunoId, page));
     }
 
     @GetMapping(value = "/turma/{turmaId}")
-    public ResponseEntity<List<TurmaAluno>> findByTurmaId(@PathVariable Long turmaId) {
-        List<TurmaAluno> matriculas = turmaAlunoService.findByTurmaId(turmaId);
-        return ResponseEntity.ok(matriculas);
+    public ResponseEntity<CursorPage<TurmaAluno>> findByTurmaId(@PathVariable Long turmaId, CursorRequest page, WebRequest request) {
+        return conditionalGet.respond(request,
+                () -> turmaAlunoService.versionByTurmaId(turmaId, page),
+                () -> turmaAlunoService.findByTurmaId(turmaId, page));
     }
 
     @PostMapping
@@ -51,10 +78,11 @@ public class TurmaAlunoController {
     }
 
     @PutMapping(value = "/{id}")
-    public ResponseEntity<Void> update(@Valid @RequestBody TurmaAluno obj, @PathVariable Long id) {
+    public ResponseEntity<Void> update(@Valid @RequestBody TurmaAluno obj, @PathVariable Long id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         obj.setId(id);
-        turmaAlunoService.update(obj);
-        return ResponseEntity.noContent().build();
+        ResourceVersion version = turmaAlunoService.update(obj, ifMatch);
+        return ResponseEntity.noContent().eTag(version.getEtag()).build();
     }
     
     @DeleteMapping(value = "/{id}")
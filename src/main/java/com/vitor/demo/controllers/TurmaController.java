@@ -1,17 +1,32 @@
 package com.vitor.demo.controllers;
 
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.http.ResponseEntity;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.vitor.demo.export.ExportFormat;
+import com.vitor.demo.services.ExportService;
+import com.vitor.demo.cache.Catalog;
+import com.vitor.demo.cache.CatalogResponseCache;
+import com.vitor.demo.pagination.CursorPage;
+import com.vitor.demo.pagination.CursorRequest;
 import com.vitor.demo.services.TurmaService;
 import com.vitor.demo.services.NotaService;
 import com.vitor.demo.services.TurmaAlunoService;
+import com.vitor.demo.services.TurmaEstatisticaService;
+import com.vitor.demo.dto.NotaBulkItemDTO;
+import com.vitor.demo.dto.NotaBulkResultDTO;
+import com.vitor.demo.dto.TurmaEstatisticaDTO;
 import com.vitor.demo.models.Turma;
-import com.vitor.demo.models.Nota;
+import com.vitor.demo.projections.NotaProjection;
 import com.vitor.demo.models.TurmaAluno;
+import com.vitor.demo.versioning.ConditionalGet;
+import com.vitor.demo.versioning.ResourceVersion;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import java.net.URI;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import java.util.List;
 
@@ -23,39 +38,79 @@ public class TurmaController {
     @Autowired
     private TurmaService turmaService;
 
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+
+    @Autowired
+    private ExportService exportService;
+
     @Autowired
     private NotaService notaService;
 
     @Autowired
     private TurmaAlunoService turmaAlunoService;
 
+    @Autowired
+    private ConditionalGet conditionalGet;
+
+    @Autowired
+    private TurmaEstatisticaService turmaEstatisticaService;
+
+    // Mesma resposta para todos os usuários: servida do cache de JSON/gzip até a próxima escrita
     @GetMapping
-    public ResponseEntity<List<Turma>> findAll() {
-        List<Turma> turmas = turmaService.findAll();
-        return ResponseEntity.ok(turmas);
+    public ResponseEntity<byte[]> findAll(CursorRequest page, HttpServletRequest request) {
+        return catalogResponseCache.respond(Catalog.TURMA, page, request, () -> turmaService.findAll(page));
     }
 
     @GetMapping(value = "/{id}/notas")
-    public ResponseEntity<List<Nota>> findNotasByTurmaId(@PathVariable Long id) {
-        List<Nota> notas = notaService.findByTurmaId(id);
-        return ResponseEntity.ok(notas);
+    public ResponseEntity<CursorPage<NotaProjection>> findNotasByTurmaId(@PathVariable Long id, CursorRequest page, WebRequest request) {
+        // ETag calculado só das versões: 304 sem carregar nem serializar o corpo.
+        // O corpo é a projeção plana da nota, sem repetir turma, professor e ementa em cada linha
+        return conditionalGet.respond(request,
+                () -> notaService.resumoVersionByTurmaId(id, page),
+                () -> notaService.findResumoByTurmaId(id, page));
+    }
+
+    // Média, mínimo, máximo, mediana estimada, desvio padrão e histograma das notas, lidos de uma linha mantida a cada escrita.
+    // medianaEstimada não é a mediana exata (o campo mediana deixou de existir): é interpolada dentro da faixa de
+    // 1 ponto do histograma que contém a nota do meio e pode diferir da mediana real em até 1 ponto
+    @GetMapping(value = "/{id}/estatisticas")
+    public ResponseEntity<TurmaEstatisticaDTO> findEstatisticas(@PathVariable Long id) {
+        TurmaEstatisticaDTO estatisticas = turmaEstatisticaService.findByTurmaId(id);
+        return ResponseEntity.ok(estatisticas);
+    }
+
+    // Lançamento de notas em lote: resultado por linha, linhas inválidas não abortam as demais
+    @PostMapping(value = "/{id}/notas")
+    public ResponseEntity<NotaBulkResultDTO> createNotas(@PathVariable Long id, @RequestBody List<NotaBulkItemDTO> itens) {
+        NotaBulkResultDTO result = notaService.createBulk(id, itens);
+        return ResponseEntity.ok(result);
+    }
+
+    // Exportação completa em streaming: ?format=ndjson (padrão), json ou csv
+    @GetMapping(value = "/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        StreamingResponseBody body = exportService.exportTurmas(exportFormat);
+        return exportFormat.toResponse("turmas", body);
     }
 
     @GetMapping(value = "/{id}")
     public ResponseEntity<Turma> findById(@PathVariable Long id) {
         Turma obj = turmaService.findById(id);
-        return ResponseEntity.ok(obj);
+        // Turma, disciplina e professor vêm do cache de segundo nível; o 304 só evita a serialização
+        return ResourceVersion.of(obj, obj.getDisciplina(), obj.getProfessor()).ok(obj);
     }
 
     @GetMapping(value = "/disciplina/{disciplinaId}")
-    public ResponseEntity<List<Turma>> findByDisciplinaId(@PathVariable Long disciplinaId) {
-        List<Turma> turmas = turmaService.findByDisciplinaId(disciplinaId);
+    public ResponseEntity<CursorPage<Turma>> findByDisciplinaId(@PathVariable Long disciplinaId, CursorRequest page) {
+        CursorPage<Turma> turmas = turmaService.findByDisciplinaId(disciplinaId, page);
         return ResponseEntity.ok(turmas);
     }
 
     @GetMapping(value = "/professor/{professorId}")
-    public ResponseEntity<List<Turma>> findByProfessorId(@PathVariable Long professorId) {
-        List<Turma> turmas = turmaService.findByProfessorId(professorId);
+    public ResponseEntity<CursorPage<Turma>> findByProfessorId(@PathVariable Long professorId, CursorRequest page) {
+        CursorPage<Turma> turmas = turmaService.findByProfessorId(professorId, page);
         return ResponseEntity.ok(turmas);
     }
 
@@ -68,9 +123,10 @@ public class TurmaController {
 
     // NOVO ENDPOINT: Listar alunos de uma turma
     @GetMapping(value = "/{id}/alunos")
-    public ResponseEntity<List<TurmaAluno>> findAlunosByTurmaId(@PathVariable Long id) {
-        List<TurmaAluno> matriculas = turmaAlunoService.findByTurmaId(id);
-        return ResponseEntity.ok(matriculas);
+    public ResponseEntity<CursorPage<TurmaAluno>> findAlunosByTurmaId(@PathVariable Long id, CursorRequest page, WebRequest request) {
+        return conditionalGet.respond(request,
+                () -> turmaAlunoService.versionByTurmaId(id, page),
+                () -> turmaAlunoService.findByTurmaId(id, page));
     }
 
     @PostMapping
@@ -4,6 +4,8 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.http.ResponseEntity;
 import org.springframework.beans.factory.annotation.Autowired;
+import com.vitor.demo.pagination.CursorPage;
+import com.vitor.demo.pagination.CursorRequest;
 import com.vitor.demo.services.UserService;
 import com.vitor.demo.dto.UserCreateDTO;
 import com.vitor.demo.dto.UserUpdateDTO;
@@ -11,7 +13,6 @@ import com.vitor.demo.dto.UserResponseDTO;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import java.net.URI;
 import jakarta.validation.Valid;
-import java.util.List;
 
 @RestController
 @RequestMapping(value = "/user")
@@ -22,8 +23,8 @@ public class UserController {
     private UserService userService;
 
     @GetMapping
-    public ResponseEntity<List<UserResponseDTO>> findAll() {
-        List<UserResponseDTO> users = userService.findAllSafe();
+    public ResponseEntity<CursorPage<UserResponseDTO>> findAll(CursorRequest page) {
+        CursorPage<UserResponseDTO> users = userService.findAllSafe(page);
         return ResponseEntity.ok(users);
     }
 
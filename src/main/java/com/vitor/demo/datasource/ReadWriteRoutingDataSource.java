@@ -0,0 +1,98 @@
+package com.vitor.demo.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Escolhe o pool de cada conexão pela transação que a pede: transações readOnly (inclusive as leituras
+ * padrão dos repositórios do Spring Data) vão para a réplica, todo o resto para o primário.
+ * Fica atrás de um LazyConnectionDataSourceProxy: o Hibernate abre a conexão antes de o Spring
+ * publicar o flag readOnly da transação, então a escolha só pode acontecer no primeiro comando.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final ReadYourWritesTracker readYourWrites;
+    private final LongAdder primary = new LongAdder();
+    private final LongAdder replica = new LongAdder();
+    private final LongAdder sticky = new LongAdder();
+
+    public ReadWriteRoutingDataSource(DataSource primaryDataSource, DataSource replicaDataSource,
+                                      ReadYourWritesTracker readYourWrites) {
+        this.readYourWrites = readYourWrites;
+        setTargetDataSources(Map.of(Target.PRIMARY, primaryDataSource, Target.REPLICA, replicaDataSource));
+        setDefaultTargetDataSource(primaryDataSource);
+    }
+
+    /**
+     * Executa {@code work} com as leituras no primário. Para quem grava o resultado em um cache
+     * compartilhado, que não pode ser preenchido com o atraso da réplica. Deve envolver a transação
+     * inteira: uma conexão já aberta não muda de pool.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_ONLY.remove();
+            } else {
+                PRIMARY_ONLY.set(previous);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWrites.trackCommit();
+            }
+            primary.increment();
+            return Target.PRIMARY;
+        }
+
+        if (Boolean.TRUE.equals(PRIMARY_ONLY.get())) {
+            primary.increment();
+            return Target.PRIMARY;
+        }
+
+        // Usuário que acabou de gravar lê do primário até a réplica alcançar o commit
+        if (readYourWrites.isSticky()) {
+            sticky.increment();
+            primary.increment();
+            return Target.PRIMARY;
+        }
+
+        replica.increment();
+        return Target.REPLICA;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "primary", primary);
+        counter(registry, "replica", replica);
+        FunctionCounter.builder("datasource.routing.read-your-writes", sticky, LongAdder::sum)
+                .description("Leituras readOnly mantidas no primário logo após uma escrita do mesmo usuário")
+                .register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, String target, LongAdder value) {
+        FunctionCounter.builder("datasource.routing.connections", value, LongAdder::sum)
+                .description("Conexões encaminhadas para cada pool")
+                .tag("target", target)
+                .register(registry);
+    }
+}
@@ -0,0 +1,55 @@
+package com.vitor.demo.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vitor.demo.security.CallerContext;
+import com.vitor.demo.security.CallerContextAccessor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Leitura das próprias escritas: por uma janela curta após o commit de uma transação de escrita,
+ * as transações readOnly do mesmo usuário continuam no primário enquanto a réplica se atualiza.
+ * Requisições anônimas não têm janela e leem sempre da réplica.
+ */
+public class ReadYourWritesTracker {
+
+    private static final long MAX_USERS = 100_000;
+
+    private final CallerContextAccessor callerContext;
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(CallerContextAccessor callerContext, Duration window) {
+        this.callerContext = callerContext;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(MAX_USERS)
+                .build();
+    }
+
+    // Chamado ao abrir a conexão de uma transação de escrita; a janela começa no commit
+    void trackCommit() {
+        Long userId = currentUserId();
+        if (userId == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(userId, Boolean.TRUE);
+            }
+        });
+    }
+
+    boolean isSticky() {
+        Long userId = currentUserId();
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+
+    private Long currentUserId() {
+        CallerContext context = callerContext.current();
+        return context != null ? context.getUserId() : null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.vitor.demo.dto;
+
+import com.vitor.demo.cache.Catalog;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogSearchResultDTO {
+    private Catalog tipo;
+    private Long id;
+    private String titulo;
+    // Relevância BM25F; só serve para comparar resultados da mesma consulta
+    private double score;
+}
@@ -0,0 +1,44 @@
+package com.vitor.demo.dto;
+
+import com.vitor.demo.imports.ImportJob;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportProgressDTO {
+    private String id;
+    private String tipo;
+    private boolean dryRun;
+    private String status;
+    private int percentual;
+    private long linhasLidas;
+    private long validas;
+    private long gravadas;
+    private long rejeitadas;
+    private LocalDateTime criadoEm;
+    private LocalDateTime concluidoEm;
+    private String mensagem;
+
+    public static ImportProgressDTO of(ImportJob job) {
+        return new ImportProgressDTO(
+                job.getId(),
+                job.getType().name().toLowerCase(),
+                job.isDryRun(),
+                job.getStatus().name(),
+                job.getPercentual(),
+                job.getLinhasLidas().get(),
+                job.getValidas().get(),
+                job.getGravadas().get(),
+                job.getRejeitadas().get(),
+                job.getCriadoEm(),
+                job.getConcluidoEm(),
+                job.getMensagem());
+    }
+}
@@ -0,0 +1,19 @@
+package com.vitor.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+// Validação por linha fica no NotaService: uma linha inválida não rejeita o lote inteiro
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotaBulkItemDTO {
+    private Long alunoId;
+    private BigDecimal valor;
+    private String observacao;
+}
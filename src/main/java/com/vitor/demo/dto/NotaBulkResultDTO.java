@@ -0,0 +1,32 @@
+package com.vitor.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotaBulkResultDTO {
+    private Long turmaId;
+    private int total;
+    private int criadas;
+    private int rejeitadas;
+    private List<Linha> resultados;
+
+    // Resultado de cada linha, na mesma ordem do lote enviado
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Linha {
+        private int indice;
+        private Long alunoId;
+        private Long id;
+        private String erro;
+    }
+}
@@ -0,0 +1,39 @@
+package com.vitor.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TurmaEstatisticaDTO {
+    private Long turmaId;
+    private long quantidade;
+    // Sem notas, média, mínimo, máximo, mediana estimada e desvio padrão vêm null
+    private BigDecimal media;
+    private BigDecimal minimo;
+    private BigDecimal maximo;
+    // Aproximação da mediana, não o valor exato: interpolação linear dentro da faixa de 1 ponto do histograma
+    // que contém a nota do meio, supondo as notas espalhadas por igual na faixa (erro de até 1 ponto)
+    private BigDecimal medianaEstimada;
+    // Desvio padrão populacional (todas as notas da turma)
+    private BigDecimal desvioPadrao;
+    private List<Faixa> histograma;
+
+    // Notas em [de, ate); a última faixa inclui o 10
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Faixa {
+        private int de;
+        private int ate;
+        private long quantidade;
+    }
+}
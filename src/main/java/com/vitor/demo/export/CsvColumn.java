@@ -0,0 +1,13 @@
+package com.vitor.demo.export;
+
+import java.util.function.Function;
+
+/**
+ * Coluna de uma exportação CSV: cabeçalho e como extrair o valor de cada linha.
+ */
+public record CsvColumn<T>(String header, Function<T, Object> value) {
+
+    public static <T> CsvColumn<T> of(String header, Function<T, Object> value) {
+        return new CsvColumn<>(header, value);
+    }
+}
@@ -0,0 +1,158 @@
+package com.vitor.demo.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Escreve linhas uma a uma no corpo da resposta, sem acumular o resultado em memória.
+ */
+public abstract class ExportWriter<T> {
+
+    public abstract void begin() throws IOException;
+
+    public abstract void write(T row) throws IOException;
+
+    public abstract void flush() throws IOException;
+
+    public abstract void end() throws IOException;
+
+    public static <T> ExportWriter<T> create(ExportFormat format, OutputStream out,
+                                             ObjectMapper objectMapper, List<CsvColumn<T>> columns) throws IOException {
+        return switch (format) {
+            case JSON -> new JsonArrayWriter<>(objectMapper, out);
+            case NDJSON -> new NdjsonWriter<>(objectMapper, out);
+            case CSV -> new CsvWriter<>(columns, out);
+        };
+    }
+
+    // Um único array JSON, gerado de forma incremental
+    private static final class JsonArrayWriter<T> extends ExportWriter<T> {
+
+        private final ObjectMapper objectMapper;
+        private final JsonGenerator generator;
+
+        JsonArrayWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+            this.objectMapper = objectMapper;
+            this.generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        }
+
+        @Override
+        public void begin() throws IOException {
+            generator.writeStartArray();
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            objectMapper.writeValue(generator, row);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void end() throws IOException {
+            generator.writeEndArray();
+            generator.flush();
+        }
+    }
+
+    // Um objeto JSON por linha
+    private static final class NdjsonWriter<T> extends ExportWriter<T> {
+
+        private final ObjectMapper objectMapper;
+        private final OutputStream out;
+
+        NdjsonWriter(ObjectMapper objectMapper, OutputStream out) {
+            this.objectMapper = objectMapper;
+            this.out = out;
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            out.write(objectMapper.writeValueAsBytes(row));
+            out.write('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void end() throws IOException {
+            out.flush();
+        }
+    }
+
+    // CSV (RFC 4180) com cabeçalho
+    private static final class CsvWriter<T> extends ExportWriter<T> {
+
+        private final List<CsvColumn<T>> columns;
+        private final Writer writer;
+
+        CsvWriter(List<CsvColumn<T>> columns, OutputStream out) {
+            this.columns = columns;
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void begin() throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeField(columns.get(i).header());
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = columns.get(i).value().apply(row);
+                writeField(value == null ? "" : value.toString());
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void end() throws IOException {
+            writer.flush();
+        }
+
+        private void writeField(String value) throws IOException {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.vitor.demo.handlers;
+
+// Escritas concorrentes na mesma linha esgotaram as tentativas de merge (409)
+public class ConcurrentUpdateException extends RuntimeException {
+
+    private final String currentEtag;
+
+    public ConcurrentUpdateException(String message, String currentEtag) {
+        super(message);
+        this.currentEtag = currentEtag;
+    }
+
+    public String getCurrentEtag() {
+        return currentEtag;
+    }
+}
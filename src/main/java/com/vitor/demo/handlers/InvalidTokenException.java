@@ -0,0 +1,7 @@
+package com.vitor.demo.handlers;
+
+public class InvalidTokenException extends RuntimeException {
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+}
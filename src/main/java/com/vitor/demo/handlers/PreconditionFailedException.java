@@ -0,0 +1,16 @@
+package com.vitor.demo.handlers;
+
+// If-Match não confere com a versão atual do recurso (412)
+public class PreconditionFailedException extends RuntimeException {
+
+    private final String currentEtag;
+
+    public PreconditionFailedException(String message, String currentEtag) {
+        super(message);
+        this.currentEtag = currentEtag;
+    }
+
+    public String getCurrentEtag() {
+        return currentEtag;
+    }
+}
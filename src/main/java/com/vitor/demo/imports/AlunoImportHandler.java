@@ -0,0 +1,79 @@
+package com.vitor.demo.imports;
+
+import com.vitor.demo.models.Aluno;
+import com.vitor.demo.repositories.AlunoRepository;
+import com.vitor.demo.search.AlunoSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// CPF e nome únicos, como no AlunoService
+@Component
+public class AlunoImportHandler implements ImportHandler<Aluno> {
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private AlunoSearchIndex alunoSearchIndex;
+
+    @Override
+    public ImportType type() {
+        return ImportType.ALUNO;
+    }
+
+    @Override
+    public Aluno parse(List<String> campos) {
+        String nome = ImportHandler.required(campos, 0, "Nome");
+        if (nome.length() < 2) {
+            throw new ImportRowException("Nome deve ter ao menos 2 caracteres");
+        }
+        ImportHandler.maxLength(nome, 100, "Nome");
+        String cpf = ImportHandler.cpf(ImportHandler.required(campos, 1, "CPF"));
+        return new Aluno(null, nome, cpf);
+    }
+
+    @Override
+    public List<String> uniqueKeys(Aluno row) {
+        return List.of("cpf:" + row.getCpf(), "nome:" + row.getNome());
+    }
+
+    @Override
+    public Map<Integer, String> conflicts(List<Aluno> rows) {
+        Set<String> cpfs = new HashSet<>();
+        Set<String> nomes = new HashSet<>();
+        for (Aluno aluno : rows) {
+            cpfs.add(aluno.getCpf());
+            nomes.add(aluno.getNome());
+        }
+
+        Set<String> cpfsExistentes = new HashSet<>(alunoRepository.findExistingCpfs(cpfs));
+        Set<String> nomesExistentes = new HashSet<>(alunoRepository.findExistingNomes(nomes));
+
+        Map<Integer, String> conflicts = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Aluno aluno = rows.get(i);
+            if (cpfsExistentes.contains(aluno.getCpf())) {
+                conflicts.put(i, "CPF já cadastrado: " + aluno.getCpf());
+            } else if (nomesExistentes.contains(aluno.getNome())) {
+                conflicts.put(i, "Nome já cadastrado: " + aluno.getNome());
+            }
+        }
+        return conflicts;
+    }
+
+    @Override
+    public Object toEntity(Aluno row) {
+        return new Aluno(null, row.getNome(), row.getCpf());
+    }
+
+    @Override
+    public void written(List<Object> entities) {
+        entities.forEach(entity -> alunoSearchIndex.putAfterCommit((Aluno) entity));
+    }
+}
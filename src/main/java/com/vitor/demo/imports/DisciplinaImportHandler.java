@@ -0,0 +1,70 @@
+package com.vitor.demo.imports;
+
+import com.vitor.demo.cache.Catalog;
+import com.vitor.demo.models.Disciplina;
+import com.vitor.demo.search.CatalogSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class DisciplinaImportHandler implements ImportHandler<Disciplina> {
+
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @Override
+    public ImportType type() {
+        return ImportType.DISCIPLINA;
+    }
+
+    @Override
+    public Catalog catalog() {
+        return Catalog.DISCIPLINA;
+    }
+
+    @Override
+    public Disciplina parse(List<String> campos) {
+        String nome = ImportHandler.required(campos, 0, "Nome");
+        if (nome.length() < 2) {
+            throw new ImportRowException("Nome deve ter ao menos 2 caracteres");
+        }
+        ImportHandler.maxLength(nome, 100, "Nome");
+
+        String carga = ImportHandler.required(campos, 1, "Carga horária");
+        int cargaHoraria;
+        try {
+            cargaHoraria = Integer.parseInt(carga);
+        } catch (NumberFormatException e) {
+            throw new ImportRowException("Carga horária inválida: " + carga);
+        }
+        if (cargaHoraria <= 0) {
+            throw new ImportRowException("Carga horária deve ser positiva");
+        }
+
+        return new Disciplina(null, nome, cargaHoraria, ImportHandler.field(campos, 2));
+    }
+
+    // Disciplinas não têm campo único no cadastro individual
+    @Override
+    public List<String> uniqueKeys(Disciplina row) {
+        return List.of();
+    }
+
+    @Override
+    public Map<Integer, String> conflicts(List<Disciplina> rows) {
+        return Map.of();
+    }
+
+    @Override
+    public Object toEntity(Disciplina row) {
+        return new Disciplina(null, row.getNome(), row.getCargaHoraria(), row.getEmenta());
+    }
+
+    @Override
+    public void written(List<Object> entities) {
+        entities.forEach(entity -> catalogSearchIndex.putAfterCommit((Disciplina) entity));
+    }
+}
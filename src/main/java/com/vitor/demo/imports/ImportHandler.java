@@ -0,0 +1,83 @@
+package com.vitor.demo.imports;
+
+import com.vitor.demo.cache.Catalog;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Regras de um tipo de importação. {@link #parse} não acessa o banco nem estado compartilhado
+ * e roda em paralelo no pool de validação; as demais etapas rodam na thread da importação.
+ */
+public interface ImportHandler<T> {
+
+    ImportType type();
+
+    /**
+     * Converte e valida os campos de uma linha (formato, obrigatórios, tamanhos).
+     * Lança ImportRowException com o motivo da rejeição.
+     */
+    T parse(List<String> campos);
+
+    /**
+     * Chaves que não podem se repetir dentro de um bloco (ex.: "cpf:12345678901"). Entre blocos a repetição
+     * aparece em {@link #conflicts}, já que os blocos anteriores estão gravados.
+     */
+    List<String> uniqueKeys(T row);
+
+    /**
+     * Consulta o banco em conjunto para as linhas do bloco e devolve, por índice, o motivo das que não podem ser gravadas.
+     */
+    Map<Integer, String> conflicts(List<T> rows);
+
+    /**
+     * Entidade nova a persistir, a cada chamada (chamado só para as linhas sem conflito). Se a gravação do bloco
+     * falhar, as linhas são gravadas de novo uma a uma, com novas entidades.
+     */
+    Object toEntity(T row);
+
+    /**
+     * Chamado na transação do bloco, depois da gravação, com as entidades já com id.
+     */
+    default void written(List<Object> entities) {
+    }
+
+    /**
+     * Listagem de catálogo em cache que as linhas gravadas alteram (null se nenhuma).
+     */
+    default Catalog catalog() {
+        return null;
+    }
+
+    static String field(List<String> campos, int index) {
+        if (index >= campos.size()) {
+            return null;
+        }
+        String value = campos.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    static String required(List<String> campos, int index, String name) {
+        String value = field(campos, index);
+        if (value == null) {
+            throw new ImportRowException(name + " é obrigatório");
+        }
+        return value;
+    }
+
+    static String maxLength(String value, int max, String name) {
+        if (value != null && value.length() > max) {
+            throw new ImportRowException(name + " deve ter no máximo " + max + " caracteres");
+        }
+        return value;
+    }
+
+    // CPF com ou sem máscara; armazenado só com os 11 dígitos, como no cadastro individual
+    static String cpf(String value) {
+        String digits = value.replace(".", "").replace("-", "");
+        if (digits.length() != 11 || !digits.chars().allMatch(Character::isDigit)) {
+            throw new ImportRowException("CPF inválido: " + value);
+        }
+        return digits;
+    }
+}
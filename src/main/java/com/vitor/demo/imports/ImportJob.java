@@ -0,0 +1,61 @@
+package com.vitor.demo.imports;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estado de uma importação em andamento ou concluída; os contadores são lidos pela consulta de progresso
+ * enquanto a thread da importação os atualiza.
+ */
+@Getter
+public class ImportJob {
+
+    public enum Status { PENDENTE, PROCESSANDO, CONCLUIDO, FALHOU }
+
+    private final String id = UUID.randomUUID().toString();
+    private final ImportType type;
+    private final boolean dryRun;
+    private final long tamanhoBytes;
+    private final Path arquivo;
+    private final Path relatorioErros;
+    private final LocalDateTime criadoEm = LocalDateTime.now();
+
+    private final AtomicLong bytesLidos = new AtomicLong();
+    private final AtomicLong linhasLidas = new AtomicLong();
+    private final AtomicLong validas = new AtomicLong();
+    private final AtomicLong gravadas = new AtomicLong();
+    private final AtomicLong rejeitadas = new AtomicLong();
+
+    @Setter
+    private volatile Status status = Status.PENDENTE;
+
+    @Setter
+    private volatile LocalDateTime concluidoEm;
+
+    @Setter
+    private volatile String mensagem;
+
+    public ImportJob(ImportType type, boolean dryRun, long tamanhoBytes, Path arquivo, Path relatorioErros) {
+        this.type = type;
+        this.dryRun = dryRun;
+        this.tamanhoBytes = tamanhoBytes;
+        this.arquivo = arquivo;
+        this.relatorioErros = relatorioErros;
+    }
+
+    public int getPercentual() {
+        if (status == Status.CONCLUIDO) {
+            return 100;
+        }
+        return tamanhoBytes > 0 ? (int) Math.min(99, bytesLidos.get() * 100 / tamanhoBytes) : 0;
+    }
+
+    public boolean isFinished() {
+        return status == Status.CONCLUIDO || status == Status.FALHOU;
+    }
+}
@@ -0,0 +1,10 @@
+package com.vitor.demo.imports;
+
+/**
+ * Linha rejeitada na validação; a mensagem vai para o relatório de erros.
+ */
+public class ImportRowException extends RuntimeException {
+    public ImportRowException(String message) {
+        super(message);
+    }
+}
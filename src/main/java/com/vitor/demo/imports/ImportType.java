@@ -0,0 +1,30 @@
+package com.vitor.demo.imports;
+
+import com.vitor.demo.handlers.BusinessException;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Locale;
+
+@Getter
+public enum ImportType {
+    ALUNO(List.of("nome", "cpf")),
+    PROFESSOR(List.of("nome", "email", "telefone")),
+    DISCIPLINA(List.of("nome", "carga_horaria", "ementa")),
+    MATRICULA(List.of("turma_id", "aluno_cpf", "data_ingresso"));
+
+    // Cabeçalho esperado na primeira linha do arquivo, nesta ordem
+    private final List<String> columns;
+
+    ImportType(List<String> columns) {
+        this.columns = columns;
+    }
+
+    public static ImportType fromParameter(String value) {
+        try {
+            return ImportType.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new BusinessException("Tipo de importação inválido: use aluno, professor, disciplina ou matricula");
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.vitor.demo.imports;
+
+import com.vitor.demo.models.TurmaAluno;
+import com.vitor.demo.projections.AlunoCpfProjection;
+import com.vitor.demo.projections.MatriculaKeyProjection;
+import com.vitor.demo.repositories.AlunoRepository;
+import com.vitor.demo.repositories.TurmaAlunoRepository;
+import com.vitor.demo.repositories.TurmaRepository;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Aluno identificado pelo CPF (importado antes pelo arquivo de alunos); uma matrícula ativa por aluno e turma
+@Component
+public class MatriculaImportHandler implements ImportHandler<MatriculaImportHandler.Row> {
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private TurmaAlunoRepository turmaAlunoRepository;
+
+    @Getter
+    @Setter
+    public static class Row {
+        private final Long turmaId;
+        private final String alunoCpf;
+        private final LocalDate dataIngresso;
+        private Long alunoId;
+
+        Row(Long turmaId, String alunoCpf, LocalDate dataIngresso) {
+            this.turmaId = turmaId;
+            this.alunoCpf = alunoCpf;
+            this.dataIngresso = dataIngresso;
+        }
+    }
+
+    @Override
+    public ImportType type() {
+        return ImportType.MATRICULA;
+    }
+
+    @Override
+    public Row parse(List<String> campos) {
+        String turma = ImportHandler.required(campos, 0, "Turma");
+        Long turmaId;
+        try {
+            turmaId = Long.valueOf(turma);
+        } catch (NumberFormatException e) {
+            throw new ImportRowException("Turma inválida: " + turma);
+        }
+
+        String cpf = ImportHandler.cpf(ImportHandler.required(campos, 1, "CPF do aluno"));
+
+        String data = ImportHandler.field(campos, 2);
+        LocalDate dataIngresso;
+        try {
+            dataIngresso = data != null ? LocalDate.parse(data) : LocalDate.now();
+        } catch (DateTimeParseException e) {
+            throw new ImportRowException("Data de ingresso inválida (use AAAA-MM-DD): " + data);
+        }
+
+        return new Row(turmaId, cpf, dataIngresso);
+    }
+
+    @Override
+    public List<String> uniqueKeys(Row row) {
+        return List.of(row.getTurmaId() + ":" + row.getAlunoCpf());
+    }
+
+    @Override
+    public Map<Integer, String> conflicts(List<Row> rows) {
+        Set<String> cpfs = new HashSet<>();
+        Set<Long> turmaIds = new HashSet<>();
+        for (Row row : rows) {
+            cpfs.add(row.getAlunoCpf());
+            turmaIds.add(row.getTurmaId());
+        }
+
+        Map<String, Long> alunoIds = new HashMap<>();
+        for (AlunoCpfProjection aluno : alunoRepository.findIdsByCpf(cpfs)) {
+            alunoIds.put(aluno.getCpf(), aluno.getId());
+        }
+        Set<Long> turmasExistentes = new HashSet<>(turmaRepository.findExistingIds(turmaIds));
+
+        Set<String> matriculasAtivas = new HashSet<>();
+        if (!alunoIds.isEmpty()) {
+            for (MatriculaKeyProjection key : turmaAlunoRepository.findActiveKeysByAlunoIds(alunoIds.values())) {
+                matriculasAtivas.add(key.getTurmaId() + ":" + key.getAlunoId());
+            }
+        }
+
+        Map<Integer, String> conflicts = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            Long alunoId = alunoIds.get(row.getAlunoCpf());
+            if (alunoId == null) {
+                conflicts.put(i, "Aluno não encontrado com CPF: " + row.getAlunoCpf());
+            } else if (!turmasExistentes.contains(row.getTurmaId())) {
+                conflicts.put(i, "Turma não encontrada com id: " + row.getTurmaId());
+            } else if (matriculasAtivas.contains(row.getTurmaId() + ":" + alunoId)) {
+                conflicts.put(i, "Este aluno já possui uma matrícula ativa nesta turma.");
+            } else {
+                row.setAlunoId(alunoId);
+            }
+        }
+        return conflicts;
+    }
+
+    @Override
+    public Object toEntity(Row row) {
+        return new TurmaAluno(null,
+                alunoRepository.getReferenceById(row.getAlunoId()),
+                turmaRepository.getReferenceById(row.getTurmaId()),
+                row.getDataIngresso(),
+                true);
+    }
+}
@@ -0,0 +1,66 @@
+package com.vitor.demo.imports;
+
+import com.vitor.demo.cache.Catalog;
+import com.vitor.demo.models.Professor;
+import com.vitor.demo.search.CatalogSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class ProfessorImportHandler implements ImportHandler<Professor> {
+
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @Override
+    public ImportType type() {
+        return ImportType.PROFESSOR;
+    }
+
+    @Override
+    public Catalog catalog() {
+        return Catalog.PROFESSOR;
+    }
+
+    @Override
+    public Professor parse(List<String> campos) {
+        String nome = ImportHandler.required(campos, 0, "Nome");
+        if (nome.length() < 2) {
+            throw new ImportRowException("Nome deve ter ao menos 2 caracteres");
+        }
+        ImportHandler.maxLength(nome, 100, "Nome");
+
+        String email = ImportHandler.required(campos, 1, "Email");
+        if (email.length() < 5 || email.indexOf('@') < 1) {
+            throw new ImportRowException("Email inválido: " + email);
+        }
+        ImportHandler.maxLength(email, 100, "Email");
+
+        String telefone = ImportHandler.maxLength(ImportHandler.field(campos, 2), 20, "Telefone");
+        return new Professor(null, nome, email, telefone);
+    }
+
+    // Professores não têm campo único no cadastro individual
+    @Override
+    public List<String> uniqueKeys(Professor row) {
+        return List.of();
+    }
+
+    @Override
+    public Map<Integer, String> conflicts(List<Professor> rows) {
+        return Map.of();
+    }
+
+    @Override
+    public Object toEntity(Professor row) {
+        return new Professor(null, row.getNome(), row.getEmail(), row.getTelefone());
+    }
+
+    @Override
+    public void written(List<Object> entities) {
+        entities.forEach(entity -> catalogSearchIndex.putAfterCommit((Professor) entity));
+    }
+}
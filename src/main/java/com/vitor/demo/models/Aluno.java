@@ -1,5 +1,6 @@
 package com.vitor.demo.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
@@ -10,13 +11,15 @@ import lombok.*;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
 @Entity
-@Table(name = "aluno")
-public class Aluno {
+@Table(name = "aluno", indexes = @Index(name = "ix_aluno_nome", columnList = "nome"))
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class Aluno extends VersionedEntity {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "aluno_seq")
+    @SequenceGenerator(name = "aluno_seq", sequenceName = "aluno_seq", allocationSize = IdBlocks.SIZE)
     @EqualsAndHashCode.Include
     private Long id;
 
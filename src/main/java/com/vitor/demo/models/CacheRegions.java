@@ -0,0 +1,26 @@
+package com.vitor.demo.models;
+
+import java.util.List;
+
+/**
+ * Regiões do cache de segundo nível do Hibernate. Os limites de cada uma ficam em hibernate-cache.conf.
+ */
+public final class CacheRegions {
+
+    public static final String DISCIPLINA = "disciplina";
+    public static final String PROFESSOR = "professor";
+    public static final String TURMA = "turma";
+
+    // Resultados das listagens de turmas por disciplina e por professor
+    public static final String TURMA_CONSULTAS = "turma-consultas";
+
+    // Regiões padrão do Hibernate para o cache de consultas
+    public static final String QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    public static final List<String> ALL = List.of(
+            DISCIPLINA, PROFESSOR, TURMA, TURMA_CONSULTAS, QUERY_RESULTS, UPDATE_TIMESTAMPS);
+
+    private CacheRegions() {
+    }
+}
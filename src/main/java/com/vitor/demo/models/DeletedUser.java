@@ -0,0 +1,25 @@
+package com.vitor.demo.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@Table(name = "usuario_excluido", indexes = @Index(name = "ix_usuario_excluido_expira_em", columnList = "expira_em"))
+public class DeletedUser {
+
+    // Id do usuário excluído; a linha de users já não existe
+    @Id
+    @Column(name = "user_id")
+    @EqualsAndHashCode.Include
+    private Long userId;
+
+    // Após a expiração do último token emitido o registro pode ser descartado
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+}
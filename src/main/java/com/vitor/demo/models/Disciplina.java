@@ -1,22 +1,29 @@
 package com.vitor.demo.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
 @Entity
 @Table(name = "disciplina")
-public class Disciplina {
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.DISCIPLINA)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class Disciplina extends VersionedEntity {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "disciplina_seq")
+    @SequenceGenerator(name = "disciplina_seq", sequenceName = "disciplina_seq", allocationSize = IdBlocks.SIZE)
     @EqualsAndHashCode.Include
     private Long id;
 
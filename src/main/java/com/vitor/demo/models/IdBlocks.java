@@ -0,0 +1,15 @@
+package com.vitor.demo.models;
+
+/**
+ * Geração de ids em blocos (otimizador pooled-lo): cada instância reserva {@link #SIZE} ids por ida
+ * ao banco e os distribui em memória. Sem IDENTITY, o Hibernate consegue agrupar os INSERTs em lote.
+ * Em bancos sem sequences (MySQL) o Hibernate emula cada sequence com uma tabela de uma linha.
+ */
+public final class IdBlocks {
+
+    // Deve acompanhar hibernate.jdbc.batch_size
+    public static final int SIZE = 50;
+
+    private IdBlocks() {
+    }
+}
@@ -9,21 +9,39 @@ import java.math.BigDecimal;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
 @Entity
-@Table(name = "nota")
-public class Nota {
+@Table(name = "nota", indexes = {
+    @Index(name = "ix_nota_aluno_id", columnList = "aluno_id, id"),
+    @Index(name = "ix_nota_turma_id", columnList = "turma_id, id")
+})
+@NamedEntityGraph(
+    name = Nota.GRAPH_DETALHE,
+    attributeNodes = {
+        @NamedAttributeNode("aluno"),
+        @NamedAttributeNode(value = "turma", subgraph = "turma")
+    },
+    subgraphs = @NamedSubgraph(name = "turma", attributeNodes = {
+        @NamedAttributeNode("disciplina"),
+        @NamedAttributeNode("professor")
+    })
+)
+public class Nota extends VersionedEntity {
+
+    // Nota com aluno e turma (incluindo disciplina e professor) em uma única consulta
+    public static final String GRAPH_DETALHE = "Nota.detalhe";
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "nota_seq")
+    @SequenceGenerator(name = "nota_seq", sequenceName = "nota_seq", allocationSize = IdBlocks.SIZE)
     @EqualsAndHashCode.Include
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "aluno_id", nullable = false)
     private Aluno aluno;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "turma_id", nullable = false)
     private Turma turma;
 
@@ -0,0 +1,34 @@
+package com.vitor.demo.models;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Período letivo "AAAA.N" (ex.: "2025.1") gravado como SMALLINT AAAAN (20251): ordenável e indexável
+ * sem comparar texto. N = 0 indica turma anual. Só aceita esse formato: o texto livre gravado antes da V4
+ * foi convertido lá (fora do formato vira AAAA0) e não volta a ser aceito pela API.
+ */
+@Converter
+public class PeriodoConverter implements AttributeConverter<String, Short> {
+
+    public static final String FORMATO = "\\d{4}\\.\\d";
+
+    @Override
+    public Short convertToDatabaseColumn(String periodo) {
+        if (periodo == null) {
+            return null;
+        }
+        if (!periodo.matches(FORMATO)) {
+            throw new IllegalArgumentException("Período inválido: " + periodo);
+        }
+        return (short) (Integer.parseInt(periodo.substring(0, 4)) * 10 + (periodo.charAt(5) - '0'));
+    }
+
+    @Override
+    public String convertToEntityAttribute(Short codigo) {
+        if (codigo == null) {
+            return null;
+        }
+        return (codigo / 10) + "." + (codigo % 10);
+    }
+}
@@ -0,0 +1,41 @@
+package com.vitor.demo.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@Table(name = "refresh_token", indexes = {
+    @Index(name = "ix_refresh_token_user_id", columnList = "user_id, revogado"),
+    @Index(name = "ix_refresh_token_expira_em", columnList = "expira_em")
+})
+public class RefreshToken {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_token_seq")
+    @SequenceGenerator(name = "refresh_token_seq", sequenceName = "refresh_token_seq", allocationSize = IdBlocks.SIZE)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    // Apenas o SHA-256 do token é persistido
+    @Column(name = "token_hash", length = 64, nullable = false, unique = true)
+    private String tokenHash;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime criadoEm;
+
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+
+    @Column(name = "revogado", nullable = false)
+    private Boolean revogado = false;
+}
@@ -0,0 +1,25 @@
+package com.vitor.demo.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@Table(name = "token_revogado", indexes = @Index(name = "ix_token_revogado_expira_em", columnList = "expira_em"))
+public class RevokedToken {
+    
+    // Identificador (jti) do access token revogado
+    @Id
+    @Column(name = "jti", length = 36)
+    @EqualsAndHashCode.Include
+    private String jti;
+
+    // Após a expiração do token o registro pode ser descartado
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+}
@@ -1,30 +1,50 @@
 package com.vitor.demo.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Size;
+import jakarta.validation.constraints.Pattern;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
 @Entity
-@Table(name = "turma")
-public class Turma {
+@Table(name = "turma", indexes = {
+    @Index(name = "ix_turma_disciplina_id", columnList = "disciplina_id, id"),
+    @Index(name = "ix_turma_professor_id", columnList = "professor_id, id"),
+    @Index(name = "ix_turma_periodo", columnList = "periodo")
+})
+@NamedEntityGraph(
+    name = Turma.GRAPH_DETALHE,
+    attributeNodes = {
+        @NamedAttributeNode("disciplina"),
+        @NamedAttributeNode("professor")
+    }
+)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.TURMA)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class Turma extends VersionedEntity {
+
+    // Turma com disciplina e professor em uma única consulta
+    public static final String GRAPH_DETALHE = "Turma.detalhe";
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "turma_seq")
+    @SequenceGenerator(name = "turma_seq", sequenceName = "turma_seq", allocationSize = IdBlocks.SIZE)
     @EqualsAndHashCode.Include
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "disciplina_id", nullable = false)
     private Disciplina disciplina;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "professor_id", nullable = false)
     private Professor professor;
 
@@ -32,9 +52,12 @@ public class Turma {
     @NotNull
     private Integer ano;
 
-    @Column(name = "periodo", length = 10, nullable = false)
+    // Exposto como "2025.1", gravado como SMALLINT 20251 (ver PeriodoConverter). Antes da V4 era texto livre
+    // (2 a 10 caracteres): a API agora responde 400 para o que não estiver no formato AAAA.N, e as turmas já
+    // gravadas fora dele foram migradas pela V4 para AAAA.0 (turma anual), com o ano da própria turma
+    @Column(name = "periodo", nullable = false)
+    @Convert(converter = PeriodoConverter.class)
     @NotNull
-    @NotEmpty
-    @Size(min = 2, max = 10)
+    @Pattern(regexp = PeriodoConverter.FORMATO, message = "Período deve estar no formato AAAA.N (ex.: 2025.1)")
     private String periodo;
 }
\ No newline at end of file
@@ -9,21 +9,39 @@ import java.time.LocalDate;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
 @Entity
-@Table(name = "turma_aluno")
-public class TurmaAluno {
+@Table(name = "turma_aluno", indexes = {
+    @Index(name = "ix_turma_aluno_aluno_turma_ativo", columnList = "aluno_id, turma_id, ativo"),
+    @Index(name = "ix_turma_aluno_turma_id", columnList = "turma_id, id")
+})
+@NamedEntityGraph(
+    name = TurmaAluno.GRAPH_DETALHE,
+    attributeNodes = {
+        @NamedAttributeNode("aluno"),
+        @NamedAttributeNode(value = "turma", subgraph = "turma")
+    },
+    subgraphs = @NamedSubgraph(name = "turma", attributeNodes = {
+        @NamedAttributeNode("disciplina"),
+        @NamedAttributeNode("professor")
+    })
+)
+public class TurmaAluno extends VersionedEntity {
+
+    // Matrícula com aluno e turma (incluindo disciplina e professor) em uma única consulta
+    public static final String GRAPH_DETALHE = "TurmaAluno.detalhe";
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "turma_aluno_seq")
+    @SequenceGenerator(name = "turma_aluno_seq", sequenceName = "turma_aluno_seq", allocationSize = IdBlocks.SIZE)
     @EqualsAndHashCode.Include
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "aluno_id", nullable = false)
     private Aluno aluno;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "turma_id", nullable = false)
     private Turma turma;
 
@@ -21,7 +21,8 @@ import java.util.Set;
 public class User {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = IdBlocks.SIZE)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -45,8 +46,13 @@ public class User {
     @Column(name = "ativo", nullable = false)
     private Boolean ativo = true;
 
+    // Incrementado quando os tokens já emitidos para o usuário devem deixar de valer
+    @Column(name = "token_epoch", nullable = false)
+    private Integer tokenEpoch = 0;
+
     @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "user_profiles", joinColumns = @JoinColumn(name = "user_id"))
+    @CollectionTable(name = "user_profiles", joinColumns = @JoinColumn(name = "user_id"),
+        indexes = @Index(name = "ix_user_profiles_user_id", columnList = "user_id, profile"))
     @Column(name = "profile")
     @Enumerated(EnumType.STRING)
     private Set<ProfileEnum> profiles = new HashSet<>();
@@ -64,4 +70,9 @@ public class User {
     public void addProfile(ProfileEnum profile) {
         this.profiles.add(profile);
     }
+
+    // Invalida todos os tokens emitidos até agora
+    public void incrementTokenEpoch() {
+        this.tokenEpoch = (this.tokenEpoch == null ? 0 : this.tokenEpoch) + 1;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.vitor.demo.models;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Versão e data da última alteração, mantidas pelo Hibernate a cada escrita.
+ * Os ETags e o Last-Modified das respostas são calculados a partir delas (ver ResourceVersion),
+ * sem carregar as entidades. Somente leitura no JSON: o cliente não define a versão.
+ */
+@Getter
+@Setter
+@MappedSuperclass
+@JsonPropertyOrder("id")
+public abstract class VersionedEntity {
+
+    @Version
+    @Column(name = "versao", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long versao;
+
+    @UpdateTimestamp
+    @Column(name = "atualizado_em", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime atualizadoEm;
+
+    public abstract Long getId();
+}
@@ -0,0 +1,44 @@
+package com.vitor.demo.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de resultados por cursor: {@code nextCursor} vai no parâmetro {@code after}
+ * da próxima requisição e é nulo na última página.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+    private final boolean hasMore;
+
+    public static <T> CursorPage<T> of(Window<T> window, CursorRequest request, Function<T, Long> idOf) {
+        return of(window.getContent(), window.hasNext(), request.direction(), idOf);
+    }
+
+    public static <T> CursorPage<T> of(List<T> items, boolean hasMore, Sort.Direction direction, Function<T, Long> idOf) {
+        String next = hasMore && !items.isEmpty()
+                ? CursorRequest.encode(direction, idOf.apply(items.get(items.size() - 1)))
+                : null;
+        return new CursorPage<>(items, next, hasMore);
+    }
+
+    // Consultas sem Window leem limite + 1 linhas (CursorRequest.toLookaheadLimit): a extra só indica a próxima página
+    public static <T> CursorPage<T> ofLookahead(List<T> rows, CursorRequest request, Function<T, Long> idOf) {
+        int limit = request.effectiveLimit();
+        boolean hasMore = rows.size() > limit;
+        return of(hasMore ? rows.subList(0, limit) : rows, hasMore, request.direction(), idOf);
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).toList(), nextCursor, hasMore);
+    }
+}
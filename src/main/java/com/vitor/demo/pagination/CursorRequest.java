@@ -0,0 +1,120 @@
+package com.vitor.demo.pagination;
+
+import com.vitor.demo.handlers.BusinessException;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Parâmetros de paginação por cursor (keyset) recebidos na query string:
+ * {@code ?after=<cursor>&limit=50&sort=asc}.
+ * A ordenação é sempre pela chave primária, o que a mantém estável e coberta por índice.
+ * O cursor é opaco para o cliente e já carrega a direção da ordenação.
+ */
+@Getter
+@Setter
+public class CursorRequest {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private static final String KEY = "id";
+
+    private String after;
+    private Integer limit;
+    private String sort;
+
+    public static CursorRequest first() {
+        return new CursorRequest();
+    }
+
+    public int effectiveLimit() {
+        if (limit == null || limit < 1) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    public Limit toLimit() {
+        return Limit.of(effectiveLimit());
+    }
+
+    public Limit toLookaheadLimit() {
+        return Limit.of(effectiveLimit() + 1);
+    }
+
+    public Sort.Direction direction() {
+        if (after != null && !after.isBlank()) {
+            return decode(after).direction;
+        }
+        if (sort == null || sort.isBlank() || sort.equalsIgnoreCase("asc")) {
+            return Sort.Direction.ASC;
+        }
+        if (sort.equalsIgnoreCase("desc")) {
+            return Sort.Direction.DESC;
+        }
+        throw new BusinessException("Ordenação inválida: use 'asc' ou 'desc'");
+    }
+
+    public Sort toSort() {
+        return Sort.by(direction(), KEY);
+    }
+
+    // Último id da página anterior (null na primeira página)
+    public Long afterId() {
+        if (after == null || after.isBlank()) {
+            return null;
+        }
+        return decode(after).lastId;
+    }
+
+    // Limites exclusivos do keyset para consultas escritas à mão (id > lower AND id < upper)
+    public long lowerBound() {
+        Long lastId = afterId();
+        return lastId != null && direction() == Sort.Direction.ASC ? lastId : Long.MIN_VALUE;
+    }
+
+    public long upperBound() {
+        Long lastId = afterId();
+        return lastId != null && direction() == Sort.Direction.DESC ? lastId : Long.MAX_VALUE;
+    }
+
+    public KeysetScrollPosition toScrollPosition() {
+        Long lastId = afterId();
+        if (lastId == null) {
+            return ScrollPosition.keyset();
+        }
+        return ScrollPosition.forward(Map.of(KEY, lastId));
+    }
+
+    // ========== CODIFICAÇÃO DO CURSOR ==========
+
+    static String encode(Sort.Direction direction, Long lastId) {
+        String raw = (direction == Sort.Direction.DESC ? "d:" : "a:") + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Decoded decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            Sort.Direction direction = switch (raw.substring(0, 2)) {
+                case "a:" -> Sort.Direction.ASC;
+                case "d:" -> Sort.Direction.DESC;
+                default -> throw new IllegalArgumentException(raw);
+            };
+            return new Decoded(direction, Long.parseLong(raw.substring(2)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BusinessException("Cursor de paginação inválido");
+        }
+    }
+
+    private record Decoded(Sort.Direction direction, Long lastId) {
+    }
+}
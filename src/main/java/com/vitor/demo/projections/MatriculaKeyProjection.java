@@ -0,0 +1,6 @@
+package com.vitor.demo.projections;
+
+public interface MatriculaKeyProjection {
+    Long getTurmaId();
+    Long getAlunoId();
+}
@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 
 public interface NotaProjection {
     Long getId();
+    Long getAlunoId();
     String getAlunoNome();
     String getDisciplinaNome();
     BigDecimal getValor();
@@ -0,0 +1,7 @@
+package com.vitor.demo.projections;
+
+public interface UserEpochProjection {
+    Long getId();
+    Integer getTokenEpoch();
+    Boolean getAtivo();
+}
@@ -0,0 +1,8 @@
+package com.vitor.demo.projections;
+
+import com.vitor.demo.security.ProfileEnum;
+
+public interface UserProfileProjection {
+    Long getUserId();
+    ProfileEnum getProfile();
+}
@@ -1,10 +1,22 @@
 package com.vitor.demo.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import com.vitor.demo.models.Aluno;
+import com.vitor.demo.projections.AlunoCpfProjection;
+import com.vitor.demo.projections.AlunoProjection;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface AlunoRepository extends JpaRepository<Aluno, Long> {
     
@@ -16,4 +28,34 @@ public interface AlunoRepository extends JpaRepository<Aluno, Long> {
     boolean existsByCpf(String cpf);
     
     boolean existsByNome(String nome);
+
+    // Verificação de existência em conjunto (lançamento de notas em lote)
+    @Query("SELECT a.id FROM Aluno a WHERE a.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Sondagens em conjunto da importação CSV (um bloco de linhas por consulta)
+    @Query("SELECT a.cpf FROM Aluno a WHERE a.cpf IN :cpfs")
+    List<String> findExistingCpfs(@Param("cpfs") Collection<String> cpfs);
+
+    @Query("SELECT a.nome FROM Aluno a WHERE a.nome IN :nomes")
+    List<String> findExistingNomes(@Param("nomes") Collection<String> nomes);
+
+    @Query("SELECT a.id AS id, a.cpf AS cpf FROM Aluno a WHERE a.cpf IN :cpfs")
+    List<AlunoCpfProjection> findIdsByCpf(@Param("cpfs") Collection<String> cpfs);
+    
+    // Listagem paginada por cursor (keyset sobre o id)
+    Window<Aluno> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    // Exportação em streaming: cursor JDBC com fetch size e entidades somente leitura (fechar o Stream)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Aluno a ORDER BY a.id")
+    Stream<Aluno> streamAll();
+
+    // Carga do índice de busca em memória: só id, nome e CPF, sem entidades (fechar o Stream)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a.id AS id, a.nome AS nome, a.cpf AS cpf FROM Aluno a")
+    Stream<AlunoProjection> streamForSearch();
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.vitor.demo.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+import com.vitor.demo.models.IdBlocks;
+
+import java.util.List;
+
+/**
+ * Inserção de entidades novas em lote (hibernate.jdbc.batch_size), esvaziando o contexto de persistência
+ * a cada bloco de ids para que ele não cresça com o volume gravado.
+ */
+@Repository
+public class BulkInsertRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Deve ser chamado dentro de uma transação
+    public void insertAll(List<?> entities) {
+        for (int i = 0; i < entities.size(); i++) {
+            entityManager.persist(entities.get(i));
+
+            if ((i + 1) % IdBlocks.SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
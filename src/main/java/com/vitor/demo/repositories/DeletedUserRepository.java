@@ -0,0 +1,21 @@
+package com.vitor.demo.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import com.vitor.demo.models.DeletedUser;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DeletedUserRepository extends JpaRepository<DeletedUser, Long> {
+
+    @Query("SELECT d FROM DeletedUser d WHERE d.expiraEm >= :agora")
+    List<DeletedUser> findActive(@Param("agora") LocalDateTime agora);
+
+    @Modifying
+    @Query("DELETE FROM DeletedUser d WHERE d.expiraEm < :agora")
+    int deleteExpired(@Param("agora") LocalDateTime agora);
+}
@@ -1,9 +1,16 @@
 package com.vitor.demo.repositories;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import com.vitor.demo.models.Disciplina;
 
 @Repository
 public interface DisciplinaRepository extends JpaRepository<Disciplina, Long> {
+    
+    // Listagem paginada por cursor (keyset sobre o id)
+    Window<Disciplina> findBy(ScrollPosition position, Sort sort, Limit limit);
 }
\ No newline at end of file
@@ -1,12 +1,57 @@
 package com.vitor.demo.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import com.vitor.demo.models.Nota;
+import com.vitor.demo.projections.NotaProjection;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface NotaRepository extends JpaRepository<Nota, Long> {
-    List<Nota> findByAlunoId(Long alunoId);
-    List<Nota> findByTurmaId(Long turmaId);
+
+    @Override
+    @EntityGraph(Nota.GRAPH_DETALHE)
+    Optional<Nota> findById(Long id);
+
+    // Listagens paginadas por cursor (keyset sobre o id)
+    @EntityGraph(Nota.GRAPH_DETALHE)
+    Window<Nota> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(Nota.GRAPH_DETALHE)
+    Window<Nota> findByTurmaId(Long turmaId, ScrollPosition position, Sort sort, Limit limit);
+
+    // Listagens resumidas: só as colunas de NotaProjection em um único SELECT, sem entidades no
+    // contexto de persistência (nada de Turma, Professor ou a ementa da Disciplina).
+    // O keyset vem de CursorRequest.lowerBound()/upperBound() e a direção de Sort.
+    String RESUMO = "SELECT n.id AS id, a.id AS alunoId, a.nome AS alunoNome, d.nome AS disciplinaNome, "
+            + "n.valor AS valor, n.observacao AS observacao "
+            + "FROM Nota n JOIN n.aluno a JOIN n.turma t JOIN t.disciplina d ";
+
+    @Query(RESUMO + "WHERE a.id = :alunoId AND n.id > :lower AND n.id < :upper")
+    List<NotaProjection> findResumoByAlunoId(@Param("alunoId") Long alunoId, @Param("lower") long lower,
+                                             @Param("upper") long upper, Sort sort, Limit limit);
+
+    @Query(RESUMO + "WHERE t.id = :turmaId AND n.id > :lower AND n.id < :upper")
+    List<NotaProjection> findResumoByTurmaId(@Param("turmaId") Long turmaId, @Param("lower") long lower,
+                                             @Param("upper") long upper, Sort sort, Limit limit);
+
+    // Exportação em streaming: cursor JDBC com fetch size e entidades somente leitura (fechar o Stream)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT n FROM Nota n JOIN FETCH n.aluno JOIN FETCH n.turma t JOIN FETCH t.disciplina JOIN FETCH t.professor ORDER BY n.id")
+    Stream<Nota> streamAll();
 }
\ No newline at end of file
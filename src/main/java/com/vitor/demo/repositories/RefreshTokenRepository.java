@@ -0,0 +1,34 @@
+package com.vitor.demo.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import com.vitor.demo.models.RefreshToken;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    
+    @Query("SELECT r FROM RefreshToken r JOIN FETCH r.user WHERE r.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHash(@Param("tokenHash") String tokenHash);
+    
+    // Rotação: só uma de várias renovações simultâneas com o mesmo token atualiza a linha
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revogado = true WHERE r.id = :id AND r.revogado = false")
+    int revokeIfActive(@Param("id") Long id);
+    
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revogado = true WHERE r.user.id = :userId AND r.revogado = false")
+    int revokeAllByUserId(@Param("userId") Long userId);
+    
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+    
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiraEm < :agora")
+    int deleteExpired(@Param("agora") LocalDateTime agora);
+}
@@ -0,0 +1,21 @@
+package com.vitor.demo.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import com.vitor.demo.models.RevokedToken;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+    
+    @Query("SELECT r FROM RevokedToken r WHERE r.expiraEm >= :agora")
+    List<RevokedToken> findActive(@Param("agora") LocalDateTime agora);
+    
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiraEm < :agora")
+    int deleteExpired(@Param("agora") LocalDateTime agora);
+}
@@ -1,17 +1,54 @@
 package com.vitor.demo.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.vitor.demo.models.TurmaAluno;
+import com.vitor.demo.projections.MatriculaKeyProjection;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TurmaAlunoRepository extends JpaRepository<TurmaAluno, Long> {
-    List<TurmaAluno> findByAlunoId(Long alunoId);
-    List<TurmaAluno> findByTurmaId(Long turmaId);
+
+    @Override
+    @EntityGraph(TurmaAluno.GRAPH_DETALHE)
+    Optional<TurmaAluno> findById(Long id);
     
+    // Usado só para checar duplicidade: não carrega as associações
     @Query("SELECT ta FROM TurmaAluno ta WHERE ta.aluno.id = :alunoId AND ta.turma.id = :turmaId")
     List<TurmaAluno> findByAlunoIdAndTurmaId(@Param("alunoId") Long alunoId, @Param("turmaId") Long turmaId);
+
+    // Matrículas ativas dos alunos informados (duplicidade na importação em lote)
+    @Query("SELECT ta.turma.id AS turmaId, ta.aluno.id AS alunoId FROM TurmaAluno ta WHERE ta.ativo = true AND ta.aluno.id IN :alunoIds")
+    List<MatriculaKeyProjection> findActiveKeysByAlunoIds(@Param("alunoIds") Collection<Long> alunoIds);
+
+    // Listagens paginadas por cursor (keyset sobre o id)
+    @EntityGraph(TurmaAluno.GRAPH_DETALHE)
+    Window<TurmaAluno> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(TurmaAluno.GRAPH_DETALHE)
+    Window<TurmaAluno> findByAlunoId(Long alunoId, ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(TurmaAluno.GRAPH_DETALHE)
+    Window<TurmaAluno> findByTurmaId(Long turmaId, ScrollPosition position, Sort sort, Limit limit);
+
+    // Exportação em streaming: cursor JDBC com fetch size e entidades somente leitura (fechar o Stream)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT ta FROM TurmaAluno ta JOIN FETCH ta.aluno JOIN FETCH ta.turma t JOIN FETCH t.disciplina JOIN FETCH t.professor ORDER BY ta.id")
+    Stream<TurmaAluno> streamAll();
 }
\ No newline at end of file
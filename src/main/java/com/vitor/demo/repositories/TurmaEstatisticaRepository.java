@@ -0,0 +1,291 @@
+package com.vitor.demo.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Linha de turma_estatistica de cada turma (ver V6__turma_estatistica.sql e V7). As escritas de nota aplicam deltas
+ * com UPDATE aritmético sobre a linha, sem travá-la antes; cada delta incrementa a revisão, que a reconstrução usa
+ * para só substituir a linha se nenhuma escrita tiver sido confirmada desde que a leu.
+ */
+@Repository
+public class TurmaEstatisticaRepository {
+
+    // Faixas de 1 ponto na escala 0–10; a última inclui o 10
+    public static final int FAIXAS = 10;
+
+    private static final String COLUNAS = "quantidade, soma, soma_quadrados, minimo, maximo, " + faixas("faixa_%d");
+
+    // Mesmas colunas, calculadas das notas da turma (a última faixa inclui o 10)
+    private static final String AGREGADO = "count(n.id), coalesce(sum(n.valor), 0), coalesce(sum(n.valor * n.valor), 0), "
+            + "min(n.valor), max(n.valor), " + faixasAgregadas();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public Optional<Linha> findByTurmaId(Long turmaId) {
+        List<?> rows = entityManager.createNativeQuery(
+                        "SELECT revisao, extremos_pendentes, " + COLUNAS + " FROM turma_estatistica WHERE turma_id = :turmaId")
+                .setParameter("turmaId", turmaId)
+                .getResultList();
+        return rows.isEmpty() ? Optional.empty() : Optional.of(Linha.of((Object[]) rows.get(0)));
+    }
+
+    /**
+     * Cria a linha a partir das notas visíveis para a transação corrente. Devolve false se a turma não existe;
+     * falha com chave duplicada se a linha já existe.
+     */
+    public boolean insertFromNotas(Long turmaId) {
+        return update("INSERT INTO turma_estatistica (turma_id, " + COLUNAS + ") "
+                        + "SELECT t.id, " + AGREGADO + " FROM turma t LEFT JOIN nota n ON n.turma_id = t.id "
+                        + "WHERE t.id = :turmaId GROUP BY t.id")
+                .setParameter("turmaId", turmaId)
+                .executeUpdate() > 0;
+    }
+
+    // Totais recalculados das notas, para a reconstrução e para turmas ainda sem linha
+    public Totais aggregate(Long turmaId) {
+        Object[] row = (Object[]) entityManager.createNativeQuery(
+                        "SELECT " + AGREGADO + " FROM nota n WHERE n.turma_id = :turmaId")
+                .setParameter("turmaId", turmaId)
+                .getSingleResult();
+        return Totais.of(row);
+    }
+
+    // Mínimo e máximo das notas, quando os da linha estão pendentes (uma vez, gravados com replaceExtremos)
+    public BigDecimal[] extremos(Long turmaId) {
+        Object[] row = (Object[]) entityManager.createNativeQuery(
+                        "SELECT min(n.valor), max(n.valor) FROM nota n WHERE n.turma_id = :turmaId")
+                .setParameter("turmaId", turmaId)
+                .getSingleResult();
+        return new BigDecimal[] {Totais.decimalOrNull(row[0]), Totais.decimalOrNull(row[1])};
+    }
+
+    /**
+     * Substitui a linha pelos totais (com os extremos em dia) se a revisão ainda for a lida. Devolve false se
+     * alguma escrita mudou a linha nesse meio tempo; o UPDATE espera a escrita em andamento terminar.
+     */
+    public boolean replace(Long turmaId, long revisao, Totais totais) {
+        StringBuilder sql = new StringBuilder("UPDATE turma_estatistica SET revisao = revisao + 1, "
+                + "extremos_pendentes = FALSE, quantidade = :quantidade, soma = :soma, "
+                + "soma_quadrados = :somaQuadrados, minimo = :minimo, maximo = :maximo");
+        for (int faixa = 0; faixa < FAIXAS; faixa++) {
+            sql.append(", faixa_").append(faixa).append(" = :faixa").append(faixa);
+        }
+        Query query = update(sql.append(" WHERE turma_id = :turmaId AND revisao = :revisao").toString())
+                .setParameter("quantidade", totais.quantidade())
+                .setParameter("soma", totais.soma())
+                .setParameter("somaQuadrados", totais.somaQuadrados())
+                .setParameter("minimo", totais.minimo())
+                .setParameter("maximo", totais.maximo())
+                .setParameter("turmaId", turmaId)
+                .setParameter("revisao", revisao);
+        for (int faixa = 0; faixa < FAIXAS; faixa++) {
+            query.setParameter("faixa" + faixa, totais.faixas()[faixa]);
+        }
+        return query.executeUpdate() > 0;
+    }
+
+    /**
+     * Grava mínimo e máximo relidos das notas e limpa a pendência, se a revisão ainda for a lida.
+     */
+    public boolean replaceExtremos(Long turmaId, long revisao, BigDecimal minimo, BigDecimal maximo) {
+        return update("UPDATE turma_estatistica SET revisao = revisao + 1, extremos_pendentes = FALSE, "
+                        + "minimo = :minimo, maximo = :maximo WHERE turma_id = :turmaId AND revisao = :revisao")
+                .setParameter("minimo", minimo)
+                .setParameter("maximo", maximo)
+                .setParameter("turmaId", turmaId)
+                .setParameter("revisao", revisao)
+                .executeUpdate() > 0;
+    }
+
+    /**
+     * Soma o delta à linha da turma em um único UPDATE (a linha fica presa só dali até o commit). Inclusões
+     * ajustam mínimo e máximo; remover um valor igual a um deles marca os extremos como pendentes, sem reler
+     * as notas (a primeira leitura seguinte os relê e grava). Sem linha (turma gravada direto no banco), não
+     * altera nada até a leitura ou a reconstrução criá-la.
+     */
+    public void apply(Long turmaId, Delta delta) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        StringBuilder sql = new StringBuilder("UPDATE turma_estatistica SET revisao = revisao + 1");
+        // Antes de mínimo e máximo: o MySQL avalia as atribuições em ordem, e a comparação é com os valores anteriores
+        if (delta.removeu) {
+            sql.append(", extremos_pendentes = CASE WHEN minimo IS NULL OR minimo >= :menorRemovido "
+                    + "OR maximo <= :maiorRemovido THEN TRUE ELSE extremos_pendentes END");
+            parameters.put("menorRemovido", delta.menorRemovido);
+            parameters.put("maiorRemovido", delta.maiorRemovido);
+        }
+        sql.append(", quantidade = quantidade + :quantidade, soma = soma + :soma, soma_quadrados = soma_quadrados + :somaQuadrados");
+        parameters.put("quantidade", delta.quantidade);
+        parameters.put("soma", delta.soma);
+        parameters.put("somaQuadrados", delta.somaQuadrados);
+        for (int faixa = 0; faixa < FAIXAS; faixa++) {
+            if (delta.faixas[faixa] != 0) {
+                sql.append(", faixa_").append(faixa).append(" = faixa_").append(faixa).append(" + :faixa").append(faixa);
+                parameters.put("faixa" + faixa, delta.faixas[faixa]);
+            }
+        }
+        if (delta.menor != null) {
+            sql.append(", minimo = CASE WHEN minimo IS NULL OR minimo > :menor THEN :menor ELSE minimo END")
+                    .append(", maximo = CASE WHEN maximo IS NULL OR maximo < :maior THEN :maior ELSE maximo END");
+            parameters.put("menor", delta.menor);
+            parameters.put("maior", delta.maior);
+        }
+        parameters.put("turmaId", turmaId);
+
+        Query query = update(sql.append(" WHERE turma_id = :turmaId").toString());
+        parameters.forEach(query::setParameter);
+        query.executeUpdate();
+    }
+
+    public List<Long> findTurmaIds() {
+        List<Long> ids = new ArrayList<>();
+        for (Object id : entityManager.createNativeQuery("SELECT id FROM turma ORDER BY id").getResultList()) {
+            ids.add(((Number) id).longValue());
+        }
+        return ids;
+    }
+
+    // Escrita só em turma_estatistica: sem isso o Hibernate esvazia todo o cache de segundo nível a cada delta
+    private Query update(String sql) {
+        Query query = entityManager.createNativeQuery(sql);
+        query.unwrap(NativeQuery.class).addSynchronizedQuerySpace("turma_estatistica");
+        return query;
+    }
+
+    private static String faixas(String format) {
+        List<String> columns = new ArrayList<>();
+        for (int faixa = 0; faixa < FAIXAS; faixa++) {
+            columns.add(String.format(format, faixa));
+        }
+        return String.join(", ", columns);
+    }
+
+    private static String faixasAgregadas() {
+        List<String> columns = new ArrayList<>();
+        for (int faixa = 0; faixa < FAIXAS; faixa++) {
+            String condition = faixa == 0 ? "n.valor < 1"
+                    : faixa == FAIXAS - 1 ? "n.valor >= " + faixa
+                    : "n.valor >= " + faixa + " AND n.valor < " + (faixa + 1);
+            columns.add("sum(CASE WHEN " + condition + " THEN 1 ELSE 0 END)");
+        }
+        return String.join(", ", columns);
+    }
+
+    /**
+     * Linha gravada de uma turma: os totais, a revisão e se mínimo e máximo precisam ser relidos das notas.
+     */
+    public record Linha(long revisao, boolean extremosPendentes, Totais totais) {
+
+        static Linha of(Object[] row) {
+            boolean pendentes = row[1] instanceof Boolean flag ? flag : ((Number) row[1]).intValue() != 0;
+            return new Linha(((Number) row[0]).longValue(), pendentes, Totais.of(Arrays.copyOfRange(row, 2, row.length)));
+        }
+    }
+
+    /**
+     * Totais de uma turma. Sem notas, mínimo e máximo são null e as somas de faixas podem vir null do banco (tratadas como 0).
+     */
+    public record Totais(long quantidade, BigDecimal soma, BigDecimal somaQuadrados, BigDecimal minimo,
+                         BigDecimal maximo, long[] faixas) {
+
+        static Totais of(Object[] row) {
+            long[] faixas = new long[FAIXAS];
+            for (int faixa = 0; faixa < FAIXAS; faixa++) {
+                faixas[faixa] = row[5 + faixa] != null ? ((Number) row[5 + faixa]).longValue() : 0;
+            }
+            return new Totais(((Number) row[0]).longValue(), decimal(row[1]), decimal(row[2]),
+                    decimalOrNull(row[3]), decimalOrNull(row[4]), faixas);
+        }
+
+        public Totais withExtremos(BigDecimal minimo, BigDecimal maximo) {
+            return new Totais(quantidade, soma, somaQuadrados, minimo, maximo, faixas);
+        }
+
+        // Mesmos valores, ignorando a escala dos decimais (10.0 e 10.00)
+        public boolean sameAs(Totais other) {
+            return sameCountsAs(other) && sameDecimal(minimo, other.minimo) && sameDecimal(maximo, other.maximo);
+        }
+
+        // Mesma quantidade, somas e faixas (sem comparar mínimo e máximo)
+        public boolean sameCountsAs(Totais other) {
+            return quantidade == other.quantidade
+                    && soma.compareTo(other.soma) == 0
+                    && somaQuadrados.compareTo(other.somaQuadrados) == 0
+                    && Arrays.equals(faixas, other.faixas);
+        }
+
+        private static boolean sameDecimal(BigDecimal a, BigDecimal b) {
+            return a == null ? b == null : b != null && a.compareTo(b) == 0;
+        }
+
+        private static BigDecimal decimal(Object value) {
+            return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+        }
+
+        static BigDecimal decimalOrNull(Object value) {
+            return value != null ? decimal(value) : null;
+        }
+    }
+
+    /**
+     * Alteração nas notas de uma turma dentro de uma transação: notas incluídas e removidas (uma alteração de
+     * valor é as duas coisas).
+     */
+    public static final class Delta {
+
+        private long quantidade;
+        private BigDecimal soma = BigDecimal.ZERO;
+        private BigDecimal somaQuadrados = BigDecimal.ZERO;
+        private final long[] faixas = new long[FAIXAS];
+        private BigDecimal menor;
+        private BigDecimal maior;
+        private BigDecimal menorRemovido;
+        private BigDecimal maiorRemovido;
+        private boolean removeu;
+
+        public Delta add(BigDecimal valor) {
+            quantidade++;
+            soma = soma.add(valor);
+            somaQuadrados = somaQuadrados.add(valor.multiply(valor));
+            faixas[faixa(valor)]++;
+            menor = menor == null || valor.compareTo(menor) < 0 ? valor : menor;
+            maior = maior == null || valor.compareTo(maior) > 0 ? valor : maior;
+            return this;
+        }
+
+        public Delta remove(BigDecimal valor) {
+            quantidade--;
+            soma = soma.subtract(valor);
+            somaQuadrados = somaQuadrados.subtract(valor.multiply(valor));
+            faixas[faixa(valor)]--;
+            menorRemovido = menorRemovido == null || valor.compareTo(menorRemovido) < 0 ? valor : menorRemovido;
+            maiorRemovido = maiorRemovido == null || valor.compareTo(maiorRemovido) > 0 ? valor : maiorRemovido;
+            removeu = true;
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return quantidade == 0 && soma.signum() == 0 && !removeu && menor == null;
+        }
+
+        public boolean hasRemovals() {
+            return removeu;
+        }
+
+        public static int faixa(BigDecimal valor) {
+            return Math.min(FAIXAS - 1, Math.max(0, valor.intValue()));
+        }
+    }
+}
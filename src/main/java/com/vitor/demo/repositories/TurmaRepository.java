@@ -1,12 +1,59 @@
 package com.vitor.demo.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import com.vitor.demo.models.CacheRegions;
 import com.vitor.demo.models.Turma;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TurmaRepository extends JpaRepository<Turma, Long> {
-    List<Turma> findByDisciplinaId(Long disciplinaId);
-    List<Turma> findByProfessorId(Long professorId);
+
+    @Override
+    @EntityGraph(Turma.GRAPH_DETALHE)
+    Optional<Turma> findById(Long id);
+
+    // Listagens paginadas por cursor (keyset sobre o id)
+    @EntityGraph(Turma.GRAPH_DETALHE)
+    Window<Turma> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    // Páginas por disciplina/professor ficam no cache de consultas até a próxima escrita em turma
+    @EntityGraph(Turma.GRAPH_DETALHE)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.TURMA_CONSULTAS)
+    })
+    Window<Turma> findByDisciplinaId(Long disciplinaId, ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(Turma.GRAPH_DETALHE)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.TURMA_CONSULTAS)
+    })
+    Window<Turma> findByProfessorId(Long professorId, ScrollPosition position, Sort sort, Limit limit);
+
+    // Verificação de existência em conjunto (importação de matrículas)
+    @Query("SELECT t.id FROM Turma t WHERE t.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Exportação em streaming: cursor JDBC com fetch size e entidades somente leitura (fechar o Stream)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Turma t JOIN FETCH t.disciplina JOIN FETCH t.professor ORDER BY t.id")
+    Stream<Turma> streamAll();
 }
\ No newline at end of file
@@ -1,11 +1,18 @@
 package com.vitor.demo.repositories;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import com.vitor.demo.models.User;
+import com.vitor.demo.projections.UserEpochProjection;
+import com.vitor.demo.projections.UserProfileProjection;
 import com.vitor.demo.projections.UserProjection;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -26,6 +33,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u.id as id, u.username as username, u.email as email, u.ativo as ativo FROM User u WHERE u.id = :id")
     Optional<UserProjection> findSafeById(@Param("id") Long id);
     
-    @Query("SELECT u.id as id, u.username as username, u.email as email, u.ativo as ativo FROM User u")
-    List<UserProjection> findAllSafe();
+    // Listagem paginada por cursor (keyset sobre o id), apenas com os campos da projection
+    Window<UserProjection> findSafeBy(ScrollPosition position, Sort sort, Limit limit);
+    
+    // Perfis de vários usuários em uma consulta (agrupados por user_id no service)
+    @Query("SELECT u.id as userId, p as profile FROM User u JOIN u.profiles p WHERE u.id IN :ids")
+    List<UserProfileProjection> findProfilesByUserIds(@Param("ids") Collection<Long> ids);
+    
+    // Apenas usuários cujos tokens antigos foram invalidados ou que estão inativos
+    @Query("SELECT u.id as id, u.tokenEpoch as tokenEpoch, u.ativo as ativo FROM User u WHERE u.tokenEpoch > 0 OR u.ativo = false")
+    List<UserEpochProjection> findRevokedEpochs();
 }
\ No newline at end of file
@@ -0,0 +1,150 @@
+package com.vitor.demo.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+import com.vitor.demo.models.Nota;
+import com.vitor.demo.models.TurmaAluno;
+import com.vitor.demo.pagination.CursorRequest;
+import com.vitor.demo.projections.NotaProjection;
+import com.vitor.demo.versioning.ResourceVersion;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Lê apenas id, versao e atualizado_em das linhas de uma resposta e das entidades que ela embute,
+ * para calcular o ETag antes de carregar o entity graph (Nota e TurmaAluno) e serializar o corpo.
+ * As listagens usam a mesma janela de keyset que CursorPage: filtro, cursor, direção e limite + 1.
+ */
+@Repository
+public class VersionRepository {
+
+    // Associações embutidas no JSON de cada entidade (as mesmas dos entity graphs)
+    private static final Map<Class<?>, List<String>> EMBEDDED = Map.of(
+            Nota.class, List.of("aluno", "turma", "turma.disciplina", "turma.professor"),
+            TurmaAluno.class, List.of("aluno", "turma", "turma.disciplina", "turma.professor"));
+
+    // Associações de onde cada projeção lê colunas (NotaProjection: nome do aluno e da disciplina)
+    private static final Map<Class<?>, List<String>> PROJECTED = Map.of(
+            NotaProjection.class, List.of("aluno", "turma.disciplina"));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public Optional<ResourceVersion> findById(Class<?> type, Long id) {
+        List<String> embedded = EMBEDDED.get(type);
+        List<Object[]> rows = query(type, embedded, Map.of("e.id", id), null, Sort.Direction.ASC, 1);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        ResourceVersion.Builder builder = ResourceVersion.builder(type.getSimpleName());
+        append(builder, embedded, rows.get(0));
+        return Optional.of(builder.build(true));
+    }
+
+    /**
+     * Versão da página pedida da listagem de {@code type}; {@code filterPath} null para a listagem completa.
+     */
+    public ResourceVersion findPage(Class<?> type, String filterPath, Long filterValue, CursorRequest page) {
+        return findPage(type, type.getSimpleName(), EMBEDDED.get(type), filterPath, filterValue, page);
+    }
+
+    /**
+     * Como {@link #findPage}, para listagens que devolvem a projeção {@code view} de {@code type}: só entram
+     * as associações lidas pela projeção, e o ETag não coincide com o da listagem das entidades completas.
+     */
+    public ResourceVersion findProjectedPage(Class<?> type, Class<?> view, String filterPath, Long filterValue,
+                                             CursorRequest page) {
+        return findPage(type, view.getSimpleName(), PROJECTED.get(view), filterPath, filterValue, page);
+    }
+
+    /**
+     * Versão de todas as linhas de {@code type}, por id (a busca de catálogo compara com as versões indexadas).
+     */
+    public Map<Long, Long> findAllVersions(Class<?> type) {
+        Map<Long, Long> versions = new HashMap<>();
+        entityManager.createQuery("SELECT e.id, e.versao FROM " + type.getSimpleName() + " e", Object[].class)
+                .getResultStream()
+                .forEach(row -> versions.put((Long) row[0], (Long) row[1]));
+        return versions;
+    }
+
+    private ResourceVersion findPage(Class<?> type, String kind, List<String> embedded, String filterPath,
+                                     Long filterValue, CursorRequest page) {
+        Map<String, Object> filters = new LinkedHashMap<>();
+        if (filterPath != null) {
+            filters.put("e." + filterPath, filterValue);
+        }
+
+        int limit = page.effectiveLimit();
+        Sort.Direction direction = page.direction();
+        List<Object[]> rows = query(type, embedded, filters, page.afterId(), direction, limit + 1);
+
+        ResourceVersion.Builder builder = ResourceVersion.builder(kind + "[]")
+                .add(direction)
+                .add(rows.size() > limit);
+        for (Object[] row : rows.subList(0, Math.min(limit, rows.size()))) {
+            append(builder, embedded, row);
+        }
+        return builder.build(false);
+    }
+
+    private List<Object[]> query(Class<?> type, List<String> embedded, Map<String, Object> filters, Long afterId,
+                                 Sort.Direction direction, int maxResults) {
+        List<String> paths = new ArrayList<>();
+        paths.add("e");
+        embedded.forEach(path -> paths.add("e." + path));
+
+        List<String> columns = new ArrayList<>();
+        for (String path : paths) {
+            columns.add(path + ".id");
+            columns.add(path + ".versao");
+            columns.add(path + ".atualizadoEm");
+        }
+
+        List<String> conditions = new ArrayList<>();
+        int index = 0;
+        for (String path : filters.keySet()) {
+            conditions.add(path + " = ?" + (++index));
+        }
+        if (afterId != null) {
+            conditions.add("e.id " + (direction == Sort.Direction.ASC ? ">" : "<") + " ?" + (++index));
+        }
+
+        String jpql = "SELECT " + String.join(", ", columns)
+                + " FROM " + type.getSimpleName() + " e"
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + " ORDER BY e.id " + direction.name();
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class);
+        index = 0;
+        for (Object value : filters.values()) {
+            query.setParameter(++index, value);
+        }
+        if (afterId != null) {
+            query.setParameter(++index, afterId);
+        }
+        return query.setMaxResults(maxResults).getResultList();
+    }
+
+    private static void append(ResourceVersion.Builder builder, List<String> embedded, Object[] row) {
+        List<String> names = new ArrayList<>();
+        names.add("");
+        names.addAll(embedded);
+
+        for (int i = 0; i < names.size(); i++) {
+            builder.id(names.get(i), (Long) row[i * 3])
+                    .add(row[i * 3 + 1])
+                    .modifiedAt((LocalDateTime) row[i * 3 + 2]);
+        }
+    }
+}
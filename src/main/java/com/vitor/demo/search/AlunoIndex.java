@@ -0,0 +1,242 @@
+package com.vitor.demo.search;
+
+import com.vitor.demo.projections.AlunoProjection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Estruturas do índice de alunos. Não é thread-safe: o AlunoSearchIndex controla o acesso.
+ * Cada aluno ocupa um slot (int) reaproveitado após a exclusão; trie, trigramas e CPF apontam para slots.
+ */
+final class AlunoIndex {
+
+    // Fração dos trigramas da consulta que o nome precisa conter para entrar como resultado aproximado
+    private static final double FUZZY_THRESHOLD = 0.5;
+    private static final int MIN_FUZZY_LENGTH = 3;
+
+    private IndexedAluno[] slots = new IndexedAluno[1024];
+    private int highWater;
+    private final IntList freeSlots = new IntList();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final NavigableMap<String, Integer> slotByCpf = new TreeMap<>();
+    private final PrefixTrie names = new PrefixTrie();
+    private final Map<String, IntList> trigrams = new HashMap<>();
+
+    int size() {
+        return slotById.size();
+    }
+
+    void put(Long id, String nome, String cpf) {
+        remove(id);
+
+        String folded = TextFolding.fold(nome);
+        Set<String> grams = TextFolding.trigrams(folded);
+        int slot = freeSlots.isEmpty() ? nextSlot() : freeSlots.removeLast();
+        slots[slot] = new IndexedAluno(id, nome, cpf, folded, grams.size());
+        slotById.put(id, slot);
+        slotByCpf.put(cpf, slot);
+        for (String token : TextFolding.tokens(folded)) {
+            names.add(token, slot);
+        }
+        for (String gram : grams) {
+            trigrams.computeIfAbsent(gram, key -> new IntList()).add(slot);
+        }
+    }
+
+    void remove(Long id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) {
+            return;
+        }
+
+        IndexedAluno aluno = slots[slot];
+        slotByCpf.remove(aluno.cpf, slot);
+        for (String token : TextFolding.tokens(aluno.folded)) {
+            names.remove(token, slot);
+        }
+        for (String gram : TextFolding.trigrams(aluno.folded)) {
+            IntList list = trigrams.get(gram);
+            if (list != null && list.remove(slot) && list.isEmpty()) {
+                trigrams.remove(gram);
+            }
+        }
+        slots[slot] = null;
+        freeSlots.add(slot);
+    }
+
+    /**
+     * Consultas só com dígitos buscam pelo início do CPF. As demais exigem que cada palavra da consulta
+     * seja início de alguma palavra do nome; só quando nenhum nome confere assim a busca recorre
+     * a nomes parecidos por trigramas (erros de digitação).
+     */
+    List<AlunoProjection> search(String query, int limit) {
+        String cpf = TextFolding.cpfPrefix(query);
+        if (cpf != null) {
+            return searchCpf(cpf, limit);
+        }
+
+        String folded = TextFolding.fold(query);
+        if (folded.isEmpty()) {
+            return List.of();
+        }
+
+        BitSet matches = matchPrefixes(folded);
+        // Nomes que começam pela consulta inteira vêm antes dos que só contêm as palavras
+        TopK<IndexedAluno> exact = new TopK<>(limit, Comparator
+                .comparing((IndexedAluno aluno) -> !aluno.folded.startsWith(folded))
+                .thenComparing(aluno -> aluno.folded)
+                .thenComparing(aluno -> aluno.id));
+        for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+            exact.offer(slots[slot]);
+        }
+
+        List<AlunoProjection> result = new ArrayList<>(exact.toList());
+        if (result.isEmpty() && folded.length() >= MIN_FUZZY_LENGTH) {
+            for (Scored scored : fuzzy(folded, limit)) {
+                result.add(scored.aluno);
+            }
+        }
+        return result;
+    }
+
+    private List<AlunoProjection> searchCpf(String prefix, int limit) {
+        List<AlunoProjection> result = new ArrayList<>(Math.min(limit, 16));
+        for (int slot : slotByCpf.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(slots[slot]);
+        }
+        return result;
+    }
+
+    private BitSet matchPrefixes(String folded) {
+        BitSet result = null;
+        for (String token : TextFolding.tokens(folded)) {
+            BitSet matches = new BitSet(highWater);
+            names.collect(token, matches);
+            if (result == null) {
+                result = matches;
+            } else {
+                result.and(matches);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result != null ? result : new BitSet();
+    }
+
+    private List<Scored> fuzzy(String folded, int limit) {
+        Set<String> grams = TextFolding.trigrams(folded);
+        int[] common = new int[highWater];
+        BitSet touched = new BitSet(highWater);
+        for (String gram : grams) {
+            IntList list = trigrams.get(gram);
+            if (list == null) {
+                continue;
+            }
+            for (int i = 0; i < list.size(); i++) {
+                int slot = list.get(i);
+                common[slot]++;
+                touched.set(slot);
+            }
+        }
+
+        // Fração da consulta presente no nome; empate pelo coeficiente de Dice (nomes mais curtos primeiro)
+        TopK<Scored> best = new TopK<>(limit, Comparator
+                .comparingDouble((Scored scored) -> -scored.score)
+                .thenComparingDouble(scored -> -scored.dice)
+                .thenComparing(scored -> scored.aluno.folded));
+        for (int slot = touched.nextSetBit(0); slot >= 0; slot = touched.nextSetBit(slot + 1)) {
+            double score = (double) common[slot] / grams.size();
+            if (score >= FUZZY_THRESHOLD) {
+                IndexedAluno aluno = slots[slot];
+                best.offer(new Scored(aluno, score, 2.0 * common[slot] / (grams.size() + aluno.trigramCount)));
+            }
+        }
+        return best.toList();
+    }
+
+    private int nextSlot() {
+        if (highWater == slots.length) {
+            slots = Arrays.copyOf(slots, slots.length * 2);
+        }
+        return highWater++;
+    }
+
+    private record Scored(IndexedAluno aluno, double score, double dice) {
+    }
+
+    // Os k menores segundo a ordem, sem ordenar todos os candidatos
+    private static final class TopK<T> {
+
+        private final int limit;
+        private final Comparator<T> order;
+        private final PriorityQueue<T> heap;
+
+        TopK(int limit, Comparator<T> order) {
+            this.limit = limit;
+            this.order = order;
+            this.heap = new PriorityQueue<>(limit + 1, order.reversed());
+        }
+
+        void offer(T item) {
+            if (heap.size() < limit) {
+                heap.add(item);
+            } else if (order.compare(item, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(item);
+            }
+        }
+
+        List<T> toList() {
+            List<T> result = new ArrayList<>(heap);
+            result.sort(order);
+            return result;
+        }
+    }
+
+    // Resultado da busca no formato de AlunoProjection (id, nome, cpf); o restante não é serializado
+    static final class IndexedAluno implements AlunoProjection {
+
+        private final Long id;
+        private final String nome;
+        private final String cpf;
+        private final String folded;
+        private final int trigramCount;
+
+        private IndexedAluno(Long id, String nome, String cpf, String folded, int trigramCount) {
+            this.id = id;
+            this.nome = nome;
+            this.cpf = cpf;
+            this.folded = folded;
+            this.trigramCount = trigramCount;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getNome() {
+            return nome;
+        }
+
+        @Override
+        public String getCpf() {
+            return cpf;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.vitor.demo.search;
+
+import com.vitor.demo.datasource.ReadWriteRoutingDataSource;
+import com.vitor.demo.models.Aluno;
+import com.vitor.demo.projections.AlunoProjection;
+import com.vitor.demo.repositories.AlunoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Busca de alunos por nome (sem acentos, por início de palavra e aproximada por trigramas) e por
+ * início de CPF, respondida da memória sem ir ao banco. Cadastro, alteração, exclusão e importação
+ * atualizam o índice após o commit; a reconstrução periódica a partir do banco cobre escritas feitas
+ * por outras instâncias ou direto no banco.
+ */
+@Component
+public class AlunoSearchIndex implements MeterBinder {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    private static final Logger log = LoggerFactory.getLogger(AlunoSearchIndex.class);
+
+    private final AlunoRepository alunoRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildMonitor = new Object();
+
+    // Protegidos por lock; replay só existe durante uma reconstrução
+    private AlunoIndex index = new AlunoIndex();
+    private List<Consumer<AlunoIndex>> replay;
+
+    public AlunoSearchIndex(AlunoRepository alunoRepository, PlatformTransactionManager transactionManager) {
+        this.alunoRepository = alunoRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public List<AlunoProjection> search(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            return index.search(query, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Indexa o estado atual do aluno quando a transação corrente confirmar (na hora, se não houver transação)
+    public void putAfterCommit(Aluno aluno) {
+        Long id = aluno.getId();
+        String nome = aluno.getNome();
+        String cpf = aluno.getCpf();
+        afterCommit(target -> target.put(id, nome, cpf));
+    }
+
+    public void removeAfterCommit(Long id) {
+        afterCommit(target -> target.remove(id));
+    }
+
+    /**
+     * Relê todos os alunos (no primário, para não reconstruir com o atraso da réplica) e troca o índice.
+     * Alterações confirmadas durante a leitura são reaplicadas no índice novo antes da troca.
+     * A primeira carga roda na subida da aplicação, antes de ela receber requisições.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${aluno-search.refresh-interval:600000}",
+            initialDelayString = "${aluno-search.refresh-interval:600000}")
+    public void refresh() {
+        synchronized (rebuildMonitor) {
+            withWriteLock(() -> replay = new ArrayList<>());
+            AlunoIndex rebuilt = new AlunoIndex();
+            try {
+                ReadWriteRoutingDataSource.onPrimary(() -> readOnlyTransaction.execute(status -> {
+                    try (Stream<AlunoProjection> alunos = alunoRepository.streamForSearch()) {
+                        alunos.forEach(aluno -> rebuilt.put(aluno.getId(), aluno.getNome(), aluno.getCpf()));
+                    }
+                    return null;
+                }));
+            } catch (RuntimeException e) {
+                withWriteLock(() -> replay = null);
+                log.warn("Falha ao reconstruir o índice de busca de alunos: {}", e.getMessage());
+                return;
+            }
+            withWriteLock(() -> {
+                replay.forEach(change -> change.accept(rebuilt));
+                replay = null;
+                index = rebuilt;
+            });
+        }
+    }
+
+    private void afterCommit(Consumer<AlunoIndex> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(change);
+            }
+        });
+    }
+
+    private void apply(Consumer<AlunoIndex> change) {
+        withWriteLock(() -> {
+            change.accept(index);
+            if (replay != null) {
+                replay.add(change);
+            }
+        });
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("aluno.search.index.size", this, AlunoSearchIndex::size)
+                .description("Alunos no índice de busca em memória")
+                .register(registry);
+    }
+}
@@ -0,0 +1,40 @@
+package com.vitor.demo.search;
+
+import com.vitor.demo.cache.Catalog;
+import com.vitor.demo.models.Disciplina;
+import com.vitor.demo.models.Professor;
+import com.vitor.demo.models.Turma;
+import com.vitor.demo.models.VersionedEntity;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * O que o índice guarda de uma disciplina, professor ou turma: o texto de cada campo, o título
+ * devolvido na busca e a versão da linha, usada para descobrir o que mudou enquanto o índice estava fechado.
+ */
+record CatalogDocument(Catalog tipo, long id, long versao, String titulo, Map<CatalogField, String> texts) {
+
+    static CatalogDocument of(VersionedEntity entity) {
+        Map<CatalogField, String> texts = new EnumMap<>(CatalogField.class);
+        if (entity instanceof Disciplina disciplina) {
+            texts.put(CatalogField.DISCIPLINA_NOME, disciplina.getNome());
+            texts.put(CatalogField.DISCIPLINA_EMENTA, disciplina.getEmenta());
+            return new CatalogDocument(Catalog.DISCIPLINA, disciplina.getId(), disciplina.getVersao(),
+                    disciplina.getNome(), texts);
+        }
+        if (entity instanceof Professor professor) {
+            texts.put(CatalogField.PROFESSOR_NOME, professor.getNome());
+            texts.put(CatalogField.PROFESSOR_EMAIL, professor.getEmail());
+            return new CatalogDocument(Catalog.PROFESSOR, professor.getId(), professor.getVersao(),
+                    professor.getNome(), texts);
+        }
+        if (entity instanceof Turma turma) {
+            texts.put(CatalogField.TURMA_ANO, turma.getAno() != null ? turma.getAno().toString() : null);
+            texts.put(CatalogField.TURMA_PERIODO, turma.getPeriodo());
+            return new CatalogDocument(Catalog.TURMA, turma.getId(), turma.getVersao(),
+                    "Turma " + turma.getPeriodo(), texts);
+        }
+        throw new IllegalArgumentException("Entidade fora do catálogo: " + entity.getClass().getSimpleName());
+    }
+}
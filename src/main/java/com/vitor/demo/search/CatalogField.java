@@ -0,0 +1,34 @@
+package com.vitor.demo.search;
+
+import com.vitor.demo.cache.Catalog;
+
+/**
+ * Campos indexados na busca de catálogo e o peso de cada um no BM25F: o nome pesa mais que a ementa,
+ * o período ("2025.1") mais que o ano sozinho.
+ */
+enum CatalogField {
+    DISCIPLINA_NOME(Catalog.DISCIPLINA, 3.0),
+    DISCIPLINA_EMENTA(Catalog.DISCIPLINA, 1.0),
+    PROFESSOR_NOME(Catalog.PROFESSOR, 3.0),
+    PROFESSOR_EMAIL(Catalog.PROFESSOR, 1.5),
+    TURMA_ANO(Catalog.TURMA, 1.0),
+    TURMA_PERIODO(Catalog.TURMA, 2.0);
+
+    private static final CatalogField[] VALUES = values();
+
+    final Catalog tipo;
+    final double weight;
+
+    CatalogField(Catalog tipo, double weight) {
+        this.tipo = tipo;
+        this.weight = weight;
+    }
+
+    static CatalogField of(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    static int count() {
+        return VALUES.length;
+    }
+}
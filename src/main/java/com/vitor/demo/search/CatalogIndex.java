@@ -0,0 +1,404 @@
+package com.vitor.demo.search;
+
+import com.vitor.demo.cache.Catalog;
+import com.vitor.demo.dto.CatalogSearchResultDTO;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice invertido do catálogo em segmentos, como nos motores de busca: as escritas entram em um buffer
+ * em memória, que {@link #flush} grava como segmento novo; alteração e exclusão só marcam o documento antigo
+ * como excluído. Quando os segmentos passam de {@code maxSegments}, são fundidos em um só, sem os excluídos.
+ * O manifesto ("segments") lista os segmentos vigentes e é trocado atomicamente, de modo que uma queda no
+ * meio da gravação deixa o índice na versão anterior. Não é thread-safe: o CatalogSearchIndex controla o acesso.
+ */
+final class CatalogIndex {
+
+    // Parâmetros usuais do BM25
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+
+    private static final String MANIFEST = "segments";
+    private static final String FORMAT = "catalog-search 1";
+
+    private final Path directory;
+    private final int maxSegments;
+    private final List<CatalogSegment> segments = new ArrayList<>();
+    private CatalogSegment buffer;
+    private final Map<Key, Location> live = new HashMap<>();
+    // Por campo: soma dos tamanhos e quantidade de documentos vivos com o campo (tamanho médio do BM25F)
+    private final long[] fieldLengths = new long[CatalogField.count()];
+    private final int[] fieldDocs = new int[CatalogField.count()];
+    private long generation;
+    // A lista de segmentos mudou desde o último manifesto gravado
+    private boolean manifestDirty;
+
+    private CatalogIndex(Path directory, int maxSegments) {
+        this.directory = directory;
+        this.maxSegments = maxSegments;
+    }
+
+    /**
+     * Índice vazio; com {@code directory} null fica só em memória, senão o primeiro {@link #flush}
+     * substitui o que estiver gravado no diretório.
+     */
+    static CatalogIndex empty(Path directory, int maxSegments) throws IOException {
+        CatalogIndex index = new CatalogIndex(directory, maxSegments);
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        index.buffer = index.newSegment();
+        return index;
+    }
+
+    /**
+     * Abre o índice gravado em {@code directory} (vazio se ainda não existir).
+     * Lança IOException se o manifesto ou algum segmento estiver ilegível.
+     */
+    static CatalogIndex open(Path directory, int maxSegments) throws IOException {
+        CatalogIndex index = new CatalogIndex(directory, maxSegments);
+        Files.createDirectories(directory);
+        Path manifest = directory.resolve(MANIFEST);
+        if (Files.exists(manifest)) {
+            index.readManifest(manifest);
+        }
+        index.buffer = index.newSegment();
+        return index;
+    }
+
+    int size() {
+        return live.size();
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    // Versão indexada de cada documento do tipo (para comparar com o banco)
+    Map<Long, Long> versions(Catalog tipo) {
+        Map<Long, Long> versions = new HashMap<>();
+        for (Map.Entry<Key, Location> entry : live.entrySet()) {
+            if (entry.getKey().tipo() == tipo) {
+                versions.put(entry.getKey().id(), entry.getValue().doc().versao());
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * Indexa o documento, substituindo o anterior de mesmo tipo e id. Ignora versões que não são mais novas
+     * que a indexada (a releitura do banco pode chegar depois de uma escrita mais recente).
+     */
+    boolean put(CatalogDocument document) {
+        Key key = new Key(document.tipo(), document.id());
+        Location current = live.get(key);
+        if (current != null && current.doc().versao() >= document.versao()) {
+            return false;
+        }
+        if (current != null) {
+            delete(key, current);
+        }
+
+        Map<CatalogField, List<String>> terms = new EnumMap<>(CatalogField.class);
+        int[] lengths = new int[CatalogField.count()];
+        for (Map.Entry<CatalogField, String> text : document.texts().entrySet()) {
+            List<String> fieldTerms = PortugueseAnalyzer.analyze(text.getValue());
+            terms.put(text.getKey(), fieldTerms);
+            lengths[text.getKey().ordinal()] = fieldTerms.size();
+        }
+
+        CatalogSegment.Doc doc = new CatalogSegment.Doc(document.tipo(), document.id(), document.versao(),
+                document.titulo() != null ? document.titulo() : "", lengths);
+        int ord = buffer.add(doc, terms);
+        live.put(key, new Location(buffer, ord));
+        count(doc, 1);
+        return true;
+    }
+
+    boolean remove(Catalog tipo, long id) {
+        Key key = new Key(tipo, id);
+        Location current = live.get(key);
+        if (current == null) {
+            return false;
+        }
+        delete(key, current);
+        return true;
+    }
+
+    /**
+     * Documentos com algum termo da consulta, do maior para o menor BM25F. {@code tipo} null busca nos três catálogos;
+     * a raridade dos termos (idf) é sempre calculada sobre o índice inteiro.
+     */
+    List<CatalogSearchResultDTO> search(String query, Catalog tipo, int limit) {
+        Set<String> terms = new LinkedHashSet<>(PortugueseAnalyzer.analyze(query));
+        if (terms.isEmpty() || live.isEmpty()) {
+            return List.of();
+        }
+
+        List<CatalogSegment> all = new ArrayList<>(segments);
+        all.add(buffer);
+        double[] averages = new double[CatalogField.count()];
+        for (int field = 0; field < averages.length; field++) {
+            averages[field] = fieldDocs[field] == 0 ? 1.0 : (double) fieldLengths[field] / fieldDocs[field];
+        }
+
+        Map<CatalogSegment, double[]> scores = new HashMap<>();
+        for (String term : terms) {
+            int df = documentFrequency(all, term);
+            if (df == 0) {
+                continue;
+            }
+            double idf = Math.log(1 + (live.size() - df + 0.5) / (df + 0.5));
+
+            for (CatalogSegment segment : all) {
+                IntList list = segment.postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                double[] segmentScores = null;
+                int i = 0;
+                while (i < list.size()) {
+                    int ord = list.get(i);
+                    // Frequência do termo no documento, somada pelos campos com peso e normalização de tamanho
+                    double tf = 0;
+                    CatalogSegment.Doc doc = segment.docs.get(ord);
+                    for (; i < list.size() && list.get(i) == ord; i += 2) {
+                        int packed = list.get(i + 1);
+                        int field = packed >>> 16;
+                        double norm = 1 - B + B * doc.lengths()[field] / averages[field];
+                        tf += CatalogField.of(field).weight * (packed & 0xFFFF) / norm;
+                    }
+                    if (!segment.isLive(ord) || (tipo != null && doc.tipo() != tipo)) {
+                        continue;
+                    }
+                    if (segmentScores == null) {
+                        segmentScores = scores.computeIfAbsent(segment, key -> new double[key.docs.size()]);
+                    }
+                    segmentScores[ord] += idf * tf / (K1 + tf);
+                }
+            }
+        }
+
+        List<CatalogSearchResultDTO> hits = new ArrayList<>();
+        for (Map.Entry<CatalogSegment, double[]> entry : scores.entrySet()) {
+            double[] segmentScores = entry.getValue();
+            for (int ord = 0; ord < segmentScores.length; ord++) {
+                if (segmentScores[ord] > 0) {
+                    CatalogSegment.Doc doc = entry.getKey().docs.get(ord);
+                    hits.add(new CatalogSearchResultDTO(doc.tipo(), doc.id(), doc.titulo(),
+                            Math.round(segmentScores[ord] * 1000) / 1000.0));
+                }
+            }
+        }
+        hits.sort(Comparator.comparingDouble(CatalogSearchResultDTO::getScore).reversed()
+                .thenComparing(CatalogSearchResultDTO::getTitulo)
+                .thenComparing(CatalogSearchResultDTO::getId));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    /**
+     * Transforma o buffer em segmento, funde os segmentos se passaram do limite e, com diretório, grava os
+     * segmentos novos, os excluídos alterados e o manifesto. Em caso de erro o estado em memória continua
+     * válido e a próxima chamada tenta de novo.
+     */
+    void flush() throws IOException {
+        if (!buffer.docs.isEmpty()) {
+            segments.add(buffer);
+            buffer = newSegment();
+            manifestDirty = true;
+        }
+        manifestDirty |= segments.removeIf(segment -> segment.liveCount() == 0);
+        if (segments.size() > maxSegments) {
+            mergeAll();
+            manifestDirty = true;
+        }
+        if (directory == null) {
+            return;
+        }
+
+        for (CatalogSegment segment : segments) {
+            if (!segment.persisted) {
+                segment.write(directory);
+            }
+            if (segment.deletesDirty) {
+                segment.writeDeletes(directory, segment.name + "_" + (++generation) + ".del");
+                manifestDirty = true;
+            }
+        }
+        if (manifestDirty || !Files.exists(directory.resolve(MANIFEST))) {
+            writeManifest();
+            manifestDirty = false;
+            deleteUnreferenced();
+        }
+    }
+
+    private void mergeAll() {
+        List<int[]> remap = new ArrayList<>();
+        CatalogSegment merged = CatalogSegment.merge(nextName(), segments, remap);
+        for (int s = 0; s < segments.size(); s++) {
+            CatalogSegment source = segments.get(s);
+            int[] ords = remap.get(s);
+            for (int ord = 0; ord < ords.length; ord++) {
+                if (ords[ord] >= 0) {
+                    CatalogSegment.Doc doc = source.docs.get(ord);
+                    live.put(new Key(doc.tipo(), doc.id()), new Location(merged, ords[ord]));
+                }
+            }
+        }
+        segments.clear();
+        segments.add(merged);
+    }
+
+    private void delete(Key key, Location location) {
+        live.remove(key);
+        location.segment().delete(location.ord());
+        count(location.doc(), -1);
+    }
+
+    private void count(CatalogSegment.Doc doc, int sign) {
+        for (int field = 0; field < fieldLengths.length; field++) {
+            if (doc.lengths()[field] > 0) {
+                fieldLengths[field] += sign * doc.lengths()[field];
+                fieldDocs[field] += sign;
+            }
+        }
+    }
+
+    private static int documentFrequency(List<CatalogSegment> all, String term) {
+        int df = 0;
+        for (CatalogSegment segment : all) {
+            IntList list = segment.postings.get(term);
+            if (list == null) {
+                continue;
+            }
+            int previous = -1;
+            for (int i = 0; i < list.size(); i += 2) {
+                int ord = list.get(i);
+                if (ord != previous && segment.isLive(ord)) {
+                    df++;
+                }
+                previous = ord;
+            }
+        }
+        return df;
+    }
+
+    private CatalogSegment newSegment() {
+        return new CatalogSegment(nextName());
+    }
+
+    private String nextName() {
+        return "seg_" + (++generation);
+    }
+
+    // Manifesto: formato, geração e uma linha "segmento excluídos" por segmento ("-" sem excluídos gravados)
+    private void readManifest(Path manifest) throws IOException {
+        List<String[]> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+            if (!FORMAT.equals(reader.readLine())) {
+                throw new IOException("Formato de índice desconhecido em " + manifest);
+            }
+            String header = reader.readLine();
+            if (header == null || !header.startsWith("generation ")) {
+                throw new IOException("Manifesto incompleto: " + manifest);
+            }
+            generation = Long.parseLong(header.substring("generation ".length()));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    entries.add(line.split(" "));
+                }
+            }
+        }
+
+        for (String[] entry : entries) {
+            CatalogSegment segment = CatalogSegment.read(directory, entry[0], "-".equals(entry[1]) ? null : entry[1]);
+            segments.add(segment);
+            for (int ord = 0; ord < segment.docs.size(); ord++) {
+                if (!segment.isLive(ord)) {
+                    continue;
+                }
+                CatalogSegment.Doc doc = segment.docs.get(ord);
+                Key key = new Key(doc.tipo(), doc.id());
+                Location previous = live.get(key);
+                // Não deveria acontecer; se acontecer, vale a versão mais nova
+                if (previous != null && previous.doc().versao() >= doc.versao()) {
+                    segment.delete(ord);
+                    continue;
+                }
+                if (previous != null) {
+                    delete(key, previous);
+                }
+                live.put(key, new Location(segment, ord));
+                count(doc, 1);
+            }
+        }
+    }
+
+    private List<String> manifestLines() {
+        List<String> lines = new ArrayList<>();
+        lines.add(FORMAT);
+        lines.add("generation " + generation);
+        for (CatalogSegment segment : segments) {
+            lines.add(segment.name + " " + (segment.deletesFile != null ? segment.deletesFile : "-"));
+        }
+        return lines;
+    }
+
+    private void writeManifest() throws IOException {
+        Path temp = directory.resolve(MANIFEST + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (String line : manifestLines()) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+        Files.move(temp, directory.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Segmentos fundidos ou vazios e listas de excluídos substituídas, além de temporários de uma queda
+    private void deleteUnreferenced() throws IOException {
+        Set<String> referenced = new HashSet<>();
+        referenced.add(MANIFEST);
+        for (CatalogSegment segment : segments) {
+            referenced.add(segment.name + ".seg");
+            if (segment.deletesFile != null) {
+                referenced.add(segment.deletesFile);
+            }
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "{seg_*,*.tmp}")) {
+            for (Path file : files) {
+                if (!referenced.contains(file.getFileName().toString())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private record Key(Catalog tipo, long id) {
+    }
+
+    private record Location(CatalogSegment segment, int ord) {
+
+        CatalogSegment.Doc doc() {
+            return segment.docs.get(ord);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.vitor.demo.search;
+
+import com.vitor.demo.cache.Catalog;
+import com.vitor.demo.datasource.ReadWriteRoutingDataSource;
+import com.vitor.demo.dto.CatalogSearchResultDTO;
+import com.vitor.demo.models.Disciplina;
+import com.vitor.demo.models.Professor;
+import com.vitor.demo.models.Turma;
+import com.vitor.demo.models.VersionedEntity;
+import com.vitor.demo.repositories.DisciplinaRepository;
+import com.vitor.demo.repositories.ProfessorRepository;
+import com.vitor.demo.repositories.TurmaRepository;
+import com.vitor.demo.repositories.VersionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Busca textual em disciplinas (nome e ementa), professores (nome e e-mail) e turmas (ano e período),
+ * com análise em português e ranking BM25F. Cadastro, alteração, exclusão e importação atualizam o índice
+ * após o commit. Com {@code catalog-search.directory} os segmentos ficam em disco: na subida só é
+ * reindexado o que tem versão diferente da indexada (comparando id e versao com o banco), e a mesma
+ * comparação roda periodicamente para pegar escritas de outras instâncias ou feitas direto no banco.
+ */
+@Component
+public class CatalogSearchIndex implements MeterBinder {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    // Ids relidos do banco por consulta na reconciliação
+    private static final int RELOAD_CHUNK = 500;
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSearchIndex.class);
+
+    private final VersionRepository versionRepository;
+    private final Map<Catalog, JpaRepository<? extends VersionedEntity, Long>> repositories;
+    private final Map<Catalog, Class<? extends VersionedEntity>> types = Map.of(
+            Catalog.DISCIPLINA, Disciplina.class,
+            Catalog.PROFESSOR, Professor.class,
+            Catalog.TURMA, Turma.class);
+    private final TransactionTemplate readOnlyTransaction;
+    private final int maxBufferedDocs;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object reconcileMonitor = new Object();
+
+    // Protegidos por lock; removedDuringReconcile só existe durante uma reconciliação
+    private final CatalogIndex index;
+    private int buffered;
+    private Set<String> removedDuringReconcile;
+
+    public CatalogSearchIndex(VersionRepository versionRepository, DisciplinaRepository disciplinaRepository,
+                              ProfessorRepository professorRepository, TurmaRepository turmaRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${catalog-search.directory:}") String directory,
+                              @Value("${catalog-search.max-buffered-docs:1000}") int maxBufferedDocs,
+                              @Value("${catalog-search.max-segments:8}") int maxSegments) throws IOException {
+        this.versionRepository = versionRepository;
+        this.repositories = Map.of(
+                Catalog.DISCIPLINA, disciplinaRepository,
+                Catalog.PROFESSOR, professorRepository,
+                Catalog.TURMA, turmaRepository);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxBufferedDocs = maxBufferedDocs;
+        this.index = open(directory.isBlank() ? null : Path.of(directory), maxSegments);
+    }
+
+    private static CatalogIndex open(Path directory, int maxSegments) throws IOException {
+        if (directory == null) {
+            return CatalogIndex.empty(null, maxSegments);
+        }
+        try {
+            CatalogIndex opened = CatalogIndex.open(directory, maxSegments);
+            log.info("Índice de busca do catálogo aberto de {} com {} documentos", directory, opened.size());
+            return opened;
+        } catch (IOException | RuntimeException e) {
+            // A reconciliação na subida reindexa tudo a partir do banco
+            log.warn("Índice de busca do catálogo em {} ilegível, recriando: {}", directory, e.getMessage());
+            return CatalogIndex.empty(directory, maxSegments);
+        }
+    }
+
+    public List<CatalogSearchResultDTO> search(String query, Catalog tipo, int limit) {
+        lock.readLock().lock();
+        try {
+            return index.search(query, tipo, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Indexa a entidade quando a transação corrente confirmar (na hora, se não houver transação).
+    // O documento é montado no commit, depois do flush que incrementa a versão.
+    public void putAfterCommit(VersionedEntity entity) {
+        afterCommit(() -> {
+            CatalogDocument document = CatalogDocument.of(entity);
+            withWriteLock(() -> {
+                if (index.put(document)) {
+                    buffered++;
+                }
+            });
+        });
+    }
+
+    public void removeAfterCommit(Catalog tipo, Long id) {
+        afterCommit(() -> withWriteLock(() -> {
+            index.remove(tipo, id);
+            if (removedDuringReconcile != null) {
+                removedDuringReconcile.add(tipo + ":" + id);
+            }
+        }));
+    }
+
+    /**
+     * Compara id e versao de cada disciplina, professor e turma no banco (no primário) com o índice,
+     * reindexa as linhas novas ou alteradas e retira as excluídas. Com o índice em disco atualizado,
+     * a subida só lê as versões.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${catalog-search.reconcile-interval:600000}",
+            initialDelayString = "${catalog-search.reconcile-interval:600000}")
+    public void reconcile() {
+        synchronized (reconcileMonitor) {
+            withWriteLock(() -> removedDuringReconcile = new HashSet<>());
+            int reindexed = 0;
+            int removed = 0;
+            try {
+                for (Catalog tipo : Catalog.values()) {
+                    // Versões indexadas lidas antes do banco: o que for indexado depois não conta como excluído
+                    Map<Long, Long> indexed = withReadLock(() -> index.versions(tipo));
+                    Map<Long, Long> current = readOnPrimary(() -> versionRepository.findAllVersions(types.get(tipo)));
+
+                    List<Long> changed = new ArrayList<>();
+                    current.forEach((id, versao) -> {
+                        if (!versao.equals(indexed.get(id))) {
+                            changed.add(id);
+                        }
+                    });
+                    for (int from = 0; from < changed.size(); from += RELOAD_CHUNK) {
+                        List<Long> chunk = changed.subList(from, Math.min(from + RELOAD_CHUNK, changed.size()));
+                        List<CatalogDocument> documents = readOnPrimary(() -> {
+                            List<CatalogDocument> loaded = new ArrayList<>();
+                            repositories.get(tipo).findAllById(chunk)
+                                    .forEach(entity -> loaded.add(CatalogDocument.of(entity)));
+                            return loaded;
+                        });
+                        reindexed += writeLocked(() -> {
+                            int count = 0;
+                            for (CatalogDocument document : documents) {
+                                if (!removedDuringReconcile.contains(tipo + ":" + document.id())
+                                        && index.put(document)) {
+                                    count++;
+                                }
+                            }
+                            buffered += count;
+                            return count;
+                        });
+                    }
+
+                    List<Long> missing = new ArrayList<>(indexed.keySet());
+                    missing.removeAll(current.keySet());
+                    removed += writeLocked(() -> {
+                        int count = 0;
+                        for (Long id : missing) {
+                            if (index.remove(tipo, id)) {
+                                count++;
+                            }
+                        }
+                        return count;
+                    });
+                }
+            } catch (RuntimeException e) {
+                log.warn("Falha ao reconciliar o índice de busca do catálogo: {}", e.getMessage());
+            } finally {
+                withWriteLock(() -> removedDuringReconcile = null);
+            }
+            if (reindexed > 0 || removed > 0) {
+                log.info("Índice de busca do catálogo: {} documentos reindexados, {} removidos", reindexed, removed);
+            }
+            flush();
+        }
+    }
+
+    /**
+     * Grava no disco o que está no buffer e as exclusões pendentes. Uma falha de gravação só adia a
+     * persistência: o índice em memória continua respondendo e a próxima execução tenta de novo.
+     */
+    @Scheduled(fixedDelayString = "${catalog-search.flush-interval:5000}")
+    @PreDestroy
+    public void flush() {
+        withWriteLock(() -> {
+            try {
+                index.flush();
+                buffered = 0;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Falha ao gravar o índice de busca do catálogo: {}", e.getMessage());
+            }
+        });
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyAndMaybeFlush(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applyAndMaybeFlush(change);
+            }
+        });
+    }
+
+    // Um buffer grande vira segmento sem esperar o agendamento (importações, reindexação)
+    private void applyAndMaybeFlush(Runnable change) {
+        change.run();
+        if (withReadLock(() -> buffered) >= maxBufferedDocs) {
+            flush();
+        }
+    }
+
+    private <T> T readOnPrimary(Supplier<T> query) {
+        return ReadWriteRoutingDataSource.onPrimary(() -> readOnlyTransaction.execute(status -> query.get()));
+    }
+
+    private <T> T withReadLock(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void withWriteLock(Runnable action) {
+        writeLocked(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private <T> T writeLocked(Supplier<T> action) {
+        lock.writeLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("catalog.search.index.size", this, search -> search.withReadLock(search.index::size))
+                .description("Documentos no índice de busca do catálogo")
+                .register(registry);
+        Gauge.builder("catalog.search.index.segments", this, search -> search.withReadLock(search.index::segmentCount))
+                .description("Segmentos do índice de busca do catálogo")
+                .register(registry);
+    }
+}
@@ -0,0 +1,260 @@
+package com.vitor.demo.search;
+
+import com.vitor.demo.cache.Catalog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Segmento do índice de catálogo: documentos numerados pela ordem de inclusão e, por termo, as ocorrências
+ * em pares (número do documento, campo << 16 | frequência). Só o segmento em memória (o buffer) recebe
+ * documentos; depois de gravado em disco o segmento é imutável e só a lista de excluídos muda.
+ */
+final class CatalogSegment {
+
+    private static final int MAGIC = 0x43534731; // "CSG1"
+    private static final int MAX_FREQUENCY = 0xFFFF;
+
+    final String name;
+    final List<Doc> docs;
+    final Map<String, IntList> postings;
+    final BitSet deleted;
+    // Nome do arquivo de excluídos em disco; null se ninguém foi excluído ou o segmento não foi gravado
+    String deletesFile;
+    boolean deletesDirty;
+    boolean persisted;
+
+    CatalogSegment(String name) {
+        this(name, new ArrayList<>(), new HashMap<>(), new BitSet());
+    }
+
+    private CatalogSegment(String name, List<Doc> docs, Map<String, IntList> postings, BitSet deleted) {
+        this.name = name;
+        this.docs = docs;
+        this.postings = postings;
+        this.deleted = deleted;
+    }
+
+    int add(Doc doc, Map<CatalogField, List<String>> terms) {
+        int ord = docs.size();
+        docs.add(doc);
+        // Todas as ocorrências de um documento ficam juntas em cada lista (a busca conta a frequência
+        // de documentos contando mudanças de número)
+        Map<String, int[]> frequencies = new HashMap<>();
+        for (Map.Entry<CatalogField, List<String>> field : terms.entrySet()) {
+            for (String term : field.getValue()) {
+                frequencies.computeIfAbsent(term, key -> new int[CatalogField.count()])[field.getKey().ordinal()]++;
+            }
+        }
+        for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+            IntList list = postings.computeIfAbsent(entry.getKey(), key -> new IntList());
+            int[] perField = entry.getValue();
+            for (int field = 0; field < perField.length; field++) {
+                if (perField[field] > 0) {
+                    list.add(ord);
+                    list.add(field << 16 | Math.min(perField[field], MAX_FREQUENCY));
+                }
+            }
+        }
+        return ord;
+    }
+
+    boolean isLive(int ord) {
+        return !deleted.get(ord);
+    }
+
+    int liveCount() {
+        return docs.size() - deleted.cardinality();
+    }
+
+    void delete(int ord) {
+        deleted.set(ord);
+        deletesDirty = true;
+    }
+
+    /**
+     * Cópia com os documentos vivos de {@code sources}, renumerados; {@code remap} recebe, por segmento
+     * de origem, o novo número de cada documento (-1 para os excluídos).
+     */
+    static CatalogSegment merge(String name, List<CatalogSegment> sources, List<int[]> remap) {
+        CatalogSegment merged = new CatalogSegment(name);
+        for (CatalogSegment source : sources) {
+            int[] ords = new int[source.docs.size()];
+            for (int ord = 0; ord < ords.length; ord++) {
+                if (source.isLive(ord)) {
+                    ords[ord] = merged.docs.size();
+                    merged.docs.add(source.docs.get(ord));
+                } else {
+                    ords[ord] = -1;
+                }
+            }
+            remap.add(ords);
+        }
+        for (int s = 0; s < sources.size(); s++) {
+            int[] ords = remap.get(s);
+            for (Map.Entry<String, IntList> entry : sources.get(s).postings.entrySet()) {
+                IntList source = entry.getValue();
+                IntList target = null;
+                for (int i = 0; i < source.size(); i += 2) {
+                    int ord = ords[source.get(i)];
+                    if (ord < 0) {
+                        continue;
+                    }
+                    if (target == null) {
+                        target = merged.postings.computeIfAbsent(entry.getKey(), key -> new IntList());
+                    }
+                    target.add(ord);
+                    target.add(source.get(i + 1));
+                }
+            }
+        }
+        return merged;
+    }
+
+    // Grava em arquivo temporário e renomeia: um segmento no disco está sempre completo
+    void write(Path directory) throws IOException {
+        Path file = directory.resolve(name + ".seg");
+        Path temp = directory.resolve(name + ".seg.tmp");
+        CRC32 crc = new CRC32();
+        try (DataOutputStream out = checked(Files.newOutputStream(temp), crc)) {
+            out.writeInt(MAGIC);
+            out.writeInt(docs.size());
+            for (Doc doc : docs) {
+                out.writeByte(doc.tipo().ordinal());
+                out.writeLong(doc.id());
+                out.writeLong(doc.versao());
+                out.writeUTF(doc.titulo());
+                for (int length : doc.lengths()) {
+                    out.writeInt(length);
+                }
+            }
+            // Termos em ordem para o arquivo não depender da ordem do HashMap
+            Map<String, IntList> sorted = new TreeMap<>(postings);
+            out.writeInt(sorted.size());
+            for (Map.Entry<String, IntList> entry : sorted.entrySet()) {
+                IntList list = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeInt(list.size());
+                for (int i = 0; i < list.size(); i++) {
+                    out.writeInt(list.get(i));
+                }
+            }
+            out.writeLong(crc.getValue());
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        persisted = true;
+    }
+
+    void writeDeletes(Path directory, String file) throws IOException {
+        Path temp = directory.resolve(file + ".tmp");
+        CRC32 crc = new CRC32();
+        try (DataOutputStream out = checked(Files.newOutputStream(temp), crc)) {
+            long[] words = deleted.toLongArray();
+            out.writeInt(MAGIC);
+            out.writeInt(words.length);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+            out.writeLong(crc.getValue());
+        }
+        Files.move(temp, directory.resolve(file), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        deletesFile = file;
+        deletesDirty = false;
+    }
+
+    static CatalogSegment read(Path directory, String name, String deletesFile) throws IOException {
+        List<Doc> docs;
+        Map<String, IntList> postings;
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = checked(Files.newInputStream(directory.resolve(name + ".seg")), crc)) {
+            expectMagic(in, name);
+            int docCount = in.readInt();
+            docs = new ArrayList<>(docCount);
+            Catalog[] tipos = Catalog.values();
+            for (int i = 0; i < docCount; i++) {
+                Catalog tipo = tipos[in.readUnsignedByte()];
+                long id = in.readLong();
+                long versao = in.readLong();
+                String titulo = in.readUTF();
+                int[] lengths = new int[CatalogField.count()];
+                for (int field = 0; field < lengths.length; field++) {
+                    lengths[field] = in.readInt();
+                }
+                docs.add(new Doc(tipo, id, versao, titulo, lengths));
+            }
+            int termCount = in.readInt();
+            postings = new HashMap<>(termCount * 4 / 3 + 1);
+            for (int i = 0; i < termCount; i++) {
+                String term = in.readUTF();
+                int size = in.readInt();
+                IntList list = new IntList();
+                for (int j = 0; j < size; j++) {
+                    list.add(in.readInt());
+                }
+                postings.put(term, list);
+            }
+            verify(in, crc, name);
+        }
+
+        BitSet deleted = new BitSet();
+        if (deletesFile != null) {
+            crc.reset();
+            try (DataInputStream in = checked(Files.newInputStream(directory.resolve(deletesFile)), crc)) {
+                expectMagic(in, deletesFile);
+                long[] words = new long[in.readInt()];
+                for (int i = 0; i < words.length; i++) {
+                    words[i] = in.readLong();
+                }
+                verify(in, crc, deletesFile);
+                deleted = BitSet.valueOf(words);
+            }
+        }
+
+        CatalogSegment segment = new CatalogSegment(name, docs, postings, deleted);
+        segment.deletesFile = deletesFile;
+        segment.persisted = true;
+        return segment;
+    }
+
+    // CRC32 de tudo o que foi escrito, gravado no fim do arquivo e conferido na leitura
+    private static DataOutputStream checked(OutputStream out, CRC32 crc) {
+        return new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(out), crc));
+    }
+
+    private static DataInputStream checked(InputStream in, CRC32 crc) {
+        return new DataInputStream(new CheckedInputStream(new BufferedInputStream(in), crc));
+    }
+
+    private static void verify(DataInputStream in, CRC32 crc, String file) throws IOException {
+        long expected = crc.getValue();
+        if (in.readLong() != expected) {
+            throw new IOException("Arquivo corrompido: " + file);
+        }
+    }
+
+    private static void expectMagic(DataInputStream in, String file) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Formato desconhecido: " + file);
+        }
+    }
+
+    record Doc(Catalog tipo, long id, long versao, String titulo, int[] lengths) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.vitor.demo.search;
+
+import java.util.Arrays;
+
+/**
+ * Lista de ints sem boxing para as listas de ocorrências do índice (4 bytes por posição em vez de um Long).
+ * A ordem não é preservada na remoção.
+ */
+final class IntList {
+
+    private int[] values = new int[2];
+    private int size;
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    // Remove uma ocorrência trocando-a pela última
+    boolean remove(int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                values[i] = values[--size];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int removeLast() {
+        return values[--size];
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
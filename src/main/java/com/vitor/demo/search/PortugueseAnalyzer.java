@@ -0,0 +1,98 @@
+package com.vitor.demo.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Análise de texto em português para a busca de catálogo: sem acentos e em minúsculas, sem palavras
+ * vazias ("de", "para", ...) e com um radicalizador leve que junta plural, feminino e advérbios em -mente
+ * ("Programações" e "programação" → "programaca"). Números com ponto ("2025.1") ficam inteiros.
+ */
+final class PortugueseAnalyzer {
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "o", "as", "os", "um", "uma", "uns", "umas", "de", "da", "do", "das", "dos", "em", "no", "na",
+            "nos", "nas", "ao", "aos", "e", "ou", "que", "se", "por", "pelo", "pela", "pelos", "pelas", "para",
+            "com", "sem", "sobre", "entre", "como", "mais", "menos", "seu", "sua", "seus", "suas", "este", "esta",
+            "isto", "esse", "essa", "isso", "sao", "ser", "foi", "nao", "ja", "tambem", "ate", "muito");
+
+    private PortugueseAnalyzer() {
+    }
+
+    static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (c == '.' && isDigitBefore(token) && i + 1 < decomposed.length()
+                    && Character.isDigit(decomposed.charAt(i + 1))) {
+                token.append(c);
+            } else {
+                emit(token, terms);
+            }
+        }
+        emit(token, terms);
+        return terms;
+    }
+
+    private static boolean isDigitBefore(StringBuilder token) {
+        return !token.isEmpty() && Character.isDigit(token.charAt(token.length() - 1));
+    }
+
+    private static void emit(StringBuilder token, List<String> terms) {
+        if (token.isEmpty()) {
+            return;
+        }
+        String word = token.toString();
+        token.setLength(0);
+        if (!STOPWORDS.contains(word)) {
+            terms.add(stem(word));
+        }
+    }
+
+    /**
+     * Radicalizador leve (na linha do de Savoy para o português): só plural, advérbio e vogal final,
+     * para não misturar palavras de sentidos diferentes como os radicalizadores agressivos.
+     */
+    static String stem(String word) {
+        if (word.length() < 4 || Character.isDigit(word.charAt(0))) {
+            return word;
+        }
+
+        String stem = word;
+        if (stem.endsWith("oes") || stem.endsWith("aes")) {
+            stem = stem.substring(0, stem.length() - 3) + "ao";
+        } else if (stem.endsWith("ns")) {
+            stem = stem.substring(0, stem.length() - 2) + "m";
+        } else if (stem.endsWith("ais") || stem.endsWith("eis") || stem.endsWith("ois")) {
+            stem = stem.substring(0, stem.length() - 2) + "l";
+        } else if (stem.length() > 4 && (stem.endsWith("res") || stem.endsWith("zes") || stem.endsWith("les"))) {
+            stem = stem.substring(0, stem.length() - 2);
+        } else if (stem.endsWith("s") && !stem.endsWith("ss") && !stem.endsWith("us") && !stem.endsWith("is")) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+
+        if (stem.length() > 7 && stem.endsWith("mente")) {
+            stem = stem.substring(0, stem.length() - 5);
+        }
+
+        // Vogal final de gênero/número: aluno, aluna → alun; professora → professor
+        char last = stem.charAt(stem.length() - 1);
+        if (stem.length() > 4 && (last == 'a' || last == 'e' || last == 'o')) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        return stem;
+    }
+}
@@ -0,0 +1,131 @@
+package com.vitor.demo.search;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+
+/**
+ * Trie de palavras normalizadas; cada nó guarda as posições (slots) dos alunos com uma palavra
+ * que termina nele. Os filhos ficam em arrays ordenados em vez de mapas para caber dezenas
+ * de milhares de nomes em poucos megabytes.
+ */
+final class PrefixTrie {
+
+    private final Node root = new Node();
+
+    void add(String term, int slot) {
+        Node node = root;
+        for (int i = 0; i < term.length(); i++) {
+            node = node.childOrCreate(term.charAt(i));
+        }
+        if (node.slots == null) {
+            node.slots = new IntList();
+        }
+        node.slots.add(slot);
+    }
+
+    void remove(String term, int slot) {
+        Node[] path = new Node[term.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < term.length(); i++) {
+            path[i + 1] = path[i].child(term.charAt(i));
+            if (path[i + 1] == null) {
+                return;
+            }
+        }
+
+        Node last = path[term.length()];
+        if (last.slots == null || !last.slots.remove(slot)) {
+            return;
+        }
+        if (last.slots.isEmpty()) {
+            last.slots = null;
+        }
+        // Poda os nós que ficaram sem palavras e sem filhos
+        for (int i = term.length(); i > 0 && path[i].isEmpty(); i--) {
+            path[i - 1].removeChild(term.charAt(i - 1));
+        }
+    }
+
+    // Marca em into os slots de todas as palavras que começam com o prefixo
+    void collect(String prefix, BitSet into) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        if (node == null) {
+            return;
+        }
+
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(node);
+        while (!pending.isEmpty()) {
+            Node current = pending.pop();
+            if (current.slots != null) {
+                for (int i = 0; i < current.slots.size(); i++) {
+                    into.set(current.slots.get(i));
+                }
+            }
+            for (Node child : current.children) {
+                pending.push(child);
+            }
+        }
+    }
+
+    private static final class Node {
+
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private IntList slots;
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index >= 0) {
+                return children[index];
+            }
+
+            int insertAt = -index - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+
+            Node created = new Node();
+            newKeys[insertAt] = c;
+            newChildren[insertAt] = created;
+            keys = newKeys;
+            children = newChildren;
+            return created;
+        }
+
+        void removeChild(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index < 0) {
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            keys = newKeys.length == 0 ? NO_KEYS : newKeys;
+            children = newChildren.length == 0 ? NO_CHILDREN : newChildren;
+        }
+
+        boolean isEmpty() {
+            return keys.length == 0 && slots == null;
+        }
+    }
+}
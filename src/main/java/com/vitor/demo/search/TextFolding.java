@@ -0,0 +1,80 @@
+package com.vitor.demo.search;
+
+import java.text.Normalizer;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Normalização usada tanto na indexação quanto na consulta: sem acentos, minúsculas e
+ * qualquer pontuação virando um único espaço ("D'Ávila  João" → "d avila joao").
+ */
+final class TextFolding {
+
+    private static final int CPF_LENGTH = 11;
+
+    private TextFolding() {
+    }
+
+    static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && out.length() > 0) {
+                    out.append(' ');
+                }
+                out.append(Character.toLowerCase(c));
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return out.toString();
+    }
+
+    // Palavras distintas de um texto já normalizado
+    static Set<String> tokens(String folded) {
+        if (folded.isEmpty()) {
+            return Set.of();
+        }
+        return new LinkedHashSet<>(List.of(folded.split(" ")));
+    }
+
+    // Trigramas de cada palavra com dois espaços antes e um depois, como no pg_trgm
+    static Set<String> trigrams(String folded) {
+        Set<String> grams = new HashSet<>();
+        for (String token : tokens(folded)) {
+            String padded = "  " + token + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * Dígitos de uma consulta que só pode ser (início de) CPF, com ou sem máscara; null para consultas por nome.
+     */
+    static String cpfPrefix(String query) {
+        StringBuilder digits = new StringBuilder(CPF_LENGTH);
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            } else if (c != '.' && c != '-' && c != ' ') {
+                return null;
+            }
+        }
+        return digits.isEmpty() || digits.length() > CPF_LENGTH ? null : digits.toString();
+    }
+}
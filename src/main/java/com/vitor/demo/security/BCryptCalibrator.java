@@ -0,0 +1,43 @@
+package com.vitor.demo.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Escolhe o custo do BCrypt medindo o hardware na inicialização.
+ * Cada ponto de custo dobra o tempo, então basta medir o custo mínimo e extrapolar.
+ */
+final class BCryptCalibrator {
+
+    private static final Logger log = LoggerFactory.getLogger(BCryptCalibrator.class);
+
+    private static final String SAMPLE = "calibracao-bcrypt";
+
+    private BCryptCalibrator() {
+    }
+
+    static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+
+        // Aquecimento do JIT antes de medir
+        encoder.encode(SAMPLE);
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        double millis = best / 1_000_000.0;
+        int strength = minStrength;
+        while (strength < maxStrength && millis * 2 <= targetMillis) {
+            millis *= 2;
+            strength++;
+        }
+
+        log.info("Custo BCrypt calibrado: {} (~{} ms por hash, alvo {} ms)", strength, Math.round(millis), targetMillis);
+        return strength;
+    }
+}
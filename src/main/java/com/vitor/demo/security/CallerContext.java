@@ -0,0 +1,53 @@
+package com.vitor.demo.security;
+
+/**
+ * Dados do usuário da requisição resolvidos uma única vez no filtro JWT.
+ * Imutável: pode ser repassado a outras threads junto com o SecurityContext.
+ */
+public final class CallerContext {
+
+    private final Long userId;
+    private final String username;
+    private final int roles;
+    private final boolean admin;
+
+    public CallerContext(Long userId, String username, int roles) {
+        this.userId = userId;
+        this.username = username;
+        this.roles = roles;
+        this.admin = (roles & ProfileEnum.ADMIN.getMask()) != 0;
+    }
+
+    public static CallerContext of(UserSpringSecurity user) {
+        return new CallerContext(user.getId(), user.getUsername(), user.getRoles());
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public int getRoles() {
+        return roles;
+    }
+
+    public boolean isAdmin() {
+        return admin;
+    }
+
+    public boolean hasRole(ProfileEnum profile) {
+        return (roles & profile.getMask()) != 0;
+    }
+
+    public boolean isSelfOrAdmin(Long id) {
+        return admin || (userId != null && userId.equals(id));
+    }
+
+    @Override
+    public String toString() {
+        return "CallerContext{userId=" + userId + ", username='" + username + "', roles=" + roles + '}';
+    }
+}
@@ -0,0 +1,56 @@
+package com.vitor.demo.security;
+
+import com.vitor.demo.handlers.AuthorizationException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Acesso ao {@link CallerContext} da requisição atual pelos services.
+ * O contexto viaja nos details da Authentication, então segue o SecurityContext
+ * para threads assíncronas (ver AsyncConfig) sem nenhum estado próprio.
+ */
+@Component
+public class CallerContextAccessor {
+
+    /**
+     * Contexto do usuário autenticado, ou null se a requisição é anônima.
+     */
+    public CallerContext current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return null;
+        }
+        if (authentication.getDetails() instanceof CallerContext context) {
+            return context;
+        }
+        // Authentication criada fora do filtro JWT (ex.: login, testes)
+        if (authentication.getPrincipal() instanceof UserSpringSecurity user) {
+            return CallerContext.of(user);
+        }
+        return null;
+    }
+
+    public CallerContext require() {
+        CallerContext context = current();
+        if (context == null) {
+            throw new AuthorizationException("Usuário não autenticado");
+        }
+        return context;
+    }
+
+    public boolean isAdmin() {
+        CallerContext context = current();
+        return context != null && context.isAdmin();
+    }
+
+    public Long getCurrentUserId() {
+        return require().getUserId();
+    }
+
+    public void validateSelfOrAdmin(Long userId) {
+        if (!require().isSelfOrAdmin(userId)) {
+            throw new AuthorizationException("Acesso negado: você só pode acessar seus próprios dados");
+        }
+    }
+}
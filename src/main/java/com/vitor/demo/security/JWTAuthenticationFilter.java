@@ -1,6 +1,7 @@
 package com.vitor.demo.security;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vitor.demo.services.AuthService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -18,11 +19,21 @@ import java.util.Map;
 public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilter {
 
     private final AuthenticationManager authenticationManager;
-    private final JWTUtil jwtUtil;
+    private final AuthService authService;
+    private final LoginExecutor loginExecutor;
+    private final LoginThrottle loginThrottle;
+    private final ObjectMapper objectMapper;
 
-    public JWTAuthenticationFilter(AuthenticationManager authenticationManager, JWTUtil jwtUtil) {
+    private static final String USERNAME_ATTRIBUTE = JWTAuthenticationFilter.class.getName() + ".username";
+
+    public JWTAuthenticationFilter(AuthenticationManager authenticationManager, AuthService authService,
+                                   LoginExecutor loginExecutor, LoginThrottle loginThrottle,
+                                   ObjectMapper objectMapper) {
         this.authenticationManager = authenticationManager;
-        this.jwtUtil = jwtUtil;
+        this.authService = authService;
+        this.loginExecutor = loginExecutor;
+        this.loginThrottle = loginThrottle;
+        this.objectMapper = objectMapper;
         setFilterProcessesUrl("/auth/login");
     }
 
@@ -30,8 +41,25 @@ public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilte
     public Authentication attemptAuthentication(HttpServletRequest request,
                                                 HttpServletResponse response) throws AuthenticationException {
         try {
+            // IP bloqueado: responde antes de ler o corpo ou tocar no banco
+            long wait = loginThrottle.ipBlockedFor(request.getRemoteAddr());
+            if (wait > 0) {
+                writeTooManyRequests(response, wait);
+                return null;
+            }
+            
             // Ler credenciais do JSON
-            LoginRequest loginRequest = new ObjectMapper().readValue(request.getInputStream(), LoginRequest.class);
+            LoginRequest loginRequest = objectMapper.readValue(request.getInputStream(), LoginRequest.class);
+            
+            if (loginRequest.getUsername() != null) {
+                request.setAttribute(USERNAME_ATTRIBUTE, loginRequest.getUsername());
+                
+                wait = loginThrottle.usernameBlockedFor(loginRequest.getUsername());
+                if (wait > 0) {
+                    writeTooManyRequests(response, wait);
+                    return null;
+                }
+            }
             
             // Criar token de autenticação
             UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
@@ -40,9 +68,12 @@ public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilte
                     new ArrayList<>()
             );
             
-            // Autenticar usuário
-            return authenticationManager.authenticate(authToken);
+            // Autenticar usuário no pool de login (limita os BCrypt simultâneos; esta thread aguarda o resultado)
+            return loginExecutor.authenticate(() -> authenticationManager.authenticate(authToken));
             
+        } catch (LoginExecutor.LoginRejectedException e) {
+            writeError(response, 503, 1, "Serviço indisponível", e.getMessage());
+            return null;
         } catch (IOException e) {
             throw new RuntimeException("Falha ao ler credenciais de login", e);
         }
@@ -55,19 +86,21 @@ public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilte
                                             Authentication authResult) throws IOException {
         
         UserSpringSecurity userSpringSecurity = (UserSpringSecurity) authResult.getPrincipal();
-        String token = jwtUtil.generateToken(userSpringSecurity);
+        loginThrottle.recordSuccess(userSpringSecurity.getUsername());
+        
+        // Access token de curta duração + refresh token para /auth/refresh
+        Map<String, Object> tokens = authService.issueTokens(userSpringSecurity);
         
         // Configurar resposta
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
         
-        Map<String, Object> responseBody = new HashMap<>();
-        responseBody.put("token", token);
+        Map<String, Object> responseBody = new HashMap<>(tokens);
         responseBody.put("username", userSpringSecurity.getUsername());
         responseBody.put("userId", userSpringSecurity.getId());
         responseBody.put("message", "Login realizado com sucesso");
         
-        String jsonResponse = new ObjectMapper().writeValueAsString(responseBody);
+        String jsonResponse = objectMapper.writeValueAsString(responseBody);
         response.getWriter().write(jsonResponse);
         response.getWriter().flush();
     }
@@ -77,6 +110,8 @@ public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilte
                                               HttpServletResponse response,
                                               AuthenticationException failed) throws IOException {
         
+        loginThrottle.recordFailure(request.getRemoteAddr(), (String) request.getAttribute(USERNAME_ATTRIBUTE));
+        
         response.setStatus(401);
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
@@ -85,11 +120,37 @@ public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilte
         errorResponse.put("error", "Falha na autenticação");
         errorResponse.put("message", "Username ou password inválidos");
         
-        String jsonResponse = new ObjectMapper().writeValueAsString(errorResponse);
+        String jsonResponse = objectMapper.writeValueAsString(errorResponse);
         response.getWriter().write(jsonResponse);
         response.getWriter().flush();
     }
 
+    private void writeTooManyRequests(HttpServletResponse response, long waitMillis) {
+        long seconds = Math.max(1, (waitMillis + 999) / 1000);
+        writeError(response, 429, seconds, "Muitas tentativas",
+                "Muitas tentativas de login falhas. Tente novamente em " + seconds + " segundo(s)");
+    }
+
+    // Login recusado sem verificar a senha: o cliente deve tentar de novo após Retry-After
+    private void writeError(HttpServletResponse response, int status, long retryAfterSeconds,
+                            String error, String message) {
+        try {
+            response.setStatus(status);
+            response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            response.setContentType("application/json");
+            response.setCharacterEncoding("UTF-8");
+            
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", error);
+            errorResponse.put("message", message);
+            
+            response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
+            response.getWriter().flush();
+        } catch (IOException e) {
+            throw new RuntimeException("Falha ao escrever resposta de login", e);
+        }
+    }
+
     // Classe interna para representar o request de login
     public static class LoginRequest {
         private String username;
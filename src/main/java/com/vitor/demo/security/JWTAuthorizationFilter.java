@@ -6,7 +6,6 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -16,42 +15,80 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter {
 
     private final JWTUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final TokenRevocationList tokenRevocationList;
+    private final boolean claimsOnly;
 
-    public JWTAuthorizationFilter(JWTUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JWTAuthorizationFilter(JWTUtil jwtUtil, UserDetailsService userDetailsService,
+                                  TokenEpochRegistry tokenEpochRegistry, TokenRevocationList tokenRevocationList,
+                                  boolean claimsOnly) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.tokenEpochRegistry = tokenEpochRegistry;
+        this.tokenRevocationList = tokenRevocationList;
+        this.claimsOnly = claimsOnly;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain chain) throws ServletException, IOException {
-        
+
         String token = extractToken(request);
-        
-        if (token != null && jwtUtil.isTokenValid(token)) {
-            String username = jwtUtil.getUsername(token);
-            
+
+        // Assinatura e expiração são verificadas uma única vez por token
+        JWTClaims claims = token != null ? jwtUtil.parseToken(token) : null;
+
+        // Tokens encerrados por logout (filtro de Bloom em memória, sem consulta ao banco)
+        if (claims != null && tokenRevocationList.isRevoked(claims.getTokenId())) {
+            claims = null;
+        }
+
+        if (claims != null) {
+            String username = claims.getUsername();
+
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                UserSpringSecurity user = resolveUser(claims);
+
+                if (user != null) {
+                    UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+                    // Contexto do chamador resolvido uma vez para toda a requisição
+                    authentication.setDetails(CallerContext.of(user));
+
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         }
-        
+
         chain.doFilter(request, response);
     }
 
+    private UserSpringSecurity resolveUser(JWTClaims claims) {
+        // Modo stateless: principal vem do token, revogação pela tabela de epochs
+        if (claimsOnly) {
+            if (!tokenEpochRegistry.isCurrent(claims.getUserId(), claims.getTokenEpoch())) {
+                return null;
+            }
+            return UserSpringSecurity.fromClaims(claims);
+        }
+
+        UserSpringSecurity user = (UserSpringSecurity) userDetailsService.loadUserByUsername(claims.getUsername());
+
+        // Token emitido antes da última revogação do usuário
+        if (claims.getTokenEpoch() < user.getTokenEpoch()) {
+            return null;
+        }
+        return user;
+    }
+
     private String extractToken(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
-        
+
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
             return bearerToken.substring(7);
         }
-        
+
         return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,87 @@
+package com.vitor.demo.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Visão imutável das claims de um token já verificado.
+ * É criada uma única vez por token e pode ser compartilhada entre threads.
+ */
+public final class JWTClaims {
+
+    private final String tokenId;
+    private final String username;
+    private final Long userId;
+    private final int roles;
+    private final int tokenEpoch;
+    private final long expiresAt;
+
+    public JWTClaims(String tokenId, String username, Long userId, int roles,
+                     int tokenEpoch, long expiresAt) {
+        this.tokenId = tokenId;
+        this.username = username;
+        this.userId = userId;
+        this.roles = roles;
+        this.tokenEpoch = tokenEpoch;
+        this.expiresAt = expiresAt;
+    }
+
+    public static JWTClaims from(Claims claims) {
+        Object userId = claims.get("userId");
+        Object epoch = claims.get("epoch");
+        Object roles = claims.get("roles");
+        return new JWTClaims(
+                claims.getId(),
+                claims.getSubject(),
+                userId instanceof Number ? ((Number) userId).longValue() : null,
+                roles instanceof Number ? ((Number) roles).intValue() : readAuthorities(claims.get("authorities")),
+                epoch instanceof Number ? ((Number) epoch).intValue() : 0,
+                claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE
+        );
+    }
+
+    // Tokens no formato antigo: ["ROLE_X"] ou [{"authority": "ROLE_X"}] convertidos para a máscara
+    private static int readAuthorities(Object raw) {
+        int mask = 0;
+        if (raw instanceof Collection<?> values) {
+            for (Object value : values) {
+                Object authority = value instanceof Map<?, ?> map ? map.get("authority") : value;
+                ProfileEnum profile = authority != null ? ProfileEnum.fromDescription(authority.toString()) : null;
+                if (profile != null) {
+                    mask |= profile.getMask();
+                }
+            }
+        }
+        return mask;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public int getRoles() {
+        return roles;
+    }
+
+    public int getTokenEpoch() {
+        return tokenEpoch;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isExpired(long now) {
+        return expiresAt <= now;
+    }
+}
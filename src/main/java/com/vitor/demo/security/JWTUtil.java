@@ -1,15 +1,20 @@
 package com.vitor.demo.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @Component
 public class JWTUtil {
@@ -20,47 +25,78 @@ public class JWTUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    private final VerifiedTokenCache tokenCache;
+
+    // Chave e parser são imutáveis e thread-safe: criados uma única vez
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    public JWTUtil(VerifiedTokenCache tokenCache) {
+        this.tokenCache = tokenCache;
+    }
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
     public String generateToken(UserSpringSecurity user) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("authorities", user.getAuthorities());
+        // Perfis como máscara de bits (ex.: 3 = ADMIN + USER) em vez da lista de GrantedAuthority
+        claims.put("roles", user.getRoles());
         claims.put("userId", user.getId());
-        
+        claims.put("epoch", user.getTokenEpoch());
+
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(user.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Verifica assinatura e expiração uma única vez e devolve as claims,
+     * ou null se o token for inválido. Tokens repetidos são servidos do cache.
+     */
+    public JWTClaims parseToken(String token) {
+        JWTClaims cached = tokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        try {
+            JWTClaims claims = JWTClaims.from(getClaims(token));
+            tokenCache.put(token, claims);
+            return claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public Claims getClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public String getUsername(String token) {
-        return getClaims(token).getSubject();
+        JWTClaims claims = parseToken(token);
+        return claims != null ? claims.getUsername() : null;
     }
 
     public Date getExpirationDate(String token) {
         return getClaims(token).getExpiration();
     }
 
+    public long getExpiration() {
+        return expiration;
+    }
+
     public boolean isTokenValid(String token) {
-        try {
-            Claims claims = getClaims(token);
-            Date expirationDate = claims.getExpiration();
-            return !expirationDate.before(new Date());
-        } catch (Exception e) {
-            return false;
-        }
+        return parseToken(token) != null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+package com.vitor.demo.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Pool dedicado e limitado para a verificação BCrypt do login: no máximo uma verificação por thread do pool
+ * ocupa CPU, e os demais endpoints ficam com o resto. A thread da requisição continua esperando o resultado.
+ * Com o pool e a fila cheios o login é recusado na hora; o timeout vale só para a espera na fila, e um login
+ * recusado por ele sai da fila sem chegar a calcular o BCrypt (uma verificação já iniciada não é interrompível).
+ */
+@Component
+public class LoginExecutor implements MeterBinder {
+
+    private final boolean enabled;
+    private final Duration timeout;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejected = new LongAdder();
+
+    public LoginExecutor(@Value("${security.login.executor.enabled:true}") boolean enabled,
+                         @Value("${security.login.executor.threads:0}") int threads,
+                         @Value("${security.login.executor.queue-capacity:64}") int queueCapacity,
+                         @Value("${security.login.executor.timeout:5s}") Duration timeout) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+
+        this.enabled = enabled;
+        this.timeout = timeout;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Executa a autenticação no pool de login.
+     * Lança LoginRejectedException se a fila estiver cheia ou se a verificação não começar dentro do timeout.
+     */
+    public Authentication authenticate(Supplier<Authentication> authentication) {
+        if (!enabled) {
+            return authentication.get();
+        }
+
+        FutureTask<Authentication> task = new FutureTask<>(authentication::get);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new LoginRejectedException("Servidor ocupado processando logins, tente novamente em instantes");
+        }
+
+        try {
+            try {
+                return task.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Ainda na fila: sai dela sem rodar. Já rodando: o BCrypt vai até o fim, então o resultado é usado
+                if (task.cancel(false)) {
+                    executor.remove(task);
+                    rejected.increment();
+                    throw new LoginRejectedException("Tempo esgotado aguardando a verificação do login");
+                }
+                return task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoginRejectedException("Login interrompido");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AuthenticationException authenticationException) {
+                throw authenticationException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("login.executor.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(registry);
+        Gauge.builder("login.executor.queued", executor, e -> e.getQueue().size())
+                .register(registry);
+        FunctionCounter.builder("login.executor.rejected", rejected, LongAdder::sum)
+                .description("Logins recusados por saturação do pool")
+                .register(registry);
+    }
+
+    public static class LoginRejectedException extends RuntimeException {
+        public LoginRejectedException(String message) {
+            super(message);
+        }
+    }
+}
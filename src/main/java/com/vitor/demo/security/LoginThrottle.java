@@ -0,0 +1,244 @@
+package com.vitor.demo.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limita tentativas de login falhas por username e por IP antes de qualquer BCrypt ou consulta ao banco.
+ * Os contadores ficam em tabelas de tamanho fixo (sem alocação por falha) e são atualizados sem locks.
+ */
+@Component
+public class LoginThrottle implements MeterBinder {
+
+    private final SlidingWindowSketch usernames;
+    private final SlidingWindowSketch ips;
+    private final LongAdder rejected = new LongAdder();
+
+    public LoginThrottle(@Value("${security.login.throttle.slots:65536}") int slots,
+                         @Value("${security.login.throttle.window:60s}") Duration window,
+                         @Value("${security.login.throttle.max-failures-per-username:5}") int maxPerUsername,
+                         @Value("${security.login.throttle.max-failures-per-ip:20}") int maxPerIp,
+                         @Value("${security.login.throttle.base-delay:1s}") Duration baseDelay,
+                         @Value("${security.login.throttle.max-delay:15m}") Duration maxDelay) {
+        this.usernames = new SlidingWindowSketch(slots, window.toMillis(), maxPerUsername, baseDelay.toMillis(), maxDelay.toMillis(), true);
+        this.ips = new SlidingWindowSketch(slots, window.toMillis(), maxPerIp, baseDelay.toMillis(), maxDelay.toMillis(), false);
+    }
+
+    /**
+     * Milissegundos que o IP ainda precisa esperar (0 se liberado).
+     */
+    public long ipBlockedFor(String ip) {
+        return countRejection(ips.blockedFor(ip, System.currentTimeMillis()));
+    }
+
+    /**
+     * Milissegundos que o username ainda precisa esperar (0 se liberado).
+     */
+    public long usernameBlockedFor(String username) {
+        return countRejection(usernames.blockedFor(normalize(username), System.currentTimeMillis()));
+    }
+
+    public void recordFailure(String ip, String username) {
+        long now = System.currentTimeMillis();
+        if (ip != null) {
+            ips.recordFailure(ip, now);
+        }
+        if (username != null) {
+            usernames.recordFailure(normalize(username), now);
+        }
+    }
+
+    // Login válido: o username passa a contar só as falhas seguintes; o IP continua valendo
+    public void recordSuccess(String username) {
+        if (username != null) {
+            usernames.recordSuccess(normalize(username));
+        }
+    }
+
+    private long countRejection(long wait) {
+        if (wait > 0) {
+            rejected.increment();
+        }
+        return wait;
+    }
+
+    private static String normalize(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("login.throttle.rejected", rejected, LongAdder::sum)
+                .description("Tentativas de login recusadas antes da verificação de senha")
+                .register(registry);
+    }
+
+    /**
+     * Count-min sketch de janelas deslizantes: cada chave ocupa um slot em cada uma das duas linhas
+     * e vale o menor dos dois valores, o que reduz falsos positivos por colisão.
+     * Cada slot guarda [janela | contagem atual | contagem anterior] em um long e o "bloqueado até" em outro.
+     * Slots são divididos entre chaves, então nunca são zerados: um login válido cria uma marca com a chave
+     * exata, que passa a contar as falhas dela à parte. Sem marca (ou com a marca substituída por outra chave
+     * no mesmo índice), vale o sketch, que tem todas as falhas da janela.
+     */
+    static final class SlidingWindowSketch {
+
+        private static final int ROWS = 2;
+        private static final long COUNT_MASK = 0xFFFFL;
+
+        private final AtomicLongArray counters;
+        private final AtomicLongArray blockedUntil;
+        private final int slotsPerRow;
+        private final int mask;
+        private final long windowMillis;
+        private final int maxFailures;
+        private final long baseDelay;
+        private final long maxDelay;
+        private final int[] seeds = new int[ROWS];
+        // Marcas de login válido por chave exata (null se a chave não usa marcas)
+        private final AtomicReferenceArray<SuccessMarker> markers;
+
+        SlidingWindowSketch(int slots, long windowMillis, int maxFailures, long baseDelay, long maxDelay,
+                            boolean successMarkers) {
+            this.slotsPerRow = Integer.highestOneBit(Math.max(slots, 2));
+            this.mask = slotsPerRow - 1;
+            this.counters = new AtomicLongArray(slotsPerRow * ROWS);
+            this.blockedUntil = new AtomicLongArray(slotsPerRow * ROWS);
+            this.windowMillis = windowMillis;
+            this.maxFailures = maxFailures;
+            this.baseDelay = baseDelay;
+            this.maxDelay = maxDelay;
+            for (int row = 0; row < ROWS; row++) {
+                seeds[row] = ThreadLocalRandom.current().nextInt();
+            }
+            this.markers = successMarkers ? new AtomicReferenceArray<>(slotsPerRow) : null;
+        }
+
+        long blockedFor(String key, long now) {
+            SuccessMarker marker = marker(key);
+            if (marker != null) {
+                return Math.max(0, marker.state.get(SuccessMarker.BLOCKED_UNTIL) - now);
+            }
+            long wait = Long.MAX_VALUE;
+            for (int row = 0; row < ROWS; row++) {
+                wait = Math.min(wait, blockedUntil.get(slot(key, row)) - now);
+            }
+            return Math.max(0, wait);
+        }
+
+        void recordFailure(String key, long now) {
+            long window = now / windowMillis;
+            double elapsed = (now % windowMillis) / (double) windowMillis;
+
+            double estimate = Double.MAX_VALUE;
+            int[] slots = new int[ROWS];
+            for (int row = 0; row < ROWS; row++) {
+                slots[row] = slot(key, row);
+                estimate = Math.min(estimate, increment(counters, slots[row], window, elapsed));
+            }
+            long until = blockedUntil(estimate, now);
+            if (until > 0) {
+                for (int slot : slots) {
+                    blockedUntil.accumulateAndGet(slot, until, Math::max);
+                }
+            }
+
+            // O sketch continua recebendo as falhas: se a marca for substituída, nenhuma delas se perde
+            SuccessMarker marker = marker(key);
+            if (marker != null) {
+                long markerUntil = blockedUntil(increment(marker.state, SuccessMarker.COUNTER, window, elapsed), now);
+                if (markerUntil > 0) {
+                    marker.state.accumulateAndGet(SuccessMarker.BLOCKED_UNTIL, markerUntil, Math::max);
+                }
+            }
+        }
+
+        // Nova marca zerada para a chave; substitui a de outra chave que caia no mesmo índice
+        void recordSuccess(String key) {
+            if (markers != null) {
+                markers.set(markerIndex(key), new SuccessMarker(key));
+            }
+        }
+
+        // Backoff exponencial acima do limite: base, 2x base, 4x base... até o máximo (0 se ainda liberado)
+        private long blockedUntil(double estimate, long now) {
+            int excess = (int) Math.ceil(estimate) - maxFailures;
+            if (excess <= 0) {
+                return 0;
+            }
+            return now + Math.min(maxDelay, baseDelay << Math.min(excess - 1, 30));
+        }
+
+        private SuccessMarker marker(String key) {
+            if (markers == null) {
+                return null;
+            }
+            SuccessMarker marker = markers.get(markerIndex(key));
+            return marker != null && marker.key.equals(key) ? marker : null;
+        }
+
+        private int markerIndex(String key) {
+            return slot(key, 0);
+        }
+
+        // Incrementa o slot (CAS) e devolve a contagem estimada na janela deslizante
+        private static double increment(AtomicLongArray counters, int slot, long window, double elapsed) {
+            while (true) {
+                long packed = counters.get(slot);
+                long slotWindow = packed >>> 32;
+                long current = (packed >>> 16) & COUNT_MASK;
+                long previous = packed & COUNT_MASK;
+
+                if (slotWindow == (window & 0xFFFFFFFFL)) {
+                    current = Math.min(current + 1, COUNT_MASK);
+                } else if (slotWindow == ((window - 1) & 0xFFFFFFFFL)) {
+                    previous = current;
+                    current = 1;
+                } else {
+                    previous = 0;
+                    current = 1;
+                }
+
+                long updated = ((window & 0xFFFFFFFFL) << 32) | (current << 16) | previous;
+                if (counters.compareAndSet(slot, packed, updated)) {
+                    return current + previous * (1.0 - elapsed);
+                }
+            }
+        }
+
+        private int slot(String key, int row) {
+            // fmix32 do MurmurHash3 com semente por linha
+            int h = key.hashCode() ^ seeds[row];
+            h ^= h >>> 16;
+            h *= 0x85EBCA6B;
+            h ^= h >>> 13;
+            h *= 0xC2B2AE35;
+            h ^= h >>> 16;
+            return row * slotsPerRow + (h & mask);
+        }
+
+        // Contagem exata de uma chave depois do último login válido, no mesmo formato dos slots do sketch
+        private static final class SuccessMarker {
+
+            static final int COUNTER = 0;
+            static final int BLOCKED_UNTIL = 1;
+
+            final String key;
+            final AtomicLongArray state = new AtomicLongArray(2);
+
+            SuccessMarker(String key) {
+                this.key = key;
+            }
+        }
+    }
+}
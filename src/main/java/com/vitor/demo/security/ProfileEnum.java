@@ -1,6 +1,11 @@
 package com.vitor.demo.security;
 
 import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.EnumSet;
+import java.util.Set;
 
 @Getter
 public enum ProfileEnum {
@@ -9,10 +14,16 @@ public enum ProfileEnum {
     
     private final int code;
     private final String description;
+    // Bit do perfil na máscara de roles (principal e claim "roles" do JWT)
+    private final int mask;
+    // Instância compartilhada: evita alocar um GrantedAuthority por verificação
+    private final GrantedAuthority authority;
     
     ProfileEnum(int code, String description) {
         this.code = code;
         this.description = description;
+        this.mask = 1 << (code - 1);
+        this.authority = new SimpleGrantedAuthority(description);
     }
     
     public static ProfileEnum toEnum(Integer code) {
@@ -28,4 +39,33 @@ public enum ProfileEnum {
         
         throw new IllegalArgumentException("Código de perfil inválido: " + code);
     }
+
+    public static ProfileEnum fromDescription(String description) {
+        for (ProfileEnum profile : ProfileEnum.values()) {
+            if (profile.getDescription().equals(description)) {
+                return profile;
+            }
+        }
+        return null;
+    }
+
+    public static int toMask(Iterable<ProfileEnum> profiles) {
+        int mask = 0;
+        for (ProfileEnum profile : profiles) {
+            if (profile != null) {
+                mask |= profile.mask;
+            }
+        }
+        return mask;
+    }
+
+    public static Set<ProfileEnum> fromMask(int mask) {
+        Set<ProfileEnum> profiles = EnumSet.noneOf(ProfileEnum.class);
+        for (ProfileEnum profile : ProfileEnum.values()) {
+            if ((mask & profile.mask) != 0) {
+                profiles.add(profile);
+            }
+        }
+        return profiles;
+    }
 }
\ No newline at end of file
@@ -1,5 +1,8 @@
 package com.vitor.demo.security;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vitor.demo.services.AuthService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -25,15 +28,42 @@ public class SecurityConfig {
 
     private final JWTUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final TokenRevocationList tokenRevocationList;
+    private final AuthService authService;
+    private final LoginExecutor loginExecutor;
+    private final LoginThrottle loginThrottle;
+    private final ObjectMapper objectMapper;
 
-    public SecurityConfig(JWTUtil jwtUtil, UserDetailsService userDetailsService) {
+    // "database" recarrega o usuário a cada requisição; "claims" monta o principal a partir do token
+    @Value("${jwt.principal-mode:database}")
+    private String principalMode;
+
+    public SecurityConfig(JWTUtil jwtUtil, UserDetailsService userDetailsService,
+                          TokenEpochRegistry tokenEpochRegistry, TokenRevocationList tokenRevocationList,
+                          AuthService authService, LoginExecutor loginExecutor,
+                          LoginThrottle loginThrottle, ObjectMapper objectMapper) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.tokenEpochRegistry = tokenEpochRegistry;
+        this.tokenRevocationList = tokenRevocationList;
+        this.authService = authService;
+        this.loginExecutor = loginExecutor;
+        this.loginThrottle = loginThrottle;
+        this.objectMapper = objectMapper;
     }
 
+    // Custo fixo (security.bcrypt.strength) ou calibrado contra o tempo alvo por hash.
+    // Hashes com custo menor são refeitos no próximo login (UserDetailsPasswordService).
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BCryptPasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:0}") int strength,
+                                                 @Value("${security.bcrypt.target-ms:250}") long targetMillis,
+                                                 @Value("${security.bcrypt.min-strength:10}") int minStrength,
+                                                 @Value("${security.bcrypt.max-strength:14}") int maxStrength) {
+        if (strength <= 0) {
+            strength = BCryptCalibrator.calibrate(targetMillis, minStrength, maxStrength);
+        }
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
@@ -64,8 +94,9 @@ public class SecurityConfig {
             )
             
             // Adiciona filtros JWT com ordem específica
-            .addFilter(new JWTAuthenticationFilter(authenticationManager, jwtUtil))
-            .addFilterBefore(new JWTAuthorizationFilter(jwtUtil, userDetailsService), 
+            .addFilter(new JWTAuthenticationFilter(authenticationManager, authService, loginExecutor, loginThrottle, objectMapper))
+            .addFilterBefore(new JWTAuthorizationFilter(jwtUtil, userDetailsService, tokenEpochRegistry,
+                                                        tokenRevocationList, "claims".equalsIgnoreCase(principalMode)),
                            UsernamePasswordAuthenticationFilter.class);
         
         return http.build();
@@ -0,0 +1,154 @@
+package com.vitor.demo.security;
+
+import com.vitor.demo.models.DeletedUser;
+import com.vitor.demo.projections.UserEpochProjection;
+import com.vitor.demo.repositories.DeletedUserRepository;
+import com.vitor.demo.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tabela em memória com o "epoch" de token de cada usuário revogado ou inativo.
+ * Usuários sem entrada estão no epoch 0, então a tabela só cresce com revogações.
+ * Usuários excluídos não aparecem mais em users: ficam na tabela usuario_excluido até o último
+ * token expirar. Ambas são recarregadas do banco periodicamente; alterações locais valem imediatamente.
+ */
+@Component
+public class TokenEpochRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenEpochRegistry.class);
+
+    // Marca usuários inativos ou excluídos: nenhum token é aceito
+    private static final int REVOKED = Integer.MAX_VALUE;
+
+    private final UserRepository userRepository;
+    private final DeletedUserRepository deletedUserRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long deletedRetention;
+
+    // Trocada por cópia sob o monitor do registro; leituras sem trava
+    private volatile Map<Long, Integer> epochs = Map.of();
+    // Atualizações locais feitas durante uma recarga, reaplicadas sobre o que veio do banco
+    private Map<Long, Integer> pending;
+    // Excluídos, com a expiração do registro: o que veio do banco mais as exclusões locais
+    private volatile Map<Long, Long> deleted = new ConcurrentHashMap<>();
+
+    public TokenEpochRegistry(UserRepository userRepository,
+                              DeletedUserRepository deletedUserRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${jwt.expiration}") long deletedRetention) {
+        this.userRepository = userRepository;
+        this.deletedUserRepository = deletedUserRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.deletedRetention = deletedRetention;
+    }
+
+    public boolean isCurrent(Long userId, int tokenEpoch) {
+        if (userId == null || deleted.containsKey(userId)) {
+            return false;
+        }
+        return tokenEpoch >= epochs.getOrDefault(userId, 0);
+    }
+
+    public synchronized void update(Long userId, int tokenEpoch) {
+        Map<Long, Integer> copy = new HashMap<>(epochs);
+        copy.merge(userId, tokenEpoch, Math::max);
+        epochs = copy;
+        if (pending != null) {
+            pending.merge(userId, tokenEpoch, Math::max);
+        }
+    }
+
+    public void revoke(Long userId) {
+        update(userId, REVOKED);
+    }
+
+    /**
+     * Registra a exclusão na transação corrente; a instância local passa a recusar os tokens no commit,
+     * as demais na próxima recarga.
+     */
+    @Transactional
+    public void markDeleted(Long userId) {
+        long expiresAt = System.currentTimeMillis() + deletedRetention;
+        deletedUserRepository.save(new DeletedUser(userId, toLocalDateTime(expiresAt)));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addDeleted(userId, expiresAt);
+                }
+            });
+        } else {
+            addDeleted(userId, expiresAt);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.epoch.refresh-interval:30000}")
+    public void refresh() {
+        synchronized (this) {
+            pending = new HashMap<>();
+        }
+        try {
+            Map<Long, Integer> loaded = new HashMap<>();
+            LocalDateTime agora = LocalDateTime.now();
+            // Transação de escrita: lê do primário, já que a tabela substitui as atualizações locais
+            // e uma réplica atrasada desfaria revogações confirmadas antes da recarga
+            List<DeletedUser> active = transactionTemplate.execute(status -> {
+                for (UserEpochProjection user : userRepository.findRevokedEpochs()) {
+                    loaded.put(user.getId(), Boolean.FALSE.equals(user.getAtivo()) ? REVOKED : user.getTokenEpoch());
+                }
+                deletedUserRepository.deleteExpired(agora);
+                return deletedUserRepository.findActive(agora);
+            });
+            Map<Long, Long> loadedDeleted = new ConcurrentHashMap<>();
+            for (DeletedUser user : active) {
+                loadedDeleted.put(user.getUserId(), user.getExpiraEm().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+
+            synchronized (this) {
+                // Revogações feitas durante a consulta podem não ter entrado nela
+                pending.forEach((userId, tokenEpoch) -> loaded.merge(userId, tokenEpoch, Math::max));
+                epochs = loaded;
+
+                long now = System.currentTimeMillis();
+                deleted.forEach((userId, expiresAt) -> {
+                    if (expiresAt > now) {
+                        loadedDeleted.putIfAbsent(userId, expiresAt);
+                    }
+                });
+                deleted = loadedDeleted;
+            }
+        } catch (Exception e) {
+            // Mantém a última tabela conhecida se o banco estiver indisponível
+            log.warn("Falha ao atualizar epochs de token: {}", e.getMessage());
+        } finally {
+            synchronized (this) {
+                pending = null;
+            }
+        }
+    }
+
+    private synchronized void addDeleted(Long userId, long expiresAt) {
+        deleted.put(userId, expiresAt);
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,181 @@
+package com.vitor.demo.security;
+
+import com.vitor.demo.models.RevokedToken;
+import com.vitor.demo.repositories.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lista de access tokens revogados (logout), consultada a cada requisição sem ir ao banco.
+ * Um filtro de Bloom responde "certamente não revogado" para quase todos os tokens;
+ * só os positivos consultam o conjunto exato. Ambos são reconstruídos periodicamente
+ * a partir da tabela token_revogado, descartando os tokens já expirados.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int bloomBits;
+    private final int hashes;
+
+    private volatile BloomFilter bloom;
+    private volatile Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${jwt.revocation.bloom-bits:1048576}") int bloomBits,
+                               @Value("${jwt.revocation.bloom-hashes:5}") int hashes) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bloomBits = bloomBits;
+        this.hashes = hashes;
+        this.bloom = new BloomFilter(bloomBits, hashes);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !bloom.mightContain(jti)) {
+            return false;
+        }
+        return revoked.containsKey(jti);
+    }
+
+    @Transactional
+    public void revoke(String jti, long expiresAt) {
+        if (jti == null || expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+
+        revokedTokenRepository.save(new RevokedToken(jti, toLocalDateTime(expiresAt)));
+        // Conjunto e filtro só mudam se a revogação for confirmada no banco
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(jti, expiresAt);
+                }
+            });
+        } else {
+            add(jti, expiresAt);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval:30000}")
+    public void refresh() {
+        try {
+            LocalDateTime agora = LocalDateTime.now();
+            // Transação só em volta das consultas: uma falha nelas cai no catch, e não no commit do agendador
+            List<RevokedToken> active = transactionTemplate.execute(status -> {
+                revokedTokenRepository.deleteExpired(agora);
+                return revokedTokenRepository.findActive(agora);
+            });
+
+            Map<String, Long> loaded = new ConcurrentHashMap<>();
+            for (RevokedToken token : active) {
+                loaded.put(token.getJti(), token.getExpiraEm().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+
+            synchronized (this) {
+                // Mantém revogações locais feitas durante a consulta
+                long now = System.currentTimeMillis();
+                revoked.forEach((jti, expiresAt) -> {
+                    if (expiresAt > now) {
+                        loaded.putIfAbsent(jti, expiresAt);
+                    }
+                });
+
+                BloomFilter rebuilt = new BloomFilter(bloomBits, hashes);
+                loaded.keySet().forEach(rebuilt::add);
+
+                // Conjunto antes do filtro: um leitor nunca vê o filtro novo sem o conjunto correspondente
+                revoked = loaded;
+                bloom = rebuilt;
+            }
+        } catch (Exception e) {
+            log.warn("Falha ao atualizar tokens revogados: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void add(String jti, long expiresAt) {
+        revoked.put(jti, expiresAt);
+        bloom.add(jti);
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Filtro de Bloom thread-safe com k posições derivadas de dois hashes (Kirsch-Mitzenmacher).
+     */
+    static final class BloomFilter {
+
+        private final AtomicLongArray words;
+        private final int bits;
+        private final int hashes;
+
+        BloomFilter(int bits, int hashes) {
+            this.words = new AtomicLongArray((bits + 63) / 64);
+            this.bits = words.length() * 64;
+            this.hashes = hashes;
+        }
+
+        void add(String value) {
+            long h = hash64(value);
+            int h1 = (int) h;
+            int h2 = (int) (h >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bits);
+                long mask = 1L << bit;
+                words.getAndAccumulate(bit >>> 6, mask, (word, m) -> word | m);
+            }
+        }
+
+        boolean mightContain(String value) {
+            long h = hash64(value);
+            int h1 = (int) h;
+            int h2 = (int) (h >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // FNV-1a 64 bits seguido do finalizador do SplitMix64
+        private static long hash64(String value) {
+            long h = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                h ^= b;
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
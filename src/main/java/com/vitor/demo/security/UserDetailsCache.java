@@ -0,0 +1,81 @@
+package com.vitor.demo.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Cache dos principals montados pelo UserDetailsServiceImpl, com TTL e limite de tamanho.
+ * O UserService invalida as entradas sempre que um usuário é alterado ou excluído.
+ */
+@Component
+public class UserDetailsCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "userDetails";
+
+    private final Cache<String, UserSpringSecurity> cache;
+    private Timer loadTimer;
+
+    public UserDetailsCache(@Value("${security.user-cache.max-size:5000}") long maxSize,
+                            @Value("${security.user-cache.ttl:300s}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public UserSpringSecurity get(String username, Function<String, UserSpringSecurity> loader) {
+        return cache.get(username, key -> {
+            // Mede apenas o tempo de carga no banco (misses)
+            if (loadTimer == null) {
+                return loader.apply(key);
+            }
+            return loadTimer.record(() -> loader.apply(key));
+        });
+    }
+
+    /**
+     * Descarta a entrada quando a transação atual fizer commit (na hora, se não houver transação).
+     * Antes do commit, uma carga concorrente ainda leria do banco o usuário antigo e o deixaria no cache.
+     */
+    public void invalidate(String username) {
+        if (username == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(username);
+                }
+            });
+        } else {
+            cache.invalidate(username);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // Hits, misses, hit ratio (via cache.gets) e evictions
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        this.loadTimer = Timer.builder("cache.user.load")
+                .description("Tempo para carregar um usuário do banco em um miss")
+                .tag("cache", CACHE_NAME)
+                .register(registry);
+    }
+}
@@ -2,28 +2,61 @@ package com.vitor.demo.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.vitor.demo.datasource.ReadWriteRoutingDataSource;
 import com.vitor.demo.models.User;
 import com.vitor.demo.repositories.UserRepository;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        return userDetailsCache.get(username, this::loadFromDatabase);
+    }
+
+    // Chamado pelo DaoAuthenticationProvider após um login válido quando o hash
+    // armazenado usa um custo BCrypt menor que o atual (rehash-on-login)
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + userDetails.getUsername()));
+        
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        userDetailsCache.invalidate(user.getUsername());
+        
+        return new UserSpringSecurity(
+            user.getId(), 
+            user.getUsername(), 
+            newPassword, 
+            user.getProfiles(),
+            user.getTokenEpoch() != null ? user.getTokenEpoch() : 0
+        );
+    }
+
+    // Entrada de cache usada por todas as requisições: carregada do primário, nunca de uma réplica atrasada
+    private UserSpringSecurity loadFromDatabase(String username) {
+        User user = ReadWriteRoutingDataSource.onPrimary(() -> userRepository.findByUsername(username))
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + username));
         
         return new UserSpringSecurity(
             user.getId(), 
             user.getUsername(), 
             user.getPassword(), 
-            user.getProfiles()
+            user.getProfiles(),
+            user.getTokenEpoch() != null ? user.getTokenEpoch() : 0
         );
     }
-}
\ No newline at end of file
+}
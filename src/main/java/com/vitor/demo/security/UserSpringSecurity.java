@@ -1,12 +1,11 @@
 package com.vitor.demo.security;
 
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 public class UserSpringSecurity implements UserDetails {
     private static final long serialVersionUID = 1L;
@@ -15,6 +14,9 @@ public class UserSpringSecurity implements UserDetails {
     private String username;
     private String password;
     private Collection<? extends GrantedAuthority> authorities;
+    // Perfis como máscara de bits (ProfileEnum.getMask), usada por hasRole
+    private int roles;
+    private int tokenEpoch;
 
     public UserSpringSecurity() {
     }
@@ -24,15 +26,36 @@ public class UserSpringSecurity implements UserDetails {
         this.id = id;
         this.username = username;
         this.password = password;
-        this.authorities = profiles.stream()
-                .map(profile -> new SimpleGrantedAuthority(profile.getDescription()))
-                .collect(Collectors.toSet());
+        this.roles = ProfileEnum.toMask(profiles);
+        this.authorities = ProfileEnum.fromMask(roles).stream()
+                .map(ProfileEnum::getAuthority)
+                .toList();
+    }
+
+    public UserSpringSecurity(Long id, String username, String password,
+                            Set<ProfileEnum> profiles, int tokenEpoch) {
+        this(id, username, password, profiles);
+        this.tokenEpoch = tokenEpoch;
+    }
+
+    // Principal montado apenas com as claims do token (sem consulta ao banco)
+    public static UserSpringSecurity fromClaims(JWTClaims claims) {
+        return new UserSpringSecurity(claims.getUserId(), claims.getUsername(), null,
+                ProfileEnum.fromMask(claims.getRoles()), claims.getTokenEpoch());
     }
 
     public Long getId() {
         return id;
     }
 
+    public int getTokenEpoch() {
+        return tokenEpoch;
+    }
+
+    public int getRoles() {
+        return roles;
+    }
+
     @Override
     public String getUsername() {
         return username;
@@ -69,7 +92,7 @@ public class UserSpringSecurity implements UserDetails {
     }
 
     public boolean hasRole(ProfileEnum profile) {
-        return getAuthorities().contains(new SimpleGrantedAuthority(profile.getDescription()));
+        return (roles & profile.getMask()) != 0;
     }
 
     @Override
@@ -0,0 +1,119 @@
+package com.vitor.demo.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache limitado de tokens já verificados, indexado pelo SHA-256 do token.
+ * Um acerto evita a verificação HMAC e o parse do JSON; as entradas expiram junto com o token.
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    private final Map<String, JWTClaims> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final int maxSize;
+
+    public VerifiedTokenCache(@Value("${jwt.cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public JWTClaims get(String token) {
+        if (maxSize <= 0) {
+            return null;
+        }
+
+        String key = digest(token);
+        JWTClaims claims = entries.get(key);
+        if (claims == null) {
+            misses.increment();
+            return null;
+        }
+
+        if (claims.isExpired(System.currentTimeMillis())) {
+            entries.remove(key, claims);
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return claims;
+    }
+
+    public void put(String token, JWTClaims claims) {
+        if (maxSize <= 0) {
+            return;
+        }
+
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        entries.put(digest(token), claims);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Remove primeiro os expirados; se ainda estiver cheio, descarta ~10% das entradas
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(claims -> claims.isExpired(now));
+
+        int toRemove = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        Iterator<String> iterator = entries.keySet().iterator();
+        while (toRemove-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jwt.token.cache", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Tokens servidos do cache de tokens verificados")
+                .register(registry);
+        FunctionCounter.builder("jwt.token.cache", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Tokens que precisaram de verificação criptográfica")
+                .register(registry);
+        Gauge.builder("jwt.token.cache.size", entries, Map::size)
+                .register(registry);
+    }
+}
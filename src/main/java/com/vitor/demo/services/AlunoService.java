@@ -2,8 +2,13 @@ package com.vitor.demo.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import com.vitor.demo.pagination.CursorPage;
+import com.vitor.demo.pagination.CursorRequest;
 import com.vitor.demo.repositories.AlunoRepository;
 import com.vitor.demo.models.Aluno;
+import com.vitor.demo.projections.AlunoProjection;
+import com.vitor.demo.search.AlunoSearchIndex;
+import com.vitor.demo.security.CallerContextAccessor;
 import com.vitor.demo.handlers.ResourceNotFoundException;
 import com.vitor.demo.handlers.BusinessException;
 import com.vitor.demo.handlers.AuthorizationException;
@@ -19,6 +24,14 @@ public class AlunoService {
     @Autowired
     private AlunoRepository alunoRepository;
 
+    @Autowired
+    private CallerContextAccessor callerContext;
+
+    @Autowired
+    private AlunoSearchIndex alunoSearchIndex;
+
+    private static final int MAX_QUERY_LENGTH = 100;
+
     public Aluno findById(Long id) {
         Optional<Aluno> aluno = alunoRepository.findById(id);
         return aluno.orElseThrow(() -> new ResourceNotFoundException("Aluno", id));
@@ -27,7 +40,7 @@ public class AlunoService {
     @Transactional
     public Aluno create(Aluno obj) {
         // Apenas admin pode criar alunos
-        if (!UserService.isAdmin()) {
+        if (!callerContext.isAdmin()) {
             throw new AuthorizationException("Acesso negado: apenas administradores podem criar alunos");
         }
         
@@ -42,13 +55,15 @@ public class AlunoService {
         }
         
         obj.setId(null);
-        return alunoRepository.save(obj);
+        Aluno saved = alunoRepository.save(obj);
+        alunoSearchIndex.putAfterCommit(saved);
+        return saved;
     }
 
     @Transactional
     public Aluno update(Aluno obj) {
         // Apenas admin pode atualizar alunos
-        if (!UserService.isAdmin()) {
+        if (!callerContext.isAdmin()) {
             throw new AuthorizationException("Acesso negado: apenas administradores podem atualizar alunos");
         }
         
@@ -66,29 +81,51 @@ public class AlunoService {
         
         newObj.setNome(obj.getNome());
         newObj.setCpf(obj.getCpf());
-        return alunoRepository.save(newObj);
+        Aluno saved = alunoRepository.save(newObj);
+        alunoSearchIndex.putAfterCommit(saved);
+        return saved;
     }
 
     public void delete(Long id) {
         // Apenas admin pode excluir alunos
-        if (!UserService.isAdmin()) {
+        if (!callerContext.isAdmin()) {
             throw new AuthorizationException("Acesso negado: apenas administradores podem excluir alunos");
         }
         
         Aluno aluno = findById(id);
         try {
             alunoRepository.deleteById(id);
+            alunoSearchIndex.removeAfterCommit(id);
         } catch (Exception e) {
             throw new RuntimeException("Não foi possível deletar o aluno! Id: " + id);
         }
     }
 
-    public List<Aluno> findAll() {
+    @Transactional(readOnly = true)
+    public CursorPage<Aluno> findAll(CursorRequest page) {
         // Qualquer usuário autenticado pode listar alunos
-        if (UserService.authenticated() == null) {
+        if (callerContext.current() == null) {
             throw new AuthorizationException("Acesso negado: usuário não autenticado");
         }
         
-        return alunoRepository.findAll();
+        return CursorPage.of(alunoRepository.findBy(page.toScrollPosition(), page.toSort(), page.toLimit()), page, Aluno::getId);
+    }
+
+    // Busca para autocompletar (nome sem acentos ou início do CPF), respondida do índice em memória
+    public List<AlunoProjection> search(String q, Integer limit) {
+        if (callerContext.current() == null) {
+            throw new AuthorizationException("Acesso negado: usuário não autenticado");
+        }
+        if (q == null || q.isBlank()) {
+            return List.of();
+        }
+        if (q.length() > MAX_QUERY_LENGTH) {
+            throw new BusinessException("Termo de busca deve ter no máximo " + MAX_QUERY_LENGTH + " caracteres");
+        }
+
+        int effectiveLimit = limit == null || limit < 1
+                ? AlunoSearchIndex.DEFAULT_LIMIT
+                : Math.min(limit, AlunoSearchIndex.MAX_LIMIT);
+        return alunoSearchIndex.search(q, effectiveLimit);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,176 @@
+package com.vitor.demo.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.vitor.demo.repositories.RefreshTokenRepository;
+import com.vitor.demo.repositories.UserRepository;
+import com.vitor.demo.models.RefreshToken;
+import com.vitor.demo.models.User;
+import com.vitor.demo.security.JWTClaims;
+import com.vitor.demo.security.JWTUtil;
+import com.vitor.demo.security.TokenRevocationList;
+import com.vitor.demo.security.UserSpringSecurity;
+import com.vitor.demo.handlers.InvalidTokenException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class AuthService {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private JWTUtil jwtUtil;
+
+    @Value("${jwt.refresh-expiration}")
+    private Long refreshExpiration;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    // ========== EMISSÃO E RENOVAÇÃO ==========
+
+    /**
+     * Emite um access token de curta duração e um refresh token persistido.
+     */
+    @Transactional
+    public Map<String, Object> issueTokens(UserSpringSecurity user) {
+        Map<String, Object> tokens = new LinkedHashMap<>();
+        tokens.put("token", jwtUtil.generateToken(user));
+        tokens.put("refreshToken", createRefreshToken(user.getId()));
+        tokens.put("expiresIn", jwtUtil.getExpiration() / 1000);
+        return tokens;
+    }
+
+    /**
+     * Troca um refresh token válido por um novo par de tokens (rotação).
+     * Reapresentar um refresh token já usado revoga todas as sessões do usuário.
+     */
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public Map<String, Object> refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new InvalidTokenException("Refresh token não informado");
+        }
+
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new InvalidTokenException("Refresh token inválido"));
+
+        User user = stored.getUser();
+
+        if (stored.getRevogado()) {
+            throw reuseDetected(user.getId());
+        }
+
+        if (stored.getExpiraEm().isBefore(LocalDateTime.now())) {
+            throw new InvalidTokenException("Refresh token expirado");
+        }
+
+        if (!Boolean.TRUE.equals(user.getAtivo())) {
+            throw new InvalidTokenException("Usuário inativo");
+        }
+
+        // Revogação condicional: uma renovação concorrente que já usou o token vence e esta conta como reuso
+        if (refreshTokenRepository.revokeIfActive(stored.getId()) == 0) {
+            throw reuseDetected(user.getId());
+        }
+
+        try {
+            UserSpringSecurity principal = (UserSpringSecurity) userDetailsService.loadUserByUsername(user.getUsername());
+            return issueTokens(principal);
+        } catch (UsernameNotFoundException e) {
+            throw new InvalidTokenException("Usuário não encontrado");
+        }
+    }
+
+    /**
+     * Revoga o access token atual (até a sua expiração) e, se informado, o refresh token.
+     */
+    @Transactional
+    public void logout(String accessToken, String refreshToken) {
+        JWTClaims claims = accessToken != null ? jwtUtil.parseToken(accessToken) : null;
+        if (claims != null) {
+            tokenRevocationList.revoke(claims.getTokenId(), claims.getExpiresAt());
+        }
+
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenRepository.findByTokenHash(hash(refreshToken)).ifPresent(stored -> {
+                stored.setRevogado(true);
+                refreshTokenRepository.save(stored);
+            });
+        }
+    }
+
+    // Troca de senha ou username: as sessões renováveis existentes deixam de valer
+    @Transactional
+    public void revokeRefreshTokens(Long userId) {
+        refreshTokenRepository.revokeAllByUserId(userId);
+    }
+
+    // Usado antes de excluir o usuário: encerra todas as sessões renováveis
+    @Transactional
+    public void deleteRefreshTokens(Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    @Scheduled(cron = "${jwt.refresh-cleanup-cron:0 0 3 * * *}")
+    @Transactional
+    public void deleteExpiredRefreshTokens() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    // ========== MÉTODOS AUXILIARES ==========
+
+    // Possível roubo de token: invalida toda a cadeia de sessões do usuário
+    private InvalidTokenException reuseDetected(Long userId) {
+        refreshTokenRepository.revokeAllByUserId(userId);
+        return new InvalidTokenException("Refresh token já utilizado ou revogado");
+    }
+
+    private String createRefreshToken(Long userId) {
+        byte[] random = new byte[32];
+        secureRandom.nextBytes(random);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setUser(userRepository.getReferenceById(userId));
+        refreshToken.setCriadoEm(LocalDateTime.now());
+        refreshToken.setExpiraEm(LocalDateTime.now().plus(Duration.ofMillis(refreshExpiration)));
+        refreshToken.setRevogado(false);
+        refreshTokenRepository.save(refreshToken);
+
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.vitor.demo.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import com.vitor.demo.cache.Catalog;
+import com.vitor.demo.dto.CatalogSearchResultDTO;
+import com.vitor.demo.search.CatalogSearchIndex;
+import com.vitor.demo.security.CallerContextAccessor;
+import com.vitor.demo.handlers.BusinessException;
+import com.vitor.demo.handlers.AuthorizationException;
+
+import java.util.List;
+import java.util.Locale;
+
+@Service
+public class CatalogSearchService {
+
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @Autowired
+    private CallerContextAccessor callerContext;
+
+    public List<CatalogSearchResultDTO> search(String q, String tipo, Integer limit) {
+        // Qualquer usuário autenticado pode buscar no catálogo, como nas listagens
+        if (callerContext.current() == null) {
+            throw new AuthorizationException("Acesso negado: usuário não autenticado");
+        }
+        if (q == null || q.isBlank()) {
+            return List.of();
+        }
+        if (q.length() > MAX_QUERY_LENGTH) {
+            throw new BusinessException("Termo de busca deve ter no máximo " + MAX_QUERY_LENGTH + " caracteres");
+        }
+
+        Catalog catalog = null;
+        if (tipo != null && !tipo.isBlank()) {
+            try {
+                catalog = Catalog.valueOf(tipo.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException("Tipo inválido: " + tipo + " (use disciplina, professor ou turma)");
+            }
+        }
+
+        int effectiveLimit = limit == null || limit < 1
+                ? CatalogSearchIndex.DEFAULT_LIMIT
+                : Math.min(limit, CatalogSearchIndex.MAX_LIMIT);
+        return catalogSearchIndex.search(q, catalog, effectiveLimit);
+    }
+}
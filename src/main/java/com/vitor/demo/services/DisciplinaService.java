@@ -2,13 +2,18 @@ package com.vitor.demo.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import com.vitor.demo.cache.Catalog;
+import com.vitor.demo.cache.CatalogResponseCache;
+import com.vitor.demo.search.CatalogSearchIndex;
+import com.vitor.demo.pagination.CursorPage;
+import com.vitor.demo.pagination.CursorRequest;
 import com.vitor.demo.repositories.DisciplinaRepository;
 import com.vitor.demo.models.Disciplina;
+import com.vitor.demo.security.CallerContextAccessor;
 import com.vitor.demo.handlers.ResourceNotFoundException;
 import com.vitor.demo.handlers.BusinessException;
 import com.vitor.demo.handlers.AuthorizationException;
 
-import java.util.List;
 import java.util.Optional;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -19,6 +24,15 @@ public class DisciplinaService {
     @Autowired
     private DisciplinaRepository disciplinaRepository;
 
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @Autowired
+    private CallerContextAccessor callerContext;
+
     public Disciplina findById(Long id) {
         Optional<Disciplina> disciplina = disciplinaRepository.findById(id);
         return disciplina.orElseThrow(() -> new ResourceNotFoundException("Disciplina", id));
@@ -27,13 +41,16 @@ public class DisciplinaService {
     @Transactional
     public Disciplina create(Disciplina obj) {
         // Apenas admin pode criar disciplinas
-        if (!UserService.isAdmin()) {
+        if (!callerContext.isAdmin()) {
             throw new AuthorizationException("Acesso negado: apenas administradores podem criar disciplinas");
         }
         
         obj.setId(null);
+        catalogResponseCache.invalidate(Catalog.DISCIPLINA);
         try {
-            return disciplinaRepository.save(obj);
+            Disciplina saved = disciplinaRepository.save(obj);
+            catalogSearchIndex.putAfterCommit(saved);
+            return saved;
         } catch (DataIntegrityViolationException e) {
             throw new BusinessException("Erro ao criar disciplina. Verifique os dados fornecidos.");
         }
@@ -42,7 +59,7 @@ public class DisciplinaService {
     @Transactional
     public Disciplina update(Disciplina obj) {
         // Apenas admin pode atualizar disciplinas
-        if (!UserService.isAdmin()) {
+        if (!callerContext.isAdmin()) {
             throw new AuthorizationException("Acesso negado: apenas administradores podem atualizar disciplinas");
         }
         
@@ -52,8 +69,11 @@ public class DisciplinaService {
         newObj.setCargaHoraria(obj.getCargaHoraria());
         newObj.setEmenta(obj.getEmenta());
         
+        catalogResponseCache.invalidate(Catalog.DISCIPLINA);
         try {
-            return disciplinaRepository.save(newObj);
+            Disciplina saved = disciplinaRepository.save(newObj);
+            catalogSearchIndex.putAfterCommit(saved);
+            return saved;
         } catch (DataIntegrityViolationException e) {
             throw new BusinessException("Erro ao atualizar disciplina. Verifique os dados fornecidos.");
         }
@@ -61,13 +81,15 @@ public class DisciplinaService {
 
     public void delete(Long id) {
         // Apenas admin pode excluir disciplinas
-        if (!UserService.isAdmin()) {
+        if (!callerContext.isAdmin()) {
             throw new AuthorizationException("Acesso negado: apenas administradores podem excluir disciplinas");
         }
         
         Disciplina disciplina = findById(id);
         try {
             disciplinaRepository.deleteById(id);
+            catalogResponseCache.invalidate(Catalog.DISCIPLINA);
+            catalogSearchIndex.removeAfterCommit(Catalog.DISCIPLINA, id);
         } catch (DataIntegrityViolationException e) {
             throw new BusinessException("Não é possível excluir a disciplina " + disciplina.getNome() + " pois existem turmas vinculadas a ela.");
         } catch (Exception e) {
@@ -75,12 +97,12 @@ public class DisciplinaService {
         }
     }
 
-    public List<Disciplina> findAll() {
+    public CursorPage<Disciplina> findAll(CursorRequest page) {
         // Qualquer usuário autenticado pode listar disciplinas
-        if (UserService.authenticated() == null) {
+        if (callerContext.current() == null) {
             throw new AuthorizationException("Acesso negado: usuário não autenticado");
         }
         
-        return disciplinaRepository.findAll();
+        return CursorPage.of(disciplinaRepository.findBy(page.toScrollPosition(), page.toSort(), page.toLimit()), page, Disciplina::getId);
     }
 }
\ No newline at end of file
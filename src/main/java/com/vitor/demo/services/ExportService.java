@@ -0,0 +1,171 @@
+package com.vitor.demo.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vitor.demo.export.CsvColumn;
+import com.vitor.demo.export.ExportFormat;
+import com.vitor.demo.export.ExportWriter;
+import com.vitor.demo.handlers.AuthorizationException;
+import com.vitor.demo.models.Aluno;
+import com.vitor.demo.models.Nota;
+import com.vitor.demo.models.Turma;
+import com.vitor.demo.models.TurmaAluno;
+import com.vitor.demo.repositories.AlunoRepository;
+import com.vitor.demo.repositories.NotaRepository;
+import com.vitor.demo.repositories.TurmaAlunoRepository;
+import com.vitor.demo.repositories.TurmaRepository;
+import com.vitor.demo.security.CallerContextAccessor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Exportações completas lidas do banco em streaming: cada linha é escrita na resposta
+ * e descartada do contexto de persistência, então o uso de memória não cresce com o resultado.
+ */
+@Service
+public class ExportService {
+
+    // Linhas entre cada flush da resposta e limpeza do contexto de persistência
+    private static final int FLUSH_EVERY = 500;
+
+    private static final List<CsvColumn<Nota>> NOTA_COLUMNS = List.of(
+            CsvColumn.of("id", Nota::getId),
+            CsvColumn.of("aluno_id", n -> n.getAluno().getId()),
+            CsvColumn.of("aluno_nome", n -> n.getAluno().getNome()),
+            CsvColumn.of("turma_id", n -> n.getTurma().getId()),
+            CsvColumn.of("disciplina", n -> n.getTurma().getDisciplina().getNome()),
+            CsvColumn.of("professor", n -> n.getTurma().getProfessor().getNome()),
+            CsvColumn.of("ano", n -> n.getTurma().getAno()),
+            CsvColumn.of("periodo", n -> n.getTurma().getPeriodo()),
+            CsvColumn.of("valor", Nota::getValor),
+            CsvColumn.of("observacao", Nota::getObservacao));
+
+    private static final List<CsvColumn<TurmaAluno>> MATRICULA_COLUMNS = List.of(
+            CsvColumn.of("id", TurmaAluno::getId),
+            CsvColumn.of("aluno_id", m -> m.getAluno().getId()),
+            CsvColumn.of("aluno_nome", m -> m.getAluno().getNome()),
+            CsvColumn.of("turma_id", m -> m.getTurma().getId()),
+            CsvColumn.of("disciplina", m -> m.getTurma().getDisciplina().getNome()),
+            CsvColumn.of("ano", m -> m.getTurma().getAno()),
+            CsvColumn.of("periodo", m -> m.getTurma().getPeriodo()),
+            CsvColumn.of("data_ingresso", TurmaAluno::getDataIngresso),
+            CsvColumn.of("ativo", TurmaAluno::getAtivo));
+
+    private static final List<CsvColumn<Aluno>> ALUNO_COLUMNS = List.of(
+            CsvColumn.of("id", Aluno::getId),
+            CsvColumn.of("nome", Aluno::getNome),
+            CsvColumn.of("cpf", Aluno::getCpf));
+
+    private static final List<CsvColumn<Turma>> TURMA_COLUMNS = List.of(
+            CsvColumn.of("id", Turma::getId),
+            CsvColumn.of("disciplina_id", t -> t.getDisciplina().getId()),
+            CsvColumn.of("disciplina", t -> t.getDisciplina().getNome()),
+            CsvColumn.of("professor_id", t -> t.getProfessor().getId()),
+            CsvColumn.of("professor", t -> t.getProfessor().getNome()),
+            CsvColumn.of("ano", Turma::getAno),
+            CsvColumn.of("periodo", Turma::getPeriodo));
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private TurmaAlunoRepository turmaAlunoRepository;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private CallerContextAccessor callerContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExportService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // A autorização é verificada já na chamada, antes de qualquer byte ser enviado
+
+    public StreamingResponseBody exportNotas(ExportFormat format) {
+        if (!callerContext.isAdmin()) {
+            throw new AuthorizationException("Acesso negado: apenas administradores podem exportar notas");
+        }
+        return out -> stream(format, out, notaRepository::streamAll, NOTA_COLUMNS);
+    }
+
+    public StreamingResponseBody exportMatriculas(ExportFormat format) {
+        if (!callerContext.isAdmin()) {
+            throw new AuthorizationException("Acesso negado: apenas administradores podem exportar matrículas");
+        }
+        return out -> stream(format, out, turmaAlunoRepository::streamAll, MATRICULA_COLUMNS);
+    }
+
+    public StreamingResponseBody exportAlunos(ExportFormat format) {
+        if (callerContext.current() == null) {
+            throw new AuthorizationException("Acesso negado: usuário não autenticado");
+        }
+        return out -> stream(format, out, alunoRepository::streamAll, ALUNO_COLUMNS);
+    }
+
+    public StreamingResponseBody exportTurmas(ExportFormat format) {
+        if (callerContext.current() == null) {
+            throw new AuthorizationException("Acesso negado: usuário não autenticado");
+        }
+        return out -> stream(format, out, turmaRepository::streamAll, TURMA_COLUMNS);
+    }
+
+    // ========== MÉTODOS AUXILIARES ==========
+
+    private <T> void stream(ExportFormat format, OutputStream out, Supplier<Stream<T>> query,
+                            List<CsvColumn<T>> columns) throws IOException {
+        ExportWriter<T> writer = ExportWriter.create(format, out, objectMapper, columns);
+        writer.begin();
+
+        try {
+            // Stream de repositório exige transação aberta durante toda a leitura
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<T> rows = query.get()) {
+                    Iterator<T> iterator = rows.iterator();
+                    int count = 0;
+                    while (iterator.hasNext()) {
+                        T row = iterator.next();
+                        writer.write(row);
+                        entityManager.detach(row);
+                        if (++count % FLUSH_EVERY == 0) {
+                            writer.flush();
+                            // Descarta também as associações carregadas por JOIN FETCH
+                            entityManager.clear();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.end();
+    }
+}
@@ -0,0 +1,446 @@
+package com.vitor.demo.services;
+
+import com.vitor.demo.cache.CatalogResponseCache;
+import com.vitor.demo.export.CsvColumn;
+import com.vitor.demo.export.ExportFormat;
+import com.vitor.demo.export.ExportWriter;
+import com.vitor.demo.handlers.AuthorizationException;
+import com.vitor.demo.handlers.BusinessException;
+import com.vitor.demo.handlers.ResourceNotFoundException;
+import com.vitor.demo.imports.CsvReader;
+import com.vitor.demo.imports.ImportHandler;
+import com.vitor.demo.imports.ImportJob;
+import com.vitor.demo.imports.ImportRowException;
+import com.vitor.demo.imports.ImportType;
+import com.vitor.demo.repositories.BulkInsertRepository;
+import com.vitor.demo.security.CallerContextAccessor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Importação em lote de arquivos CSV. O arquivo é lido em streaming, em blocos de linhas:
+ * cada bloco é validado em paralelo, conferido contra ele mesmo (chaves em memória só do bloco)
+ * e contra o banco (uma consulta por bloco, que já vê os blocos anteriores gravados) e gravado em uma
+ * transação própria com INSERTs em lote. A memória usada não cresce com o tamanho do arquivo; por isso,
+ * no dryRun (nada gravado) repetições entre blocos diferentes não são apontadas.
+ * Linhas rejeitadas vão para um relatório CSV que pode ser baixado durante ou após a importação.
+ */
+@Service
+public class ImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportService.class);
+
+    private static final List<CsvColumn<ImportError>> ERROR_COLUMNS = List.of(
+            CsvColumn.of("linha", ImportError::linha),
+            CsvColumn.of("erro", ImportError::erro),
+            CsvColumn.of("registro", ImportError::registro));
+
+    @Autowired
+    private CallerContextAccessor callerContext;
+
+    @Autowired
+    private List<ImportHandler<?>> importHandlers;
+
+    @Autowired
+    private BulkInsertRepository bulkInsertRepository;
+
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${import.workers:0}")
+    private int workers;
+
+    @Value("${import.max-concurrent-jobs:2}")
+    private int maxConcurrentJobs;
+
+    @Value("${import.retention:24h}")
+    private Duration retention;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<ImportType, ImportHandler<?>> handlers = new EnumMap<>(ImportType.class);
+
+    private TransactionTemplate transactionTemplate;
+    private ThreadPoolExecutor jobExecutor;
+    private ExecutorService validationExecutor;
+    private int validationThreads;
+
+    private record ImportError(long linha, String erro, String registro) {
+    }
+
+    @PostConstruct
+    void init() {
+        importHandlers.forEach(handler -> handlers.put(handler.type(), handler));
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // Sem fila: acima do limite de importações simultâneas a requisição é recusada na hora
+        AtomicInteger jobCounter = new AtomicInteger();
+        jobExecutor = new ThreadPoolExecutor(maxConcurrentJobs, maxConcurrentJobs, 0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(),
+                runnable -> daemon(runnable, "import-" + jobCounter.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        validationThreads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        AtomicInteger workerCounter = new AtomicInteger();
+        validationExecutor = Executors.newFixedThreadPool(validationThreads,
+                runnable -> daemon(runnable, "import-validacao-" + workerCounter.incrementAndGet()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobExecutor.shutdownNow();
+        validationExecutor.shutdownNow();
+    }
+
+    // ========== API ==========
+
+    /**
+     * Copia o arquivo enviado para disco e inicia a importação em segundo plano.
+     * Com dryRun a importação valida tudo e gera o relatório de erros, mas não grava nada.
+     */
+    public ImportJob start(ImportType type, MultipartFile file, boolean dryRun) {
+        validateAdmin();
+
+        if (file == null || file.isEmpty()) {
+            throw new BusinessException("Envie um arquivo CSV não vazio.");
+        }
+
+        Path arquivo = null;
+        Path relatorio = null;
+        try {
+            // O upload temporário do multipart é apagado ao fim da requisição
+            arquivo = Files.createTempFile("importacao-", ".csv");
+            relatorio = Files.createTempFile("importacao-erros-", ".csv");
+            file.transferTo(arquivo);
+
+            ImportJob job = new ImportJob(type, dryRun, Files.size(arquivo), arquivo, relatorio);
+            jobs.put(job.getId(), job);
+            try {
+                jobExecutor.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.getId());
+                throw new BusinessException("Há importações demais em andamento. Tente novamente em instantes.");
+            }
+            return job;
+        } catch (IOException e) {
+            deleteQuietly(arquivo);
+            deleteQuietly(relatorio);
+            throw new BusinessException("Não foi possível receber o arquivo: " + e.getMessage());
+        } catch (RuntimeException e) {
+            deleteQuietly(arquivo);
+            deleteQuietly(relatorio);
+            throw e;
+        }
+    }
+
+    public ImportJob findById(String id) {
+        validateAdmin();
+
+        ImportJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Importação não encontrada com ID: " + id);
+        }
+        return job;
+    }
+
+    // Relatório de erros (CSV: linha, erro, registro), parcial enquanto a importação não termina
+    public Path findErrorReport(String id) {
+        return findById(id).getRelatorioErros();
+    }
+
+    // Descarta importações concluídas há mais tempo que a retenção, junto com os relatórios
+    @Scheduled(fixedDelayString = "${import.cleanup-interval:3600000}")
+    public void deleteExpiredJobs() {
+        LocalDateTime limite = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            if (job.isFinished() && job.getConcluidoEm() != null && job.getConcluidoEm().isBefore(limite)) {
+                deleteQuietly(job.getRelatorioErros());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    // ========== PROCESSAMENTO ==========
+
+    private void run(ImportJob job) {
+        job.setStatus(ImportJob.Status.PROCESSANDO);
+
+        try (InputStream in = new CountingInputStream(Files.newInputStream(job.getArquivo()), job.getBytesLidos());
+             BufferedReader buffered = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+             OutputStream errorOut = Files.newOutputStream(job.getRelatorioErros())) {
+
+            CsvReader reader = new CsvReader(buffered, detectDelimiter(buffered));
+            ExportWriter<ImportError> errors = ExportWriter.create(ExportFormat.CSV, errorOut, null, ERROR_COLUMNS);
+            errors.begin();
+
+            List<String> header = reader.next();
+            if (!validHeader(job.getType(), header)) {
+                throw new BusinessException("Cabeçalho inválido: esperado " + String.join(",", job.getType().getColumns()));
+            }
+
+            @SuppressWarnings("unchecked")
+            ImportHandler<Object> handler = (ImportHandler<Object>) handlers.get(job.getType());
+
+            List<List<String>> records = new ArrayList<>(chunkSize);
+            List<Long> lines = new ArrayList<>(chunkSize);
+            List<String> record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+                lines.add(reader.getRecordLine());
+                if (records.size() == chunkSize) {
+                    processChunk(job, handler, records, lines, errors);
+                    records.clear();
+                    lines.clear();
+                }
+            }
+            if (!records.isEmpty()) {
+                processChunk(job, handler, records, lines, errors);
+            }
+
+            errors.end();
+            job.setStatus(ImportJob.Status.CONCLUIDO);
+        } catch (Exception e) {
+            log.warn("Importação {} falhou: {}", job.getId(), e.getMessage());
+            job.setMensagem(e.getMessage());
+            job.setStatus(ImportJob.Status.FALHOU);
+        } finally {
+            job.setConcluidoEm(LocalDateTime.now());
+            deleteQuietly(job.getArquivo());
+        }
+    }
+
+    private void processChunk(ImportJob job, ImportHandler<Object> handler, List<List<String>> records, List<Long> lines,
+                              ExportWriter<ImportError> errors) throws Exception {
+        int size = records.size();
+        Object[] parsed = new Object[size];
+        String[] erros = new String[size];
+
+        // 1. Formato e campos obrigatórios, em paralelo (sem acesso ao banco)
+        int slices = Math.min(validationThreads, size);
+        List<Future<?>> futures = new ArrayList<>(slices);
+        for (int s = 0; s < slices; s++) {
+            int from = s * size / slices;
+            int to = (s + 1) * size / slices;
+            futures.add(validationExecutor.submit(() -> {
+                for (int i = from; i < to; i++) {
+                    try {
+                        parsed[i] = handler.parse(records.get(i));
+                    } catch (ImportRowException e) {
+                        erros[i] = e.getMessage();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Falha na validação do bloco", e.getCause());
+            }
+        }
+
+        // 2. Duplicidade dentro do bloco (a de blocos anteriores aparece na sondagem do banco)
+        Set<String> seenKeys = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            if (erros[i] != null) {
+                continue;
+            }
+            for (String key : handler.uniqueKeys(parsed[i])) {
+                if (!seenKeys.add(key)) {
+                    erros[i] = "Registro duplicado no arquivo (" + key + ")";
+                    break;
+                }
+            }
+        }
+
+        // 3. Conflitos com o banco: uma sondagem para o bloco inteiro
+        List<Integer> indices = new ArrayList<>();
+        List<Object> candidates = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (erros[i] == null) {
+                indices.add(i);
+                candidates.add(parsed[i]);
+            }
+        }
+        if (!candidates.isEmpty()) {
+            handler.conflicts(candidates).forEach((index, erro) -> erros[indices.get(index)] = erro);
+        }
+
+        List<Object> validas = new ArrayList<>(candidates.size());
+        List<Integer> validIndices = new ArrayList<>(candidates.size());
+        for (int i = 0; i < size; i++) {
+            if (erros[i] == null) {
+                validas.add(parsed[i]);
+                validIndices.add(i);
+            }
+        }
+        job.getValidas().addAndGet(validas.size());
+
+        // 4. Gravação do bloco em uma transação, com o contexto de persistência esvaziado a cada lote
+        if (!job.isDryRun() && !validas.isEmpty()) {
+            try {
+                write(handler, validas);
+                job.getGravadas().addAndGet(validas.size());
+            } catch (DataIntegrityViolationException e) {
+                // Gravação concorrente depois da sondagem: linha a linha, só as linhas em conflito são rejeitadas
+                for (int v = 0; v < validas.size(); v++) {
+                    try {
+                        write(handler, List.of(validas.get(v)));
+                        job.getGravadas().incrementAndGet();
+                    } catch (DataIntegrityViolationException rowConflict) {
+                        erros[validIndices.get(v)] = "Não gravado: conflito de dados no banco";
+                    }
+                }
+            }
+        }
+
+        // 5. Relatório de erros e progresso
+        long rejeitadas = 0;
+        for (int i = 0; i < size; i++) {
+            if (erros[i] != null) {
+                rejeitadas++;
+                errors.write(new ImportError(lines.get(i), erros[i], String.join(",", records.get(i))));
+            }
+        }
+        errors.flush();
+        job.getRejeitadas().addAndGet(rejeitadas);
+        job.getLinhasLidas().addAndGet(size);
+    }
+
+    private void write(ImportHandler<Object> handler, List<Object> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Object> entities = rows.stream().map(handler::toEntity).toList();
+            bulkInsertRepository.insertAll(entities);
+            handler.written(entities);
+            if (handler.catalog() != null) {
+                catalogResponseCache.invalidate(handler.catalog());
+            }
+        });
+    }
+
+    // ========== MÉTODOS AUXILIARES ==========
+
+    private void validateAdmin() {
+        if (!callerContext.isAdmin()) {
+            throw new AuthorizationException("Acesso negado: apenas administradores podem importar dados");
+        }
+    }
+
+    private static boolean validHeader(ImportType type, List<String> header) {
+        // Colunas obrigatórias são sempre as duas primeiras; as opcionais podem ser omitidas do fim
+        if (header == null || header.size() < 2 || header.size() > type.getColumns().size()) {
+            return false;
+        }
+        for (int i = 0; i < header.size(); i++) {
+            if (!type.getColumns().get(i).equals(header.get(i).trim().toLowerCase(Locale.ROOT))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Planilhas em pt-BR costumam exportar CSV com ponto e vírgula
+    private static char detectDelimiter(BufferedReader reader) throws IOException {
+        reader.mark(8192);
+        String firstLine = reader.readLine();
+        reader.reset();
+        if (firstLine == null) {
+            return ',';
+        }
+        long semicolons = firstLine.chars().filter(c -> c == ';').count();
+        long commas = firstLine.chars().filter(c -> c == ',').count();
+        return semicolons > commas ? ';' : ',';
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar {}: {}", path, e.getMessage());
+        }
+    }
+
+    // Bytes já lidos do arquivo, para o percentual de progresso
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong count;
+
+        CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count.addAndGet(n);
+            }
+            return n;
+        }
+    }
+}
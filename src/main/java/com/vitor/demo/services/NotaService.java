@@ -2,30 +2,78 @@ package com.vitor.demo.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import com.vitor.demo.pagination.CursorPage;
+import com.vitor.demo.pagination.CursorRequest;
+import com.vitor.demo.repositories.AlunoRepository;
+import com.vitor.demo.repositories.BulkInsertRepository;
 import com.vitor.demo.repositories.NotaRepository;
+import com.vitor.demo.repositories.TurmaEstatisticaRepository.Delta;
+import com.vitor.demo.repositories.VersionRepository;
+import com.vitor.demo.dto.NotaBulkItemDTO;
+import com.vitor.demo.dto.NotaBulkResultDTO;
 import com.vitor.demo.models.Nota;
-import com.vitor.demo.security.UserSpringSecurity;
+import com.vitor.demo.models.Turma;
+import com.vitor.demo.projections.NotaProjection;
+import com.vitor.demo.security.CallerContext;
+import com.vitor.demo.security.CallerContextAccessor;
+import com.vitor.demo.versioning.OptimisticRetry;
+import com.vitor.demo.versioning.ResourceVersion;
 import com.vitor.demo.handlers.ResourceNotFoundException;
 import com.vitor.demo.handlers.BusinessException;
 import com.vitor.demo.handlers.AuthorizationException;
+import com.vitor.demo.handlers.ConcurrentUpdateException;
+import com.vitor.demo.handlers.PreconditionFailedException;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 @Service
 public class NotaService {
 
+    // Limite de linhas por requisição de lançamento em lote
+    public static final int MAX_BULK_ROWS = 5000;
+
+    // Tamanho de cada bloco da cláusula IN na verificação de alunos
+    private static final int IN_CHUNK_SIZE = 1000;
+
     @Autowired
     private NotaRepository notaRepository;
 
+    @Autowired
+    private BulkInsertRepository bulkInsertRepository;
+
+    @Autowired
+    private VersionRepository versionRepository;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private CallerContextAccessor callerContext;
+
     @Autowired
     private AlunoService alunoService;
 
     @Autowired
     private TurmaService turmaService;
 
+    @Autowired
+    private TurmaEstatisticaService turmaEstatisticaService;
+
+    @Transactional(readOnly = true)
     public Nota findById(Long id) {
         Optional<Nota> nota = notaRepository.findById(id);
         Nota foundNota = nota.orElseThrow(() -> new ResourceNotFoundException("Nota", id));
@@ -36,41 +84,67 @@ public class NotaService {
         return foundNota;
     }
 
-    public List<Nota> findByAlunoId(Long alunoId) {
-        // Admin pode ver todas as notas, usuário comum só as suas
-        UserSpringSecurity currentUser = UserService.authenticated();
-        if (currentUser == null) {
-            throw new AuthorizationException("Usuário não autenticado");
-        }
-        
-        if (!UserService.isAdmin() && !currentUser.getId().equals(alunoId)) {
-            throw new AuthorizationException("Acesso negado: você só pode visualizar suas próprias notas");
-        }
-        
-        return notaRepository.findByAlunoId(alunoId);
+    // Versão da nota para o ETag, sem carregar aluno e turma
+    @Transactional(readOnly = true)
+    public ResourceVersion versionById(Long id) {
+        ResourceVersion version = versionRepository.findById(Nota.class, id)
+                .orElseThrow(() -> new ResourceNotFoundException("Nota", id));
+        validateAlunoAccess(version.idOf("aluno"));
+        return version;
     }
 
-    public List<Nota> findByTurmaId(Long turmaId) {
-        // Apenas admin pode ver todas as notas de uma turma
-        if (!UserService.isAdmin()) {
-            throw new AuthorizationException("Acesso negado: apenas administradores podem visualizar notas por turma");
-        }
-        
-        return notaRepository.findByTurmaId(turmaId);
+    @Transactional(readOnly = true)
+    public CursorPage<Nota> findByTurmaId(Long turmaId, CursorRequest page) {
+        validateTurmaAccess();
+        return CursorPage.of(notaRepository.findByTurmaId(turmaId, page.toScrollPosition(), page.toSort(), page.toLimit()), page, Nota::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion versionByTurmaId(Long turmaId, CursorRequest page) {
+        validateTurmaAccess();
+        return versionRepository.findPage(Nota.class, "turma.id", turmaId, page);
+    }
+
+    // Listagens resumidas (NotaProjection): um SELECT só com as colunas exibidas, sem entidades gerenciadas.
+    // readOnly deixa a sessão em FlushMode.MANUAL e sem snapshots, então não há dirty checking no fim.
+    @Transactional(readOnly = true)
+    public CursorPage<NotaProjection> findResumoByAlunoId(Long alunoId, CursorRequest page) {
+        validateAlunoAccess(alunoId);
+        return CursorPage.ofLookahead(notaRepository.findResumoByAlunoId(alunoId, page.lowerBound(), page.upperBound(),
+                page.toSort(), page.toLookaheadLimit()), page, NotaProjection::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion resumoVersionByAlunoId(Long alunoId, CursorRequest page) {
+        validateAlunoAccess(alunoId);
+        return versionRepository.findProjectedPage(Nota.class, NotaProjection.class, "aluno.id", alunoId, page);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<NotaProjection> findResumoByTurmaId(Long turmaId, CursorRequest page) {
+        validateTurmaAccess();
+        return CursorPage.ofLookahead(notaRepository.findResumoByTurmaId(turmaId, page.lowerBound(), page.upperBound(),
+                page.toSort(), page.toLookaheadLimit()), page, NotaProjection::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion resumoVersionByTurmaId(Long turmaId, CursorRequest page) {
+        validateTurmaAccess();
+        return versionRepository.findProjectedPage(Nota.class, NotaProjection.class, "turma.id", turmaId, page);
     }
 
     @Transactional
     public Nota create(Nota obj) {
         // Apenas admin pode criar notas
-        if (!UserService.isAdmin()) {
+        if (!callerContext.isAdmin()) {
             throw new AuthorizationException("Acesso negado: apenas administradores podem criar notas");
         }
         
         obj.setId(null);
         
-        // Verificar se aluno e turma existem
-        alunoService.findById(obj.getAluno().getId());
-        turmaService.findById(obj.getTurma().getId());
+        // Verificar se aluno e turma existem (e referenciar as instâncias gerenciadas, com versao)
+        obj.setAluno(alunoService.findById(obj.getAluno().getId()));
+        obj.setTurma(turmaService.findById(obj.getTurma().getId()));
         
         // Validação adicional da nota
         if (obj.getValor() == null || obj.getValor().compareTo(java.math.BigDecimal.ZERO) < 0 || 
@@ -79,30 +153,114 @@ public class NotaService {
         }
         
         try {
-            return notaRepository.save(obj);
+            Nota saved = notaRepository.save(obj);
+            turmaEstatisticaService.apply(saved.getTurma().getId(), new Delta().add(saved.getValor()));
+            return saved;
         } catch (DataIntegrityViolationException e) {
             throw new BusinessException("Erro ao criar nota. Verifique os dados fornecidos.");
         }
     }
 
+    /**
+     * Lança várias notas de uma turma em uma única transação.
+     * Os alunos são verificados em conjunto (uma consulta por bloco de ids) e as linhas válidas
+     * são inseridas em lote; linhas inválidas são devolvidas com o motivo, sem abortar as demais.
+     */
     @Transactional
-    public Nota update(Nota obj) {
+    public NotaBulkResultDTO createBulk(Long turmaId, List<NotaBulkItemDTO> itens) {
+        // Apenas admin pode criar notas
+        if (!callerContext.isAdmin()) {
+            throw new AuthorizationException("Acesso negado: apenas administradores podem criar notas");
+        }
+
+        if (itens == null || itens.isEmpty()) {
+            throw new BusinessException("Informe ao menos uma nota.");
+        }
+
+        if (itens.size() > MAX_BULK_ROWS) {
+            throw new BusinessException("Máximo de " + MAX_BULK_ROWS + " notas por requisição.");
+        }
+
+        Turma turma = turmaService.findById(turmaId);
+
+        Set<Long> alunosExistentes = findExistingAlunoIds(itens);
+
+        List<NotaBulkResultDTO.Linha> resultados = new ArrayList<>(itens.size());
+        List<Nota> validas = new ArrayList<>();
+        List<NotaBulkResultDTO.Linha> linhasValidas = new ArrayList<>();
+
+        for (int i = 0; i < itens.size(); i++) {
+            NotaBulkItemDTO item = itens.get(i);
+            Long alunoId = item != null ? item.getAlunoId() : null;
+            String erro = validateBulkItem(item, alunosExistentes);
+
+            NotaBulkResultDTO.Linha linha = new NotaBulkResultDTO.Linha(i, alunoId, null, erro);
+            resultados.add(linha);
+
+            if (erro == null) {
+                validas.add(new Nota(null, alunoRepository.getReferenceById(alunoId), turma, item.getValor(), item.getObservacao()));
+                linhasValidas.add(linha);
+            }
+        }
+
+        if (!validas.isEmpty()) {
+            try {
+                bulkInsertRepository.insertAll(validas);
+                Delta delta = new Delta();
+                for (int i = 0; i < validas.size(); i++) {
+                    linhasValidas.get(i).setId(validas.get(i).getId());
+                    delta.add(validas.get(i).getValor());
+                }
+                turmaEstatisticaService.apply(turmaId, delta);
+            } catch (DataIntegrityViolationException e) {
+                throw new BusinessException("Erro ao criar notas. Verifique os dados fornecidos.");
+            }
+        }
+
+        return new NotaBulkResultDTO(turmaId, itens.size(), validas.size(), itens.size() - validas.size(), resultados);
+    }
+
+    /**
+     * Atualiza os campos enviados. Com If-Match, grava apenas se o ETag ainda for o atual (senão 412);
+     * sem ele, o merge é reaplicado sobre a versão mais recente quando outra escrita vence a corrida.
+     * Devolve a versão gravada para o ETag da resposta.
+     */
+    public ResourceVersion update(Nota obj, String ifMatch) {
         // Apenas admin pode atualizar notas
-        if (!UserService.isAdmin()) {
+        if (!callerContext.isAdmin()) {
             throw new AuthorizationException("Acesso negado: apenas administradores podem atualizar notas");
         }
-        
+
+        try {
+            return optimisticRetry.execute(() -> merge(obj, ifMatch));
+        } catch (OptimisticLockingFailureException e) {
+            String current = versionRepository.findById(Nota.class, obj.getId()).map(ResourceVersion::getEtag).orElse(null);
+            throw new ConcurrentUpdateException("A nota foi alterada por outra requisição. Tente novamente.", current);
+        }
+    }
+
+    private ResourceVersion merge(Nota obj, String ifMatch) {
+        // Entidade lida antes da verificação: se outra transação gravar depois, o UPDATE com versao falha
         Nota newObj = findById(obj.getId());
+
+        if (ifMatch != null) {
+            ResourceVersion current = versionRepository.findById(Nota.class, obj.getId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Nota", obj.getId()));
+            if (!current.matches(ifMatch)) {
+                throw new PreconditionFailedException("A nota foi alterada desde a última leitura.", current.getEtag());
+            }
+        }
         
+        Long turmaAnterior = newObj.getTurma().getId();
+        BigDecimal valorAnterior = newObj.getValor();
+
         // Verificar se aluno e turma existem
         if (obj.getAluno() != null) {
-            alunoService.findById(obj.getAluno().getId());
-            newObj.setAluno(obj.getAluno());
+            newObj.setAluno(alunoService.findById(obj.getAluno().getId()));
         }
         
         if (obj.getTurma() != null) {
-            turmaService.findById(obj.getTurma().getId());
-            newObj.setTurma(obj.getTurma());
+            newObj.setTurma(turmaService.findById(obj.getTurma().getId()));
         }
         
         // Validação da nota
@@ -118,52 +276,116 @@ public class NotaService {
             newObj.setObservacao(obj.getObservacao());
         }
         
+        Long turmaAtual = newObj.getTurma().getId();
         try {
-            return notaRepository.save(newObj);
+            notaRepository.saveAndFlush(newObj);
         } catch (DataIntegrityViolationException e) {
             throw new BusinessException("Erro ao atualizar nota. Verifique os dados fornecidos.");
         }
+        // Valor ou turma alterados: sai o valor anterior da turma anterior e entra o novo na atual
+        if (!turmaAtual.equals(turmaAnterior) || newObj.getValor().compareTo(valorAnterior) != 0) {
+            Map<Long, Delta> deltas = new HashMap<>();
+            deltas.computeIfAbsent(turmaAnterior, id -> new Delta()).remove(valorAnterior);
+            deltas.computeIfAbsent(turmaAtual, id -> new Delta()).add(newObj.getValor());
+            turmaEstatisticaService.apply(deltas);
+        }
+        return versionRepository.findById(Nota.class, obj.getId()).orElseThrow();
     }
 
+    @Transactional
     public void delete(Long id) {
         // Apenas admin pode excluir notas
-        if (!UserService.isAdmin()) {
+        if (!callerContext.isAdmin()) {
             throw new AuthorizationException("Acesso negado: apenas administradores podem excluir notas");
         }
         
         Nota nota = findById(id);
+        Long turmaId = nota.getTurma().getId();
         try {
-            notaRepository.deleteById(id);
+            notaRepository.delete(nota);
+            turmaEstatisticaService.apply(turmaId, new Delta().remove(nota.getValor()));
         } catch (Exception e) {
             throw new RuntimeException("Erro ao excluir nota: " + e.getMessage());
         }
     }
 
-    public List<Nota> findAll() {
-        // Apenas admin pode listar todas as notas
-        if (!UserService.isAdmin()) {
-            throw new AuthorizationException("Acesso negado: apenas administradores podem listar todas as notas");
-        }
-        
-        return notaRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<Nota> findAll(CursorRequest page) {
+        validateListAccess();
+        return CursorPage.of(notaRepository.findBy(page.toScrollPosition(), page.toSort(), page.toLimit()), page, Nota::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion versionOfAll(CursorRequest page) {
+        validateListAccess();
+        return versionRepository.findPage(Nota.class, null, null, page);
     }
 
     // ========== MÉTODOS AUXILIARES ==========
 
-    private void validateNotaAccess(Nota nota) {
-        UserSpringSecurity currentUser = UserService.authenticated();
-        if (currentUser == null) {
-            throw new AuthorizationException("Usuário não autenticado");
+    private Set<Long> findExistingAlunoIds(List<NotaBulkItemDTO> itens) {
+        Set<Long> solicitados = new LinkedHashSet<>();
+        for (NotaBulkItemDTO item : itens) {
+            if (item != null && item.getAlunoId() != null) {
+                solicitados.add(item.getAlunoId());
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(solicitados);
+        Set<Long> existentes = new HashSet<>(ids.size());
+        for (int start = 0; start < ids.size(); start += IN_CHUNK_SIZE) {
+            existentes.addAll(alunoRepository.findExistingIds(ids.subList(start, Math.min(start + IN_CHUNK_SIZE, ids.size()))));
+        }
+        return existentes;
+    }
+
+    private String validateBulkItem(NotaBulkItemDTO item, Set<Long> alunosExistentes) {
+        if (item == null || item.getAlunoId() == null) {
+            return "Aluno é obrigatório.";
         }
+        if (!alunosExistentes.contains(item.getAlunoId())) {
+            return "Aluno não encontrado com id: " + item.getAlunoId();
+        }
+        if (item.getValor() == null || item.getValor().compareTo(BigDecimal.ZERO) < 0 ||
+            item.getValor().compareTo(new BigDecimal("10.00")) > 0) {
+            return "A nota deve estar entre 0 e 10.";
+        }
+        if (item.getObservacao() != null && item.getObservacao().length() > 255) {
+            return "Observação deve ter no máximo 255 caracteres.";
+        }
+        return null;
+    }
+
+    private void validateNotaAccess(Nota nota) {
+        validateAlunoAccess(nota.getAluno().getId());
+    }
+
+    // Regras de leitura compartilhadas pelas consultas e pelas versões (ETag) correspondentes
+    private void validateAlunoAccess(Long alunoId) {
+        CallerContext caller = callerContext.require();
         
         // Admin tem acesso a tudo
-        if (UserService.isAdmin()) {
+        if (caller.isAdmin()) {
             return;
         }
         
         // Usuário comum só pode acessar suas próprias notas
-        if (!currentUser.getId().equals(nota.getAluno().getId())) {
+        if (!caller.getUserId().equals(alunoId)) {
             throw new AuthorizationException("Acesso negado: você só pode visualizar suas próprias notas");
         }
     }
+
+    private void validateTurmaAccess() {
+        // Apenas admin pode ver todas as notas de uma turma
+        if (!callerContext.isAdmin()) {
+            throw new AuthorizationException("Acesso negado: apenas administradores podem visualizar notas por turma");
+        }
+    }
+
+    private void validateListAccess() {
+        // Apenas admin pode listar todas as notas
+        if (!callerContext.isAdmin()) {
+            throw new AuthorizationException("Acesso negado: apenas administradores podem listar todas as notas");
+        }
+    }
 }
\ No newline at end of file
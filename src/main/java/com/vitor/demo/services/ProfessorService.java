@@ -2,13 +2,18 @@ package com.vitor.demo.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import com.vitor.demo.cache.Catalog;
+import com.vitor.demo.cache.CatalogResponseCache;
+import com.vitor.demo.search.CatalogSearchIndex;
+import com.vitor.demo.pagination.CursorPage;
+import com.vitor.demo.pagination.CursorRequest;
 import com.vitor.demo.repositories.ProfessorRepository;
 import com.vitor.demo.models.Professor;
+import com.vitor.demo.security.CallerContextAccessor;
 import com.vitor.demo.handlers.ResourceNotFoundException;
 import com.vitor.demo.handlers.BusinessException;
 import com.vitor.demo.handlers.AuthorizationException;
 
-import java.util.List;
 import java.util.Optional;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -19,6 +24,15 @@ public class ProfessorService {
     @Autowired
     private ProfessorRepository professorRepository;
 
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @Autowired
+    private CallerContextAccessor callerContext;
+
     public Professor findById(Long id) {
         Optional<Professor> professor = professorRepository.findById(id);
         return professor.orElseThrow(() -> new ResourceNotFoundException("Professor", id));
@@ -27,13 +41,16 @@ public class ProfessorService {
     @Transactional
     public Professor create(Professor obj) {
         // Apenas admin pode criar professores
-        if (!UserService.isAdmin()) {
+        if (!callerContext.isAdmin()) {
             throw new AuthorizationException("Acesso negado: apenas administradores podem criar professores");
         }
         
         obj.setId(null);
+        catalogResponseCache.invalidate(Catalog.PROFESSOR);
         try {
-            return professorRepository.save(obj);
+            Professor saved = professorRepository.save(obj);
+            catalogSearchIndex.putAfterCommit(saved);
+            return saved;
         } catch (DataIntegrityViolationException e) {
             throw new BusinessException("Erro ao criar professor. Verifique os dados fornecidos.");
         }
@@ -42,7 +59,7 @@ public class ProfessorService {
     @Transactional
     public Professor update(Professor obj) {
         // Apenas admin pode atualizar professores
-        if (!UserService.isAdmin()) {
+        if (!callerContext.isAdmin()) {
             throw new AuthorizationException("Acesso negado: apenas administradores podem atualizar professores");
         }
         
@@ -52,8 +69,11 @@ public class ProfessorService {
         newObj.setEmail(obj.getEmail());
         newObj.setTelefone(obj.getTelefone());
         
+        catalogResponseCache.invalidate(Catalog.PROFESSOR);
         try {
-            return professorRepository.save(newObj);
+            Professor saved = professorRepository.save(newObj);
+            catalogSearchIndex.putAfterCommit(saved);
+            return saved;
         } catch (DataIntegrityViolationException e) {
             throw new BusinessException("Erro ao atualizar professor. Verifique os dados fornecidos.");
         }
@@ -61,13 +81,15 @@ public class ProfessorService {
 
     public void delete(Long id) {
         // Apenas admin pode excluir professores
-        if (!UserService.isAdmin()) {
+        if (!callerContext.isAdmin()) {
             throw new AuthorizationException("Acesso negado: apenas administradores podem excluir professores");
         }
         
         Professor professor = findById(id);
         try {
             professorRepository.deleteById(id);
+            catalogResponseCache.invalidate(Catalog.PROFESSOR);
+            catalogSearchIndex.removeAfterCommit(Catalog.PROFESSOR, id);
         } catch (DataIntegrityViolationException e) {
             throw new BusinessException("Não é possível excluir o professor " + professor.getNome() + " pois existem turmas vinculadas a ele.");
         } catch (Exception e) {
@@ -75,12 +97,12 @@ public class ProfessorService {
         }
     }
 
-    public List<Professor> findAll() {
+    public CursorPage<Professor> findAll(CursorRequest page) {
         // Qualquer usuário autenticado pode listar professores
-        if (UserService.authenticated() == null) {
+        if (callerContext.current() == null) {
             throw new AuthorizationException("Acesso negado: usuário não autenticado");
         }
         
-        return professorRepository.findAll();
+        return CursorPage.of(professorRepository.findBy(page.toScrollPosition(), page.toSort(), page.toLimit()), page, Professor::getId);
     }
 }
\ No newline at end of file
@@ -2,16 +2,25 @@ package com.vitor.demo.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import com.vitor.demo.pagination.CursorPage;
+import com.vitor.demo.pagination.CursorRequest;
 import com.vitor.demo.repositories.TurmaAlunoRepository;
+import com.vitor.demo.repositories.VersionRepository;
 import com.vitor.demo.models.TurmaAluno;
+import com.vitor.demo.security.CallerContextAccessor;
+import com.vitor.demo.versioning.OptimisticRetry;
+import com.vitor.demo.versioning.ResourceVersion;
 import com.vitor.demo.handlers.ResourceNotFoundException;
 import com.vitor.demo.handlers.BusinessException;
 import com.vitor.demo.handlers.AuthorizationException;
+import com.vitor.demo.handlers.ConcurrentUpdateException;
+import com.vitor.demo.handlers.PreconditionFailedException;
 
 import java.util.List;
 import java.util.Optional;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 @Service
 public class TurmaAlunoService {
@@ -19,51 +28,70 @@ public class TurmaAlunoService {
     @Autowired
     private TurmaAlunoRepository turmaAlunoRepository;
 
+    @Autowired
+    private VersionRepository versionRepository;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private CallerContextAccessor callerContext;
+
     @Autowired
     private AlunoService alunoService;
 
     @Autowired
     private TurmaService turmaService;
 
+    @Transactional(readOnly = true)
     public TurmaAluno findById(Long id) {
         Optional<TurmaAluno> turmaAluno = turmaAlunoRepository.findById(id);
         return turmaAluno.orElseThrow(() -> new ResourceNotFoundException("Matrícula", id));
     }
 
-    public List<TurmaAluno> findByAlunoId(Long alunoId) {
-        // Admin pode ver todas as matrículas, usuário comum só as suas
-        if (!UserService.isAdmin() && !UserService.getCurrentUserId().equals(alunoId)) {
-            throw new AuthorizationException("Acesso negado: você só pode visualizar suas próprias matrículas");
-        }
-        
-        // Verifica se o aluno existe
-        alunoService.findById(alunoId);
-        return turmaAlunoRepository.findByAlunoId(alunoId);
+    // Versão da matrícula para o ETag, sem carregar aluno e turma
+    @Transactional(readOnly = true)
+    public ResourceVersion versionById(Long id) {
+        return versionRepository.findById(TurmaAluno.class, id)
+                .orElseThrow(() -> new ResourceNotFoundException("Matrícula", id));
     }
 
-    public List<TurmaAluno> findByTurmaId(Long turmaId) {
-        // Apenas admin pode ver matrículas por turma
-        if (!UserService.isAdmin()) {
-            throw new AuthorizationException("Acesso negado: apenas administradores podem visualizar matrículas por turma");
-        }
-        
-        // Verifica se a turma existe
-        turmaService.findById(turmaId);
-        return turmaAlunoRepository.findByTurmaId(turmaId);
+    @Transactional(readOnly = true)
+    public CursorPage<TurmaAluno> findByAlunoId(Long alunoId, CursorRequest page) {
+        validateAlunoAccess(alunoId);
+        return CursorPage.of(turmaAlunoRepository.findByAlunoId(alunoId, page.toScrollPosition(), page.toSort(), page.toLimit()), page, TurmaAluno::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion versionByAlunoId(Long alunoId, CursorRequest page) {
+        validateAlunoAccess(alunoId);
+        return versionRepository.findPage(TurmaAluno.class, "aluno.id", alunoId, page);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<TurmaAluno> findByTurmaId(Long turmaId, CursorRequest page) {
+        validateTurmaAccess(turmaId);
+        return CursorPage.of(turmaAlunoRepository.findByTurmaId(turmaId, page.toScrollPosition(), page.toSort(), page.toLimit()), page, TurmaAluno::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion versionByTurmaId(Long turmaId, CursorRequest page) {
+        validateTurmaAccess(turmaId);
+        return versionRepository.findPage(TurmaAluno.class, "turma.id", turmaId, page);
     }
 
     @Transactional
     public TurmaAluno create(TurmaAluno obj) {
         // Apenas admin pode criar matrículas
-        if (!UserService.isAdmin()) {
+        if (!callerContext.isAdmin()) {
             throw new AuthorizationException("Acesso negado: apenas administradores podem criar matrículas");
         }
         
         obj.setId(null);
         
-        // Verificar se aluno e turma existem
-        alunoService.findById(obj.getAluno().getId());
-        turmaService.findById(obj.getTurma().getId());
+        // Verificar se aluno e turma existem (e referenciar as instâncias gerenciadas, com versao)
+        obj.setAluno(alunoService.findById(obj.getAluno().getId()));
+        obj.setTurma(turmaService.findById(obj.getTurma().getId()));
         
         // Verificar se já existe matrícula ativa para este aluno na turma
         List<TurmaAluno> matriculasExistentes = turmaAlunoRepository.findByAlunoIdAndTurmaId(
@@ -83,24 +111,41 @@ public class TurmaAlunoService {
         }
     }
 
-    @Transactional
-    public TurmaAluno update(TurmaAluno obj) {
+    /**
+     * Atualiza os campos enviados, com a mesma semântica de If-Match e novas tentativas de NotaService.update.
+     */
+    public ResourceVersion update(TurmaAluno obj, String ifMatch) {
         // Apenas admin pode atualizar matrículas
-        if (!UserService.isAdmin()) {
+        if (!callerContext.isAdmin()) {
             throw new AuthorizationException("Acesso negado: apenas administradores podem atualizar matrículas");
         }
-        
+
+        try {
+            return optimisticRetry.execute(() -> merge(obj, ifMatch));
+        } catch (OptimisticLockingFailureException e) {
+            String current = versionRepository.findById(TurmaAluno.class, obj.getId()).map(ResourceVersion::getEtag).orElse(null);
+            throw new ConcurrentUpdateException("A matrícula foi alterada por outra requisição. Tente novamente.", current);
+        }
+    }
+
+    private ResourceVersion merge(TurmaAluno obj, String ifMatch) {
         TurmaAluno newObj = findById(obj.getId());
+
+        if (ifMatch != null) {
+            ResourceVersion current = versionRepository.findById(TurmaAluno.class, obj.getId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Matrícula", obj.getId()));
+            if (!current.matches(ifMatch)) {
+                throw new PreconditionFailedException("A matrícula foi alterada desde a última leitura.", current.getEtag());
+            }
+        }
         
         // Verificar se aluno e turma existem
         if (obj.getAluno() != null) {
-            alunoService.findById(obj.getAluno().getId());
-            newObj.setAluno(obj.getAluno());
+            newObj.setAluno(alunoService.findById(obj.getAluno().getId()));
         }
         
         if (obj.getTurma() != null) {
-            turmaService.findById(obj.getTurma().getId());
-            newObj.setTurma(obj.getTurma());
+            newObj.setTurma(turmaService.findById(obj.getTurma().getId()));
         }
         
         // Verificar duplicação de matrícula ativa
@@ -125,15 +170,16 @@ public class TurmaAlunoService {
         }
         
         try {
-            return turmaAlunoRepository.save(newObj);
+            turmaAlunoRepository.saveAndFlush(newObj);
         } catch (DataIntegrityViolationException e) {
             throw new BusinessException("Erro ao atualizar matrícula. Verifique os dados fornecidos.");
         }
+        return versionRepository.findById(TurmaAluno.class, obj.getId()).orElseThrow();
     }
 
     public void delete(Long id) {
         // Apenas admin pode excluir matrículas
-        if (!UserService.isAdmin()) {
+        if (!callerContext.isAdmin()) {
             throw new AuthorizationException("Acesso negado: apenas administradores podem excluir matrículas");
         }
         
@@ -145,12 +191,44 @@ public class TurmaAlunoService {
         }
     }
 
-    public List<TurmaAluno> findAll() {
+    @Transactional(readOnly = true)
+    public CursorPage<TurmaAluno> findAll(CursorRequest page) {
+        validateListAccess();
+        return CursorPage.of(turmaAlunoRepository.findBy(page.toScrollPosition(), page.toSort(), page.toLimit()), page, TurmaAluno::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion versionOfAll(CursorRequest page) {
+        validateListAccess();
+        return versionRepository.findPage(TurmaAluno.class, null, null, page);
+    }
+
+    // ========== REGRAS DE LEITURA (consultas e versões para o ETag) ==========
+
+    private void validateAlunoAccess(Long alunoId) {
+        // Admin pode ver todas as matrículas, usuário comum só as suas
+        if (!callerContext.isAdmin() && !callerContext.getCurrentUserId().equals(alunoId)) {
+            throw new AuthorizationException("Acesso negado: você só pode visualizar suas próprias matrículas");
+        }
+        
+        // Verifica se o aluno existe
+        alunoService.findById(alunoId);
+    }
+
+    private void validateTurmaAccess(Long turmaId) {
+        // Apenas admin pode ver matrículas por turma
+        if (!callerContext.isAdmin()) {
+            throw new AuthorizationException("Acesso negado: apenas administradores podem visualizar matrículas por turma");
+        }
+        
+        // Verifica se a turma existe
+        turmaService.findById(turmaId);
+    }
+
+    private void validateListAccess() {
         // Apenas admin pode listar todas as matrículas
-        if (!UserService.isAdmin()) {
+        if (!callerContext.isAdmin()) {
             throw new AuthorizationException("Acesso negado: apenas administradores podem listar todas as matrículas");
         }
-        
-        return turmaAlunoRepository.findAll();
     }
 }
\ No newline at end of file
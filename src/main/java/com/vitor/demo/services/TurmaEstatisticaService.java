@@ -0,0 +1,208 @@
+package com.vitor.demo.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import com.vitor.demo.dto.TurmaEstatisticaDTO;
+import com.vitor.demo.repositories.TurmaEstatisticaRepository;
+import com.vitor.demo.repositories.TurmaEstatisticaRepository.Delta;
+import com.vitor.demo.repositories.TurmaEstatisticaRepository.Linha;
+import com.vitor.demo.repositories.TurmaEstatisticaRepository.Totais;
+import com.vitor.demo.security.CallerContextAccessor;
+import com.vitor.demo.handlers.AuthorizationException;
+
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Estatísticas de notas por turma (média, mínimo, máximo, mediana estimada, desvio padrão e histograma), lidas de uma
+ * única linha mantida por delta pelo NotaService. A mediana sai do histograma, não das notas: é uma estimativa
+ * dentro da faixa de 1 ponto que contém a nota do meio. Quem grava notas chama {@link #apply} depois da escrita, na
+ * mesma transação, sem travar a turma antes; a linha nasce com a turma (TurmaService) e a reconstrução periódica
+ * confere cada linha com as notas.
+ */
+@Service
+public class TurmaEstatisticaService {
+
+    private static final Logger log = LoggerFactory.getLogger(TurmaEstatisticaService.class);
+
+    @Autowired
+    private TurmaEstatisticaRepository turmaEstatisticaRepository;
+
+    @Autowired
+    private TurmaService turmaService;
+
+    @Autowired
+    private CallerContextAccessor callerContext;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Reconstrução e gravações feitas na leitura: uma transação por turma, no primário
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Uma leitura da linha. Extremos pendentes e linha ausente são resolvidos uma vez, por quem lê primeiro,
+     * e gravados: as leituras seguintes voltam a ser só a linha.
+     */
+    public TurmaEstatisticaDTO findByTurmaId(Long turmaId) {
+        // Apenas admin (coordenação) vê as estatísticas, como as notas da turma
+        if (!callerContext.isAdmin()) {
+            throw new AuthorizationException("Acesso negado: apenas administradores podem visualizar estatísticas de turmas");
+        }
+
+        Linha linha = readOnlyTransaction.execute(status -> turmaEstatisticaRepository.findByTurmaId(turmaId).orElse(null));
+        if (linha == null) {
+            // Turma gravada direto no banco, ainda sem linha (ou inexistente: 404)
+            turmaService.findById(turmaId);
+            create(turmaId);
+            linha = transactionTemplate.execute(status -> turmaEstatisticaRepository.findByTurmaId(turmaId).orElseThrow());
+        }
+        Totais totais = linha.extremosPendentes() ? settleExtremos(turmaId) : linha.totais();
+        return toDTO(turmaId, totais);
+    }
+
+    // Depois da escrita, na mesma transação: o UPDATE da linha deve ser a última instrução antes do commit
+    public void apply(Long turmaId, Delta delta) {
+        if (!delta.isEmpty()) {
+            turmaEstatisticaRepository.apply(turmaId, delta);
+        }
+    }
+
+    // Várias turmas em ordem de id: duas escritas nunca esperam uma pela outra em ordens opostas
+    public void apply(Map<Long, Delta> deltas) {
+        new TreeMap<>(deltas).forEach(this::apply);
+    }
+
+    /**
+     * Recalcula cada turma a partir das notas e corrige as linhas divergentes (escritas feitas por fora do
+     * NotaService, direto no banco). Devolve quantas turmas foram corrigidas.
+     */
+    @Scheduled(fixedDelayString = "${turma-estatisticas.rebuild-interval:86400000}",
+            initialDelayString = "${turma-estatisticas.rebuild-interval:86400000}")
+    public int rebuild() {
+        int corrigidas = 0;
+        for (Long turmaId : transactionTemplate.execute(status -> turmaEstatisticaRepository.findTurmaIds())) {
+            Boolean corrigida = transactionTemplate.execute(status -> check(turmaId));
+            if (corrigida == null) {
+                corrigida = create(turmaId);
+            }
+            if (corrigida) {
+                corrigidas++;
+            }
+        }
+        if (corrigidas > 0) {
+            log.warn("Estatísticas de notas corrigidas em {} turmas na reconstrução", corrigidas);
+        }
+        return corrigidas;
+    }
+
+    /**
+     * Compara a linha com as notas e a substitui se divergir ou se os extremos estiverem pendentes. A linha é lida
+     * antes das notas: uma escrita confirmada depois dessa leitura muda a revisão e a substituição não acontece
+     * (fica para a próxima reconstrução). Devolve null se a turma não tem linha.
+     */
+    private Boolean check(Long turmaId) {
+        Linha linha = turmaEstatisticaRepository.findByTurmaId(turmaId).orElse(null);
+        if (linha == null) {
+            return null;
+        }
+        Totais recalculado = turmaEstatisticaRepository.aggregate(turmaId);
+        // Extremos pendentes não são divergência: só ainda não foram relidos
+        boolean divergente = linha.extremosPendentes()
+                ? !linha.totais().sameCountsAs(recalculado)
+                : !linha.totais().sameAs(recalculado);
+        if (!divergente && !linha.extremosPendentes()) {
+            return false;
+        }
+        return turmaEstatisticaRepository.replace(turmaId, linha.revisao(), recalculado) && divergente;
+    }
+
+    // Turma gravada direto no banco, sem linha: a linha nasce das notas confirmadas
+    private boolean create(Long turmaId) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> turmaEstatisticaRepository.insertFromNotas(turmaId)));
+        } catch (DataIntegrityViolationException e) {
+            // Outra reconstrução criou a linha primeiro
+            return false;
+        }
+    }
+
+    /**
+     * Mínimo e máximo pendentes (remoção de um dos extremos): relidos das notas no primário e gravados se a linha
+     * não mudou desde a leitura; senão a próxima leitura tenta de novo.
+     */
+    private Totais settleExtremos(Long turmaId) {
+        return transactionTemplate.execute(status -> {
+            Linha linha = turmaEstatisticaRepository.findByTurmaId(turmaId).orElseThrow();
+            Totais totais = linha.totais();
+            if (!linha.extremosPendentes()) {
+                return totais;
+            }
+            BigDecimal[] extremos = turmaEstatisticaRepository.extremos(turmaId);
+            turmaEstatisticaRepository.replaceExtremos(turmaId, linha.revisao(), extremos[0], extremos[1]);
+            return totais.withExtremos(extremos[0], extremos[1]);
+        });
+    }
+
+    private static TurmaEstatisticaDTO toDTO(Long turmaId, Totais totais) {
+        long[] faixas = totais.faixas();
+        List<TurmaEstatisticaDTO.Faixa> histograma = new ArrayList<>(faixas.length);
+        for (int faixa = 0; faixa < faixas.length; faixa++) {
+            histograma.add(new TurmaEstatisticaDTO.Faixa(faixa, faixa + 1, faixas[faixa]));
+        }
+
+        long n = totais.quantidade();
+        if (n == 0) {
+            return new TurmaEstatisticaDTO(turmaId, 0, null, null, null, null, null, histograma);
+        }
+
+        BigDecimal quantidade = BigDecimal.valueOf(n);
+        BigDecimal media = totais.soma().divide(quantidade, 2, RoundingMode.HALF_UP);
+        // Variância = (n·Σx² − (Σx)²) / n², exata nos decimais; só a raiz é aproximada
+        BigDecimal variancia = quantidade.multiply(totais.somaQuadrados())
+                .subtract(totais.soma().multiply(totais.soma()))
+                .divide(quantidade.multiply(quantidade), MathContext.DECIMAL64);
+        BigDecimal desvioPadrao = variancia.signum() <= 0
+                ? BigDecimal.ZERO.setScale(2)
+                : variancia.sqrt(MathContext.DECIMAL64).setScale(2, RoundingMode.HALF_UP);
+
+        return new TurmaEstatisticaDTO(turmaId, n, media, totais.minimo(), totais.maximo(),
+                medianaEstimada(totais, faixas), desvioPadrao, histograma);
+    }
+
+    // Posição n/2 dentro da faixa que a contém, supondo as notas espalhadas por igual na faixa
+    private static BigDecimal medianaEstimada(Totais totais, long[] faixas) {
+        BigDecimal meio = BigDecimal.valueOf(totais.quantidade()).divide(BigDecimal.valueOf(2));
+        long acumulado = 0;
+        for (int faixa = 0; faixa < faixas.length; faixa++) {
+            if (faixas[faixa] > 0 && BigDecimal.valueOf(acumulado + faixas[faixa]).compareTo(meio) >= 0) {
+                BigDecimal estimada = meio.subtract(BigDecimal.valueOf(acumulado))
+                        .divide(BigDecimal.valueOf(faixas[faixa]), MathContext.DECIMAL64)
+                        .add(BigDecimal.valueOf(faixa));
+                return estimada.max(totais.minimo()).min(totais.maximo()).setScale(2, RoundingMode.HALF_UP);
+            }
+            acumulado += faixas[faixa];
+        }
+        return totais.maximo();
+    }
+}
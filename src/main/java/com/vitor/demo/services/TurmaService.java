@@ -2,15 +2,22 @@ package com.vitor.demo.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import com.vitor.demo.cache.Catalog;
+import com.vitor.demo.cache.CatalogResponseCache;
+import com.vitor.demo.search.CatalogSearchIndex;
+import com.vitor.demo.datasource.ReadWriteRoutingDataSource;
+import com.vitor.demo.pagination.CursorPage;
+import com.vitor.demo.pagination.CursorRequest;
+import com.vitor.demo.repositories.TurmaEstatisticaRepository;
 import com.vitor.demo.repositories.TurmaRepository;
 import com.vitor.demo.models.Disciplina;
+import com.vitor.demo.security.CallerContextAccessor;
 import com.vitor.demo.models.Professor;
 import com.vitor.demo.models.Turma;
 import com.vitor.demo.handlers.ResourceNotFoundException;
 import com.vitor.demo.handlers.BusinessException;
 import com.vitor.demo.handlers.AuthorizationException;
 
-import java.util.List;
 import java.util.Optional;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -21,6 +28,18 @@ public class TurmaService {
     @Autowired
     private TurmaRepository turmaRepository;
 
+    @Autowired
+    private TurmaEstatisticaRepository turmaEstatisticaRepository;
+
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @Autowired
+    private CallerContextAccessor callerContext;
+
     @Autowired
     private DisciplinaService disciplinaService;
 
@@ -32,32 +51,35 @@ public class TurmaService {
         return turma.orElseThrow(() -> new ResourceNotFoundException("Turma", id));
     }
 
-    public List<Turma> findByDisciplinaId(Long disciplinaId) {
+    public CursorPage<Turma> findByDisciplinaId(Long disciplinaId, CursorRequest page) {
         // Qualquer usuário autenticado pode ver turmas por disciplina
-        if (UserService.authenticated() == null) {
+        if (callerContext.current() == null) {
             throw new AuthorizationException("Acesso negado: usuário não autenticado");
         }
         
         // Verifica se a disciplina existe
         disciplinaService.findById(disciplinaId);
-        return turmaRepository.findByDisciplinaId(disciplinaId);
+        // Consulta no cache de consultas: o resultado não pode vir de uma réplica atrasada
+        return ReadWriteRoutingDataSource.onPrimary(() ->
+                CursorPage.of(turmaRepository.findByDisciplinaId(disciplinaId, page.toScrollPosition(), page.toSort(), page.toLimit()), page, Turma::getId));
     }
 
-    public List<Turma> findByProfessorId(Long professorId) {
+    public CursorPage<Turma> findByProfessorId(Long professorId, CursorRequest page) {
         // Qualquer usuário autenticado pode ver turmas por professor
-        if (UserService.authenticated() == null) {
+        if (callerContext.current() == null) {
             throw new AuthorizationException("Acesso negado: usuário não autenticado");
         }
         
         // Verifica se o professor existe
         professorService.findById(professorId);
-        return turmaRepository.findByProfessorId(professorId);
+        return ReadWriteRoutingDataSource.onPrimary(() ->
+                CursorPage.of(turmaRepository.findByProfessorId(professorId, page.toScrollPosition(), page.toSort(), page.toLimit()), page, Turma::getId));
     }
 
     @Transactional
     public Turma create(Turma obj) {
         // Apenas admin pode criar turmas
-        if (!UserService.isAdmin()) {
+        if (!callerContext.isAdmin()) {
             throw new AuthorizationException("Acesso negado: apenas administradores podem criar turmas");
         }
         
@@ -70,8 +92,13 @@ public class TurmaService {
         obj.setDisciplina(disciplina);
         obj.setProfessor(professor);
         
+        catalogResponseCache.invalidate(Catalog.TURMA);
         try {
-            return turmaRepository.save(obj);
+            Turma saved = turmaRepository.saveAndFlush(obj);
+            // Linha de estatísticas zerada junto com a turma: as escritas de nota só aplicam deltas sobre ela
+            turmaEstatisticaRepository.insertFromNotas(saved.getId());
+            catalogSearchIndex.putAfterCommit(saved);
+            return saved;
         } catch (DataIntegrityViolationException e) {
             throw new BusinessException("Erro ao criar turma. Verifique os dados fornecidos.");
         }
@@ -80,7 +107,7 @@ public class TurmaService {
     @Transactional
     public Turma update(Turma obj) {
         // Apenas admin pode atualizar turmas
-        if (!UserService.isAdmin()) {
+        if (!callerContext.isAdmin()) {
             throw new AuthorizationException("Acesso negado: apenas administradores podem atualizar turmas");
         }
         
@@ -102,8 +129,11 @@ public class TurmaService {
             newObj.setProfessor(professor);
         }
         
+        catalogResponseCache.invalidate(Catalog.TURMA);
         try {
-            return turmaRepository.save(newObj);
+            Turma saved = turmaRepository.save(newObj);
+            catalogSearchIndex.putAfterCommit(saved);
+            return saved;
         } catch (DataIntegrityViolationException e) {
             throw new BusinessException("Erro ao atualizar turma. Verifique os dados fornecidos.");
         }
@@ -111,13 +141,15 @@ public class TurmaService {
 
     public void delete(Long id) {
         // Apenas admin pode excluir turmas
-        if (!UserService.isAdmin()) {
+        if (!callerContext.isAdmin()) {
             throw new AuthorizationException("Acesso negado: apenas administradores podem excluir turmas");
         }
         
         Turma turma = findById(id);
         try {
             turmaRepository.deleteById(id);
+            catalogResponseCache.invalidate(Catalog.TURMA);
+            catalogSearchIndex.removeAfterCommit(Catalog.TURMA, id);
         } catch (DataIntegrityViolationException e) {
             throw new BusinessException("Não é possível excluir a turma de " + turma.getDisciplina().getNome() + " pois existem matrículas ou notas vinculadas a ela.");
         } catch (Exception e) {
@@ -125,12 +157,13 @@ public class TurmaService {
         }
     }
 
-    public List<Turma> findAll() {
+    @Transactional(readOnly = true)
+    public CursorPage<Turma> findAll(CursorRequest page) {
         // Qualquer usuário autenticado pode listar turmas
-        if (UserService.authenticated() == null) {
+        if (callerContext.current() == null) {
             throw new AuthorizationException("Acesso negado: usuário não autenticado");
         }
         
-        return turmaRepository.findAll();
+        return CursorPage.of(turmaRepository.findBy(page.toScrollPosition(), page.toSort(), page.toLimit()), page, Turma::getId);
     }
 }
\ No newline at end of file
@@ -1,27 +1,35 @@
 package com.vitor.demo.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import com.vitor.demo.repositories.UserRepository;
+import com.vitor.demo.pagination.CursorPage;
+import com.vitor.demo.pagination.CursorRequest;
 import com.vitor.demo.models.User;
+import com.vitor.demo.security.CallerContextAccessor;
 import com.vitor.demo.security.ProfileEnum;
-import com.vitor.demo.security.UserSpringSecurity;
+import com.vitor.demo.security.TokenEpochRegistry;
+import com.vitor.demo.security.UserDetailsCache;
 import com.vitor.demo.handlers.ResourceNotFoundException;
 import com.vitor.demo.handlers.BusinessException;
 import com.vitor.demo.handlers.AuthorizationException;
 import com.vitor.demo.dto.UserCreateDTO;
 import com.vitor.demo.dto.UserUpdateDTO;
 import com.vitor.demo.dto.UserResponseDTO;
+import com.vitor.demo.projections.UserProfileProjection;
 import com.vitor.demo.projections.UserProjection;
 
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 public class UserService {
@@ -32,55 +40,23 @@ public class UserService {
     @Autowired
     private BCryptPasswordEncoder passwordEncoder;
 
-    // ========== MÉTODOS DE AUTORIZAÇÃO ==========
-
-    public static UserSpringSecurity authenticated() {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication != null && authentication.getPrincipal() instanceof UserSpringSecurity) {
-                return (UserSpringSecurity) authentication.getPrincipal();
-            }
-            return null;
-        } catch (Exception e) {
-            return null;
-        }
-    }
+    @Autowired
+    private TokenEpochRegistry tokenEpochRegistry;
 
-    public static void validateSelfOrAdmin(Long userId) {
-        UserSpringSecurity user = authenticated();
-        if (user == null) {
-            throw new AuthorizationException("Acesso negado: usuário não autenticado");
-        }
-        
-        // Admin tem acesso a tudo
-        if (user.hasRole(ProfileEnum.ADMIN)) {
-            return;
-        }
-        
-        // Usuário comum só pode acessar seus próprios dados
-        if (!user.getId().equals(userId)) {
-            throw new AuthorizationException("Acesso negado: você só pode acessar seus próprios dados");
-        }
-    }
+    @Autowired
+    private UserDetailsCache userDetailsCache;
 
-    public static boolean isAdmin() {
-        UserSpringSecurity user = authenticated();
-        return user != null && user.hasRole(ProfileEnum.ADMIN);
-    }
+    @Autowired
+    private AuthService authService;
 
-    public static Long getCurrentUserId() {
-        UserSpringSecurity user = authenticated();
-        if (user == null) {
-            throw new AuthorizationException("Usuário não autenticado");
-        }
-        return user.getId();
-    }
+    @Autowired
+    private CallerContextAccessor callerContext;
 
     // ========== MÉTODOS CRUD COM AUTORIZAÇÃO ==========
 
     public User findById(Long id) {
         // Validar se usuário pode acessar estes dados
-        validateSelfOrAdmin(id);
+        callerContext.validateSelfOrAdmin(id);
         
         Optional<User> user = userRepository.findById(id);
         return user.orElseThrow(() -> new ResourceNotFoundException("Usuário", id));
@@ -121,7 +97,7 @@ public class UserService {
     @Transactional
     public UserResponseDTO update(Long id, UserUpdateDTO userDTO) {
         // Validar se usuário pode atualizar estes dados
-        validateSelfOrAdmin(id);
+        callerContext.validateSelfOrAdmin(id);
         
         User user = findById(id);
         
@@ -137,29 +113,54 @@ public class UserService {
             throw new BusinessException("Email já cadastrado: " + userDTO.getEmail());
         }
         
+        // Troca de username ou senha invalida os tokens já emitidos
+        String previousUsername = user.getUsername();
+        boolean revokeTokens = !previousUsername.equals(userDTO.getUsername());
+        
         user.setUsername(userDTO.getUsername());
         user.setEmail(userDTO.getEmail());
         
         // Atualiza senha apenas se for fornecida
         if (userDTO.getPassword() != null && !userDTO.getPassword().isEmpty()) {
             user.setPassword(passwordEncoder.encode(userDTO.getPassword()));
+            revokeTokens = true;
+        }
+        
+        if (revokeTokens) {
+            user.incrementTokenEpoch();
         }
         
         try {
             User updatedUser = userRepository.save(user);
+            if (revokeTokens) {
+                // Mesma transação: as sessões renováveis caem junto com a alteração
+                authService.revokeRefreshTokens(updatedUser.getId());
+                Long userId = updatedUser.getId();
+                int tokenEpoch = updatedUser.getTokenEpoch();
+                afterCommit(() -> tokenEpochRegistry.update(userId, tokenEpoch));
+            }
+            userDetailsCache.invalidate(previousUsername);
+            userDetailsCache.invalidate(updatedUser.getUsername());
             return toResponseDTO(updatedUser);
         } catch (DataIntegrityViolationException e) {
             throw new BusinessException("Erro ao atualizar usuário. Verifique os dados fornecidos.");
         }
     }
 
+    @Transactional
     public void delete(Long id) {
         // Validar se usuário pode excluir estes dados
-        validateSelfOrAdmin(id);
+        callerContext.validateSelfOrAdmin(id);
         
         User user = findById(id);
         try {
+            authService.deleteRefreshTokens(id);
             userRepository.deleteById(id);
+            // Registros vinculados falham aqui, e a exclusão das sessões é desfeita junto
+            userRepository.flush();
+            // Registrada no banco na mesma transação: vale para todas as instâncias e sobrevive a reinícios
+            tokenEpochRegistry.markDeleted(id);
+            userDetailsCache.invalidate(user.getUsername());
         } catch (DataIntegrityViolationException e) {
             throw new BusinessException("Não é possível excluir o usuário " + user.getUsername() + " pois existem registros vinculados.");
         } catch (Exception e) {
@@ -171,53 +172,59 @@ public class UserService {
 
     public UserResponseDTO findByIdSafe(Long id) {
         // Validar se usuário pode acessar estes dados
-        validateSelfOrAdmin(id);
+        callerContext.validateSelfOrAdmin(id);
         
-        UserProjection projection = userRepository.findSafeById(id)
+        // Uma consulta: perfis (EAGER) vêm junto com o usuário
+        User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuário", id));
-        
-        User user = findById(id); // Para pegar os perfis
-        return new UserResponseDTO(
-                projection.getId(),
-                projection.getUsername(),
-                projection.getEmail(),
-                projection.getAtivo(),
-                user.getProfiles()
-        );
+        return toResponseDTO(user);
     }
 
-    public List<UserResponseDTO> findAllSafe() {
+    public CursorPage<UserResponseDTO> findAllSafe(CursorRequest page) {
         // Apenas admin pode listar todos os usuários
-        if (!isAdmin()) {
+        if (!callerContext.isAdmin()) {
             throw new AuthorizationException("Acesso negado: apenas administradores podem listar todos os usuários");
         }
         
-        List<UserProjection> projections = userRepository.findAllSafe();
-        return projections.stream()
-                .map(projection -> {
-                    User user = findById(projection.getId());
-                    return new UserResponseDTO(
-                            projection.getId(),
-                            projection.getUsername(),
-                            projection.getEmail(),
-                            projection.getAtivo(),
-                            user.getProfiles()
-                    );
-                })
-                .collect(Collectors.toList());
-    }
-
-    public List<User> findAll() {
-        // Apenas admin pode listar todos os usuários (com dados completos)
-        if (!isAdmin()) {
-            throw new AuthorizationException("Acesso negado: apenas administradores podem listar todos os usuários");
+        CursorPage<UserProjection> projections = CursorPage.of(
+                userRepository.findSafeBy(page.toScrollPosition(), page.toSort(), page.toLimit()), page, UserProjection::getId);
+        if (projections.getItems().isEmpty()) {
+            return projections.map(projection -> null);
         }
         
-        return userRepository.findAll();
+        // Segunda e última consulta: perfis da página agrupados por usuário
+        List<Long> ids = projections.getItems().stream().map(UserProjection::getId).toList();
+        Map<Long, Set<ProfileEnum>> profilesByUser = new HashMap<>();
+        for (UserProfileProjection row : userRepository.findProfilesByUserIds(ids)) {
+            profilesByUser.computeIfAbsent(row.getUserId(), userId -> EnumSet.noneOf(ProfileEnum.class))
+                    .add(row.getProfile());
+        }
+        
+        return projections.map(projection -> new UserResponseDTO(
+                projection.getId(),
+                projection.getUsername(),
+                projection.getEmail(),
+                projection.getAtivo(),
+                profilesByUser.getOrDefault(projection.getId(), EnumSet.noneOf(ProfileEnum.class))
+        ));
     }
 
     // ========== MÉTODOS AUXILIARES ==========
 
+    // Estado em memória só muda depois que a alteração no banco estiver confirmada
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     private UserResponseDTO toResponseDTO(User user) {
         return new UserResponseDTO(
                 user.getId(),
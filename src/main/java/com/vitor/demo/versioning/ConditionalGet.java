@@ -0,0 +1,39 @@
+package com.vitor.demo.versioning;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * GET condicional: versão e corpo lidos na mesma transação readOnly, com uma conexão só e o mesmo snapshot
+ * (REPEATABLE READ), para o ETag descrever exatamente o corpo que acompanha. Com If-None-Match ou
+ * If-Modified-Since conferindo, responde 304 sem carregar o corpo.
+ */
+@Component
+public class ConditionalGet {
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ConditionalGet(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Devolve null quando o pedido condicional confere (o Spring responde 304 com o ETag já preenchido).
+     */
+    public <T> ResponseEntity<T> respond(WebRequest request, Supplier<ResourceVersion> version, Supplier<T> body) {
+        return readOnlyTransaction.execute(status -> {
+            if (version.get().isNotModified(request)) {
+                return null;
+            }
+            return ResponseEntity.ok(body.get());
+        });
+    }
+}
@@ -0,0 +1,84 @@
+package com.vitor.demo.versioning;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Executa uma escrita em transação própria e a repete quando outra transação gravou a mesma linha
+ * entre a leitura e o UPDATE (falha do @Version). Serve apenas para operações idempotentes que
+ * releem o estado a cada tentativa, como o merge dos campos enviados em um PUT.
+ */
+@Component
+public class OptimisticRetry implements MeterBinder {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    public OptimisticRetry(PlatformTransactionManager transactionManager,
+                           @Value("${optimistic-lock.max-attempts:3}") int maxAttempts,
+                           @Value("${optimistic-lock.backoff:10ms}") Duration backoff) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Cada tentativa precisa de uma transação nova, mesmo quando chamada dentro de outra
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = backoff.toMillis();
+    }
+
+    /**
+     * Devolve o resultado da primeira tentativa sem conflito; esgotadas as tentativas,
+     * propaga a última OptimisticLockingFailureException.
+     */
+    public <T> T execute(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw e;
+                }
+                retries.increment();
+                pause(attempt, e);
+            }
+        }
+    }
+
+    // Espera aleatória e crescente para que as transações concorrentes não colidam de novo
+    private void pause(int attempt, OptimisticLockingFailureException cause) {
+        long max = backoffMillis << Math.min(attempt - 1, 10);
+        if (max <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(max + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("optimistic.lock.retries", retries, LongAdder::sum)
+                .description("Escritas repetidas após conflito de versão")
+                .register(registry);
+        FunctionCounter.builder("optimistic.lock.exhausted", exhausted, LongAdder::sum)
+                .description("Escritas que esgotaram as tentativas por conflito de versão")
+                .register(registry);
+    }
+}
@@ -0,0 +1,138 @@
+package com.vitor.demo.versioning;
+
+import com.vitor.demo.models.VersionedEntity;
+import org.hibernate.Hibernate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * ETag forte (e, para recursos individuais, Last-Modified) de uma resposta, calculado a partir de
+ * id, versao e atualizado_em das linhas e das entidades que elas embutem (ver VersionRepository).
+ * Qualquer escrita incrementa alguma versão, então o hash muda junto com o corpo, sem serializá-lo.
+ * Entidades já carregadas (ou no cache de segundo nível) usam {@link #of} e {@link #ok}.
+ */
+public final class ResourceVersion {
+
+    private final String etag;
+    private final long lastModified;
+    private final Map<String, Long> ids;
+
+    private ResourceVersion(String etag, long lastModified, Map<String, Long> ids) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.ids = ids;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    // Id de uma entidade embutida no recurso (ex.: "aluno"), para validar acesso antes do 304
+    public Long idOf(String path) {
+        return ids.get(path);
+    }
+
+    /**
+     * Avalia If-None-Match / If-Modified-Since e preenche ETag e Last-Modified na resposta.
+     * Devolve true quando o controller deve encerrar com 304 sem carregar o corpo.
+     */
+    public boolean isNotModified(WebRequest request) {
+        if (lastModified < 0) {
+            return request.checkNotModified(etag);
+        }
+        return request.checkNotModified(etag, lastModified);
+    }
+
+    /**
+     * Compara If-Match com o ETag atual (comparação forte: ETags fracos nunca conferem).
+     * Aceita "*" e listas separadas por vírgula; o ETag precisa vir entre aspas, como a RFC 9110 exige.
+     */
+    public boolean matches(String ifMatch) {
+        String quoted = "\"" + etag + "\"";
+        for (String tag : ifMatch.split(",")) {
+            String value = tag.trim();
+            if (value.equals("*") || value.equals(quoted)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Versão de uma entidade já carregada e das que ela embute no JSON.
+     */
+    public static ResourceVersion of(VersionedEntity entity, VersionedEntity... embedded) {
+        Builder builder = builder(Hibernate.getClass(entity).getSimpleName());
+        builder.add(entity.getId()).add(entity.getVersao()).modifiedAt(entity.getAtualizadoEm());
+        for (VersionedEntity item : embedded) {
+            builder.add(item.getId()).add(item.getVersao()).modifiedAt(item.getAtualizadoEm());
+        }
+        return builder.build(true);
+    }
+
+    // Resposta 200 com ETag e Last-Modified; o Spring a converte em 304 quando o pedido condicional confere
+    public <T> ResponseEntity<T> ok(T body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+        if (lastModified >= 0) {
+            response.lastModified(lastModified);
+        }
+        return response.body(body);
+    }
+
+    public static Builder builder(String kind) {
+        return new Builder(kind);
+    }
+
+    public static final class Builder {
+
+        private final MessageDigest digest;
+        private final Map<String, Long> ids = new HashMap<>();
+        private LocalDateTime lastModified;
+
+        private Builder(String kind) {
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 indisponível", e);
+            }
+            add(kind);
+        }
+
+        public Builder add(Object value) {
+            digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            return this;
+        }
+
+        public Builder modifiedAt(LocalDateTime value) {
+            add(value);
+            if (value != null && (lastModified == null || value.isAfter(lastModified))) {
+                lastModified = value;
+            }
+            return this;
+        }
+
+        public Builder id(String path, Long id) {
+            ids.putIfAbsent(path, id);
+            return add(id);
+        }
+
+        // Listagens não expõem Last-Modified: uma exclusão não altera a maior data da página
+        public ResourceVersion build(boolean withLastModified) {
+            String etag = HexFormat.of().formatHex(digest.digest(), 0, 16);
+            long millis = withLastModified && lastModified != null
+                    ? lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                    : -1;
+            return new ResourceVersion(etag, millis, ids);
+        }
+    }
+}
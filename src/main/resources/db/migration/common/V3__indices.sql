@@ -0,0 +1,24 @@
+-- Índices das consultas dos repositórios. As colunas de filtro vêm primeiro; o id no fim mantém a
+-- paginação por cursor (WHERE fk = ? AND id > ? ORDER BY id) dentro do índice.
+-- RepositoryIndexCheckTest falha se alguma consulta com filtro voltar a varrer a tabela.
+
+-- AlunoRepository.findByNome / existsByNome / findExistingNomes
+create index ix_aluno_nome on aluno (nome);
+
+-- NotaRepository.findByAlunoId / findByTurmaId
+create index ix_nota_aluno_id on nota (aluno_id, id);
+create index ix_nota_turma_id on nota (turma_id, id);
+
+-- TurmaRepository.findByDisciplinaId / findByProfessorId
+create index ix_turma_disciplina_id on turma (disciplina_id, id);
+create index ix_turma_professor_id on turma (professor_id, id);
+
+-- TurmaAlunoRepository.findByAlunoIdAndTurmaId / findActiveKeysByAlunoIds (cobre as três colunas lidas)
+create index ix_turma_aluno_aluno_turma_ativo on turma_aluno (aluno_id, turma_id, ativo);
+-- TurmaAlunoRepository.findByTurmaId
+create index ix_turma_aluno_turma_id on turma_aluno (turma_id, id);
+
+-- Índices de refresh_token e token_revogado: junto com as tabelas, em V9__sessao_e_revogacao.sql
+
+-- UserRepository.findProfilesByUserIds (cobre o perfil)
+create index ix_user_profiles_user_id on user_profiles (user_id, profile);
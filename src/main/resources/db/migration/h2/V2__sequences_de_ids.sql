@@ -0,0 +1,9 @@
+-- Sequences de ids em blocos (ver IdBlocks): incremento igual ao allocationSize
+create sequence if not exists aluno_seq start with 1 increment by 50;
+create sequence if not exists disciplina_seq start with 1 increment by 50;
+create sequence if not exists nota_seq start with 1 increment by 50;
+create sequence if not exists professor_seq start with 1 increment by 50;
+create sequence if not exists refresh_token_seq start with 1 increment by 50;
+create sequence if not exists turma_seq start with 1 increment by 50;
+create sequence if not exists turma_aluno_seq start with 1 increment by 50;
+create sequence if not exists users_seq start with 1 increment by 50;
@@ -0,0 +1,14 @@
+-- Versão (bloqueio otimista) e data da última alteração de cada linha, base dos ETags das respostas.
+-- Linhas existentes começam na versão 0 com a data da migração.
+alter table aluno add column versao bigint default 0 not null;
+alter table aluno add column atualizado_em timestamp(6) default localtimestamp not null;
+alter table disciplina add column versao bigint default 0 not null;
+alter table disciplina add column atualizado_em timestamp(6) default localtimestamp not null;
+alter table professor add column versao bigint default 0 not null;
+alter table professor add column atualizado_em timestamp(6) default localtimestamp not null;
+alter table turma add column versao bigint default 0 not null;
+alter table turma add column atualizado_em timestamp(6) default localtimestamp not null;
+alter table turma_aluno add column versao bigint default 0 not null;
+alter table turma_aluno add column atualizado_em timestamp(6) default localtimestamp not null;
+alter table nota add column versao bigint default 0 not null;
+alter table nota add column atualizado_em timestamp(6) default localtimestamp not null;
@@ -0,0 +1,33 @@
+-- Estatísticas de notas por turma, mantidas por delta a cada escrita de nota (ver TurmaEstatisticaService):
+-- quantidade, soma e soma dos quadrados (média e desvio padrão), mínimo, máximo e histograma em faixas
+-- de 1 ponto (faixa_9 inclui o 10). Apagada junto com a turma.
+create table turma_estatistica (
+    turma_id bigint not null,
+    quantidade bigint not null,
+    soma decimal(14,2) not null,
+    soma_quadrados decimal(18,4) not null,
+    minimo decimal(4,2),
+    maximo decimal(4,2),
+    faixa_0 bigint not null, faixa_1 bigint not null, faixa_2 bigint not null, faixa_3 bigint not null,
+    faixa_4 bigint not null, faixa_5 bigint not null, faixa_6 bigint not null, faixa_7 bigint not null,
+    faixa_8 bigint not null, faixa_9 bigint not null,
+    primary key (turma_id)
+);
+alter table turma_estatistica add constraint fk_turma_estatistica_turma foreign key (turma_id) references turma (id) on delete cascade;
+
+-- Turmas existentes partem das notas já lançadas
+insert into turma_estatistica (turma_id, quantidade, soma, soma_quadrados, minimo, maximo,
+        faixa_0, faixa_1, faixa_2, faixa_3, faixa_4, faixa_5, faixa_6, faixa_7, faixa_8, faixa_9)
+select t.id, count(n.id), coalesce(sum(n.valor), 0), coalesce(sum(n.valor * n.valor), 0), min(n.valor), max(n.valor),
+       sum(case when n.valor < 1 then 1 else 0 end),
+       sum(case when n.valor >= 1 and n.valor < 2 then 1 else 0 end),
+       sum(case when n.valor >= 2 and n.valor < 3 then 1 else 0 end),
+       sum(case when n.valor >= 3 and n.valor < 4 then 1 else 0 end),
+       sum(case when n.valor >= 4 and n.valor < 5 then 1 else 0 end),
+       sum(case when n.valor >= 5 and n.valor < 6 then 1 else 0 end),
+       sum(case when n.valor >= 6 and n.valor < 7 then 1 else 0 end),
+       sum(case when n.valor >= 7 and n.valor < 8 then 1 else 0 end),
+       sum(case when n.valor >= 8 and n.valor < 9 then 1 else 0 end),
+       sum(case when n.valor >= 9 then 1 else 0 end)
+from turma t left join nota n on n.turma_id = t.id
+group by t.id;
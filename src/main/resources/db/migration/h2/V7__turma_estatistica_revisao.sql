@@ -0,0 +1,5 @@
+-- Sem trava por turma nas escritas de nota (ver TurmaEstatisticaService): cada delta incrementa a revisão,
+-- e a reconstrução só substitui a linha se a revisão lida ainda for a atual. Remoções do mínimo ou do máximo
+-- marcam os extremos como pendentes; a leitura os calcula das notas até a próxima reconstrução.
+alter table turma_estatistica add column revisao bigint default 0 not null;
+alter table turma_estatistica add column extremos_pendentes boolean default false not null;
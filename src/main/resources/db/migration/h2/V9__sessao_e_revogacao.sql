@@ -0,0 +1,17 @@
+-- Sessões e revogação de tokens (epoch por usuário, refresh tokens e jti revogados), que não existiam na baseline.
+-- Versão depois das demais: bancos que já passaram da V3 a recebem em ordem, sem migração pendente no meio.
+-- Usuários existentes começam no epoch 0, o mesmo dos tokens já emitidos.
+alter table users add column token_epoch integer default 0 not null;
+
+create table refresh_token (revogado boolean not null, criado_em timestamp(6) not null, expira_em timestamp(6) not null, id bigint not null, user_id bigint not null, token_hash varchar(64) not null, primary key (id));
+create table token_revogado (expira_em timestamp(6) not null, jti varchar(36) not null, primary key (jti));
+
+alter table refresh_token add constraint uk_refresh_token_hash unique (token_hash);
+alter table refresh_token add constraint fk_refresh_token_user foreign key (user_id) references users (id);
+
+-- RefreshTokenRepository.revokeAllByUserId / deleteByUserId / deleteExpired
+create index ix_refresh_token_user_id on refresh_token (user_id, revogado);
+create index ix_refresh_token_expira_em on refresh_token (expira_em);
+
+-- RevokedTokenRepository.findActive / deleteExpired
+create index ix_token_revogado_expira_em on token_revogado (expira_em);
@@ -0,0 +1,22 @@
+-- Esquema como gerado pelo antigo ddl-auto=update, sem nada além dele: bancos já existentes entram pela baseline
+-- (versão 1) e só recebem o que vem das migrações seguintes.
+create table aluno (id bigint not null, cpf varchar(11) not null, nome varchar(100) not null, primary key (id)) engine=InnoDB;
+create table disciplina (carga_horaria integer not null, id bigint not null, nome varchar(100) not null, ementa TEXT, primary key (id)) engine=InnoDB;
+create table nota (valor decimal(4,2) not null, aluno_id bigint not null, id bigint not null, turma_id bigint not null, observacao varchar(255), primary key (id)) engine=InnoDB;
+create table professor (id bigint not null, telefone varchar(20), email varchar(100) not null, nome varchar(100) not null, primary key (id)) engine=InnoDB;
+create table turma (ano integer not null, disciplina_id bigint not null, id bigint not null, professor_id bigint not null, periodo varchar(10) not null, primary key (id)) engine=InnoDB;
+create table turma_aluno (ativo bit not null, data_ingresso date not null, aluno_id bigint not null, id bigint not null, turma_id bigint not null, primary key (id)) engine=InnoDB;
+create table user_profiles (user_id bigint not null, profile enum ('ADMIN','USER')) engine=InnoDB;
+create table users (ativo bit not null, id bigint not null, email varchar(100) not null, username varchar(100) not null, password varchar(255) not null, primary key (id)) engine=InnoDB;
+
+alter table aluno add constraint uk_aluno_cpf unique (cpf);
+alter table users add constraint uk_users_email unique (email);
+alter table users add constraint uk_users_username unique (username);
+
+alter table nota add constraint fk_nota_aluno foreign key (aluno_id) references aluno (id);
+alter table nota add constraint fk_nota_turma foreign key (turma_id) references turma (id);
+alter table turma add constraint fk_turma_disciplina foreign key (disciplina_id) references disciplina (id);
+alter table turma add constraint fk_turma_professor foreign key (professor_id) references professor (id);
+alter table turma_aluno add constraint fk_turma_aluno_aluno foreign key (aluno_id) references aluno (id);
+alter table turma_aluno add constraint fk_turma_aluno_turma foreign key (turma_id) references turma (id);
+alter table user_profiles add constraint fk_user_profiles_user foreign key (user_id) references users (id);
@@ -0,0 +1,19 @@
+-- Sequences de ids em blocos (ver IdBlocks). O MySQL não tem sequences: o Hibernate usa uma tabela de uma linha.
+-- IF NOT EXISTS: bancos que já passaram pelo ddl-auto=update podem ter essas tabelas; o IdSequenceMigration
+-- ajusta o valor para depois do maior id existente na inicialização.
+create table if not exists aluno_seq (next_val bigint) engine=InnoDB;
+insert into aluno_seq (next_val) select 1 from dual where not exists (select 1 from aluno_seq);
+create table if not exists disciplina_seq (next_val bigint) engine=InnoDB;
+insert into disciplina_seq (next_val) select 1 from dual where not exists (select 1 from disciplina_seq);
+create table if not exists nota_seq (next_val bigint) engine=InnoDB;
+insert into nota_seq (next_val) select 1 from dual where not exists (select 1 from nota_seq);
+create table if not exists professor_seq (next_val bigint) engine=InnoDB;
+insert into professor_seq (next_val) select 1 from dual where not exists (select 1 from professor_seq);
+create table if not exists refresh_token_seq (next_val bigint) engine=InnoDB;
+insert into refresh_token_seq (next_val) select 1 from dual where not exists (select 1 from refresh_token_seq);
+create table if not exists turma_seq (next_val bigint) engine=InnoDB;
+insert into turma_seq (next_val) select 1 from dual where not exists (select 1 from turma_seq);
+create table if not exists turma_aluno_seq (next_val bigint) engine=InnoDB;
+insert into turma_aluno_seq (next_val) select 1 from dual where not exists (select 1 from turma_aluno_seq);
+create table if not exists users_seq (next_val bigint) engine=InnoDB;
+insert into users_seq (next_val) select 1 from dual where not exists (select 1 from users_seq);
@@ -0,0 +1,12 @@
+-- turma.periodo passa de texto livre ('2025.1') para SMALLINT indexável no formato AAAAN (20251).
+-- Valores fora do formato AAAA.N viram AAAA0 (ano inteiro), usando a coluna ano da própria turma.
+alter table turma add column periodo_codigo smallint null;
+update turma set periodo_codigo = case
+    when regexp_like(periodo, '^[0-9]{4}[.][0-9]$')
+        then cast(substring(periodo, 1, 4) as unsigned) * 10 + cast(substring(periodo, 6, 1) as unsigned)
+    else ano * 10
+end;
+alter table turma drop column periodo;
+alter table turma rename column periodo_codigo to periodo;
+alter table turma modify column periodo smallint not null;
+create index ix_turma_periodo on turma (periodo);
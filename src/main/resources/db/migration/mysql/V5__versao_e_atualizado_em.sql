@@ -0,0 +1,8 @@
+-- Versão (bloqueio otimista) e data da última alteração de cada linha, base dos ETags das respostas.
+-- Linhas existentes começam na versão 0 com a data da migração.
+alter table aluno add column versao bigint not null default 0, add column atualizado_em datetime(6) not null default current_timestamp(6);
+alter table disciplina add column versao bigint not null default 0, add column atualizado_em datetime(6) not null default current_timestamp(6);
+alter table professor add column versao bigint not null default 0, add column atualizado_em datetime(6) not null default current_timestamp(6);
+alter table turma add column versao bigint not null default 0, add column atualizado_em datetime(6) not null default current_timestamp(6);
+alter table turma_aluno add column versao bigint not null default 0, add column atualizado_em datetime(6) not null default current_timestamp(6);
+alter table nota add column versao bigint not null default 0, add column atualizado_em datetime(6) not null default current_timestamp(6);
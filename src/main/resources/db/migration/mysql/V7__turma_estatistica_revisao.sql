@@ -0,0 +1,4 @@
+-- Sem trava por turma nas escritas de nota (ver TurmaEstatisticaService): cada delta incrementa a revisão,
+-- e a reconstrução só substitui a linha se a revisão lida ainda for a atual. Remoções do mínimo ou do máximo
+-- marcam os extremos como pendentes; a leitura os calcula das notas até a próxima reconstrução.
+alter table turma_estatistica add column revisao bigint not null default 0, add column extremos_pendentes boolean not null default false;
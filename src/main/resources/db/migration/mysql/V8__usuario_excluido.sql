@@ -0,0 +1,6 @@
+-- Usuários excluídos somem da consulta de epochs (TokenEpochRegistry): a exclusão fica registrada aqui
+-- até o último access token emitido expirar, para que todas as instâncias, e as reiniciadas, a recusem.
+create table usuario_excluido (expira_em datetime(6) not null, user_id bigint not null, primary key (user_id)) engine=InnoDB;
+
+-- DeletedUserRepository.findActive / deleteExpired
+create index ix_usuario_excluido_expira_em on usuario_excluido (expira_em);
@@ -0,0 +1,52 @@
+package com.vitor.demo.config;
+
+import com.vitor.demo.models.Aluno;
+import com.vitor.demo.repositories.AlunoRepository;
+import com.vitor.demo.repositories.NotaRepository;
+import com.vitor.demo.repositories.TurmaAlunoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdSequenceMigrationTest {
+
+    @Autowired
+    private IdSequenceMigration idSequenceMigration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private TurmaAlunoRepository turmaAlunoRepository;
+
+    @BeforeEach
+    void setUp() {
+        notaRepository.deleteAll();
+        turmaAlunoRepository.deleteAll();
+        alunoRepository.deleteAll();
+    }
+
+    @Test
+    void sequenceAvancaAlemDosIdsExistentes() {
+        // Linha gravada fora do Hibernate, como as criadas pelo antigo AUTO_INCREMENT
+        jdbcTemplate.update("INSERT INTO aluno (id, nome, cpf) VALUES (?, ?, ?)", 1_000_000L, "Legado", "00000000001");
+
+        idSequenceMigration.afterSingletonsInstantiated();
+
+        Aluno novo = alunoRepository.save(new Aluno(null, "Novo", "00000000002"));
+        assertTrue(novo.getId() > 1_000_000L, "id gerado " + novo.getId() + " colide com ids existentes");
+    }
+}
@@ -0,0 +1,154 @@
+package com.vitor.demo.controllers;
+
+import com.vitor.demo.models.Aluno;
+import com.vitor.demo.repositories.AlunoRepository;
+import com.vitor.demo.repositories.DisciplinaRepository;
+import com.vitor.demo.repositories.NotaRepository;
+import com.vitor.demo.repositories.ProfessorRepository;
+import com.vitor.demo.repositories.TurmaAlunoRepository;
+import com.vitor.demo.repositories.TurmaRepository;
+import com.vitor.demo.search.AlunoSearchIndex;
+import com.vitor.demo.security.ProfileEnum;
+import com.vitor.demo.security.UserSpringSecurity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /aluno/search responde do índice em memória, sem consultas ao banco, e acompanha
+ * cadastro, alteração e exclusão feitos pelo AlunoService.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AlunoSearchTest {
+
+    private static final UserSpringSecurity ADMIN = new UserSpringSecurity(
+            1L, "admin", null, Set.of(ProfileEnum.ADMIN, ProfileEnum.USER));
+
+    private static final UserSpringSecurity USER = new UserSpringSecurity(
+            2L, "usuario", null, Set.of(ProfileEnum.USER));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AlunoSearchIndex alunoSearchIndex;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private TurmaAlunoRepository turmaAlunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    private Aluno joao;
+
+    @BeforeEach
+    void setUp() {
+        notaRepository.deleteAll();
+        turmaAlunoRepository.deleteAll();
+        turmaRepository.deleteAll();
+        alunoRepository.deleteAll();
+        disciplinaRepository.deleteAll();
+        professorRepository.deleteAll();
+
+        joao = alunoRepository.save(new Aluno(null, "João Conceição", "12345678901"));
+        alunoRepository.save(new Aluno(null, "Joana Lima", "98765432100"));
+        // Gravações direto no repositório só entram na próxima reconstrução
+        alunoSearchIndex.refresh();
+    }
+
+    @Test
+    void buscaSemAcentosNaoConsultaOBanco() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/aluno/search").param("q", "joao").with(user(USER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(joao.getId()))
+                .andExpect(jsonPath("$[0].nome").value("João Conceição"))
+                .andExpect(jsonPath("$[0].cpf").value("12345678901"))
+                .andExpect(jsonPath("$[0].folded").doesNotExist());
+        mockMvc.perform(get("/aluno/search").param("q", "987.654").with(user(USER)))
+                .andExpect(jsonPath("$[0].nome").value("Joana Lima"));
+        mockMvc.perform(get("/aluno/search").param("q", "jo").param("limit", "1").with(user(USER)))
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(get("/aluno/search").param("q", " ").with(user(USER)))
+                .andExpect(jsonPath("$.length()").value(0));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void escritasPeloServicoAtualizamOIndice() throws Exception {
+        mockMvc.perform(post("/aluno").with(user(ADMIN))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\": \"Érica Gonçalves\", \"cpf\": \"11122233344\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/aluno/search").param("q", "erica gon").with(user(USER)))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].cpf").value("11122233344"));
+
+        mockMvc.perform(put("/aluno/" + joao.getId()).with(user(ADMIN))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\": \"Pedro Conceição\", \"cpf\": \"12345678901\"}"))
+                .andExpect(status().isNoContent());
+        // Sem nenhum nome começando por "joao", a busca devolve só os parecidos
+        mockMvc.perform(get("/aluno/search").param("q", "joao").with(user(USER)))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].nome").value("Joana Lima"));
+        mockMvc.perform(get("/aluno/search").param("q", "pedro").with(user(USER)))
+                .andExpect(jsonPath("$[0].id").value(joao.getId()));
+
+        mockMvc.perform(delete("/aluno/" + joao.getId()).with(user(ADMIN)))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/aluno/search").param("q", "pedro").with(user(USER)))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void cadastroDesfeitoNaoEntraNoIndice() throws Exception {
+        // CPF repetido: o serviço rejeita antes do commit
+        mockMvc.perform(post("/aluno").with(user(ADMIN))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\": \"Outro Nome\", \"cpf\": \"12345678901\"}"))
+                .andExpect(status().is4xxClientError());
+        mockMvc.perform(get("/aluno/search").param("q", "outro").with(user(USER)))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+}
@@ -0,0 +1,183 @@
+package com.vitor.demo.controllers;
+
+import com.jayway.jsonpath.JsonPath;
+import com.vitor.demo.dto.UserCreateDTO;
+import com.vitor.demo.repositories.RefreshTokenRepository;
+import com.vitor.demo.repositories.UserRepository;
+import com.vitor.demo.security.TokenRevocationList;
+import com.vitor.demo.security.UserDetailsCache;
+import com.vitor.demo.services.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Refresh token de uso único (rotação com detecção de reuso) e logout revogando access e refresh token.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthControllerTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        userDetailsCache.invalidateAll();
+
+        userService.create(new UserCreateDTO("diana", "senha-diana", "diana@teste.com"));
+    }
+
+    @Test
+    void renovacaoGiraORefreshTokenEDetectaReuso() throws Exception {
+        String login = login();
+        String refreshToken = JsonPath.read(login, "$.refreshToken");
+
+        String renewed = refresh(refreshToken)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String newRefreshToken = JsonPath.read(renewed, "$.refreshToken");
+        assertNotEquals(refreshToken, newRefreshToken);
+        authenticatedGet(JsonPath.read(renewed, "$.token")).andExpect(status().isOk());
+
+        // Token já usado reapresentado: possível roubo, todas as sessões renováveis caem
+        refresh(refreshToken).andExpect(status().isUnauthorized());
+        refresh(newRefreshToken).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void renovacoesSimultaneasComOMesmoTokenSoUmaVence() throws Exception {
+        String refreshToken = JsonPath.read(login(), "$.refreshToken");
+
+        List<Integer> statuses = concurrently(() -> refresh(refreshToken).andReturn().getResponse().getStatus());
+
+        assertEquals(1, statuses.stream().filter(status -> status == 200).count(), statuses.toString());
+        assertEquals(THREADS - 1, statuses.stream().filter(status -> status == 401).count(), statuses.toString());
+        // Os perdedores contam como reuso: nem o par emitido para o vencedor continua renovável
+        assertFalse(refreshTokenRepository.findAll().stream().anyMatch(token -> !token.getRevogado()));
+    }
+
+    @Test
+    void logoutRevogaAccessTokenERefreshToken() throws Exception {
+        String login = login();
+        String token = JsonPath.read(login, "$.token");
+        String refreshToken = JsonPath.read(login, "$.refreshToken");
+        authenticatedGet(token).andExpect(status().isOk());
+
+        mockMvc.perform(post("/auth/logout")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\": \"" + refreshToken + "\"}"))
+                .andExpect(status().isNoContent());
+
+        authenticatedGet(token).andExpect(status().isForbidden());
+        refresh(refreshToken).andExpect(status().isUnauthorized());
+        // Um novo login continua funcionando
+        authenticatedGet(JsonPath.read(login(), "$.token")).andExpect(status().isOk());
+    }
+
+    @Test
+    void revogacaoDesfeitaNaoEntraNaLista() {
+        String jti = UUID.randomUUID().toString();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            tokenRevocationList.revoke(jti, System.currentTimeMillis() + 60_000);
+            status.setRollbackOnly();
+        });
+        assertFalse(tokenRevocationList.isRevoked(jti));
+
+        tokenRevocationList.refresh();
+        assertFalse(tokenRevocationList.isRevoked(jti));
+    }
+
+    private String login() throws Exception {
+        return mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\": \"diana\", \"password\": \"senha-diana\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private ResultActions refresh(String refreshToken) throws Exception {
+        return mockMvc.perform(post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\": \"" + refreshToken + "\"}"));
+    }
+
+    private ResultActions authenticatedGet(String token) throws Exception {
+        return mockMvc.perform(get("/disciplina").header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+
+    private interface Call {
+        int status() throws Exception;
+    }
+
+    private List<Integer> concurrently(Call call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return call.status();
+                }));
+            }
+            start.countDown();
+
+            List<Integer> statuses = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                statuses.add(future.get());
+            }
+            return statuses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
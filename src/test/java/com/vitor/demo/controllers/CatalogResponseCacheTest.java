@@ -0,0 +1,158 @@
+package com.vitor.demo.controllers;
+
+import com.vitor.demo.cache.CatalogResponseCache;
+import com.vitor.demo.models.Disciplina;
+import com.vitor.demo.models.Professor;
+import com.vitor.demo.models.Turma;
+import com.vitor.demo.repositories.DisciplinaRepository;
+import com.vitor.demo.repositories.NotaRepository;
+import com.vitor.demo.repositories.ProfessorRepository;
+import com.vitor.demo.repositories.TurmaAlunoRepository;
+import com.vitor.demo.repositories.TurmaRepository;
+import com.vitor.demo.security.ProfileEnum;
+import com.vitor.demo.security.UserSpringSecurity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Listagens de catálogo servidas do cache de respostas: sem consultas no acerto,
+ * variante gzip conforme Accept-Encoding e invalidação pelas escritas dos services.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CatalogResponseCacheTest {
+
+    private static final UserSpringSecurity ADMIN = new UserSpringSecurity(
+            1L, "admin", null, Set.of(ProfileEnum.ADMIN, ProfileEnum.USER));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private TurmaAlunoRepository turmaAlunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    private Disciplina disciplina;
+
+    @BeforeEach
+    void setUp() {
+        notaRepository.deleteAll();
+        turmaAlunoRepository.deleteAll();
+        turmaRepository.deleteAll();
+        disciplinaRepository.deleteAll();
+        professorRepository.deleteAll();
+
+        // Ementa longa, como nas disciplinas reais
+        disciplina = disciplinaRepository.save(new Disciplina(null, "Cálculo", 60, "Limites, derivadas e integrais. ".repeat(100)));
+        Professor professor = professorRepository.save(new Professor(null, "Ana", "ana@teste.com", null));
+        turmaRepository.save(new Turma(null, disciplina, professor, 2025, "2025.1"));
+
+        // Carga direta pelos repositórios não passa pelos services
+        catalogResponseCache.invalidateAll();
+    }
+
+    @Test
+    void acertoNaoConsultaOBanco() throws Exception {
+        byte[] first = mockMvc.perform(get("/disciplina").with(user(ADMIN)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].nome").value("Cálculo"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        byte[] second = mockMvc.perform(get("/disciplina").with(user(ADMIN)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertArrayEquals(first, second);
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void varianteGzipConformeAcceptEncoding() throws Exception {
+        MvcResult plain = mockMvc.perform(get("/disciplina").with(user(ADMIN)))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn();
+
+        MvcResult gzip = mockMvc.perform(get("/disciplina").with(user(ADMIN)).header(HttpHeaders.ACCEPT_ENCODING, "br, gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn();
+
+        byte[] compressed = gzip.getResponse().getContentAsByteArray();
+        byte[] json = plain.getResponse().getContentAsByteArray();
+        assertTrue(compressed.length < json.length / 4, "gzip: " + compressed.length + " de " + json.length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(json, in.readAllBytes());
+        }
+
+        mockMvc.perform(get("/disciplina").with(user(ADMIN)).header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void escritaNoServiceInvalidaCatalogoETurmas() throws Exception {
+        mockMvc.perform(get("/disciplina").with(user(ADMIN))).andExpect(jsonPath("$.items[0].nome").value("Cálculo"));
+        mockMvc.perform(get("/turma").with(user(ADMIN))).andExpect(jsonPath("$.items[0].disciplina.nome").value("Cálculo"));
+
+        mockMvc.perform(put("/disciplina/" + disciplina.getId()).with(user(ADMIN))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\": \"Cálculo II\", \"cargaHoraria\": 80}"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/disciplina").with(user(ADMIN))).andExpect(jsonPath("$.items[0].nome").value("Cálculo II"));
+        mockMvc.perform(get("/turma").with(user(ADMIN))).andExpect(jsonPath("$.items[0].disciplina.nome").value("Cálculo II"));
+    }
+
+    @Test
+    void paginasDiferentesNaoCompartilhamEntrada() throws Exception {
+        mockMvc.perform(get("/disciplina").with(user(ADMIN))).andExpect(jsonPath("$.items.length()").value(1));
+        mockMvc.perform(get("/disciplina").param("sort", "desc").with(user(ADMIN))).andExpect(jsonPath("$.items.length()").value(1));
+        mockMvc.perform(get("/disciplina").param("sort", "invalido").with(user(ADMIN))).andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,171 @@
+package com.vitor.demo.controllers;
+
+import com.vitor.demo.models.Disciplina;
+import com.vitor.demo.models.Professor;
+import com.vitor.demo.models.Turma;
+import com.vitor.demo.repositories.AlunoRepository;
+import com.vitor.demo.repositories.DisciplinaRepository;
+import com.vitor.demo.repositories.NotaRepository;
+import com.vitor.demo.repositories.ProfessorRepository;
+import com.vitor.demo.repositories.TurmaAlunoRepository;
+import com.vitor.demo.repositories.TurmaRepository;
+import com.vitor.demo.search.CatalogSearchIndex;
+import com.vitor.demo.security.ProfileEnum;
+import com.vitor.demo.security.UserSpringSecurity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /catalogo/search responde do índice invertido, sem consultas ao banco; escritas pelos services
+ * entram após o commit e as feitas direto no banco entram na reconciliação por versão.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CatalogSearchTest {
+
+    private static final UserSpringSecurity ADMIN = new UserSpringSecurity(
+            1L, "admin", null, Set.of(ProfileEnum.ADMIN, ProfileEnum.USER));
+
+    private static final UserSpringSecurity USER = new UserSpringSecurity(
+            2L, "usuario", null, Set.of(ProfileEnum.USER));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private TurmaAlunoRepository turmaAlunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    private Disciplina calculo;
+    private Professor ana;
+    private Turma turma;
+
+    @BeforeEach
+    void setUp() {
+        notaRepository.deleteAll();
+        turmaAlunoRepository.deleteAll();
+        turmaRepository.deleteAll();
+        alunoRepository.deleteAll();
+        disciplinaRepository.deleteAll();
+        professorRepository.deleteAll();
+
+        calculo = disciplinaRepository.save(new Disciplina(null, "Cálculo Diferencial", 60,
+                "Limites, derivadas e aplicações"));
+        disciplinaRepository.save(new Disciplina(null, "Física I", 60, "Cinemática e leis de Newton com cálculo"));
+        ana = professorRepository.save(new Professor(null, "Ana Souza", "ana.souza@escola.br", null));
+        turma = turmaRepository.save(new Turma(null, calculo, ana, 2025, "2025.1"));
+        // Gravações direto no repositório só entram na reconciliação
+        catalogSearchIndex.reconcile();
+    }
+
+    @Test
+    void buscaRespondeDoIndiceSemConsultarOBanco() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/catalogo/search").param("q", "calculos").with(user(USER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].tipo").value("DISCIPLINA"))
+                .andExpect(jsonPath("$[0].id").value(calculo.getId()))
+                .andExpect(jsonPath("$[0].titulo").value("Cálculo Diferencial"))
+                .andExpect(jsonPath("$[1].titulo").value("Física I"));
+        mockMvc.perform(get("/catalogo/search").param("q", "souza").param("tipo", "professor").with(user(USER)))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(ana.getId()));
+        mockMvc.perform(get("/catalogo/search").param("q", "2025.1").with(user(USER)))
+                .andExpect(jsonPath("$[0].tipo").value("TURMA"))
+                .andExpect(jsonPath("$[0].id").value(turma.getId()));
+        mockMvc.perform(get("/catalogo/search").param("q", "de com").with(user(USER)))
+                .andExpect(jsonPath("$.length()").value(0));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(get("/catalogo/search").param("q", "calculo").param("tipo", "aluno").with(user(USER)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void escritasPeloServicoAtualizamOIndice() throws Exception {
+        mockMvc.perform(post("/disciplina").with(user(ADMIN))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\": \"Algoritmos\", \"cargaHoraria\": 80, \"ementa\": \"Ordenação e grafos\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/catalogo/search").param("q", "grafo").with(user(USER)))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].titulo").value("Algoritmos"));
+
+        mockMvc.perform(put("/professor/" + ana.getId()).with(user(ADMIN))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\": \"Ana Pereira\", \"email\": \"ana.pereira@escola.br\"}"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/catalogo/search").param("q", "souza").with(user(USER)))
+                .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/catalogo/search").param("q", "pereira").with(user(USER)))
+                .andExpect(jsonPath("$[0].titulo").value("Ana Pereira"));
+
+        mockMvc.perform(delete("/turma/" + turma.getId()).with(user(ADMIN)))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/catalogo/search").param("q", "2025").with(user(USER)))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void reconciliacaoPegaEscritasDiretasNoBanco() throws Exception {
+        Disciplina disciplina = disciplinaRepository.findById(calculo.getId()).orElseThrow();
+        disciplina.setNome("Cálculo Integral");
+        disciplinaRepository.save(disciplina);
+        turmaRepository.deleteAll();
+
+        mockMvc.perform(get("/catalogo/search").param("q", "integral").with(user(USER)))
+                .andExpect(jsonPath("$.length()").value(0));
+
+        catalogSearchIndex.reconcile();
+        mockMvc.perform(get("/catalogo/search").param("q", "integral").with(user(USER)))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(calculo.getId()));
+        mockMvc.perform(get("/catalogo/search").param("q", "2025.1").with(user(USER)))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+}
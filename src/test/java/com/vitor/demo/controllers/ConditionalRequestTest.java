@@ -0,0 +1,221 @@
+package com.vitor.demo.controllers;
+
+import com.vitor.demo.models.Aluno;
+import com.vitor.demo.models.Disciplina;
+import com.vitor.demo.models.Nota;
+import com.vitor.demo.models.Professor;
+import com.vitor.demo.models.Turma;
+import com.vitor.demo.repositories.AlunoRepository;
+import com.vitor.demo.repositories.DisciplinaRepository;
+import com.vitor.demo.repositories.NotaRepository;
+import com.vitor.demo.repositories.ProfessorRepository;
+import com.vitor.demo.repositories.TurmaAlunoRepository;
+import com.vitor.demo.repositories.TurmaRepository;
+import com.vitor.demo.security.ProfileEnum;
+import com.vitor.demo.security.UserSpringSecurity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GETs condicionais: o ETag vem das colunas versao/atualizado_em e um If-None-Match que confere
+ * devolve 304 apenas com a consulta de versões, sem carregar o grafo nem serializar o corpo.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalRequestTest {
+
+    private static final UserSpringSecurity ADMIN = new UserSpringSecurity(
+            1L, "admin", null, Set.of(ProfileEnum.ADMIN, ProfileEnum.USER));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private TurmaAlunoRepository turmaAlunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    private Statistics statistics;
+    private Aluno aluno;
+    private Turma turma;
+    private Nota nota;
+
+    @BeforeEach
+    void setUp() {
+        notaRepository.deleteAll();
+        turmaAlunoRepository.deleteAll();
+        turmaRepository.deleteAll();
+        alunoRepository.deleteAll();
+        disciplinaRepository.deleteAll();
+        professorRepository.deleteAll();
+
+        Disciplina disciplina = disciplinaRepository.save(new Disciplina(null, "Cálculo", 60, null));
+        Professor professor = professorRepository.save(new Professor(null, "Ana", "ana@teste.com", null));
+        turma = turmaRepository.save(new Turma(null, disciplina, professor, 2025, "2025.1"));
+        aluno = alunoRepository.save(new Aluno(null, "Bruno", "00000000001"));
+        nota = notaRepository.save(new Nota(null, aluno, turma, new BigDecimal("7.50"), null));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void notaNaoModificadaDevolve304SoComConsultaDeVersoes() throws Exception {
+        String url = "/nota/" + nota.getId();
+        MvcResult first = mockMvc.perform(get(url).with(user(ADMIN)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(jsonPath("$.id").value(nota.getId()))
+                .andExpect(jsonPath("$.versao").value(0))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        statistics.clear();
+        mockMvc.perform(get(url).with(user(ADMIN)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void atualizacaoMudaEtag() throws Exception {
+        String url = "/nota/" + nota.getId();
+        String etag = mockMvc.perform(get(url).with(user(ADMIN)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put(url).with(user(ADMIN))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"valor\": 9.0}"))
+                .andExpect(status().isNoContent());
+
+        MvcResult updated = mockMvc.perform(get(url).with(user(ADMIN)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valor").value(9.0))
+                .andExpect(jsonPath("$.versao").value(1))
+                .andReturn();
+        assertNotEquals(etag, updated.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void listagemMudaEtagComNovaLinhaOuExclusao() throws Exception {
+        String url = "/nota/turma/" + turma.getId();
+        String etag = mockMvc.perform(get(url).with(user(ADMIN)))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(url).with(user(ADMIN)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        Aluno outro = alunoRepository.save(new Aluno(null, "Carla", "00000000002"));
+        Nota nova = notaRepository.save(new Nota(null, outro, turma, new BigDecimal("5.00"), null));
+        String comNova = mockMvc.perform(get(url).with(user(ADMIN)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Exclusão não altera nenhuma versão restante, mas muda o conjunto de ids
+        notaRepository.deleteById(nova.getId());
+        mockMvc.perform(get(url).with(user(ADMIN)).header(HttpHeaders.IF_NONE_MATCH, comNova))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(jsonPath("$.items.length()").value(1));
+    }
+
+    @Test
+    void listagemComCorpoLeVersaoECorpoNaMesmaTransacao() throws Exception {
+        for (String url : new String[] {"/nota/turma/" + turma.getId(), "/turma/" + turma.getId() + "/notas"}) {
+            statistics.clear();
+            mockMvc.perform(get(url).with(user(ADMIN)))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists(HttpHeaders.ETAG))
+                    .andExpect(jsonPath("$.items.length()").value(1));
+            assertEquals(1, statistics.getTransactionCount(), url);
+        }
+    }
+
+    @Test
+    void notaCriadaPorPostComReferenciasMudaEtag() throws Exception {
+        String url = "/nota/aluno/" + aluno.getId();
+        String etag = mockMvc.perform(get(url).with(user(ADMIN)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Aluno e turma chegam só com o id, sem versao
+        Turma outra = turmaRepository.save(new Turma(null, turma.getDisciplina(), turma.getProfessor(), 2025, "2025.2"));
+        String body = "{\"aluno\": {\"id\": " + aluno.getId() + "}, \"turma\": {\"id\": " + outra.getId() + "}, \"valor\": 6.0}";
+        mockMvc.perform(post("/nota").with(user(ADMIN)).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get(url).with(user(ADMIN)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2));
+    }
+
+    @Test
+    void turmaUsaEtagDaEntidadeEmbutida() throws Exception {
+        String url = "/turma/" + turma.getId();
+        String etag = mockMvc.perform(get(url).with(user(ADMIN)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(get(url).with(user(ADMIN)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // Mudança na disciplina embutida também invalida o ETag da turma
+        mockMvc.perform(put("/disciplina/" + turma.getDisciplina().getId()).with(user(ADMIN))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\": \"Cálculo II\", \"cargaHoraria\": 80}"))
+                .andExpect(status().is2xxSuccessful());
+
+        mockMvc.perform(get(url).with(user(ADMIN)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.disciplina.nome").value("Cálculo II"));
+    }
+}
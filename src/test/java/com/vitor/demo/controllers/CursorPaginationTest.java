@@ -0,0 +1,115 @@
+package com.vitor.demo.controllers;
+
+import com.jayway.jsonpath.JsonPath;
+import com.vitor.demo.models.Aluno;
+import com.vitor.demo.pagination.CursorRequest;
+import com.vitor.demo.repositories.AlunoRepository;
+import com.vitor.demo.repositories.NotaRepository;
+import com.vitor.demo.repositories.TurmaAlunoRepository;
+import com.vitor.demo.security.ProfileEnum;
+import com.vitor.demo.security.UserSpringSecurity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CursorPaginationTest {
+
+    private static final int ALUNOS = 23;
+
+    private static final UserSpringSecurity USER = new UserSpringSecurity(
+            1L, "usuario", null, Set.of(ProfileEnum.USER));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private TurmaAlunoRepository turmaAlunoRepository;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        notaRepository.deleteAll();
+        turmaAlunoRepository.deleteAll();
+        alunoRepository.deleteAll();
+        ids.clear();
+        for (int i = 0; i < ALUNOS; i++) {
+            ids.add(alunoRepository.save(new Aluno(null, "Aluno " + i, String.format("9%010d", i))).getId());
+        }
+    }
+
+    @Test
+    void percorreTodasAsPaginasEmOrdemCrescente() throws Exception {
+        assertEquals(ids, collect(get("/aluno").param("limit", "10")));
+    }
+
+    @Test
+    void percorreTodasAsPaginasEmOrdemDecrescente() throws Exception {
+        List<Long> expected = new ArrayList<>(ids);
+        Collections.reverse(expected);
+        assertEquals(expected, collect(get("/aluno").param("limit", "10").param("sort", "desc")));
+    }
+
+    @Test
+    void limiteAcimaDoMaximoERecortado() throws Exception {
+        mockMvc.perform(get("/aluno").param("limit", String.valueOf(CursorRequest.MAX_LIMIT + 1)).with(user(USER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(ALUNOS));
+        assertEquals(CursorRequest.MAX_LIMIT, cursor(CursorRequest.MAX_LIMIT * 10).effectiveLimit());
+    }
+
+    @Test
+    void cursorInvalidoRetorna400() throws Exception {
+        mockMvc.perform(get("/aluno").param("after", "nao-e-um-cursor").with(user(USER)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<Long> collect(MockHttpServletRequestBuilder first) throws Exception {
+        List<Long> seen = new ArrayList<>();
+        String body = mockMvc.perform(first.with(user(USER))).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        while (true) {
+            List<Number> page = JsonPath.read(body, "$.items[*].id");
+            page.forEach(id -> seen.add(id.longValue()));
+            String next = JsonPath.read(body, "$.nextCursor");
+            if (next == null) {
+                return seen;
+            }
+            // O cursor carrega a direção: basta repassá-lo
+            body = mockMvc.perform(get("/aluno").param("after", next).param("limit", "10").with(user(USER)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+        }
+    }
+
+    private static CursorRequest cursor(int limit) {
+        CursorRequest request = new CursorRequest();
+        request.setLimit(limit);
+        return request;
+    }
+}
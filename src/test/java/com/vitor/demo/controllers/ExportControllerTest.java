@@ -0,0 +1,149 @@
+package com.vitor.demo.controllers;
+
+import com.vitor.demo.models.Aluno;
+import com.vitor.demo.models.Disciplina;
+import com.vitor.demo.models.Nota;
+import com.vitor.demo.models.Professor;
+import com.vitor.demo.models.Turma;
+import com.vitor.demo.repositories.AlunoRepository;
+import com.vitor.demo.repositories.DisciplinaRepository;
+import com.vitor.demo.repositories.NotaRepository;
+import com.vitor.demo.repositories.ProfessorRepository;
+import com.vitor.demo.repositories.TurmaAlunoRepository;
+import com.vitor.demo.repositories.TurmaRepository;
+import com.vitor.demo.security.ProfileEnum;
+import com.vitor.demo.security.UserSpringSecurity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ExportControllerTest {
+
+    // Mais linhas que o intervalo de flush/limpeza do ExportService
+    private static final int NOTAS = 1200;
+
+    private static final UserSpringSecurity ADMIN = new UserSpringSecurity(
+            1L, "admin", null, Set.of(ProfileEnum.ADMIN, ProfileEnum.USER));
+
+    private static final UserSpringSecurity USER = new UserSpringSecurity(
+            2L, "usuario", null, Set.of(ProfileEnum.USER));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private TurmaAlunoRepository turmaAlunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @BeforeEach
+    void setUp() {
+        notaRepository.deleteAll();
+        turmaAlunoRepository.deleteAll();
+        turmaRepository.deleteAll();
+        alunoRepository.deleteAll();
+        disciplinaRepository.deleteAll();
+        professorRepository.deleteAll();
+
+        Disciplina disciplina = disciplinaRepository.save(new Disciplina(null, "Cálculo, turma A", 60, null));
+        Professor professor = professorRepository.save(new Professor(null, "Professor", "prof@teste.com", null));
+        Turma turma = turmaRepository.save(new Turma(null, disciplina, professor, 2025, "2025.1"));
+        Aluno aluno = alunoRepository.save(new Aluno(null, "Aluno \"Um\"", "12345678901"));
+
+        for (int i = 0; i < NOTAS; i++) {
+            notaRepository.save(new Nota(null, aluno, turma, new BigDecimal("8.00"), null));
+        }
+    }
+
+    @Test
+    void exportaNotasEmNdjson() throws Exception {
+        String body = export("/nota/export?format=ndjson", "application/x-ndjson");
+
+        String[] lines = body.split("\n");
+        assertEquals(NOTAS, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":"));
+    }
+
+    @Test
+    void exportaNotasEmJson() throws Exception {
+        String body = export("/nota/export?format=json", "application/json");
+
+        assertTrue(body.startsWith("[{") && body.endsWith("}]"));
+    }
+
+    @Test
+    void exportaNotasEmCsvComEscape() throws Exception {
+        String body = export("/nota/export?format=csv", "text/csv");
+
+        String[] lines = body.split("\r\n");
+        assertEquals(NOTAS + 1, lines.length);
+        assertEquals("id,aluno_id,aluno_nome,turma_id,disciplina,professor,ano,periodo,valor,observacao", lines[0]);
+        assertTrue(lines[1].contains(",\"Aluno \"\"Um\"\"\","));
+        assertTrue(lines[1].contains(",\"Cálculo, turma A\","));
+    }
+
+    @Test
+    void exportaAlunosETurmas() throws Exception {
+        assertEquals(2, export("/aluno/export?format=csv", "text/csv").split("\r\n").length);
+        assertEquals(1, export("/turma/export", "application/x-ndjson").split("\n").length);
+    }
+
+    @Test
+    void exportacaoDeNotasExigeAdmin() throws Exception {
+        mockMvc.perform(get("/nota/export").with(user(USER)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/turmaaluno/export").with(user(USER)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void formatoInvalidoRetorna400() throws Exception {
+        mockMvc.perform(get("/nota/export?format=xml").with(user(ADMIN)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String export(String url, String contentType) throws Exception {
+        MvcResult started = mockMvc.perform(get(url).with(user(ADMIN)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(contentType))
+                .andReturn();
+        return result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+}
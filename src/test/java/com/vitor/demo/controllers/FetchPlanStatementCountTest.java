@@ -0,0 +1,209 @@
+package com.vitor.demo.controllers;
+
+import com.vitor.demo.cache.CatalogResponseCache;
+import com.vitor.demo.models.Aluno;
+import com.vitor.demo.models.Disciplina;
+import com.vitor.demo.models.Nota;
+import com.vitor.demo.models.Professor;
+import com.vitor.demo.models.Turma;
+import com.vitor.demo.models.TurmaAluno;
+import com.vitor.demo.repositories.AlunoRepository;
+import com.vitor.demo.repositories.DisciplinaRepository;
+import com.vitor.demo.repositories.NotaRepository;
+import com.vitor.demo.repositories.ProfessorRepository;
+import com.vitor.demo.repositories.TurmaAlunoRepository;
+import com.vitor.demo.repositories.TurmaRepository;
+import com.vitor.demo.security.ProfileEnum;
+import com.vitor.demo.security.UserSpringSecurity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que as leituras de Nota, Turma e TurmaAluno executam um número fixo de
+ * consultas, independente de quantas linhas e associações distintas são devolvidas.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FetchPlanStatementCountTest {
+
+    private static final int TURMAS = 3;
+    private static final int ALUNOS = 4;
+
+    private static final UserSpringSecurity ADMIN = new UserSpringSecurity(
+            1L, "admin", null, Set.of(ProfileEnum.ADMIN, ProfileEnum.USER));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private TurmaAlunoRepository turmaAlunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    private Turma turma;
+    private Aluno aluno;
+    private Nota nota;
+    private TurmaAluno matricula;
+
+    @BeforeEach
+    void setUp() {
+        notaRepository.deleteAll();
+        turmaAlunoRepository.deleteAll();
+        turmaRepository.deleteAll();
+        alunoRepository.deleteAll();
+        disciplinaRepository.deleteAll();
+        professorRepository.deleteAll();
+
+        // Cada turma com disciplina e professor próprios para expor qualquer carga por linha
+        List<Turma> turmas = new ArrayList<>();
+        for (int i = 0; i < TURMAS; i++) {
+            Disciplina disciplina = disciplinaRepository.save(new Disciplina(null, "Disciplina " + i, 60, null));
+            Professor professor = professorRepository.save(new Professor(null, "Professor " + i, "prof" + i + "@teste.com", null));
+            turmas.add(turmaRepository.save(new Turma(null, disciplina, professor, 2025, "2025." + i)));
+        }
+
+        List<Aluno> alunos = new ArrayList<>();
+        for (int i = 0; i < ALUNOS; i++) {
+            alunos.add(alunoRepository.save(new Aluno(null, "Aluno " + i, String.format("%011d", i))));
+        }
+
+        for (Turma t : turmas) {
+            for (Aluno a : alunos) {
+                matricula = turmaAlunoRepository.save(new TurmaAluno(null, a, t, LocalDate.now(), true));
+                nota = notaRepository.save(new Nota(null, a, t, new BigDecimal("7.50"), null));
+            }
+        }
+
+        turma = turmas.get(0);
+        aluno = alunos.get(0);
+    }
+
+    @Test
+    void notaFindAll() throws Exception {
+        assertStatements("/nota", 2, TURMAS * ALUNOS);
+    }
+
+    @Test
+    void notaFindById() throws Exception {
+        assertStatements("/nota/" + nota.getId(), 2, -1);
+    }
+
+    @Test
+    void notaFindByAlunoId() throws Exception {
+        assertStatements("/nota/aluno/" + aluno.getId(), 2, TURMAS);
+    }
+
+    @Test
+    void notaFindByTurmaId() throws Exception {
+        assertStatements("/nota/turma/" + turma.getId(), 2, ALUNOS);
+    }
+
+    @Test
+    void turmaFindAll() throws Exception {
+        assertStatements("/turma", 1, TURMAS);
+    }
+
+    @Test
+    void turmaFindById() throws Exception {
+        assertStatements("/turma/" + turma.getId(), 1, -1);
+    }
+
+    @Test
+    void turmaFindNotas() throws Exception {
+        assertStatements("/turma/" + turma.getId() + "/notas", 2, ALUNOS);
+    }
+
+    @Test
+    void turmaFindAlunos() throws Exception {
+        // Verificação de existência da turma + matrículas
+        assertStatements("/turma/" + turma.getId() + "/alunos", 3, ALUNOS);
+    }
+
+    @Test
+    void turmaFindByDisciplinaId() throws Exception {
+        assertStatements("/turma/disciplina/" + turma.getDisciplina().getId(), 2, 1);
+    }
+
+    @Test
+    void turmaFindByProfessorId() throws Exception {
+        assertStatements("/turma/professor/" + turma.getProfessor().getId(), 2, 1);
+    }
+
+    @Test
+    void turmaAlunoFindAll() throws Exception {
+        assertStatements("/turmaaluno", 2, TURMAS * ALUNOS);
+    }
+
+    @Test
+    void turmaAlunoFindById() throws Exception {
+        assertStatements("/turmaaluno/" + matricula.getId(), 2, -1);
+    }
+
+    @Test
+    void turmaAlunoFindByAlunoId() throws Exception {
+        // Verificação de existência do aluno + matrículas
+        assertStatements("/turmaaluno/aluno/" + aluno.getId(), 3, TURMAS);
+    }
+
+    @Test
+    void turmaAlunoFindByTurmaId() throws Exception {
+        assertStatements("/turmaaluno/turma/" + turma.getId(), 3, ALUNOS);
+    }
+
+    // expectedRows < 0 indica resposta com um único objeto; listas vêm em CursorPage.items.
+    // Leituras de Nota e TurmaAluno contam também a consulta de versões usada no ETag.
+    private void assertStatements(String url, long expectedStatements, int expectedRows) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Mede o plano com os caches frios (o caso aquecido fica em SecondLevelCacheTest e CatalogResponseCacheTest)
+        entityManagerFactory.getCache().evictAll();
+        catalogResponseCache.invalidateAll();
+        statistics.clear();
+
+        var result = mockMvc.perform(get(url).with(user(ADMIN))).andExpect(status().isOk());
+        if (expectedRows >= 0) {
+            result.andExpect(jsonPath("$.items.length()").value(expectedRows));
+        }
+
+        assertEquals(expectedStatements, statistics.getPrepareStatementCount(), "consultas em " + url);
+    }
+}
@@ -0,0 +1,228 @@
+package com.vitor.demo.controllers;
+
+import com.jayway.jsonpath.JsonPath;
+import com.vitor.demo.imports.AlunoImportHandler;
+import com.vitor.demo.models.Aluno;
+import com.vitor.demo.models.Disciplina;
+import com.vitor.demo.models.Professor;
+import com.vitor.demo.models.Turma;
+import com.vitor.demo.repositories.AlunoRepository;
+import com.vitor.demo.repositories.DisciplinaRepository;
+import com.vitor.demo.repositories.NotaRepository;
+import com.vitor.demo.repositories.ProfessorRepository;
+import com.vitor.demo.repositories.TurmaAlunoRepository;
+import com.vitor.demo.repositories.TurmaRepository;
+import com.vitor.demo.security.ProfileEnum;
+import com.vitor.demo.security.UserSpringSecurity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "import.chunk-size=100")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ImportControllerTest {
+
+    private static final UserSpringSecurity ADMIN = new UserSpringSecurity(
+            1L, "admin", null, Set.of(ProfileEnum.ADMIN, ProfileEnum.USER));
+
+    private static final UserSpringSecurity USER = new UserSpringSecurity(
+            2L, "usuario", null, Set.of(ProfileEnum.USER));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoSpyBean
+    private AlunoImportHandler alunoImportHandler;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private TurmaAlunoRepository turmaAlunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @BeforeEach
+    void setUp() {
+        notaRepository.deleteAll();
+        turmaAlunoRepository.deleteAll();
+        turmaRepository.deleteAll();
+        alunoRepository.deleteAll();
+        disciplinaRepository.deleteAll();
+        professorRepository.deleteAll();
+    }
+
+    @Test
+    void importaAlunosEmVariosBlocosComRelatorioDeErros() throws Exception {
+        alunoRepository.save(new Aluno(null, "Já Cadastrado", "99999999999"));
+
+        StringBuilder csv = new StringBuilder("nome,cpf\n");
+        for (int i = 0; i < 250; i++) {
+            csv.append("Aluno ").append(i).append(',').append(String.format("%03d.%03d.%03d-%02d", 0, 0, i, 0)).append('\n');
+        }
+        csv.append("Repetido,000.000.001-00\n");   // CPF repetido no arquivo
+        csv.append("Outro,99999999999\n");        // CPF já no banco
+        csv.append("X,11111111111\n");            // nome curto
+        csv.append("Sem CPF,\n");
+
+        String id = start("aluno", csv.toString(), false);
+        String progress = awaitFinished(id);
+
+        assertEquals("CONCLUIDO", JsonPath.read(progress, "$.status"));
+        assertEquals(254, (int) JsonPath.read(progress, "$.linhasLidas"));
+        assertEquals(250, (int) JsonPath.read(progress, "$.gravadas"));
+        assertEquals(4, (int) JsonPath.read(progress, "$.rejeitadas"));
+        assertEquals(251, alunoRepository.count());
+        assertTrue(alunoRepository.findByCpf("00000012500").isPresent());
+
+        String[] report = errorReport(id).split("\r\n");
+        assertEquals(5, report.length);
+        assertEquals("linha,erro,registro", report[0]);
+        // Repetição de um bloco anterior (já gravado) aparece na sondagem do banco
+        assertTrue(report[1].startsWith("252,CPF já cadastrado: 00000000100"));
+        assertTrue(report[2].startsWith("253,CPF já cadastrado: 99999999999"));
+        assertTrue(report[4].startsWith("255,CPF é obrigatório"));
+    }
+
+    @Test
+    void repeticaoDentroDoBlocoApareceComoDuplicadaNoArquivo() throws Exception {
+        String id = start("aluno", "nome,cpf\nAna,12345678901\nBia,123.456.789-01\n", false);
+        String progress = awaitFinished(id);
+
+        assertEquals(1, (int) JsonPath.read(progress, "$.gravadas"));
+        assertTrue(errorReport(id).split("\r\n")[1].startsWith("3,Registro duplicado no arquivo (cpf:12345678901)"));
+    }
+
+    @Test
+    void conflitoNaGravacaoRejeitaSoAsLinhasEmConflito() throws Exception {
+        alunoRepository.save(new Aluno(null, "Já Cadastrado", "99999999999"));
+        // Sondagem sem conflitos, como se o CPF tivesse sido gravado por outra operação logo depois dela
+        doReturn(Map.of()).when(alunoImportHandler).conflicts(anyList());
+
+        String id = start("aluno", "nome,cpf\nAna,12345678901\nOutro,99999999999\nBia,12345678902\n", false);
+        String progress = awaitFinished(id);
+
+        assertEquals("CONCLUIDO", JsonPath.read(progress, "$.status"));
+        assertEquals(2, (int) JsonPath.read(progress, "$.gravadas"));
+        assertEquals(1, (int) JsonPath.read(progress, "$.rejeitadas"));
+        assertEquals(3, alunoRepository.count());
+        String[] report = errorReport(id).split("\r\n");
+        assertEquals(2, report.length);
+        assertTrue(report[1].startsWith("3,Não gravado: conflito de dados no banco"));
+    }
+
+    @Test
+    void dryRunValidaSemGravar() throws Exception {
+        String id = start("aluno", "nome;cpf\nAna;12345678901\nBia;123\n", true);
+        String progress = awaitFinished(id);
+
+        assertEquals(1, (int) JsonPath.read(progress, "$.validas"));
+        assertEquals(0, (int) JsonPath.read(progress, "$.gravadas"));
+        assertEquals(1, (int) JsonPath.read(progress, "$.rejeitadas"));
+        assertEquals(0, alunoRepository.count());
+    }
+
+    @Test
+    void importaMatriculasPorCpf() throws Exception {
+        Disciplina disciplina = disciplinaRepository.save(new Disciplina(null, "Cálculo", 60, null));
+        Professor professor = professorRepository.save(new Professor(null, "Professor", "prof@teste.com", null));
+        Turma turma = turmaRepository.save(new Turma(null, disciplina, professor, 2025, "2025.1"));
+        alunoRepository.save(new Aluno(null, "Ana", "12345678901"));
+
+        String csv = "turma_id,aluno_cpf,data_ingresso\n"
+                + turma.getId() + ",123.456.789-01,2025-02-01\n"
+                + turma.getId() + ",00000000000,\n"
+                + "999999,12345678901,\n";
+        String progress = awaitFinished(start("matricula", csv, false));
+
+        assertEquals(1, (int) JsonPath.read(progress, "$.gravadas"));
+        assertEquals(2, (int) JsonPath.read(progress, "$.rejeitadas"));
+        assertEquals(1, turmaAlunoRepository.count());
+    }
+
+    @Test
+    void cabecalhoInvalidoFalha() throws Exception {
+        String progress = awaitFinished(start("professor", "nome,cpf\nAna,1\n", false));
+
+        assertEquals("FALHOU", JsonPath.read(progress, "$.status"));
+    }
+
+    @Test
+    void importacaoExigeAdmin() throws Exception {
+        mockMvc.perform(multipart("/import/aluno").file(file("nome,cpf\n")).with(user(USER)))
+                .andExpect(status().isForbidden());
+    }
+
+    private String start(String tipo, String csv, boolean dryRun) throws Exception {
+        MvcResult result = mockMvc.perform(multipart("/import/" + tipo).file(file(csv))
+                        .param("dryRun", String.valueOf(dryRun)).with(user(ADMIN)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn();
+        return JsonPath.read(result.getResponse().getContentAsString(), "$.id");
+    }
+
+    private String awaitFinished(String id) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            String body = mockMvc.perform(get("/import/" + id).with(user(ADMIN)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+            String status = JsonPath.read(body, "$.status");
+            if ("CONCLUIDO".equals(status) || "FALHOU".equals(status)) {
+                return body;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Importação não terminou: " + body);
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private String errorReport(String id) throws Exception {
+        MvcResult started = mockMvc.perform(get("/import/" + id + "/erros").with(user(ADMIN)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private static MockMultipartFile file(String content) {
+        return new MockMultipartFile("file", "dados.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,175 @@
+package com.vitor.demo.controllers;
+
+import com.vitor.demo.dto.UserCreateDTO;
+import com.vitor.demo.repositories.RefreshTokenRepository;
+import com.vitor.demo.repositories.UserRepository;
+import com.vitor.demo.security.LoginExecutor;
+import com.vitor.demo.security.UserDetailsCache;
+import com.vitor.demo.services.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /auth/login recusado antes da verificação de senha: pool de login saturado (uma thread e uma vaga
+ * na fila) ou limite de tentativas falhas por username e por IP.
+ */
+@SpringBootTest(properties = {
+        "security.login.executor.threads=1",
+        "security.login.executor.queue-capacity=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoginControllerTest {
+
+    private static final Authentication AUTHENTICATED = UsernamePasswordAuthenticationToken.authenticated("outro", null, null);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoginExecutor loginExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        userDetailsCache.invalidateAll();
+
+        userService.create(new UserCreateDTO("fabio", "senha-fabio", "fabio@teste.com"));
+    }
+
+    @Test
+    void poolSaturadoResponde503ComRetryAfter() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Authentication> running = CompletableFuture.supplyAsync(() -> loginExecutor.authenticate(() -> {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return AUTHENTICATED;
+        }));
+        CompletableFuture<Authentication> queued;
+        try {
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            queued = CompletableFuture.supplyAsync(() -> loginExecutor.authenticate(() -> AUTHENTICATED));
+            awaitQueued();
+
+            // Recusado sem verificar a senha: nem conta como tentativa falha
+            login("fabio", "senha-fabio")
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(jsonPath("$.error").value("Serviço indisponível"));
+        } finally {
+            release.countDown();
+        }
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+
+        login("fabio", "senha-fabio")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isString());
+    }
+
+    @Test
+    void usernameBloqueadoAposCincoFalhasMesmoComASenhaCerta() throws Exception {
+        // Contadores do throttle valem para todo o contexto: um username por teste
+        userService.create(new UserCreateDTO("helena", "senha-helena", "helena@teste.com"));
+        for (int i = 0; i < 6; i++) {
+            login("helena", "senha-errada", "10.0.0.1").andExpect(status().isUnauthorized());
+        }
+
+        login("helena", "senha-helena", "10.0.0.1")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error").value("Muitas tentativas"));
+        // Outro IP não escapa do bloqueio do username; outro username no mesmo IP não é afetado
+        login("HELENA", "senha-helena", "10.0.0.9").andExpect(status().isTooManyRequests());
+        login("gabriel", "qualquer", "10.0.0.1").andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void loginValidoZeraAsFalhasDoUsername() throws Exception {
+        userService.create(new UserCreateDTO("igor", "senha-igor", "igor@teste.com"));
+        for (int i = 0; i < 4; i++) {
+            login("igor", "senha-errada", "10.0.0.2").andExpect(status().isUnauthorized());
+        }
+        login("igor", "senha-igor", "10.0.0.2").andExpect(status().isOk());
+        for (int i = 0; i < 4; i++) {
+            login("igor", "senha-errada", "10.0.0.2").andExpect(status().isUnauthorized());
+        }
+
+        login("igor", "senha-igor", "10.0.0.2").andExpect(status().isOk());
+    }
+
+    @Test
+    void ipBloqueadoAposVinteFalhasComUsernamesDiferentes() throws Exception {
+        for (int i = 0; i <= 20; i++) {
+            login("usuario" + i, "senha-errada", "10.0.0.3").andExpect(status().isUnauthorized());
+        }
+
+        login("fabio", "senha-fabio", "10.0.0.3")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+        login("fabio", "senha-fabio", "10.0.0.4").andExpect(status().isOk());
+    }
+
+    private ResultActions login(String username, String password) throws Exception {
+        return login(username, password, "127.0.0.1");
+    }
+
+    private ResultActions login(String username, String password, String ip) throws Exception {
+        return mockMvc.perform(post("/auth/login")
+                .with(request -> {
+                    request.setRemoteAddr(ip);
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"" + username + "\", \"password\": \"" + password + "\"}"));
+    }
+
+    private void awaitQueued() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("login.executor.queued").gauge().value() < 1) {
+            assertTrue(System.nanoTime() < deadline, "tarefa não entrou na fila");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.vitor.demo.controllers;
+
+import com.vitor.demo.models.Aluno;
+import com.vitor.demo.models.Disciplina;
+import com.vitor.demo.models.Professor;
+import com.vitor.demo.models.Turma;
+import com.vitor.demo.repositories.AlunoRepository;
+import com.vitor.demo.repositories.DisciplinaRepository;
+import com.vitor.demo.repositories.NotaRepository;
+import com.vitor.demo.repositories.ProfessorRepository;
+import com.vitor.demo.repositories.TurmaAlunoRepository;
+import com.vitor.demo.repositories.TurmaRepository;
+import com.vitor.demo.security.ProfileEnum;
+import com.vitor.demo.security.UserSpringSecurity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NotaBulkControllerTest {
+
+    private static final UserSpringSecurity ADMIN = new UserSpringSecurity(
+            1L, "admin", null, Set.of(ProfileEnum.ADMIN, ProfileEnum.USER));
+
+    private static final UserSpringSecurity USER = new UserSpringSecurity(
+            2L, "usuario", null, Set.of(ProfileEnum.USER));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private TurmaAlunoRepository turmaAlunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    private Turma turma;
+    private Aluno aluno;
+
+    @BeforeEach
+    void setUp() {
+        notaRepository.deleteAll();
+        turmaAlunoRepository.deleteAll();
+        turmaRepository.deleteAll();
+        alunoRepository.deleteAll();
+        disciplinaRepository.deleteAll();
+        professorRepository.deleteAll();
+
+        Disciplina disciplina = disciplinaRepository.save(new Disciplina(null, "Cálculo", 60, null));
+        Professor professor = professorRepository.save(new Professor(null, "Professor", "prof@teste.com", null));
+        turma = turmaRepository.save(new Turma(null, disciplina, professor, 2025, "2025.1"));
+        aluno = alunoRepository.save(new Aluno(null, "Aluno", "12345678901"));
+    }
+
+    @Test
+    void insereLinhasValidasEDevolveErrosPorLinha() throws Exception {
+        String body = "[" +
+                "{\"alunoId\":" + aluno.getId() + ",\"valor\":7.5,\"observacao\":\"ok\"}," +
+                "{\"alunoId\":999999,\"valor\":8}," +
+                "{\"alunoId\":" + aluno.getId() + ",\"valor\":11}," +
+                "{\"valor\":5}," +
+                "{\"alunoId\":" + aluno.getId() + ",\"valor\":9}" +
+                "]";
+
+        mockMvc.perform(post("/turma/" + turma.getId() + "/notas").with(user(ADMIN))
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(5))
+                .andExpect(jsonPath("$.criadas").value(2))
+                .andExpect(jsonPath("$.rejeitadas").value(3))
+                .andExpect(jsonPath("$.resultados[0].id").isNumber())
+                .andExpect(jsonPath("$.resultados[1].erro").value("Aluno não encontrado com id: 999999"))
+                .andExpect(jsonPath("$.resultados[2].erro").value("A nota deve estar entre 0 e 10."))
+                .andExpect(jsonPath("$.resultados[3].erro").value("Aluno é obrigatório."))
+                .andExpect(jsonPath("$.resultados[4].indice").value(4))
+                .andExpect(jsonPath("$.resultados[4].id").isNumber());
+
+        assertEquals(2, notaRepository.count());
+    }
+
+    @Test
+    void turmaInexistenteRetorna404() throws Exception {
+        mockMvc.perform(post("/turma/999999/notas").with(user(ADMIN))
+                        .contentType(MediaType.APPLICATION_JSON).content("[{\"alunoId\":1,\"valor\":5}]"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void loteExigeAdmin() throws Exception {
+        mockMvc.perform(post("/turma/" + turma.getId() + "/notas").with(user(USER))
+                        .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void loteVazioRetorna400() throws Exception {
+        mockMvc.perform(post("/turma/" + turma.getId() + "/notas").with(user(ADMIN))
+                        .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+}
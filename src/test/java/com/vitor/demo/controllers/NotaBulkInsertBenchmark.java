@@ -0,0 +1,121 @@
+package com.vitor.demo.controllers;
+
+import com.vitor.demo.models.Aluno;
+import com.vitor.demo.models.Disciplina;
+import com.vitor.demo.models.Professor;
+import com.vitor.demo.models.Turma;
+import com.vitor.demo.repositories.AlunoRepository;
+import com.vitor.demo.repositories.DisciplinaRepository;
+import com.vitor.demo.repositories.NotaRepository;
+import com.vitor.demo.repositories.ProfessorRepository;
+import com.vitor.demo.repositories.TurmaAlunoRepository;
+import com.vitor.demo.repositories.TurmaRepository;
+import com.vitor.demo.security.ProfileEnum;
+import com.vitor.demo.security.UserSpringSecurity;
+import com.vitor.demo.services.NotaService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Linhas por segundo no lançamento de notas: POST /nota uma a uma contra POST /turma/{id}/notas em lote.
+ * Executar com: mvn test -Pbenchmark -Dtest=NotaBulkInsertBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NotaBulkInsertBenchmark {
+
+    private static final int ROWS = NotaService.MAX_BULK_ROWS;
+    private static final int ALUNOS = 200;
+    private static final int ROUNDS = 3;
+
+    private static final UserSpringSecurity ADMIN = new UserSpringSecurity(
+            1L, "admin", null, Set.of(ProfileEnum.ADMIN, ProfileEnum.USER));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private TurmaAlunoRepository turmaAlunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Test
+    void linhaAPorLinhaContraLote() throws Exception {
+        notaRepository.deleteAll();
+        turmaAlunoRepository.deleteAll();
+        turmaRepository.deleteAll();
+        alunoRepository.deleteAll();
+        disciplinaRepository.deleteAll();
+        professorRepository.deleteAll();
+
+        Disciplina disciplina = disciplinaRepository.save(new Disciplina(null, "Cálculo", 60, null));
+        Professor professor = professorRepository.save(new Professor(null, "Professor", "prof@teste.com", null));
+        Turma turma = turmaRepository.save(new Turma(null, disciplina, professor, 2025, "2025.1"));
+        List<Long> alunos = new ArrayList<>();
+        for (int i = 0; i < ALUNOS; i++) {
+            alunos.add(alunoRepository.save(new Aluno(null, "Aluno " + i, String.format("%011d", i))).getId());
+        }
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ROWS; i++) {
+                String nota = "{\"aluno\":{\"id\":" + alunos.get(i % ALUNOS) + "},\"turma\":{\"id\":" + turma.getId()
+                        + "},\"valor\":7.5}";
+                mockMvc.perform(post("/nota").with(user(ADMIN))
+                                .contentType(MediaType.APPLICATION_JSON).content(nota))
+                        .andExpect(status().isCreated());
+            }
+            long single = System.nanoTime() - start;
+
+            StringBuilder body = new StringBuilder("[");
+            for (int i = 0; i < ROWS; i++) {
+                if (i > 0) {
+                    body.append(',');
+                }
+                body.append("{\"alunoId\":").append(alunos.get(i % ALUNOS)).append(",\"valor\":7.5}");
+            }
+            body.append(']');
+
+            start = System.nanoTime();
+            mockMvc.perform(post("/turma/" + turma.getId() + "/notas").with(user(ADMIN))
+                            .contentType(MediaType.APPLICATION_JSON).content(body.toString()))
+                    .andExpect(status().isOk());
+            long bulk = System.nanoTime() - start;
+
+            System.out.printf("[rodada %d] %d linhas: uma a uma=%.0f linhas/s, lote=%.0f linhas/s (%.1fx)%n",
+                    round, ROWS, ROWS / (single / 1e9), ROWS / (bulk / 1e9), (double) single / bulk);
+        }
+
+        assertEquals(2L * ROWS * ROUNDS, notaRepository.count());
+    }
+}
@@ -0,0 +1,185 @@
+package com.vitor.demo.controllers;
+
+import com.jayway.jsonpath.JsonPath;
+import com.vitor.demo.models.Aluno;
+import com.vitor.demo.models.Disciplina;
+import com.vitor.demo.models.Nota;
+import com.vitor.demo.models.Professor;
+import com.vitor.demo.models.Turma;
+import com.vitor.demo.repositories.AlunoRepository;
+import com.vitor.demo.repositories.DisciplinaRepository;
+import com.vitor.demo.repositories.NotaRepository;
+import com.vitor.demo.repositories.ProfessorRepository;
+import com.vitor.demo.repositories.TurmaAlunoRepository;
+import com.vitor.demo.repositories.TurmaRepository;
+import com.vitor.demo.security.ProfileEnum;
+import com.vitor.demo.security.UserSpringSecurity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Boletim do aluno e notas da turma saem de NotaProjection: linhas planas lidas em um único SELECT,
+ * sem turma, professor ou ementa no corpo e sem entidades carregadas no contexto de persistência.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NotaProjectionReadTest {
+
+    private static final int TURMAS = 3;
+
+    private static final UserSpringSecurity ADMIN = new UserSpringSecurity(
+            1L, "admin", null, Set.of(ProfileEnum.ADMIN, ProfileEnum.USER));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private TurmaAlunoRepository turmaAlunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    private Aluno aluno;
+    private Turma turma;
+    private final List<Nota> notas = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        notaRepository.deleteAll();
+        turmaAlunoRepository.deleteAll();
+        turmaRepository.deleteAll();
+        alunoRepository.deleteAll();
+        disciplinaRepository.deleteAll();
+        professorRepository.deleteAll();
+        notas.clear();
+
+        aluno = alunoRepository.save(new Aluno(null, "Bruno", "00000000001"));
+        for (int i = 0; i < TURMAS; i++) {
+            Disciplina disciplina = disciplinaRepository.save(new Disciplina(null, "Disciplina " + i, 60, "Ementa longa " + i));
+            Professor professor = professorRepository.save(new Professor(null, "Professor " + i, "prof" + i + "@teste.com", null));
+            Turma t = turmaRepository.save(new Turma(null, disciplina, professor, 2025, "2025." + i));
+            notas.add(notaRepository.save(new Nota(null, aluno, t, new BigDecimal(i + ".50"), "obs " + i)));
+            if (turma == null) {
+                turma = t;
+            }
+        }
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void boletimDoAlunoTemLinhasPlanasSemCarregarEntidades() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/nota/aluno/" + aluno.getId()).with(user(ADMIN)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(TURMAS))
+                .andExpect(jsonPath("$.items[0].id").value(notas.get(0).getId()))
+                .andExpect(jsonPath("$.items[0].alunoId").value(aluno.getId()))
+                .andExpect(jsonPath("$.items[0].alunoNome").value("Bruno"))
+                .andExpect(jsonPath("$.items[0].disciplinaNome").value("Disciplina 0"))
+                .andExpect(jsonPath("$.items[0].valor").value(0.5))
+                .andExpect(jsonPath("$.items[0].observacao").value("obs 0"))
+                .andExpect(jsonPath("$.items[0].turma").doesNotExist())
+                .andExpect(jsonPath("$.items[0].aluno").doesNotExist())
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        // Consulta de versões do ETag + SELECT da projeção; nenhuma entidade no contexto
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void notasDaTurmaSaoPlanas() throws Exception {
+        mockMvc.perform(get("/turma/" + turma.getId() + "/notas").with(user(ADMIN)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].alunoNome").value("Bruno"))
+                .andExpect(jsonPath("$.items[0].disciplinaNome").value("Disciplina 0"))
+                .andExpect(jsonPath("$.items[0].turma").doesNotExist());
+    }
+
+    @Test
+    void cursorPercorreAsDuasDirecoes() throws Exception {
+        String url = "/nota/aluno/" + aluno.getId();
+
+        String first = mockMvc.perform(get(url).param("limit", "2").with(user(ADMIN)))
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(first, "$.nextCursor");
+        mockMvc.perform(get(url).param("limit", "2").param("after", cursor).with(user(ADMIN)))
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(notas.get(2).getId()))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        String desc = mockMvc.perform(get(url).param("limit", "1").param("sort", "desc").with(user(ADMIN)))
+                .andExpect(jsonPath("$.items[0].id").value(notas.get(2).getId()))
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get(url).param("limit", "1").param("after", JsonPath.<String>read(desc, "$.nextCursor")).with(user(ADMIN)))
+                .andExpect(jsonPath("$.items[0].id").value(notas.get(1).getId()));
+    }
+
+    @Test
+    void etagMudaQuandoNomeExibidoMuda() throws Exception {
+        String url = "/nota/aluno/" + aluno.getId();
+        String etag = etagOf(url);
+        // Mesmas linhas, representações diferentes: a listagem plana não reaproveita o ETag da de entidades
+        assertNotEquals(etagOf("/turma/" + turma.getId() + "/notas"), etagOf("/nota/turma/" + turma.getId()));
+
+        mockMvc.perform(put("/disciplina/" + turma.getDisciplina().getId()).with(user(ADMIN))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\": \"Cálculo II\", \"cargaHoraria\": 80}"))
+                .andExpect(status().is2xxSuccessful());
+
+        mockMvc.perform(get(url).with(user(ADMIN)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].disciplinaNome").value("Cálculo II"));
+    }
+
+    private String etagOf(String url) throws Exception {
+        return mockMvc.perform(get(url).with(user(ADMIN)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,206 @@
+package com.vitor.demo.controllers;
+
+import com.vitor.demo.models.Aluno;
+import com.vitor.demo.models.Disciplina;
+import com.vitor.demo.models.Nota;
+import com.vitor.demo.models.Professor;
+import com.vitor.demo.models.Turma;
+import com.vitor.demo.repositories.AlunoRepository;
+import com.vitor.demo.repositories.DisciplinaRepository;
+import com.vitor.demo.repositories.NotaRepository;
+import com.vitor.demo.repositories.ProfessorRepository;
+import com.vitor.demo.repositories.TurmaAlunoRepository;
+import com.vitor.demo.repositories.TurmaRepository;
+import com.vitor.demo.security.ProfileEnum;
+import com.vitor.demo.security.UserSpringSecurity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * PUT de notas com If-Match (412 quando o ETag está desatualizado) e, sem ele, merges concorrentes
+ * reaplicados sobre a versão mais recente em vez de sobrescrever uns aos outros.
+ */
+@SpringBootTest(properties = "optimistic-lock.max-attempts=50")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OptimisticConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    private static final UserSpringSecurity ADMIN = new UserSpringSecurity(
+            1L, "admin", null, Set.of(ProfileEnum.ADMIN, ProfileEnum.USER));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private TurmaAlunoRepository turmaAlunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    private String url;
+
+    @BeforeEach
+    void setUp() {
+        notaRepository.deleteAll();
+        turmaAlunoRepository.deleteAll();
+        turmaRepository.deleteAll();
+        alunoRepository.deleteAll();
+        disciplinaRepository.deleteAll();
+        professorRepository.deleteAll();
+
+        Disciplina disciplina = disciplinaRepository.save(new Disciplina(null, "Cálculo", 60, null));
+        Professor professor = professorRepository.save(new Professor(null, "Ana", "ana@teste.com", null));
+        Turma turma = turmaRepository.save(new Turma(null, disciplina, professor, 2025, "2025.1"));
+        Aluno aluno = alunoRepository.save(new Aluno(null, "Bruno", "00000000001"));
+        Nota nota = notaRepository.save(new Nota(null, aluno, turma, new BigDecimal("7.50"), null));
+        url = "/nota/" + nota.getId();
+    }
+
+    @Test
+    void ifMatchAtualGravaEDevolveNovoEtag() throws Exception {
+        String etag = currentEtag();
+
+        MvcResult updated = mockMvc.perform(update("8.00").header(HttpHeaders.IF_MATCH, etag))
+                .andExpect(status().isNoContent())
+                .andReturn();
+        String newEtag = updated.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, newEtag);
+
+        // O ETag devolvido pelo PUT serve direto para a próxima escrita ou GET condicional
+        assertEquals(newEtag, currentEtag());
+        mockMvc.perform(get(url).with(user(ADMIN)).header(HttpHeaders.IF_NONE_MATCH, newEtag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void ifMatchSemAspasOuFracoDevolve412() throws Exception {
+        String etag = currentEtag();
+        String bare = etag.substring(1, etag.length() - 1);
+
+        mockMvc.perform(update("8.00").header(HttpHeaders.IF_MATCH, bare))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        mockMvc.perform(update("8.00").header(HttpHeaders.IF_MATCH, "W/" + etag))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(update("8.00").header(HttpHeaders.IF_MATCH, "\"outro\", " + etag))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void ifMatchDesatualizadoDevolve412ComEtagAtual() throws Exception {
+        String etag = currentEtag();
+        mockMvc.perform(update("8.00").header(HttpHeaders.IF_MATCH, etag))
+                .andExpect(status().isNoContent());
+        String current = currentEtag();
+
+        mockMvc.perform(update("3.00").header(HttpHeaders.IF_MATCH, etag))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string(HttpHeaders.ETAG, current));
+
+        mockMvc.perform(get(url).with(user(ADMIN)))
+                .andExpect(jsonPath("$.valor").value(8.0))
+                .andExpect(jsonPath("$.versao").value(1));
+    }
+
+    @Test
+    void ifMatchConcorrenteAceitaApenasUmaEscrita() throws Exception {
+        String etag = currentEtag();
+
+        List<Integer> statuses = concurrently(i -> update(i + ".00").header(HttpHeaders.IF_MATCH, etag));
+
+        assertEquals(1, statuses.stream().filter(s -> s == 204).count());
+        assertEquals(THREADS - 1, statuses.stream().filter(s -> s == 412).count());
+        mockMvc.perform(get(url).with(user(ADMIN))).andExpect(jsonPath("$.versao").value(1));
+    }
+
+    @Test
+    void mergesConcorrentesSemIfMatchNaoSePerdem() throws Exception {
+        List<Integer> statuses = concurrently(i -> update(i + ".00"));
+
+        assertEquals(THREADS, statuses.stream().filter(s -> s == 204).count());
+        // Cada merge foi gravado sobre a versão deixada pelo anterior
+        mockMvc.perform(get(url).with(user(ADMIN))).andExpect(jsonPath("$.versao").value(THREADS));
+    }
+
+    private interface RequestFactory {
+        MockHttpServletRequestBuilder create(int index);
+    }
+
+    private List<Integer> concurrently(RequestFactory requests) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                MockHttpServletRequestBuilder request = requests.create(i);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(request).andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+
+            List<Integer> statuses = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                statuses.add(future.get());
+            }
+            return statuses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private MockHttpServletRequestBuilder update(String valor) {
+        return put(url).with(user(ADMIN))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"valor\": " + valor + "}");
+    }
+
+    private String currentEtag() throws Exception {
+        return mockMvc.perform(get(url).with(user(ADMIN)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
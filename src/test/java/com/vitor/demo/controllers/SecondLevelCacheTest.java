@@ -0,0 +1,147 @@
+package com.vitor.demo.controllers;
+
+import com.vitor.demo.models.CacheRegions;
+import com.vitor.demo.models.Disciplina;
+import com.vitor.demo.models.Professor;
+import com.vitor.demo.models.Turma;
+import com.vitor.demo.repositories.DisciplinaRepository;
+import com.vitor.demo.repositories.NotaRepository;
+import com.vitor.demo.repositories.ProfessorRepository;
+import com.vitor.demo.repositories.TurmaAlunoRepository;
+import com.vitor.demo.repositories.TurmaRepository;
+import com.vitor.demo.security.ProfileEnum;
+import com.vitor.demo.security.UserSpringSecurity;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Disciplina, Professor e Turma vêm do cache de segundo nível depois da primeira leitura,
+ * e as escritas feitas pelos services substituem ou invalidam as entradas.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    private static final UserSpringSecurity ADMIN = new UserSpringSecurity(
+            1L, "admin", null, Set.of(ProfileEnum.ADMIN, ProfileEnum.USER));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private TurmaAlunoRepository turmaAlunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    private Statistics statistics;
+    private Disciplina disciplina;
+    private Professor professor;
+    private Turma turma;
+
+    @BeforeEach
+    void setUp() {
+        notaRepository.deleteAll();
+        turmaAlunoRepository.deleteAll();
+        turmaRepository.deleteAll();
+        disciplinaRepository.deleteAll();
+        professorRepository.deleteAll();
+
+        disciplina = disciplinaRepository.save(new Disciplina(null, "Cálculo", 60, null));
+        professor = professorRepository.save(new Professor(null, "Ana", "ana@teste.com", null));
+        turma = turmaRepository.save(new Turma(null, disciplina, professor, 2025, "2025.1"));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void leiturasRepetidasNaoVaoAoBanco() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/turma/" + turma.getId()).with(user(ADMIN)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.disciplina.nome").value("Cálculo"))
+                    .andExpect(jsonPath("$.professor.nome").value("Ana"));
+        }
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getCacheRegionStatistics(CacheRegions.TURMA).getHitCount() >= 3);
+        assertTrue(meterRegistry.get("hibernate.cache.region.requests")
+                .tag("region", CacheRegions.TURMA).tag("result", "hit")
+                .functionCounter().count() >= 3);
+    }
+
+    @Test
+    void atualizacaoPeloServicoSubstituiEntrada() throws Exception {
+        mockMvc.perform(get("/disciplina/" + disciplina.getId()).with(user(ADMIN)))
+                .andExpect(jsonPath("$.nome").value("Cálculo"));
+
+        mockMvc.perform(put("/disciplina/" + disciplina.getId()).with(user(ADMIN))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\": \"Cálculo II\", \"cargaHoraria\": 80}"))
+                .andExpect(status().is2xxSuccessful());
+
+        statistics.clear();
+        mockMvc.perform(get("/turma/" + turma.getId()).with(user(ADMIN)))
+                .andExpect(jsonPath("$.disciplina.nome").value("Cálculo II"))
+                .andExpect(jsonPath("$.disciplina.cargaHoraria").value(80));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listagemPorDisciplinaUsaCacheDeConsultasAteNovaTurma() throws Exception {
+        String url = "/turma/disciplina/" + disciplina.getId();
+        mockMvc.perform(get(url).with(user(ADMIN))).andExpect(jsonPath("$.items.length()").value(1));
+
+        statistics.clear();
+        mockMvc.perform(get(url).with(user(ADMIN))).andExpect(jsonPath("$.items.length()").value(1));
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getCacheRegionStatistics(CacheRegions.TURMA_CONSULTAS).getHitCount());
+
+        String body = "{\"disciplina\": {\"id\": " + disciplina.getId() + "}, \"professor\": {\"id\": " + professor.getId()
+                + "}, \"ano\": 2025, \"periodo\": \"2025.2\"}";
+        mockMvc.perform(post("/turma").with(user(ADMIN)).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get(url).with(user(ADMIN)))
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[1].periodo").value("2025.2"));
+    }
+}
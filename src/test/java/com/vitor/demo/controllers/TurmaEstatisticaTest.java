@@ -0,0 +1,288 @@
+package com.vitor.demo.controllers;
+
+import com.vitor.demo.models.Aluno;
+import com.vitor.demo.models.Disciplina;
+import com.vitor.demo.models.Nota;
+import com.vitor.demo.models.Professor;
+import com.vitor.demo.models.Turma;
+import com.vitor.demo.repositories.AlunoRepository;
+import com.vitor.demo.repositories.DisciplinaRepository;
+import com.vitor.demo.repositories.NotaRepository;
+import com.vitor.demo.repositories.ProfessorRepository;
+import com.vitor.demo.repositories.TurmaAlunoRepository;
+import com.vitor.demo.repositories.TurmaEstatisticaRepository;
+import com.vitor.demo.repositories.TurmaEstatisticaRepository.Delta;
+import com.vitor.demo.repositories.TurmaEstatisticaRepository.Linha;
+import com.vitor.demo.repositories.TurmaRepository;
+import com.vitor.demo.security.ProfileEnum;
+import com.vitor.demo.security.UserSpringSecurity;
+import com.vitor.demo.services.TurmaEstatisticaService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /turma/{id}/estatisticas lê uma única linha, criada com a turma e mantida por delta nas escritas de nota do
+ * NotaService; gravações direto no banco só entram na reconstrução.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TurmaEstatisticaTest {
+
+    private static final UserSpringSecurity ADMIN = new UserSpringSecurity(
+            1L, "admin", null, Set.of(ProfileEnum.ADMIN, ProfileEnum.USER));
+
+    private static final UserSpringSecurity USER = new UserSpringSecurity(
+            2L, "usuario", null, Set.of(ProfileEnum.USER));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TurmaEstatisticaService turmaEstatisticaService;
+
+    @Autowired
+    private TurmaEstatisticaRepository turmaEstatisticaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private TurmaAlunoRepository turmaAlunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    private Turma turma;
+    private Turma outra;
+    private Aluno aluno;
+
+    @BeforeEach
+    void setUp() {
+        notaRepository.deleteAll();
+        turmaAlunoRepository.deleteAll();
+        turmaRepository.deleteAll();
+        alunoRepository.deleteAll();
+        disciplinaRepository.deleteAll();
+        professorRepository.deleteAll();
+
+        Disciplina disciplina = disciplinaRepository.save(new Disciplina(null, "Cálculo", 60, null));
+        Professor professor = professorRepository.save(new Professor(null, "Ana", "ana@teste.com", null));
+        turma = turmaRepository.save(new Turma(null, disciplina, professor, 2025, "2025.1"));
+        outra = turmaRepository.save(new Turma(null, disciplina, professor, 2025, "2025.2"));
+        aluno = alunoRepository.save(new Aluno(null, "Bruno", "00000000001"));
+        // Turmas gravadas direto no repositório: a reconstrução cria as linhas que o TurmaService criaria
+        turmaEstatisticaService.rebuild();
+    }
+
+    @Test
+    void escritasDeNotaAtualizamAsEstatisticas() throws Exception {
+        String body = "[" +
+                "{\"alunoId\":" + aluno.getId() + ",\"valor\":5.0}," +
+                "{\"alunoId\":" + aluno.getId() + ",\"valor\":7.5}" +
+                "]";
+        mockMvc.perform(post("/turma/" + turma.getId() + "/notas").with(user(ADMIN))
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(jsonPath("$.criadas").value(2));
+        Long nove = create(turma, "9.0");
+        Long dez = create(turma, "10.0");
+
+        // 5, 7.5, 9 e 10: mediana estimada pela faixa [7, 8) que contém a segunda nota
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        estatisticas(turma)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantidade").value(4))
+                .andExpect(jsonPath("$.media").value(7.88))
+                .andExpect(jsonPath("$.minimo").value(5.0))
+                .andExpect(jsonPath("$.maximo").value(10.0))
+                .andExpect(jsonPath("$.medianaEstimada").value(8.0))
+                .andExpect(jsonPath("$.mediana").doesNotExist())
+                .andExpect(jsonPath("$.desvioPadrao").value(1.88))
+                .andExpect(jsonPath("$.histograma.length()").value(10))
+                .andExpect(jsonPath("$.histograma[5].quantidade").value(1))
+                .andExpect(jsonPath("$.histograma[7].quantidade").value(1))
+                .andExpect(jsonPath("$.histograma[9].de").value(9))
+                .andExpect(jsonPath("$.histograma[9].quantidade").value(2));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        // Máximo alterado e removido: extremos pendentes, relidos das notas e gravados pela primeira leitura
+        update(dez, "{\"valor\": 4.0}");
+        mockMvc.perform(delete("/nota/" + nove).with(user(ADMIN))).andExpect(status().isNoContent());
+        estatisticas(turma)
+                .andExpect(jsonPath("$.quantidade").value(3))
+                .andExpect(jsonPath("$.minimo").value(4.0))
+                .andExpect(jsonPath("$.maximo").value(7.5))
+                .andExpect(jsonPath("$.histograma[4].quantidade").value(1))
+                .andExpect(jsonPath("$.histograma[9].quantidade").value(0));
+        assertFalse(turmaEstatisticaRepository.findByTurmaId(turma.getId()).orElseThrow().extremosPendentes());
+        statistics.clear();
+        estatisticas(turma)
+                .andExpect(jsonPath("$.minimo").value(4.0))
+                .andExpect(jsonPath("$.maximo").value(7.5));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        // Troca de turma sai de uma linha e entra na outra
+        update(dez, "{\"turma\": {\"id\": " + outra.getId() + "}, \"valor\": 6.0}");
+        estatisticas(turma)
+                .andExpect(jsonPath("$.quantidade").value(2))
+                .andExpect(jsonPath("$.media").value(6.25))
+                .andExpect(jsonPath("$.minimo").value(5.0));
+        estatisticas(outra)
+                .andExpect(jsonPath("$.quantidade").value(1))
+                .andExpect(jsonPath("$.medianaEstimada").value(6.0))
+                .andExpect(jsonPath("$.desvioPadrao").value(0.0));
+
+        assertEquals(0, turmaEstatisticaService.rebuild());
+    }
+
+    @Test
+    void reconstrucaoCorrigeEscritasDiretasNoBanco() throws Exception {
+        create(turma, "8.0");
+        notaRepository.save(new Nota(null, aluno, turma, new BigDecimal("2.00"), null));
+
+        estatisticas(turma).andExpect(jsonPath("$.quantidade").value(1));
+
+        assertEquals(1, turmaEstatisticaService.rebuild());
+        estatisticas(turma)
+                .andExpect(jsonPath("$.quantidade").value(2))
+                .andExpect(jsonPath("$.media").value(5.0))
+                .andExpect(jsonPath("$.minimo").value(2.0))
+                .andExpect(jsonPath("$.histograma[2].quantidade").value(1));
+        assertEquals(0, turmaEstatisticaService.rebuild());
+    }
+
+    @Test
+    void linhaAusenteECriadaNaPrimeiraLeitura() throws Exception {
+        create(turma, "3.5");
+        jdbcTemplate.update("DELETE FROM turma_estatistica WHERE turma_id = ?", turma.getId());
+
+        estatisticas(turma)
+                .andExpect(jsonPath("$.quantidade").value(1))
+                .andExpect(jsonPath("$.minimo").value(3.5));
+        assertTrue(turmaEstatisticaRepository.findByTurmaId(turma.getId()).isPresent());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        estatisticas(turma).andExpect(jsonPath("$.quantidade").value(1));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void turmaCriadaPelaApiJaTemLinha() throws Exception {
+        String body = "{\"disciplina\": {\"id\": " + turma.getDisciplina().getId() + "}, \"professor\": {\"id\": "
+                + turma.getProfessor().getId() + "}, \"ano\": 2026, \"periodo\": \"2026.1\"}";
+        String location = mockMvc.perform(post("/turma").with(user(ADMIN))
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        Turma nova = turmaRepository.findById(Long.valueOf(location.substring(location.lastIndexOf('/') + 1))).orElseThrow();
+
+        create(nova, "6.5");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        estatisticas(nova)
+                .andExpect(jsonPath("$.quantidade").value(1))
+                .andExpect(jsonPath("$.minimo").value(6.5));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, turmaEstatisticaService.rebuild());
+    }
+
+    @Test
+    void substituicaoNaoSobrescreveEscritaConfirmadaDepoisDaLeitura() {
+        Linha lida = turmaEstatisticaRepository.findByTurmaId(turma.getId()).orElseThrow();
+        transactionTemplate.executeWithoutResult(status ->
+                turmaEstatisticaRepository.apply(turma.getId(), new Delta().add(new BigDecimal("7.00"))));
+
+        // Totais calculados antes da escrita: a revisão mudou e a linha fica como está
+        Boolean substituida = transactionTemplate.execute(status ->
+                turmaEstatisticaRepository.replace(turma.getId(), lida.revisao(), lida.totais()));
+        assertFalse(substituida);
+        assertEquals(1, turmaEstatisticaRepository.findByTurmaId(turma.getId()).orElseThrow().totais().quantidade());
+
+        Linha atual = turmaEstatisticaRepository.findByTurmaId(turma.getId()).orElseThrow();
+        assertTrue(transactionTemplate.execute(status ->
+                turmaEstatisticaRepository.replace(turma.getId(), atual.revisao(), lida.totais())));
+    }
+
+    @Test
+    void turmaSemNotasAcessoEInexistente() throws Exception {
+        estatisticas(outra)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantidade").value(0))
+                .andExpect(jsonPath("$.media").doesNotExist())
+                .andExpect(jsonPath("$.medianaEstimada").doesNotExist())
+                .andExpect(jsonPath("$.histograma[0].quantidade").value(0));
+
+        mockMvc.perform(get("/turma/" + turma.getId() + "/estatisticas").with(user(USER)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/turma/999999/estatisticas").with(user(ADMIN)))
+                .andExpect(status().isNotFound());
+    }
+
+    private Long create(Turma destino, String valor) throws Exception {
+        String body = "{\"aluno\": {\"id\": " + aluno.getId() + "}, \"turma\": {\"id\": " + destino.getId()
+                + "}, \"valor\": " + valor + "}";
+        String location = mockMvc.perform(post("/nota").with(user(ADMIN))
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        return Long.valueOf(location.substring(location.lastIndexOf('/') + 1));
+    }
+
+    private void update(Long id, String body) throws Exception {
+        mockMvc.perform(put("/nota/" + id).with(user(ADMIN))
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isNoContent());
+    }
+
+    private ResultActions estatisticas(Turma alvo) throws Exception {
+        return mockMvc.perform(get("/turma/" + alvo.getId() + "/estatisticas").with(user(ADMIN)));
+    }
+}
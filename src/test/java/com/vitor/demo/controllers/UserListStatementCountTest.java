@@ -0,0 +1,117 @@
+package com.vitor.demo.controllers;
+
+import com.vitor.demo.models.User;
+import com.vitor.demo.repositories.RefreshTokenRepository;
+import com.vitor.demo.repositories.UserRepository;
+import com.vitor.demo.security.ProfileEnum;
+import com.vitor.demo.security.UserSpringSecurity;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /user carrega cada página de usuários e seus perfis em duas consultas.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserListStatementCountTest {
+
+    private static final int USERS = 30;
+
+    private static final UserSpringSecurity ADMIN = new UserSpringSecurity(
+            1L, "admin", null, Set.of(ProfileEnum.ADMIN, ProfileEnum.USER));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private User first;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User("lista" + i, "hash", "lista" + i + "@teste.com");
+            if (i % 3 == 0) {
+                user.addProfile(ProfileEnum.ADMIN);
+            }
+            User saved = userRepository.save(user);
+            if (i == 0) {
+                first = saved;
+            }
+        }
+    }
+
+    @Test
+    void primeiraPagina() throws Exception {
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get("/user").with(user(ADMIN)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(USERS))
+                .andExpect(jsonPath("$.items[0].profiles.length()").value(2))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void paginaSeguinte() throws Exception {
+        String body = mockMvc.perform(get("/user").param("limit", "10").with(user(ADMIN)))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(body, "$.nextCursor");
+
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get("/user").param("after", cursor).param("limit", "10").with(user(ADMIN)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(10))
+                .andExpect(jsonPath("$.items[0].username").value("lista10"));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void usuarioPorId() throws Exception {
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get("/user/" + first.getId()).with(user(ADMIN)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.profiles.length()").value(2));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
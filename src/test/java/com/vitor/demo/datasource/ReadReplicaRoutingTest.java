@@ -0,0 +1,254 @@
+package com.vitor.demo.datasource;
+
+import com.vitor.demo.dto.UserCreateDTO;
+import com.vitor.demo.dto.UserResponseDTO;
+import com.vitor.demo.dto.UserUpdateDTO;
+import com.vitor.demo.models.Aluno;
+import com.vitor.demo.models.Disciplina;
+import com.vitor.demo.models.Professor;
+import com.vitor.demo.models.Turma;
+import com.vitor.demo.repositories.AlunoRepository;
+import com.vitor.demo.repositories.DisciplinaRepository;
+import com.vitor.demo.repositories.NotaRepository;
+import com.vitor.demo.repositories.ProfessorRepository;
+import com.vitor.demo.repositories.RefreshTokenRepository;
+import com.vitor.demo.repositories.TurmaAlunoRepository;
+import com.vitor.demo.repositories.TurmaRepository;
+import com.vitor.demo.repositories.UserRepository;
+import com.vitor.demo.security.ProfileEnum;
+import com.vitor.demo.security.TokenEpochRegistry;
+import com.vitor.demo.security.UserDetailsCache;
+import com.vitor.demo.security.UserSpringSecurity;
+import com.vitor.demo.services.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Dois bancos H2 em memória fazem o papel de primário e réplica; a "replicação" é uma cópia
+ * explícita (SCRIPT/RUNSCRIPT), então o que foi gravado depois dela só existe no primário.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primario;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.jdbc-url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password=",
+        "app.datasource.read-your-writes-window=1s"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+
+    private static final UserSpringSecurity ADMIN = new UserSpringSecurity(
+            1L, "admin", null, Set.of(ProfileEnum.ADMIN, ProfileEnum.USER));
+
+    private static final UserSpringSecurity OUTRO_ADMIN = new UserSpringSecurity(
+            2L, "coordenacao", null, Set.of(ProfileEnum.ADMIN, ProfileEnum.USER));
+
+    @TempDir
+    static Path tempDir;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private TurmaAlunoRepository turmaAlunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private TokenEpochRegistry tokenEpochRegistry;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        userDetailsCache.invalidateAll();
+        notaRepository.deleteAll();
+        turmaAlunoRepository.deleteAll();
+        turmaRepository.deleteAll();
+        alunoRepository.deleteAll();
+        disciplinaRepository.deleteAll();
+        professorRepository.deleteAll();
+        replicate();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void transacoesReadOnlyLeemDaReplica() {
+        alunoRepository.save(new Aluno(null, "Replicado", "00000000001"));
+        replicate();
+        alunoRepository.save(new Aluno(null, "Só no primário", "00000000002"));
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        assertEquals(Long.valueOf(1), readOnly.execute(status -> alunoRepository.count()));
+        assertEquals(Long.valueOf(2), readWrite.execute(status -> alunoRepository.count()));
+        // Leituras dos repositórios fora de transação já são readOnly no Spring Data
+        assertEquals(1L, alunoRepository.count());
+    }
+
+    @Test
+    void quemGravouLeDoPrimarioDuranteAJanela() throws Exception {
+        Disciplina disciplina = disciplinaRepository.save(new Disciplina(null, "Cálculo", 60, null));
+        Professor professor = professorRepository.save(new Professor(null, "Ana", "ana@teste.com", null));
+        Turma turma = turmaRepository.save(new Turma(null, disciplina, professor, 2025, "2025.1"));
+        Aluno aluno = alunoRepository.save(new Aluno(null, "Bruno", "00000000001"));
+        replicate();
+
+        String body = "{\"aluno\": {\"id\": " + aluno.getId() + "}, \"turma\": {\"id\": " + turma.getId() + "}, \"valor\": 8.5}";
+        mockMvc.perform(post("/nota").with(user(ADMIN)).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+
+        String url = "/nota/aluno/" + aluno.getId();
+        mockMvc.perform(get(url).with(user(ADMIN)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1));
+        mockMvc.perform(get(url).with(user(OUTRO_ADMIN)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0));
+        assertTrue(meterRegistry.get("datasource.routing.read-your-writes").functionCounter().count() >= 1);
+
+        // Passada a janela, quem gravou volta para a réplica (que ainda não recebeu a nota)
+        Thread.sleep(1500);
+        mockMvc.perform(get(url).with(user(ADMIN)))
+                .andExpect(jsonPath("$.items.length()").value(0));
+
+        replicate();
+        mockMvc.perform(get(url).with(user(OUTRO_ADMIN)))
+                .andExpect(jsonPath("$.items.length()").value(1));
+    }
+
+    @Test
+    void senhaTrocadaNaoVoltaDaReplicaAtrasada() throws Exception {
+        UserResponseDTO user = userService.create(new UserCreateDTO("julia", "senha-antiga", "julia@teste.com"));
+        replicate();
+        login("julia", "senha-antiga").andExpect(status().isOk());
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(ADMIN, null, ADMIN.getAuthorities()));
+        try {
+            userService.update(user.getId(), new UserUpdateDTO("julia", "julia@teste.com", "senha-nova"));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        // A réplica ainda tem o hash antigo; o login é anônimo, sem janela de leitura das próprias escritas
+        login("julia", "senha-antiga").andExpect(status().isUnauthorized());
+        login("julia", "senha-nova").andExpect(status().isOk());
+    }
+
+    @Test
+    void recargaDosEpochsNaoDesfazRevogacaoAindaNaoReplicada() {
+        UserResponseDTO user = userService.create(new UserCreateDTO("karen", "senha-karen", "karen@teste.com"));
+        replicate();
+
+        // Senha trocada em outra instância: só o banco primário sabe do novo epoch
+        new JdbcTemplate(primaryDataSource).update("UPDATE users SET token_epoch = 1 WHERE id = ?", user.getId());
+        tokenEpochRegistry.refresh();
+
+        assertFalse(tokenEpochRegistry.isCurrent(user.getId(), 0));
+        assertTrue(tokenEpochRegistry.isCurrent(user.getId(), 1));
+    }
+
+    @Test
+    void cadaPoolTemAsPropriasMetricas() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.execute(status -> alunoRepository.count());
+        new TransactionTemplate(transactionManager).execute(status -> alunoRepository.count());
+
+        assertNotNull(meterRegistry.find("hikaricp.connections.max").tag("pool", "primary").gauge());
+        assertNotNull(meterRegistry.find("hikaricp.connections.max").tag("pool", "replica").gauge());
+        assertTrue(meterRegistry.get("datasource.routing.connections").tag("target", "replica").functionCounter().count() >= 1);
+        assertTrue(meterRegistry.get("datasource.routing.connections").tag("target", "primary").functionCounter().count() >= 1);
+    }
+
+    private ResultActions login(String username, String password) throws Exception {
+        return mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"" + username + "\", \"password\": \"" + password + "\"}"));
+    }
+
+    // Substitui todo o conteúdo da réplica por uma cópia do primário
+    private void replicate() {
+        String script = tempDir.resolve("primario.sql").toString().replace('\\', '/');
+        new JdbcTemplate(primaryDataSource).execute("SCRIPT TO '" + script + "'");
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("DROP ALL OBJECTS");
+        replica.execute("RUNSCRIPT FROM '" + script + "'");
+    }
+}
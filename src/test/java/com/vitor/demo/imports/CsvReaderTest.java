@@ -0,0 +1,47 @@
+package com.vitor.demo.imports;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvReaderTest {
+
+    @Test
+    void leCamposComAspasQuebrasDeLinhaEBom() throws IOException {
+        String csv = "\uFEFFnome,cpf\r\n"
+                + "\"Silva, Ana\",12345678901\r\n"
+                + "\r\n"
+                + "\"Diz \"\"oi\"\"\",\"linha 1\nlinha 2\"\n"
+                + "sem quebra no fim,";
+        CsvReader reader = new CsvReader(new StringReader(csv), ',');
+
+        assertEquals(List.of("nome", "cpf"), reader.next());
+        assertEquals(1, reader.getRecordLine());
+        assertEquals(List.of("Silva, Ana", "12345678901"), reader.next());
+        assertEquals(List.of("Diz \"oi\"", "linha 1\nlinha 2"), reader.next());
+        assertEquals(4, reader.getRecordLine());
+        assertEquals(List.of("sem quebra no fim", ""), reader.next());
+        assertEquals(6, reader.getRecordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void aceitaPontoEVirgula() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a;b;\"c;d\"\n"), ';');
+
+        assertEquals(List.of("a", "b", "c;d"), reader.next());
+    }
+
+    @Test
+    void aspasNaoFechadasFalham() {
+        CsvReader reader = new CsvReader(new StringReader("\"aberto,1\n"), ',');
+
+        assertThrows(IOException.class, reader::next);
+    }
+}
@@ -0,0 +1,101 @@
+package com.vitor.demo.repositories;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Banco criado pelo antigo ddl-auto=update (só o esquema da baseline, com ids AUTO_INCREMENT e dados):
+ * entra pela baseline na versão 1 e, depois das migrações seguintes, tem o mesmo esquema de um banco novo.
+ */
+class BaselineMigrationTest {
+
+    // Esquema que o Hibernate gerava para as entidades da baseline no H2
+    private static final List<String> ESQUEMA_BASELINE = List.of(
+            "create table aluno (id bigint generated by default as identity, cpf varchar(11) not null unique, nome varchar(100) not null, primary key (id))",
+            "create table disciplina (carga_horaria integer not null, id bigint generated by default as identity, nome varchar(100) not null, ementa TEXT, primary key (id))",
+            "create table professor (id bigint generated by default as identity, telefone varchar(20), email varchar(100) not null, nome varchar(100) not null, primary key (id))",
+            "create table turma (ano integer not null, disciplina_id bigint not null, id bigint generated by default as identity, professor_id bigint not null, periodo varchar(10) not null, primary key (id))",
+            "create table nota (valor numeric(4,2) not null, aluno_id bigint not null, id bigint generated by default as identity, turma_id bigint not null, observacao varchar(255), primary key (id))",
+            "create table turma_aluno (ativo boolean not null, data_ingresso date not null, aluno_id bigint not null, id bigint generated by default as identity, turma_id bigint not null, primary key (id))",
+            "create table users (ativo boolean not null, id bigint generated by default as identity, email varchar(100) not null unique, username varchar(100) not null unique, password varchar(255) not null, primary key (id))",
+            "create table user_profiles (user_id bigint not null, profile enum ('ADMIN','USER'))",
+            "alter table nota add foreign key (aluno_id) references aluno (id)",
+            "alter table nota add foreign key (turma_id) references turma (id)",
+            "alter table turma add foreign key (disciplina_id) references disciplina (id)",
+            "alter table turma add foreign key (professor_id) references professor (id)",
+            "alter table turma_aluno add foreign key (aluno_id) references aluno (id)",
+            "alter table turma_aluno add foreign key (turma_id) references turma (id)",
+            "alter table user_profiles add foreign key (user_id) references users (id)");
+
+    private static final String COLUNAS = "SELECT TABLE_NAME, COLUMN_NAME, DATA_TYPE, CHARACTER_MAXIMUM_LENGTH, "
+            + "NUMERIC_PRECISION, NUMERIC_SCALE, IS_NULLABLE FROM INFORMATION_SCHEMA.COLUMNS "
+            + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME <> 'flyway_schema_history' ORDER BY TABLE_NAME, COLUMN_NAME";
+
+    @Test
+    void bancoDaBaselineRecebeTodasAsMigracoesSeguintes() {
+        DataSource legado = dataSource("baseline_legado");
+        JdbcTemplate jdbc = new JdbcTemplate(legado);
+        ESQUEMA_BASELINE.forEach(jdbc::execute);
+        jdbc.update("INSERT INTO users (ativo, email, username, password) VALUES (true, 'a@a.com', 'legado', 'x')");
+        jdbc.update("INSERT INTO disciplina (carga_horaria, nome) VALUES (60, 'Cálculo')");
+        jdbc.update("INSERT INTO professor (email, nome) VALUES ('p@p.com', 'Professor')");
+        jdbc.update("INSERT INTO turma (ano, disciplina_id, professor_id, periodo) VALUES (2025, 1, 1, '2025.1')");
+        // Texto livre de antes da V4: vira turma anual do ano da turma
+        jdbc.update("INSERT INTO turma (ano, disciplina_id, professor_id, periodo) VALUES (2024, 1, 1, '2º sem')");
+        jdbc.update("INSERT INTO turma (ano, disciplina_id, professor_id, periodo) VALUES (2023, 1, 1, '2023/2')");
+
+        flyway(legado).migrate();
+
+        assertEquals(0, jdbc.queryForObject("SELECT token_epoch FROM users WHERE username = 'legado'", Integer.class));
+        assertEquals(List.of(20251, 20240, 20230), jdbc.queryForList("SELECT periodo FROM turma ORDER BY id", Integer.class));
+        jdbc.update("INSERT INTO refresh_token (id, revogado, criado_em, expira_em, user_id, token_hash) "
+                + "VALUES (1, false, localtimestamp, localtimestamp, 1, 'h')");
+        jdbc.update("INSERT INTO token_revogado (jti, expira_em) VALUES ('j', localtimestamp)");
+
+        DataSource novo = dataSource("baseline_novo");
+        flyway(novo).migrate();
+
+        List<Map<String, Object>> esperado = new JdbcTemplate(novo).queryForList(COLUNAS);
+        assertEquals(esperado, jdbc.queryForList(COLUNAS));
+    }
+
+    @Test
+    void bancoAnteriorAMigracaoDeSessoesARecebeEmOrdem() {
+        DataSource dataSource = dataSource("sem_sessoes");
+        flyway(dataSource).migrate();
+
+        // Volta o banco ao estado de antes de a migração de sessões existir, com as versões seguintes já aplicadas
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP TABLE refresh_token");
+        jdbc.execute("DROP TABLE token_revogado");
+        jdbc.execute("ALTER TABLE users DROP COLUMN token_epoch");
+        jdbc.update("DELETE FROM \"flyway_schema_history\" WHERE \"script\" LIKE '%sessao_e_revogacao.sql'");
+
+        // Uma versão abaixo das já aplicadas seria recusada pela validação do Flyway
+        flyway(dataSource).migrate();
+
+        assertEquals(0, jdbc.queryForObject("SELECT count(*) FROM refresh_token", Integer.class));
+        assertEquals(0, jdbc.queryForObject("SELECT count(*) FROM users WHERE token_epoch <> 0", Integer.class));
+    }
+
+    private static Flyway flyway(DataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+    }
+
+    private static DataSource dataSource(String nome) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + nome + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,127 @@
+package com.vitor.demo.repositories;
+
+import com.vitor.demo.models.Aluno;
+import com.vitor.demo.models.Disciplina;
+import com.vitor.demo.models.Nota;
+import com.vitor.demo.models.Professor;
+import com.vitor.demo.models.Turma;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Vazão de INSERT de notas via JPA com ids em blocos, com e sem agrupamento JDBC.
+ * Sem lote cada INSERT é uma ida ao banco, como acontecia com IDENTITY.
+ * Executar com: mvn test -Pbenchmark -Dtest=NotaInsertBenchmark
+ */
+@Tag("benchmark")
+class NotaInsertBenchmark {
+
+    private static final int ROWS = 20_000;
+    private static final int CHUNK = 1_000;
+    private static final int ROUNDS = 3;
+
+    @Nested
+    @SpringBootTest(properties = {
+            "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+            "spring.jpa.properties.hibernate.generate_statistics=true"
+    })
+    @ActiveProfiles("test")
+    class ComLote extends Scenario {
+
+        @Test
+        void insereNotas() {
+            run("ids em blocos + lote de 50");
+        }
+    }
+
+    @Nested
+    @SpringBootTest(properties = {
+            "spring.jpa.properties.hibernate.jdbc.batch_size=0",
+            "spring.jpa.properties.hibernate.generate_statistics=true"
+    })
+    @ActiveProfiles("test")
+    class SemLote extends Scenario {
+
+        @Test
+        void insereNotas() {
+            run("um INSERT por linha");
+        }
+    }
+
+    abstract static class Scenario {
+
+        @Autowired
+        NotaRepository notaRepository;
+
+        @Autowired
+        TurmaAlunoRepository turmaAlunoRepository;
+
+        @Autowired
+        TurmaRepository turmaRepository;
+
+        @Autowired
+        AlunoRepository alunoRepository;
+
+        @Autowired
+        DisciplinaRepository disciplinaRepository;
+
+        @Autowired
+        ProfessorRepository professorRepository;
+
+        @Autowired
+        TransactionTemplate transactionTemplate;
+
+        @Autowired
+        EntityManagerFactory entityManagerFactory;
+
+        void run(String scenario) {
+            notaRepository.deleteAll();
+            turmaAlunoRepository.deleteAll();
+            turmaRepository.deleteAll();
+            alunoRepository.deleteAll();
+            disciplinaRepository.deleteAll();
+            professorRepository.deleteAll();
+
+            Disciplina disciplina = disciplinaRepository.save(new Disciplina(null, "Cálculo", 60, null));
+            Professor professor = professorRepository.save(new Professor(null, "Professor", "prof@teste.com", null));
+            Turma turma = turmaRepository.save(new Turma(null, disciplina, professor, 2025, "2025.1"));
+            Aluno aluno = alunoRepository.save(new Aluno(null, "Aluno", "12345678901"));
+
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+            for (int round = 0; round < ROUNDS; round++) {
+                statistics.clear();
+                long start = System.nanoTime();
+                for (int offset = 0; offset < ROWS; offset += CHUNK) {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        List<Nota> notas = new ArrayList<>(CHUNK);
+                        for (int i = 0; i < CHUNK; i++) {
+                            notas.add(new Nota(null, aluno, turma, new BigDecimal("7.50"), null));
+                        }
+                        notaRepository.saveAll(notas);
+                    });
+                }
+                long elapsed = System.nanoTime() - start;
+
+                System.out.printf("[%s, rodada %d] %d linhas: %.0f linhas/s, %d statements preparados%n",
+                        scenario, round, ROWS, ROWS / (elapsed / 1e9), statistics.getPrepareStatementCount());
+            }
+
+            assertEquals((long) ROWS * ROUNDS, notaRepository.count());
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.vitor.demo.repositories;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Executa cada consulta declarada nos repositórios, captura o SQL gerado pelo Hibernate e pede o plano
+ * ao H2 (mesmo esquema das migrações). Falha listando as consultas com filtro que varrem alguma tabela.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.vitor.demo.repositories.RepositoryIndexCheckTest$SqlCapture")
+@ActiveProfiles("test")
+class RepositoryIndexCheckTest {
+
+    // Varreduras aceitas, com o motivo
+    private static final Map<String, String> ALLOWED_SCANS = Map.of(
+            "UserRepository.findByUsernameOrEmail",
+            "OR entre duas colunas únicas; o H2 não combina índices, o MySQL resolve com index_merge (union)",
+            "UserRepository.findRevokedEpochs",
+            "OR entre colunas diferentes; roda em segundo plano a cada 30 s e devolve a tabela inteira de usuários revogados");
+
+    private static final Pattern TABLE_SCAN = Pattern.compile("/\\* ([A-Z_\\.\"]+)\\.tableScan \\*/");
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void todaConsultaComFiltroUsaIndice() {
+        Repositories repositories = new Repositories(applicationContext);
+        List<String> report = new ArrayList<>();
+        int checked = 0;
+
+        for (Class<?> domainType : repositories) {
+            Class<?> repositoryInterface = repositories.getRequiredRepositoryInformation(domainType).getRepositoryInterface();
+            Object repository = repositories.getRepositoryFor(domainType).orElseThrow();
+
+            for (Method method : repositoryInterface.getDeclaredMethods()) {
+                if (method.isDefault() || method.isSynthetic() || Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                String name = repositoryInterface.getSimpleName() + "." + method.getName();
+
+                for (String sql : capture(repository, method)) {
+                    if (!sql.toLowerCase().contains(" where ")) {
+                        continue;
+                    }
+                    checked++;
+                    String plan = explain(sql);
+                    Matcher scan = TABLE_SCAN.matcher(plan);
+                    if (scan.find() && !ALLOWED_SCANS.containsKey(name)) {
+                        report.add(name + " varre " + scan.group(1) + "\n    " + plan.replace("\n", " "));
+                    }
+                }
+            }
+        }
+
+        assertTrue(checked > 0, "nenhuma consulta verificada");
+        assertTrue(report.isEmpty(), "Consultas sem índice:\n" + String.join("\n", report));
+    }
+
+    // Executa o método com argumentos fictícios em uma transação desfeita ao final
+    private List<String> capture(Object repository, Method method) {
+        SqlCapture.STATEMENTS.clear();
+        SqlCapture.thread = Thread.currentThread();
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                Object result = method.invoke(repository, arguments(method));
+                if (result instanceof AutoCloseable closeable) {
+                    closeable.close();
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException("Falha ao executar " + method, e);
+            }
+            status.setRollbackOnly();
+        });
+        return new ArrayList<>(SqlCapture.STATEMENTS);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((java.sql.Connection connection) -> {
+            try (var statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (var resultSet = statement.executeQuery()) {
+                    StringBuilder plan = new StringBuilder();
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1));
+                    }
+                    return plan.toString();
+                }
+            }
+        });
+    }
+
+    private static Object[] arguments(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        Type[] genericTypes = method.getGenericParameterTypes();
+        Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            args[i] = sample(types[i], genericTypes[i]);
+        }
+        return args;
+    }
+
+    private static Object sample(Class<?> type, Type genericType) {
+        if (type == Long.class || type == long.class) {
+            return 1L;
+        }
+        if (type == Integer.class || type == int.class) {
+            return 1;
+        }
+        if (type == String.class) {
+            return "x";
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (type == ScrollPosition.class) {
+            // Posição após a primeira página, para que o filtro de keyset (id > ?) também seja verificado
+            return ScrollPosition.forward(Map.of("id", 1L));
+        }
+        if (type == Sort.class) {
+            return Sort.by("id");
+        }
+        if (type == Limit.class) {
+            return Limit.of(10);
+        }
+        if (Collection.class.isAssignableFrom(type) && genericType instanceof ParameterizedType parameterized) {
+            Object element = sample((Class<?>) parameterized.getActualTypeArguments()[0], null);
+            return Set.class.isAssignableFrom(type) ? Set.of(element) : List.of(element);
+        }
+        throw new IllegalArgumentException("Sem valor de exemplo para " + type);
+    }
+
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        // Ignora tarefas agendadas que rodam em paralelo no mesmo contexto
+        static volatile Thread thread;
+
+        @Override
+        public String inspect(String sql) {
+            if (Thread.currentThread() == thread) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.vitor.demo.search;
+
+import com.vitor.demo.projections.AlunoProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AlunoIndexTest {
+
+    private AlunoIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new AlunoIndex();
+        index.put(1L, "João da Silva", "12345678901");
+        index.put(2L, "Joana Souza", "12399999999");
+        index.put(3L, "Conceição Araújo", "98765432100");
+        index.put(4L, "Maria João Pereira", "55555555555");
+    }
+
+    @Test
+    void normalizaAcentosEPontuacao() {
+        assertEquals("d avila joao", TextFolding.fold("  D'Ávila --  JOÃO "));
+        assertEquals("conceicao", TextFolding.fold("Conceição"));
+    }
+
+    @Test
+    void buscaPorInicioDePalavraSemAcentos() {
+        assertEquals(List.of(2L, 1L, 4L), ids(index.search("jo", 10)));
+        // Quem começa pela consulta inteira vem antes de quem só contém a palavra
+        assertEquals(List.of(1L, 4L), ids(index.search("joao", 10)));
+        assertEquals(List.of(1L), ids(index.search("JOÃO SIL", 10)));
+        assertEquals(List.of(3L), ids(index.search("arau", 10)));
+    }
+
+    @Test
+    void completaComNomesParecidos() {
+        // "conceicao" com erro de digitação não é prefixo de nada, mas compartilha a maioria dos trigramas
+        assertEquals(List.of(3L), ids(index.search("concieçao", 10)));
+        assertTrue(index.search("xyzw", 10).isEmpty());
+    }
+
+    @Test
+    void buscaPorInicioDoCpfComOuSemMascara() {
+        assertEquals(List.of(1L, 2L), ids(index.search("123", 10)));
+        assertEquals(List.of(1L), ids(index.search("123.456.7", 10)));
+        assertEquals(List.of(1L), ids(index.search("123", 1)));
+    }
+
+    @Test
+    void alteracaoEExclusaoAtualizamOIndice() {
+        index.put(1L, "Pedro Alves", "12345678901");
+        assertEquals(List.of(4L), ids(index.search("joao", 10)));
+        assertEquals(List.of(1L), ids(index.search("pedro", 10)));
+
+        index.remove(1L);
+        assertTrue(index.search("pedro", 10).isEmpty());
+        assertEquals(List.of(2L), ids(index.search("123", 10)));
+
+        // O slot liberado é reaproveitado sem misturar os dados antigos
+        index.put(5L, "Paula Lima", "11111111111");
+        assertEquals(List.of(5L), ids(index.search("pa", 10)));
+        assertEquals(4, index.size());
+    }
+
+    private static List<Long> ids(List<AlunoProjection> alunos) {
+        return alunos.stream().map(AlunoProjection::getId).toList();
+    }
+}
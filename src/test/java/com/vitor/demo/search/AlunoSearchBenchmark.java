@@ -0,0 +1,62 @@
+package com.vitor.demo.search;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latência das consultas ao índice de alunos com 50 mil nomes sintéticos.
+ * Executar com: mvn test -Pbenchmark -Dtest=AlunoSearchBenchmark
+ */
+@Tag("benchmark")
+class AlunoSearchBenchmark {
+
+    private static final int ALUNOS = 50_000;
+    private static final int ITERATIONS = 20_000;
+
+    private static final String[] PRENOMES = {"João", "José", "Maria", "Ana", "Luís", "Conceição", "Antônio",
+            "Francisca", "Sebastião", "Márcia", "Vitória", "Gonçalo", "Inês", "Raimundo", "Cecília", "Tânia"};
+    private static final String[] SOBRENOMES = {"Silva", "Souza", "Araújo", "Gonçalves", "Conceição", "Pereira",
+            "Lima", "Simões", "Brandão", "Magalhães", "Assunção", "Nóbrega", "Falcão", "Ribeiro", "Guimarães"};
+
+    private static final List<String> QUERIES = List.of(
+            "jo", "joao", "maria sil", "conceicao aRAU", "tania", "sebastiao guimaraes", "guimaraes",
+            "magalaes", "goncalo nobre", "123", "4567", "a");
+
+    @Test
+    void consultas() {
+        Random random = new Random(42);
+        AlunoIndex index = new AlunoIndex();
+        for (long id = 1; id <= ALUNOS; id++) {
+            String nome = PRENOMES[random.nextInt(PRENOMES.length)] + " "
+                    + SOBRENOMES[random.nextInt(SOBRENOMES.length)] + " "
+                    + SOBRENOMES[random.nextInt(SOBRENOMES.length)] + " " + id;
+            index.put(id, nome, String.format("%011d", random.nextLong(100_000_000_000L)));
+        }
+
+        // Aquecimento do JIT
+        for (int i = 0; i < ITERATIONS; i++) {
+            index.search(QUERIES.get(i % QUERIES.size()), 10);
+        }
+
+        for (String query : QUERIES) {
+            long[] nanos = new long[ITERATIONS / QUERIES.size()];
+            for (int i = 0; i < nanos.length; i++) {
+                long start = System.nanoTime();
+                index.search(query, 10);
+                nanos[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(nanos);
+            long p50 = nanos[nanos.length / 2];
+            long p99 = nanos[nanos.length * 99 / 100];
+            System.out.printf("%-22s p50 = %7.1f µs   p99 = %7.1f µs   resultados = %d%n",
+                    "\"" + query + "\"", p50 / 1000.0, p99 / 1000.0, index.search(query, 10).size());
+            assertTrue(p50 < 5_000_000, "consulta lenta demais: " + query);
+        }
+    }
+}
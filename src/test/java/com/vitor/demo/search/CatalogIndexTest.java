@@ -0,0 +1,148 @@
+package com.vitor.demo.search;
+
+import com.vitor.demo.cache.Catalog;
+import com.vitor.demo.dto.CatalogSearchResultDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogIndexTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void analisadorIgnoraAcentosPalavrasVaziasEPlural() {
+        assertEquals(List.of("programaca", "funcional"), PortugueseAnalyzer.analyze("Programações Funcionais"));
+        assertEquals(PortugueseAnalyzer.analyze("programação funcional"), PortugueseAnalyzer.analyze("Programações Funcionais"));
+        assertEquals(PortugueseAnalyzer.analyze("professor"), PortugueseAnalyzer.analyze("professores"));
+        assertEquals(PortugueseAnalyzer.analyze("aluno"), PortugueseAnalyzer.analyze("alunas"));
+        assertEquals(List.of("introduca", "calcul"), PortugueseAnalyzer.analyze("Introdução ao Cálculo"));
+        assertEquals(List.of("2025.1"), PortugueseAnalyzer.analyze("2025.1"));
+        assertEquals(List.of("ana", "silv", "escol", "br"), PortugueseAnalyzer.analyze("ana.silva@escola.br"));
+    }
+
+    @Test
+    void rankingPrefereNomeETermosRaros() throws IOException {
+        CatalogIndex index = CatalogIndex.empty(null, 8);
+        index.put(disciplina(1, 0, "Cálculo I", "Limites, derivadas e integrais"));
+        index.put(disciplina(2, 0, "Física I", "Cinemática com uso de cálculo diferencial"));
+        index.put(disciplina(3, 0, "Álgebra Linear", "Matrizes, espaços vetoriais e transformações lineares"));
+        index.put(professor(4, 0, "Ana Cálculo Pereira", "ana@escola.br"));
+        index.put(professor(5, 0, "Bruno Costa", "bruno@escola.br"));
+
+        // Nome mais curto que a média do campo pontua mais; ementa pesa menos que nome
+        List<CatalogSearchResultDTO> hits = index.search("calculo", null, 10);
+        assertEquals(List.of(1L, 4L, 2L), ids(hits));
+        assertTrue(hits.get(0).getScore() > hits.get(2).getScore());
+
+        assertEquals(List.of(1L, 2L), ids(index.search("calculo", Catalog.DISCIPLINA, 10)));
+        // "diferencial" só aparece na física: pesa mais que "calculo", que está em três documentos
+        assertEquals(2L, index.search("cálculo diferencial", null, 10).get(0).getId());
+        assertEquals(List.of(3L), ids(index.search("transformação linear", null, 10)));
+        assertEquals(List.of(), index.search("de e com", null, 10));
+    }
+
+    @Test
+    void alteracaoSubstituiDocumentoEVersaoAntigaEIgnorada() throws IOException {
+        CatalogIndex index = CatalogIndex.empty(null, 8);
+        index.put(disciplina(1, 0, "Cálculo I", null));
+        assertTrue(index.put(disciplina(1, 1, "Geometria Analítica", null)));
+        assertFalse(index.put(disciplina(1, 0, "Cálculo I", null)));
+
+        assertEquals(List.of(), index.search("calculo", null, 10));
+        assertEquals(List.of(1L), ids(index.search("geometria", null, 10)));
+        assertEquals(Map.of(1L, 1L), index.versions(Catalog.DISCIPLINA));
+
+        assertTrue(index.remove(Catalog.DISCIPLINA, 1));
+        assertEquals(0, index.size());
+        assertEquals(List.of(), index.search("geometria", null, 10));
+    }
+
+    @Test
+    void reabreDoDiscoComExclusoesEFusao() throws IOException {
+        CatalogIndex index = CatalogIndex.open(directory, 2);
+        index.put(disciplina(1, 0, "Cálculo I", "Limites e derivadas"));
+        index.put(professor(2, 0, "Beatriz Souza", "beatriz@escola.br"));
+        index.flush();
+        index.put(turma(3, 0, 2025, "2025.1"));
+        index.flush();
+        index.remove(Catalog.PROFESSOR, 2);
+        index.put(disciplina(1, 1, "Cálculo Diferencial", "Limites e derivadas"));
+        index.flush();
+        assertEquals(2, index.segmentCount());
+
+        CatalogIndex reopened = CatalogIndex.open(directory, 2);
+        assertEquals(2, reopened.size());
+        assertEquals(List.of(1L), ids(reopened.search("diferencial", null, 10)));
+        assertEquals(List.of(), reopened.search("beatriz", null, 10));
+        assertEquals(List.of(3L), ids(reopened.search("2025.1", Catalog.TURMA, 10)));
+        assertEquals(Map.of(1L, 1L), reopened.versions(Catalog.DISCIPLINA));
+
+        // Terceiro segmento passa do limite: tudo vira um segmento e os arquivos antigos são apagados
+        reopened.put(professor(4, 0, "Carlos Lima", "carlos@escola.br"));
+        reopened.flush();
+        assertEquals(1, reopened.segmentCount());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.count()); // manifesto e o segmento fundido
+        }
+        CatalogIndex merged = CatalogIndex.open(directory, 2);
+        assertEquals(3, merged.size());
+        assertEquals(List.of(4L), ids(merged.search("carlos", null, 10)));
+        assertEquals(List.of(1L), ids(merged.search("calculo", null, 10)));
+    }
+
+    @Test
+    void segmentoCorrompidoImpedeAbertura() throws IOException {
+        CatalogIndex index = CatalogIndex.open(directory, 8);
+        index.put(disciplina(1, 0, "Cálculo I", "Limites e derivadas"));
+        index.flush();
+
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(file -> file.toString().endsWith(".seg")).findFirst().orElseThrow();
+        }
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(segment, bytes);
+
+        assertThrows(IOException.class, () -> CatalogIndex.open(directory, 8));
+    }
+
+    private static CatalogDocument disciplina(long id, long versao, String nome, String ementa) {
+        Map<CatalogField, String> texts = new EnumMap<>(CatalogField.class);
+        texts.put(CatalogField.DISCIPLINA_NOME, nome);
+        texts.put(CatalogField.DISCIPLINA_EMENTA, ementa);
+        return new CatalogDocument(Catalog.DISCIPLINA, id, versao, nome, texts);
+    }
+
+    private static CatalogDocument professor(long id, long versao, String nome, String email) {
+        Map<CatalogField, String> texts = new EnumMap<>(CatalogField.class);
+        texts.put(CatalogField.PROFESSOR_NOME, nome);
+        texts.put(CatalogField.PROFESSOR_EMAIL, email);
+        return new CatalogDocument(Catalog.PROFESSOR, id, versao, nome, texts);
+    }
+
+    private static CatalogDocument turma(long id, long versao, int ano, String periodo) {
+        Map<CatalogField, String> texts = new EnumMap<>(CatalogField.class);
+        texts.put(CatalogField.TURMA_ANO, String.valueOf(ano));
+        texts.put(CatalogField.TURMA_PERIODO, periodo);
+        return new CatalogDocument(Catalog.TURMA, id, versao, "Turma " + periodo, texts);
+    }
+
+    private static List<Long> ids(List<CatalogSearchResultDTO> hits) {
+        return hits.stream().map(CatalogSearchResultDTO::getId).toList();
+    }
+}
@@ -0,0 +1,129 @@
+package com.vitor.demo.security;
+
+import com.vitor.demo.handlers.AuthorizationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * O filtro JWT resolve o {@link CallerContext} uma vez e o guarda nos details da Authentication;
+ * os services o leem pelo accessor, inclusive em tarefas assíncronas do executor padrão.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CallerContextTest {
+
+    // Usuário só do token: o filtro em modo claims não consulta o banco
+    private static final UserSpringSecurity PROFESSOR =
+            new UserSpringSecurity(900_002L, "paula", null, Set.of(ProfileEnum.USER));
+
+    @Autowired
+    private CallerContextAccessor callerContextAccessor;
+
+    @Autowired
+    private JWTUtil jwtUtil;
+
+    @Autowired
+    private TokenEpochRegistry tokenEpochRegistry;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void filtroGuardaOContextoNosDetailsEAsTarefasAssincronasOHerdam() throws Exception {
+        JWTAuthorizationFilter filter =
+                new JWTAuthorizationFilter(jwtUtil, null, tokenEpochRegistry, tokenRevocationList, true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/disciplina");
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken(PROFESSOR));
+
+        AtomicReference<Authentication> authentication = new AtomicReference<>();
+        AtomicReference<CallerContext> async = new AtomicReference<>();
+        AtomicReference<Thread> asyncThread = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            authentication.set(SecurityContextHolder.getContext().getAuthentication());
+            try {
+                taskExecutor.submit(() -> {
+                    asyncThread.set(Thread.currentThread());
+                    async.set(callerContextAccessor.current());
+                }).get(5, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        CallerContext context = assertInstanceOf(CallerContext.class, authentication.get().getDetails());
+        assertEquals(900_002L, context.getUserId());
+        assertEquals("paula", context.getUsername());
+        assertEquals(ProfileEnum.USER.getMask(), context.getRoles());
+        assertNotSame(Thread.currentThread(), asyncThread.get());
+        assertSame(context, async.get());
+    }
+
+    @Test
+    void semDetailsUsaOPrincipalESemAutenticacaoDevolveNull() {
+        assertNull(callerContextAccessor.current());
+        assertFalse(callerContextAccessor.isAdmin());
+        assertThrows(AuthorizationException.class, () -> callerContextAccessor.require());
+
+        // Authentication montada fora do filtro: sem CallerContext nos details
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(PROFESSOR, null, PROFESSOR.getAuthorities()));
+        CallerContext context = callerContextAccessor.require();
+        assertEquals(900_002L, context.getUserId());
+        assertFalse(callerContextAccessor.isAdmin());
+        callerContextAccessor.validateSelfOrAdmin(900_002L);
+        assertThrows(AuthorizationException.class, () -> callerContextAccessor.validateSelfOrAdmin(1L));
+
+        // Principal que não é UserSpringSecurity não vira contexto
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("externo", null, null));
+        assertNull(callerContextAccessor.current());
+    }
+
+    @Test
+    void perfisDaMascara() {
+        CallerContext admin = new CallerContext(1L, "admin",
+                ProfileEnum.ADMIN.getMask() | ProfileEnum.USER.getMask());
+        assertTrue(admin.isAdmin());
+        assertTrue(admin.hasRole(ProfileEnum.USER));
+        assertTrue(admin.isSelfOrAdmin(2L));
+
+        CallerContext user = new CallerContext(2L, "paula", ProfileEnum.USER.getMask());
+        assertFalse(user.isAdmin());
+        assertFalse(user.hasRole(ProfileEnum.ADMIN));
+        assertTrue(user.isSelfOrAdmin(2L));
+        assertFalse(user.isSelfOrAdmin(3L));
+        assertFalse(new CallerContext(null, "anonimo", 0).isSelfOrAdmin(null));
+    }
+}
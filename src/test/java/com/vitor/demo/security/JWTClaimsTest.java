@@ -0,0 +1,107 @@
+package com.vitor.demo.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Perfis viajam no JWT como a máscara "roles"; tokens emitidos antes dela, com a lista "authorities",
+ * continuam aceitos. No modo claims o principal sai só do token, então a máscara decide o acesso.
+ */
+@SpringBootTest(properties = "jwt.principal-mode=claims")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JWTClaimsTest {
+
+    // Fora da faixa dos usuários criados pelos outros testes: sem entrada na tabela de epochs
+    private static final long USER_ID = 900_001L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JWTUtil jwtUtil;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    @Test
+    void tokenEmitidoLevaAMascaraEmVezDaListaDePerfis() throws Exception {
+        String admin = jwtUtil.generateToken(new UserSpringSecurity(USER_ID, "joana", null,
+                Set.of(ProfileEnum.ADMIN, ProfileEnum.USER)));
+        Claims claims = jwtUtil.getClaims(admin);
+        assertEquals(3, claims.get("roles"));
+        assertNull(claims.get("authorities"));
+
+        listUsers(admin).andExpect(status().isOk());
+
+        String user = jwtUtil.generateToken(new UserSpringSecurity(USER_ID, "joana", null, Set.of(ProfileEnum.USER)));
+        listUsers(user).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void tokenNoFormatoAntigoContinuaAceito() throws Exception {
+        listUsers(legacyToken(List.of(Map.of("authority", "ROLE_ADMIN"), Map.of("authority", "ROLE_USER"))))
+                .andExpect(status().isOk());
+        listUsers(legacyToken(List.of("ROLE_USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void mascaraPrevaleceEPerfisDesconhecidosSaoIgnorados() {
+        JWTClaims legacy = JWTClaims.from(Jwts.claims()
+                .subject("joana")
+                .add("authorities", List.of("ROLE_ADMIN", "ROLE_AUDITOR"))
+                .build());
+        assertEquals(ProfileEnum.ADMIN.getMask(), legacy.getRoles());
+        assertEquals(EnumSet.of(ProfileEnum.ADMIN), ProfileEnum.fromMask(legacy.getRoles()));
+
+        JWTClaims both = JWTClaims.from(Jwts.claims()
+                .subject("joana")
+                .add("roles", ProfileEnum.USER.getMask())
+                .add("authorities", List.of("ROLE_ADMIN"))
+                .build());
+        assertEquals(ProfileEnum.USER.getMask(), both.getRoles());
+
+        assertEquals(0, JWTClaims.from(Jwts.claims().subject("joana").build()).getRoles());
+    }
+
+    private ResultActions listUsers(String token) throws Exception {
+        return mockMvc.perform(get("/user").header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+
+    // Formato anterior à máscara: perfis como GrantedAuthority serializados
+    private String legacyToken(List<?> authorities) {
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject("joana")
+                .claim("userId", USER_ID)
+                .claim("authorities", authorities)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
@@ -0,0 +1,144 @@
+package com.vitor.demo.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginExecutorTest {
+
+    private static final Authentication AUTHENTICATED = UsernamePasswordAuthenticationToken.authenticated("ana", null, null);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private LoginExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void poolEFilaCheiosRecusamNaHora() throws Exception {
+        executor = start(true, Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Authentication> running = CompletableFuture.supplyAsync(() -> executor.authenticate(() -> {
+            started.countDown();
+            await(release);
+            return AUTHENTICATED;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Authentication> queued = CompletableFuture.supplyAsync(() -> executor.authenticate(() -> AUTHENTICATED));
+        awaitQueued(1);
+
+        assertThrows(LoginExecutor.LoginRejectedException.class, () -> executor.authenticate(() -> AUTHENTICATED));
+        assertEquals(1, registry.get("login.executor.rejected").functionCounter().count());
+
+        release.countDown();
+        assertSame(AUTHENTICATED, running.get(5, TimeUnit.SECONDS));
+        assertSame(AUTHENTICATED, queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void esperaNaFilaAlemDoTimeoutRecusaSemRodarAVerificacao() throws Exception {
+        executor = start(true, Duration.ofMillis(100));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        CompletableFuture<Authentication> running = CompletableFuture.supplyAsync(() -> executor.authenticate(() -> {
+            started.countDown();
+            await(release);
+            return AUTHENTICATED;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(LoginExecutor.LoginRejectedException.class, () -> executor.authenticate(() -> {
+            ran.set(true);
+            return AUTHENTICATED;
+        }));
+        // Saiu da fila na hora: o lugar fica livre para o próximo login
+        assertEquals(0, registry.get("login.executor.queued").gauge().value());
+        assertEquals(1, registry.get("login.executor.rejected").functionCounter().count());
+
+        release.countDown();
+        assertSame(AUTHENTICATED, running.get(5, TimeUnit.SECONDS));
+        assertSame(AUTHENTICATED, executor.authenticate(() -> AUTHENTICATED));
+        assertFalse(ran.get());
+    }
+
+    @Test
+    void verificacaoJaIniciadaAlemDoTimeoutDevolveOResultado() {
+        executor = start(true, Duration.ofMillis(50));
+
+        assertSame(AUTHENTICATED, executor.authenticate(() -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return AUTHENTICATED;
+        }));
+        assertEquals(0, registry.get("login.executor.rejected").functionCounter().count());
+    }
+
+    @Test
+    void senhaErradaPropagaSemContarComoRecusa() {
+        executor = start(true, Duration.ofSeconds(5));
+
+        assertThrows(BadCredentialsException.class, () -> executor.authenticate(() -> {
+            throw new BadCredentialsException("Credenciais inválidas");
+        }));
+        assertEquals(0, registry.get("login.executor.rejected").functionCounter().count());
+    }
+
+    @Test
+    void desligadoVerificaNaThreadDaRequisicao() {
+        executor = start(false, Duration.ofSeconds(5));
+        Thread caller = Thread.currentThread();
+
+        assertSame(AUTHENTICATED, executor.authenticate(() -> {
+            assertSame(caller, Thread.currentThread());
+            return AUTHENTICATED;
+        }));
+    }
+
+    private LoginExecutor start(boolean enabled, Duration timeout) {
+        LoginExecutor loginExecutor = new LoginExecutor(enabled, 1, 1, timeout);
+        loginExecutor.bindTo(registry);
+        return loginExecutor;
+    }
+
+    private void awaitQueued(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("login.executor.queued").gauge().value() < expected) {
+            assertTrue(System.nanoTime() < deadline, "tarefa não entrou na fila");
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.vitor.demo.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginThrottleTest {
+
+    private static final long WINDOW = 60_000;
+    // Início de uma janela: nada da janela anterior pesa
+    private static final long T0 = 10 * WINDOW;
+
+    private final LoginThrottle.SlidingWindowSketch sketch =
+            new LoginThrottle.SlidingWindowSketch(1024, WINDOW, 3, 1_000, 8_000, true);
+
+    @Test
+    void bloqueiaAposOLimiteComBackoffExponencialAteOMaximo() {
+        failures("ana", 3, T0);
+        assertEquals(0, sketch.blockedFor("ana", T0));
+
+        long[] expected = {1_000, 2_000, 4_000, 8_000, 8_000};
+        for (long delay : expected) {
+            sketch.recordFailure("ana", T0);
+            assertEquals(delay, sketch.blockedFor("ana", T0));
+        }
+        assertEquals(0, sketch.blockedFor("ana", T0 + 8_000));
+        assertEquals(0, sketch.blockedFor("bruno", T0));
+    }
+
+    @Test
+    void sucessoPassaAContarSoAsFalhasSeguintes() {
+        failures("ana", 3, T0);
+        sketch.recordSuccess("ana");
+
+        failures("ana", 3, T0);
+        assertEquals(0, sketch.blockedFor("ana", T0));
+        sketch.recordFailure("ana", T0);
+        assertEquals(1_000, sketch.blockedFor("ana", T0));
+    }
+
+    @Test
+    void sucessoDeChaveQueColideNaoLiberaOutra() {
+        // Duas linhas de 2 slots: uma chave em cada quatro divide os dois slots com a vítima
+        LoginThrottle.SlidingWindowSketch small =
+                new LoginThrottle.SlidingWindowSketch(2, WINDOW, 3, 1_000, 8_000, true);
+        for (int i = 0; i < 4; i++) {
+            small.recordFailure("vitima", T0);
+        }
+        assertEquals(1_000, small.blockedFor("vitima", T0));
+
+        String atacante = null;
+        for (int i = 0; atacante == null; i++) {
+            assertTrue(i < 1_000, "nenhuma chave colidiu");
+            String candidato = "atacante" + i;
+            if (small.blockedFor(candidato, T0) > 0) {
+                atacante = candidato;
+            }
+        }
+
+        small.recordSuccess(atacante);
+        assertEquals(0, small.blockedFor(atacante, T0));
+        assertEquals(1_000, small.blockedFor("vitima", T0));
+        small.recordFailure("vitima", T0);
+        assertEquals(2_000, small.blockedFor("vitima", T0));
+    }
+
+    @Test
+    void falhasDaJanelaAnteriorPesamProporcionalmenteAoQueFaltaDela() {
+        failures("ana", 3, T0);
+
+        // Metade da janela seguinte: as 3 antigas valem 1,5
+        long half = T0 + WINDOW + WINDOW / 2;
+        sketch.recordFailure("ana", half);
+        assertEquals(0, sketch.blockedFor("ana", half));
+        sketch.recordFailure("ana", half);
+        assertEquals(1_000, sketch.blockedFor("ana", half));
+    }
+
+    @Test
+    void falhasDeDuasJanelasAtrasSaoEsquecidas() {
+        failures("ana", 3, T0);
+
+        long later = T0 + 3 * WINDOW;
+        failures("ana", 3, later);
+        assertEquals(0, sketch.blockedFor("ana", later));
+    }
+
+    private void failures(String key, int count, long now) {
+        for (int i = 0; i < count; i++) {
+            sketch.recordFailure(key, now);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.vitor.demo.security;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vazão de /auth/login com tráfego de leitura simultâneo, com e sem o pool de login.
+ * Executar com: mvn test -Pbenchmark -Dtest=LoginThroughputBenchmark
+ */
+@Tag("benchmark")
+class LoginThroughputBenchmark {
+
+    private static final Duration DURATION = Duration.ofSeconds(10);
+    private static final int USERS = 20;
+    private static final int LOGIN_CLIENTS = Runtime.getRuntime().availableProcessors() * 4;
+    private static final int CRUD_CLIENTS = 8;
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = "security.login.executor.enabled=true")
+    @ActiveProfiles("test")
+    class ComPoolDeLogin {
+
+        @LocalServerPort
+        int port;
+
+        @Test
+        void loginComCrudSimultaneo() throws Exception {
+            run("com pool de login", port);
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = "security.login.executor.enabled=false")
+    @ActiveProfiles("test")
+    class SemPoolDeLogin {
+
+        @LocalServerPort
+        int port;
+
+        @Test
+        void loginComCrudSimultaneo() throws Exception {
+            run("sem pool de login", port);
+        }
+    }
+
+    private static void run(String scenario, int port) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        String base = "http://localhost:" + port;
+        String prefix = "bench" + System.nanoTime() % 100000;
+
+        for (int i = 0; i < USERS; i++) {
+            send(client, post(base + "/user", json(prefix + i, prefix + i + "@teste.com")));
+        }
+        String token = extractToken(send(client, post(base + "/auth/login", login(prefix + 0))).body());
+
+        LongAdder loginOk = new LongAdder();
+        LongAdder loginRejected = new LongAdder();
+        LongAdder crudOk = new LongAdder();
+        List<Long> crudLatencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        ExecutorService pool = Executors.newFixedThreadPool(LOGIN_CLIENTS + CRUD_CLIENTS);
+        for (int i = 0; i < LOGIN_CLIENTS; i++) {
+            pool.submit(() -> {
+                while (running.get()) {
+                    String username = prefix + ThreadLocalRandom.current().nextInt(USERS);
+                    int status = send(client, post(base + "/auth/login", login(username))).statusCode();
+                    if (status == 200) {
+                        loginOk.increment();
+                    } else if (status == 503) {
+                        loginRejected.increment();
+                    }
+                }
+                return null;
+            });
+        }
+        for (int i = 0; i < CRUD_CLIENTS; i++) {
+            pool.submit(() -> {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/disciplina"))
+                        .header("Authorization", "Bearer " + token)
+                        .GET().build();
+                while (running.get()) {
+                    long start = System.nanoTime();
+                    if (send(client, request).statusCode() == 200) {
+                        crudOk.increment();
+                        crudLatencies.add(System.nanoTime() - start);
+                    }
+                }
+                return null;
+            });
+        }
+
+        Thread.sleep(DURATION.toMillis());
+        running.set(false);
+        pool.shutdown();
+        pool.awaitTermination(30, TimeUnit.SECONDS);
+
+        List<Long> latencies = new ArrayList<>(crudLatencies);
+        Collections.sort(latencies);
+        double seconds = DURATION.toMillis() / 1000.0;
+        System.out.printf("[%s] logins/s=%.1f recusados=%d crud/s=%.1f crud p50=%.1fms p99=%.1fms%n",
+                scenario,
+                loginOk.sum() / seconds,
+                loginRejected.sum(),
+                crudOk.sum() / seconds,
+                percentile(latencies, 0.50),
+                percentile(latencies, 0.99));
+
+        assertTrue(loginOk.sum() > 0);
+        assertTrue(crudOk.sum() > 0);
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        return sorted.get((int) Math.min(sorted.size() - 1, Math.floor(sorted.size() * p))) / 1_000_000.0;
+    }
+
+    private static HttpRequest post(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static HttpResponse<String> send(HttpClient client, HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String json(String username, String email) {
+        return "{\"username\":\"" + username + "\",\"password\":\"senha123\",\"email\":\"" + email + "\"}";
+    }
+
+    private static String login(String username) {
+        return "{\"username\":\"" + username + "\",\"password\":\"senha123\"}";
+    }
+
+    private static String extractToken(String body) {
+        int start = body.indexOf("\"token\":\"") + 9;
+        return body.substring(start, body.indexOf('"', start));
+    }
+}
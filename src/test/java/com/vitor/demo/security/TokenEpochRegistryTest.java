@@ -0,0 +1,152 @@
+package com.vitor.demo.security;
+
+import com.vitor.demo.models.DeletedUser;
+import com.vitor.demo.projections.UserEpochProjection;
+import com.vitor.demo.repositories.DeletedUserRepository;
+import com.vitor.demo.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenEpochRegistryTest {
+
+    @Test
+    void atualizacoesConcorrentesNaoSePerdem() throws Exception {
+        TokenEpochRegistry registry = registry(List::of, List::of);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (long userId = 1; userId <= 200; userId++) {
+                long id = userId;
+                futures.add(executor.submit(() -> registry.update(id, 1)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (long userId = 1; userId <= 200; userId++) {
+            assertFalse(registry.isCurrent(userId, 0), "epoch perdido do usuário " + userId);
+            assertTrue(registry.isCurrent(userId, 1));
+        }
+    }
+
+    @Test
+    void recargaMantemRevogacaoFeitaDuranteAConsulta() {
+        AtomicReference<TokenEpochRegistry> holder = new AtomicReference<>();
+        TokenEpochRegistry registry = registry(() -> {
+            // Troca de senha confirmada depois de a consulta ler a tabela
+            holder.get().update(7L, 3);
+            return List.of(epoch(9L, 2, true), epoch(11L, 0, false));
+        }, List::of);
+        holder.set(registry);
+
+        registry.refresh();
+
+        assertFalse(registry.isCurrent(7L, 2));
+        assertTrue(registry.isCurrent(7L, 3));
+        assertFalse(registry.isCurrent(9L, 1));
+        assertFalse(registry.isCurrent(11L, 0));
+        assertTrue(registry.isCurrent(12L, 0));
+    }
+
+    @Test
+    void recargaSemAtualizacaoLocalSegueOBanco() {
+        AtomicReference<List<UserEpochProjection>> rows = new AtomicReference<>(List.of(epoch(5L, 0, false)));
+        TokenEpochRegistry registry = registry(rows::get, List::of);
+
+        registry.refresh();
+        assertFalse(registry.isCurrent(5L, 0));
+
+        // Usuário reativado: a recarga seguinte volta a aceitar os tokens
+        rows.set(List.of());
+        registry.refresh();
+        assertTrue(registry.isCurrent(5L, 0));
+    }
+
+    @Test
+    void exclusaoRegistradaPorOutraInstanciaValeDepoisDaRecarga() {
+        AtomicReference<List<DeletedUser>> rows = new AtomicReference<>(List.of());
+        TokenEpochRegistry registry = registry(List::of, rows::get);
+
+        registry.refresh();
+        assertTrue(registry.isCurrent(4L, 0));
+
+        // Excluído em outra instância (ou antes de um reinício): a linha de users some, a de usuario_excluido fica
+        rows.set(List.of(new DeletedUser(4L, LocalDateTime.now().plusMinutes(10))));
+        registry.refresh();
+        assertFalse(registry.isCurrent(4L, 0));
+        assertFalse(registry.isCurrent(4L, 5));
+        assertTrue(registry.isCurrent(6L, 0));
+    }
+
+    private static TokenEpochRegistry registry(Supplier<List<UserEpochProjection>> revokedEpochs,
+                                               Supplier<List<DeletedUser>> deletedUsers) {
+        UserRepository users = (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findRevokedEpochs")) {
+                        return revokedEpochs.get();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        DeletedUserRepository deleted = (DeletedUserRepository) Proxy.newProxyInstance(DeletedUserRepository.class.getClassLoader(),
+                new Class<?>[]{DeletedUserRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findActive" -> deletedUsers.get();
+                    case "deleteExpired" -> 0;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        return new TokenEpochRegistry(users, deleted, new NoOpTransactionManager(), 60_000);
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+
+    private static UserEpochProjection epoch(Long id, int tokenEpoch, boolean ativo) {
+        return new UserEpochProjection() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getTokenEpoch() {
+                return tokenEpoch;
+            }
+
+            @Override
+            public Boolean getAtivo() {
+                return ativo;
+            }
+        };
+    }
+}
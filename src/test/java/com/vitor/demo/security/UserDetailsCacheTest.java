@@ -0,0 +1,136 @@
+package com.vitor.demo.security;
+
+import com.vitor.demo.dto.UserCreateDTO;
+import com.vitor.demo.dto.UserResponseDTO;
+import com.vitor.demo.dto.UserUpdateDTO;
+import com.vitor.demo.repositories.DeletedUserRepository;
+import com.vitor.demo.repositories.RefreshTokenRepository;
+import com.vitor.demo.repositories.UserRepository;
+import com.vitor.demo.services.AuthService;
+import com.vitor.demo.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Alterações de usuário só chegam ao cache de UserDetails e à tabela de epochs depois do commit:
+ * uma carga concorrente antes dele não deixa o usuário antigo no cache, e um rollback não muda nada.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserDetailsCacheTest {
+
+    private static final UserSpringSecurity ADMIN = new UserSpringSecurity(
+            1L, "admin", null, Set.of(ProfileEnum.ADMIN, ProfileEnum.USER));
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private TokenEpochRegistry tokenEpochRegistry;
+
+    @Autowired
+    private BCryptPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private DeletedUserRepository deletedUserRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UserResponseDTO user;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        // Exclusões direto no repositório não passam pelo UserService
+        userDetailsCache.invalidateAll();
+
+        user = userService.create(new UserCreateDTO("carla", "senha-antiga", "carla@teste.com"));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(ADMIN, null, ADMIN.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void cargaConcorrenteAntesDoCommitNaoFicaNoCache() {
+        loadPassword();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.update(user.getId(), new UserUpdateDTO("carla", "carla@teste.com", "senha-nova"));
+
+            // Outra requisição autenticando antes do commit ainda vê a senha antiga
+            String hash = CompletableFuture.supplyAsync(this::loadPassword).join();
+            assertTrue(passwordEncoder.matches("senha-antiga", hash));
+            assertTrue(tokenEpochRegistry.isCurrent(user.getId(), 0));
+        });
+
+        assertTrue(passwordEncoder.matches("senha-nova", loadPassword()));
+        assertFalse(tokenEpochRegistry.isCurrent(user.getId(), 0));
+        assertTrue(tokenEpochRegistry.isCurrent(user.getId(), 1));
+    }
+
+    @Test
+    void exclusaoDesfeitaMantemUsuarioESessoes() {
+        authService.issueTokens((UserSpringSecurity) userDetailsService.loadUserByUsername("carla"));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.delete(user.getId());
+            status.setRollbackOnly();
+        });
+
+        assertTrue(userRepository.existsById(user.getId()));
+        assertEquals(1, refreshTokenRepository.count());
+        assertFalse(deletedUserRepository.existsById(user.getId()));
+        assertTrue(tokenEpochRegistry.isCurrent(user.getId(), 0));
+        assertTrue(passwordEncoder.matches("senha-antiga", loadPassword()));
+
+        userService.delete(user.getId());
+
+        assertFalse(userRepository.existsById(user.getId()));
+        assertEquals(0, refreshTokenRepository.count());
+        // Outras instâncias leem a exclusão do banco
+        assertTrue(deletedUserRepository.existsById(user.getId()));
+        assertFalse(tokenEpochRegistry.isCurrent(user.getId(), 0));
+    }
+
+    private String loadPassword() {
+        return userDetailsService.loadUserByUsername("carla").getPassword();
+    }
+}
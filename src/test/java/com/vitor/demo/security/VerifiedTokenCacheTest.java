@@ -0,0 +1,130 @@
+package com.vitor.demo.security;
+
+import com.vitor.demo.dto.UserCreateDTO;
+import com.vitor.demo.repositories.RefreshTokenRepository;
+import com.vitor.demo.repositories.UserRepository;
+import com.vitor.demo.services.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Cada token é verificado (HMAC e parse) uma única vez; as requisições seguintes com o mesmo token
+ * são servidas do cache até a expiração dele. Tokens inválidos nunca entram no cache.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class VerifiedTokenCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JWTUtil jwtUtil;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        userDetailsCache.invalidateAll();
+        verifiedTokenCache.clear();
+
+        userService.create(new UserCreateDTO("elisa", "senha-elisa", "elisa@teste.com"));
+        token = jwtUtil.generateToken((UserSpringSecurity) userDetailsService.loadUserByUsername("elisa"));
+    }
+
+    @Test
+    void segundaRequisicaoComOMesmoTokenNaoVerificaDeNovo() throws Exception {
+        long hits = verifiedTokenCache.getHits();
+        long misses = verifiedTokenCache.getMisses();
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/disciplina").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                    .andExpect(status().isOk());
+        }
+
+        assertEquals(1, verifiedTokenCache.getMisses() - misses);
+        assertEquals(2, verifiedTokenCache.getHits() - hits);
+        assertEquals(1, verifiedTokenCache.size());
+        assertSame(jwtUtil.parseToken(token), jwtUtil.parseToken(token));
+    }
+
+    @Test
+    void tokenAdulteradoNaoEntraNoCache() throws Exception {
+        String[] parts = token.split("\\.");
+        String adulterado = parts[0] + "." + parts[1] + "." + new StringBuilder(parts[2]).reverse();
+
+        assertNull(jwtUtil.parseToken(adulterado));
+        assertNull(jwtUtil.parseToken("nao-e-um-jwt"));
+        assertEquals(0, verifiedTokenCache.size());
+
+        mockMvc.perform(get("/disciplina").header(HttpHeaders.AUTHORIZATION, "Bearer " + adulterado))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void entradaExpiradaContaComoMissESaiDoCache() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("expirado", claims(System.currentTimeMillis() - 1));
+        cache.put("valido", claims(System.currentTimeMillis() + 60_000));
+
+        assertNull(cache.get("expirado"));
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.size());
+        assertEquals("elisa", cache.get("valido").getUsername());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void cacheCheioDescartaEntradasEDesligadoNaoGuardaNada() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        for (int i = 0; i < 25; i++) {
+            cache.put("token-" + i, claims(System.currentTimeMillis() + 60_000));
+            assertTrue(cache.size() <= 10, "tamanho " + cache.size());
+        }
+        assertEquals("elisa", cache.get("token-24").getUsername());
+
+        VerifiedTokenCache desligado = new VerifiedTokenCache(0);
+        desligado.put("token", claims(System.currentTimeMillis() + 60_000));
+        assertNull(desligado.get("token"));
+        assertEquals(0, desligado.size());
+    }
+
+    private static JWTClaims claims(long expiresAt) {
+        return new JWTClaims("jti", "elisa", 1L, ProfileEnum.USER.getMask(), 0, expiresAt);
+    }
+}
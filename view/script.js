@@ -23,13 +23,14 @@ const contadorRegistros = document.getElementById('contador-registros');
 let entidadeAtual = '';
 let dadosCarregados = [];
 let currentToken = localStorage.getItem('jwtToken');
+let currentRefreshToken = localStorage.getItem('refreshToken');
 let currentUserData = JSON.parse(localStorage.getItem('userData') || '{}');
 
 // ========== SISTEMA DE AUTENTICAÇÃO ==========
 
 // Verificar se usuário já está logado ao carregar a página
 document.addEventListener('DOMContentLoaded', function() {
-    if (currentToken && isTokenValid(currentToken)) {
+    if (currentToken && (isTokenValid(currentToken) || currentRefreshToken)) {
         showMainContent();
     } else {
         showLoginSection();
@@ -65,6 +66,7 @@ async function login(username, password) {
         if (response.ok) {
             // Login bem-sucedido
             currentToken = data.token;
+            currentRefreshToken = data.refreshToken;
             currentUserData = {
                 username: data.username,
                 userId: data.userId
@@ -72,6 +74,7 @@ async function login(username, password) {
             
             // Salvar no localStorage
             localStorage.setItem('jwtToken', currentToken);
+            localStorage.setItem('refreshToken', currentRefreshToken);
             localStorage.setItem('userData', JSON.stringify(currentUserData));
             
             showMainContent();
@@ -89,6 +92,16 @@ async function login(username, password) {
 
 function logout() {
     if (confirm('Deseja realmente sair?')) {
+        // Revoga o access token e o refresh token no servidor (falha não impede o logout local)
+        fetch(`${API_BASE_URL}/auth/logout`, {
+            method: 'POST',
+            headers: {
+                'Content-Type': 'application/json',
+                'Authorization': `Bearer ${currentToken}`
+            },
+            body: JSON.stringify({ refreshToken: currentRefreshToken })
+        }).catch(() => {});
+
         clearAuthData();
         showLoginSection();
         showSuccess('Logout realizado com sucesso!');
@@ -97,8 +110,10 @@ function logout() {
 
 function clearAuthData() {
     currentToken = null;
+    currentRefreshToken = null;
     currentUserData = {};
     localStorage.removeItem('jwtToken');
+    localStorage.removeItem('refreshToken');
     localStorage.removeItem('userData');
     loginForm.reset();
 }
@@ -147,6 +162,33 @@ function isTokenValid(token) {
     }
 }
 
+// Renova o access token (curta duração) com o refresh token antes de chamar a API
+async function ensureValidToken() {
+    if (!currentToken || isTokenValid(currentToken) || !currentRefreshToken) {
+        return;
+    }
+
+    try {
+        const response = await fetch(`${API_BASE_URL}/auth/refresh`, {
+            method: 'POST',
+            headers: {
+                'Content-Type': 'application/json'
+            },
+            body: JSON.stringify({ refreshToken: currentRefreshToken })
+        });
+
+        if (response.ok) {
+            const data = await response.json();
+            currentToken = data.token;
+            currentRefreshToken = data.refreshToken;
+            localStorage.setItem('jwtToken', currentToken);
+            localStorage.setItem('refreshToken', currentRefreshToken);
+        }
+    } catch (error) {
+        console.error('Erro ao renovar token:', error);
+    }
+}
+
 function showRegisterForm() {
     alert('Para se cadastrar, use o endpoint POST /user com os dados: username, password, email');
 }
@@ -157,6 +199,7 @@ async function fetchAPI(endpoint) {
     try {
         mostrarLoading(true);
         esconderMensagens();
+        await ensureValidToken();
 
         const headers = {
             'Content-Type': 'application/json'
@@ -198,10 +241,17 @@ async function fetchAPI(endpoint) {
     }
 }
 
+// Listagens da API são paginadas por cursor: devolve os itens da primeira página
+async function fetchListAPI(endpoint, limit = 500) {
+    const page = await fetchAPI(`${endpoint}?limit=${limit}`);
+    return page ? page.items : null;
+}
+
 async function postAPI(endpoint, data) {
     try {
         mostrarLoading(true);
         esconderMensagens();
+        await ensureValidToken();
 
         const headers = {
             'Content-Type': 'application/json'
@@ -246,6 +296,7 @@ async function putAPI(endpoint, data) {
     try {
         mostrarLoading(true);
         esconderMensagens();
+        await ensureValidToken();
 
         const headers = {
             'Content-Type': 'application/json'
@@ -288,6 +339,7 @@ async function deleteAPI(endpoint) {
     try {
         mostrarLoading(true);
         esconderMensagens();
+        await ensureValidToken();
 
         const headers = {};
 
@@ -333,7 +385,7 @@ async function carregarAlunos() {
 
     entidadeAtual = 'aluno';
     tituloTabela.textContent = 'Lista de Alunos';
-    const alunos = await fetchAPI('/aluno');
+    const alunos = await fetchListAPI('/aluno');
     
     if (alunos) {
         dadosCarregados = alunos;
@@ -349,7 +401,7 @@ async function carregarProfessores() {
 
     entidadeAtual = 'professor';
     tituloTabela.textContent = 'Lista de Professores';
-    const professores = await fetchAPI('/professor');
+    const professores = await fetchListAPI('/professor');
     
     if (professores) {
         dadosCarregados = professores;
@@ -365,7 +417,7 @@ async function carregarDisciplinas() {
 
     entidadeAtual = 'disciplina';
     tituloTabela.textContent = 'Lista de Disciplinas';
-    const disciplinas = await fetchAPI('/disciplina');
+    const disciplinas = await fetchListAPI('/disciplina');
     
     if (disciplinas) {
         dadosCarregados = disciplinas;
@@ -381,7 +433,7 @@ async function carregarTurmas() {
 
     entidadeAtual = 'turma';
     tituloTabela.textContent = 'Lista de Turmas';
-    const turmas = await fetchAPI('/turma');
+    const turmas = await fetchListAPI('/turma');
     
     if (turmas) {
         dadosCarregados = turmas;
@@ -397,7 +449,7 @@ async function carregarNotas() {
 
     entidadeAtual = 'nota';
     tituloTabela.textContent = 'Lista de Notas';
-    const notas = await fetchAPI('/nota');
+    const notas = await fetchListAPI('/nota');
     
     if (notas) {
         dadosCarregados = notas;
@@ -413,7 +465,7 @@ async function carregarMatriculas() {
 
     entidadeAtual = 'matricula';
     tituloTabela.textContent = 'Lista de Matrículas';
-    const matriculas = await fetchAPI('/turmaaluno');
+    const matriculas = await fetchListAPI('/turmaaluno');
     
     if (matriculas) {
         dadosCarregados = matriculas;